@@ -0,0 +1,82 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyAccumulator;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Суммирование счета: цепочка {@link Money#add(Money)} против {@link MoneyAccumulator}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccumulatorBenchmark {
+    private static final int LINES = 1000;
+
+    private final Money[] prices = new Money[LINES];
+    private final Quantity[] quantities = new Quantity[LINES];
+    private final MoneyAccumulator accumulator = new MoneyAccumulator();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < LINES; i++) {
+            prices[i] = new Money(BigDecimal.valueOf(random.nextInt(1000000), 2));
+            quantities[i] = new Quantity(BigDecimal.valueOf(random.nextInt(100000), 3));
+        }
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money total = Money.ZERO;
+        for (Money price : prices) {
+            total = total.add(price);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumAccumulator() {
+        accumulator.reset();
+        for (Money price : prices) {
+            accumulator.add(price);
+        }
+        return accumulator.toMoney();
+    }
+
+    @Benchmark
+    public Money productsMoney() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            total = total.add(prices[i].multiply(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money productsAccumulator() {
+        accumulator.reset();
+        for (int i = 0; i < LINES; i++) {
+            accumulator.addProduct(prices[i], quantities[i]);
+        }
+        return accumulator.toMoney();
+    }
+}
@@ -0,0 +1,54 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.AtomicMoney;
+import krsktilos.math.Money;
+import krsktilos.math.MoneyAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общая сумма, пополняемая из нескольких потоков:
+ * {@code synchronized} вокруг {@link Money#add(Money)} против {@link AtomicMoney} и {@link MoneyAdder}.
+ * @author krsktilos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ContentionBenchmark {
+    private final Money amount = new Money(12.34);
+    private final Object lock = new Object();
+    private final AtomicMoney atomic = new AtomicMoney();
+    private final MoneyAdder adder = new MoneyAdder();
+    private Money total = Money.ZERO;
+
+    @Benchmark
+    public void synchronizedAdd() {
+        synchronized (lock) {
+            total = total.add(amount);
+        }
+    }
+
+    @Benchmark
+    public void atomicAdd() {
+        atomic.add(amount);
+    }
+
+    @Benchmark
+    public void adderAdd() {
+        adder.add(amount);
+    }
+}
@@ -0,0 +1,81 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.CurrencyConverter;
+import krsktilos.math.CurrencyMoney;
+import krsktilos.math.InMemoryRateProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пересчет 1000 сумм из USD в EUR: {@link BigDecimal} против {@link CurrencyConverter}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+    private static final int SIZE = 1000;
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final BigDecimal RATE = new BigDecimal("0.9215");
+
+    private final BigDecimal[] values = new BigDecimal[SIZE];
+    private final CurrencyMoney[] amounts = new CurrencyMoney[SIZE];
+    private final long[] units = new long[SIZE];
+    private final CurrencyConverter converter = new CurrencyConverter(new InMemoryRateProvider().setRate(USD, EUR, RATE));
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SIZE; i++) {
+            units[i] = random.nextInt(10000000);
+            values[i] = BigDecimal.valueOf(units[i], 2);
+            amounts[i] = CurrencyMoney.ofUnits(units[i], USD);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] bigDecimal() {
+        BigDecimal[] result = new BigDecimal[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = values[i].multiply(RATE).setScale(2, RoundingMode.HALF_UP);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CurrencyMoney[] convert() {
+        CurrencyMoney[] result = new CurrencyMoney[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = converter.convert(amounts[i], EUR);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CurrencyMoney[] convertArray() {
+        return converter.convert(amounts, EUR);
+    }
+
+    @Benchmark
+    public long[] convertUnits() {
+        return converter.convertUnits(units, USD, EUR);
+    }
+}
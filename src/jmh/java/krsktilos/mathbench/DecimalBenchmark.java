@@ -0,0 +1,90 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Decimal;
+import krsktilos.math.DecimalPolicy.BankersCents;
+import krsktilos.math.DecimalPolicy.Cents;
+import krsktilos.math.DecimalPolicy.UnitPrice;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции {@link Decimal} разных политик против {@link Money} и {@link BigDecimal}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalBenchmark {
+    private Money money = new Money(10500.45);
+    private Money otherMoney = new Money(24.04);
+    private Quantity quantity = new Quantity(1.5);
+
+    private Decimal<Cents> cents = Decimal.of(money, Cents.INSTANCE);
+    private Decimal<Cents> otherCents = Decimal.of(otherMoney, Cents.INSTANCE);
+    private Decimal<BankersCents> bankersCents = Decimal.of(money, BankersCents.INSTANCE);
+    private Decimal<UnitPrice> unitPrice = Decimal.of("10500.4567", UnitPrice.INSTANCE);
+
+    private BigDecimal decimal = new BigDecimal("10500.4567");
+    private BigDecimal decimalQuantity = new BigDecimal("1.500");
+
+    @Benchmark
+    public Money moneyAdd() {
+        return money.add(otherMoney);
+    }
+
+    @Benchmark
+    public Decimal<Cents> centsAdd() {
+        return cents.add(otherCents);
+    }
+
+    @Benchmark
+    public Money moneyMultiply() {
+        return money.multiply(quantity);
+    }
+
+    @Benchmark
+    public Decimal<Cents> centsMultiply() {
+        return cents.multiply(quantity);
+    }
+
+    @Benchmark
+    public Decimal<BankersCents> bankersCentsMultiply() {
+        return bankersCents.multiply(quantity);
+    }
+
+    @Benchmark
+    public Decimal<UnitPrice> unitPriceMultiply() {
+        return unitPrice.multiply(quantity);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalMultiply() {
+        return decimal.multiply(decimalQuantity).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Decimal<UnitPrice> unitPriceDivide() {
+        return unitPrice.divide(quantity);
+    }
+
+    @Benchmark
+    public boolean centsCompare() {
+        return cents.gt(otherCents);
+    }
+}
@@ -0,0 +1,76 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyExpr;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Строка счета {@code price * quantity + tax - discount}: цепочка методов {@link Money} против {@link MoneyExpr}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    private static final int LINES = 1000;
+
+    private final Money[] prices = new Money[LINES];
+    private final Quantity[] quantities = new Quantity[LINES];
+    private final long[] priceUnits = new long[LINES];
+    private final long[] quantityUnits = new long[LINES];
+    private final Money tax = new Money(1.5);
+    private final Money discount = new Money(0.25);
+    private final MoneyExpr line = MoneyExpr.money(0).multiply(MoneyExpr.quantity(1)).add(tax).subtract(discount);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < LINES; i++) {
+            priceUnits[i] = random.nextInt(1000000);
+            quantityUnits[i] = random.nextInt(100000);
+            prices[i] = new Money(BigDecimal.valueOf(priceUnits[i], 2));
+            quantities[i] = new Quantity(BigDecimal.valueOf(quantityUnits[i], 3));
+        }
+    }
+
+    @Benchmark
+    public Money[] chain() {
+        Money[] result = new Money[LINES];
+        for (int i = 0; i < LINES; i++) {
+            result[i] = prices[i].multiply(quantities[i]).add(tax).subtract(discount);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Money[] expression() {
+        Money[] result = new Money[LINES];
+        for (int i = 0; i < LINES; i++) {
+            result[i] = line.toMoney(priceUnits[i], quantityUnits[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public MoneyVector expressionBatch() {
+        return line.toMoneyVector(priceUnits, quantityUnits);
+    }
+}
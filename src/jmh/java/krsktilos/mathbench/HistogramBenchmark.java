@@ -0,0 +1,60 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyHistogram;
+import krsktilos.math.MoneySort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 99-й перцентиль 100000 сумм: {@link MoneyHistogram} против выбора по сохраненному массиву.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistogramBenchmark {
+    private static final int SIZE = 100000;
+
+    private final Money[] amounts = new Money[SIZE];
+    private final MoneyHistogram histogram = new MoneyHistogram(new Money(10000000), 3);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SIZE; i++) {
+            amounts[i] = new Money(BigDecimal.valueOf((long) Math.exp(random.nextDouble() * 20), 2));
+        }
+    }
+
+    @Benchmark
+    public Money recordAndQuery() {
+        histogram.reset();
+        for (Money amount : amounts) {
+            histogram.record(amount);
+        }
+        return histogram.getValueAtPercentile(99);
+    }
+
+    @Benchmark
+    public Money collectAndSelect() {
+        Money[] values = new Money[SIZE];
+        System.arraycopy(amounts, 0, values, 0, SIZE);
+        return MoneySort.percentile(values, 99);
+    }
+}
@@ -0,0 +1,86 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.InvoiceBatch;
+import krsktilos.math.InvoicePipeline;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Расчет 10000 строк счетов: цепочка вызовов {@link Money} против {@link InvoicePipeline}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceBenchmark {
+    private static final int LINES = 10000;
+
+    private final int[] invoices = new int[LINES];
+    private final Money[] prices = new Money[LINES];
+    private final Quantity[] quantities = new Quantity[LINES];
+    private final Quantity[] discounts = new Quantity[LINES];
+    private final Quantity[] taxes = new Quantity[LINES];
+    private final InvoiceBatch batch = new InvoiceBatch(LINES);
+    private final InvoicePipeline sequential = new InvoicePipeline(InvoicePipeline.DEFAULT_CHUNK_SIZE, false);
+    private final InvoicePipeline parallel = new InvoicePipeline();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < LINES; i++) {
+            invoices[i] = i / 8;
+            prices[i] = Money.ofUnits(random.nextInt(1000000));
+            quantities[i] = Quantity.ofUnits(random.nextInt(100000));
+            discounts[i] = Quantity.ofUnits(random.nextInt(50000));
+            taxes[i] = Quantity.ofUnits(20000);
+        }
+    }
+
+    @Benchmark
+    public Money moneyChain() {
+        Money grandTotal = Money.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            Money amount = prices[i].multiply(quantities[i]);
+            Money discount = amount.multiply(discounts[i]).divide(Money.HUNDRED);
+            Money net = amount.subtract(discount);
+            Money tax = net.multiply(taxes[i]).divide(Money.HUNDRED);
+            grandTotal = grandTotal.add(net.add(tax));
+        }
+        return grandTotal;
+    }
+
+    @Benchmark
+    public Money pipeline() {
+        return process(sequential);
+    }
+
+    @Benchmark
+    public Money pipelineParallel() {
+        return process(parallel);
+    }
+
+    private Money process(InvoicePipeline pipeline) {
+        batch.clear();
+        for (int i = 0; i < LINES; i++) {
+            batch.addLine(invoices[i], prices[i], quantities[i], discounts[i], taxes[i]);
+        }
+        pipeline.process(batch);
+        return batch.getGrandTotal();
+    }
+}
@@ -0,0 +1,48 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость учета {@link krsktilos.math.Metrics}: одна и та же операция в JVM с выключенным
+ * и включенным учетом.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private final Money price = new Money("123.45");
+    private final Quantity quantity = new Quantity("2.5");
+
+    @Benchmark
+    public Money multiplyDisabled() {
+        return price.multiply(quantity);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dkrsktilos.math.metrics=true")
+    public Money multiplyEnabled() {
+        return price.multiply(quantity);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dkrsktilos.math.metrics=true", "-Dkrsktilos.math.metrics.sampleRate=1"})
+    public Money multiplyEnabledSampleAll() {
+        return price.multiply(quantity);
+    }
+}
@@ -0,0 +1,240 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки всех публичных операций {@link Money}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private BigDecimal decimal = new BigDecimal("10500.459");
+    private String string = "10500.459";
+    private float floatValue = 10500.459f;
+    private double doubleValue = 10500.459;
+    private int intValue = 10500;
+    private long longValue = 10500L;
+    private long units = 1050046L;
+
+    private Money money = new Money(10500.45);
+    private Money other = new Money(24.04);
+    private Money equal = new Money(10500.45);
+    private Quantity quantity = new Quantity(1.5);
+    private Quantity[] ratios = {new Quantity(0.2), new Quantity(0.3), new Quantity(0.5), new Quantity(1)};
+    private StringBuilder builder = new StringBuilder();
+    private Object object = new Money(10500.45);
+    private Money.Checked checked = Money.checked(Money.ZERO, Money.MAX, Money.Overflow.THROW);
+
+    @Benchmark
+    public Money constructorBigDecimal() {
+        return new Money(decimal);
+    }
+
+    @Benchmark
+    public Money constructorMoney() {
+        return new Money(money);
+    }
+
+    @Benchmark
+    public Money constructorString() {
+        return new Money(string);
+    }
+
+    @Benchmark
+    public Money constructorFloat() {
+        return new Money(floatValue);
+    }
+
+    @Benchmark
+    public Money constructorDouble() {
+        return new Money(doubleValue);
+    }
+
+    @Benchmark
+    public Money constructorInt() {
+        return new Money(intValue);
+    }
+
+    @Benchmark
+    public Money constructorLong() {
+        return new Money(longValue);
+    }
+
+    @Benchmark
+    public Money ofUnits() {
+        return Money.ofUnits(units);
+    }
+
+    @Benchmark
+    public Money ofLong() {
+        return Money.of(longValue);
+    }
+
+    @Benchmark
+    public Money ofString() {
+        return Money.of(string);
+    }
+
+    @Benchmark
+    public Money parse() {
+        return Money.parse(string);
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return money.eq(other);
+    }
+
+    @Benchmark
+    public boolean gt() {
+        return money.gt(other);
+    }
+
+    @Benchmark
+    public boolean ge() {
+        return money.ge(other);
+    }
+
+    @Benchmark
+    public boolean lt() {
+        return money.lt(other);
+    }
+
+    @Benchmark
+    public boolean le() {
+        return money.le(other);
+    }
+
+    @Benchmark
+    public Money addMoney() {
+        return money.add(other);
+    }
+
+    @Benchmark
+    public Money addQuantity() {
+        return money.add(quantity);
+    }
+
+    @Benchmark
+    public Money subtractMoney() {
+        return money.subtract(other);
+    }
+
+    @Benchmark
+    public Money subtractQuantity() {
+        return money.subtract(quantity);
+    }
+
+    @Benchmark
+    public Money multiplyMoney() {
+        return money.multiply(other);
+    }
+
+    @Benchmark
+    public Money multiplyQuantity() {
+        return money.multiply(quantity);
+    }
+
+    @Benchmark
+    public Money divideMoney() {
+        return money.divide(other);
+    }
+
+    @Benchmark
+    public Money divideQuantity() {
+        return money.divide(quantity);
+    }
+
+    @Benchmark
+    public Money addGuarded() {
+        Money result = money.add(other);
+        if (result.lt(Money.ZERO) || result.gt(Money.MAX)) {
+            throw new ArithmeticException();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Money addChecked() {
+        return checked.add(money, other);
+    }
+
+    @Benchmark
+    public Money multiplyChecked() {
+        return checked.multiply(money, quantity);
+    }
+
+    @Benchmark
+    public BigDecimal getValue() {
+        return money.getValue();
+    }
+
+    @Benchmark
+    public boolean isZero() {
+        return money.isZero();
+    }
+
+    @Benchmark
+    public boolean isNotZero() {
+        return money.isNotZero();
+    }
+
+    @Benchmark
+    public Money getInt() {
+        return money.getInt();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return money.equals(equal);
+    }
+
+    @Benchmark
+    public boolean equalsObject() {
+        return money.equals(object);
+    }
+
+    @Benchmark
+    public int hashCodeMoney() {
+        return money.hashCode();
+    }
+
+    @Benchmark
+    public Money[] allocate() {
+        return money.allocate(7);
+    }
+
+    @Benchmark
+    public Money[] allocateRatios() {
+        return money.allocate(ratios);
+    }
+
+    @Benchmark
+    public String toStringMoney() {
+        return money.toString();
+    }
+
+    @Benchmark
+    public StringBuilder formatTo() {
+        builder.setLength(0);
+        return money.formatTo(builder);
+    }
+}
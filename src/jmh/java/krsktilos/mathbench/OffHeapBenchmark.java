@@ -0,0 +1,107 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyMath;
+import krsktilos.math.OffHeapMoneyStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Миллион сумм в {@code Money[]} и в {@link OffHeapMoneyStore}: длительность полной сборки мусора
+ * при таком живом наборе ({@code fullGc}) и агрегирование. Занятая данными куча и память вне кучи
+ * выводятся дополнительными счетчиками {@code heapMiB} и {@code offHeapMiB} у {@code fullGc}.
+ * Выделение памяти при чтении видно с профилировщиком {@code -prof gc}.
+ * @author krsktilos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OffHeapBenchmark {
+    @Param({"heap", "offHeap"})
+    public String storage;
+
+    @Param("1000000")
+    public int size;
+
+    private Money[] array;
+    private OffHeapMoneyStore store;
+    private long heapBytes;
+
+    /**
+     * Память, занятая данными.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long heapMiB;
+        public long offHeapMiB;
+    }
+
+    @Setup
+    public void setUp() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        Random random = new Random(1);
+        if (storage.equals("heap")) {
+            array = new Money[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = new Money(BigDecimal.valueOf(random.nextInt(100000000), 2));
+            }
+        } else {
+            store = new OffHeapMoneyStore(size);
+            for (int i = 0; i < size; i++) {
+                store.appendUnits(random.nextInt(100000000));
+            }
+        }
+        System.gc();
+        heapBytes = memory.getHeapMemoryUsage().getUsed() - before;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Benchmark
+    public Object fullGc(Footprint footprint) {
+        System.gc();
+        footprint.heapMiB = heapBytes >> 20;
+        footprint.offHeapMiB = store == null ? 0 : store.memoryBytes() >> 20;
+        return array != null ? array : store;
+    }
+
+    @Benchmark
+    public Money sum() {
+        return array != null ? MoneyMath.sum(array) : store.sum();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Money lookup() {
+        int index = size >>> 1;
+        return array != null ? array[index] : store.get(index);
+    }
+}
@@ -0,0 +1,95 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Индекс ценовых уровней: {@link HashMap} с ключами {@link Money} против {@link MoneyIntMap}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceIndexBenchmark {
+    private static final int LEVELS = 10000;
+    private static final int ORDERS = 1000;
+
+    private final Money[] prices = new Money[ORDERS];
+    private final Map<Money, Integer> map = new HashMap<>();
+    private final MoneyIntMap intMap = new MoneyIntMap(LEVELS, 0);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < LEVELS; i++) {
+            Money price = Money.ofUnits(100000 + i * 5L);
+            map.put(price, i);
+            intMap.put(price, i);
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            prices[i] = new Money(BigDecimal.valueOf(100000 + random.nextInt(LEVELS * 2) * 5L, 2));
+        }
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        int result = 0;
+        for (Money price : prices) {
+            result += price.hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int hashMapGet() {
+        int result = 0;
+        for (Money price : prices) {
+            result += map.getOrDefault(price, 0);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int intMapGet() {
+        int result = 0;
+        for (Money price : prices) {
+            result += intMap.get(price);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int hashMapCount() {
+        for (Money price : prices) {
+            map.merge(price, 1, Integer::sum);
+        }
+        return map.size();
+    }
+
+    @Benchmark
+    public int intMapCount() {
+        for (Money price : prices) {
+            intMap.addTo(price, 1);
+        }
+        return intMap.size();
+    }
+}
@@ -0,0 +1,99 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneySkipListMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ценовая лестница: {@link TreeMap} с ключами {@link Money} против {@link MoneySkipListMap}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceLadderBenchmark {
+    private static final int LEVELS = 1000000;
+    private static final int PROBES = 1000;
+
+    private final Money[] probes = new Money[PROBES];
+    private final long[] probeUnits = new long[PROBES];
+    private final TreeMap<Money, Integer> treeMap = new TreeMap<>((a, b) -> a.getValue().compareTo(b.getValue()));
+    private final MoneySkipListMap<Integer> skipList = new MoneySkipListMap<>();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        Integer level = 1;
+        for (int i = 0; i < LEVELS; i++) {
+            Money price = new Money(BigDecimal.valueOf(i * 10L, 2));
+            treeMap.put(price, level);
+            skipList.put(price, level);
+        }
+        for (int i = 0; i < PROBES; i++) {
+            probeUnits[i] = random.nextInt(LEVELS * 10);
+            probes[i] = new Money(BigDecimal.valueOf(probeUnits[i], 2));
+        }
+    }
+
+    @Benchmark
+    public int treeMapFloor() {
+        int result = 0;
+        for (Money probe : probes) {
+            result += treeMap.floorKey(probe).hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int skipListFloor() {
+        int result = 0;
+        for (Money probe : probes) {
+            result += skipList.floorKey(probe).hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long skipListFloorUnits() {
+        long result = 0;
+        for (long probe : probeUnits) {
+            result += skipList.floorUnits(probe);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int treeMapUpdate() {
+        for (Money probe : probes) {
+            treeMap.put(probe, 2);
+            treeMap.remove(probe);
+        }
+        return treeMap.size();
+    }
+
+    @Benchmark
+    public int skipListUpdate() {
+        for (Money probe : probes) {
+            skipList.put(probe, 2);
+            skipList.remove(probe);
+        }
+        return skipList.size();
+    }
+}
@@ -0,0 +1,204 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Quantity;
+import krsktilos.math.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки всех публичных операций {@link Quantity}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantityBenchmark {
+    private BigDecimal decimal = new BigDecimal("10.5559");
+    private String string = "10.5559";
+    private float floatValue = 10.5559f;
+    private double doubleValue = 10.5559;
+    private int intValue = 10;
+    private long longValue = 10L;
+    private long units = 10556L;
+
+    private Quantity quantity = new Quantity(10.555);
+    private Quantity other = new Quantity(1.001);
+    private Quantity equal = new Quantity(10.555);
+    private Money money = new Money(1.5);
+    private StringBuilder builder = new StringBuilder();
+    private Object object = new Quantity(10.555);
+
+    @Benchmark
+    public Quantity constructorBigDecimal() {
+        return new Quantity(decimal);
+    }
+
+    @Benchmark
+    public Quantity constructorString() {
+        return new Quantity(string);
+    }
+
+    @Benchmark
+    public Quantity constructorFloat() {
+        return new Quantity(floatValue);
+    }
+
+    @Benchmark
+    public Quantity constructorDouble() {
+        return new Quantity(doubleValue);
+    }
+
+    @Benchmark
+    public Quantity constructorInt() {
+        return new Quantity(intValue);
+    }
+
+    @Benchmark
+    public Quantity constructorLong() {
+        return new Quantity(longValue);
+    }
+
+    @Benchmark
+    public Quantity ofUnits() {
+        return Quantity.ofUnits(units);
+    }
+
+    @Benchmark
+    public Quantity ofLong() {
+        return Quantity.of(longValue);
+    }
+
+    @Benchmark
+    public Quantity ofString() {
+        return Quantity.of(string);
+    }
+
+    @Benchmark
+    public Quantity parse() {
+        return Quantity.parse(string);
+    }
+
+    @Benchmark
+    public boolean eq() {
+        return quantity.eq(other);
+    }
+
+    @Benchmark
+    public boolean gt() {
+        return quantity.gt(other);
+    }
+
+    @Benchmark
+    public boolean ge() {
+        return quantity.ge(other);
+    }
+
+    @Benchmark
+    public boolean lt() {
+        return quantity.lt(other);
+    }
+
+    @Benchmark
+    public boolean le() {
+        return quantity.le(other);
+    }
+
+    @Benchmark
+    public Quantity addQuantity() {
+        return quantity.add(other);
+    }
+
+    @Benchmark
+    public Quantity addMoney() {
+        return quantity.add(money);
+    }
+
+    @Benchmark
+    public Quantity subtractQuantity() {
+        return quantity.subtract(other);
+    }
+
+    @Benchmark
+    public Quantity subtractMoney() {
+        return quantity.subtract(money);
+    }
+
+    @Benchmark
+    public Quantity multiplyQuantity() {
+        return quantity.multiply(other);
+    }
+
+    @Benchmark
+    public Quantity multiplyMoney() {
+        return quantity.multiply(money);
+    }
+
+    @Benchmark
+    public Quantity divideQuantity() {
+        return quantity.divide(other);
+    }
+
+    @Benchmark
+    public Quantity divideMoney() {
+        return quantity.divide(money);
+    }
+
+    @Benchmark
+    public BigDecimal getValue() {
+        return quantity.getValue();
+    }
+
+    @Benchmark
+    public boolean isZero() {
+        return quantity.isZero();
+    }
+
+    @Benchmark
+    public boolean isNotZero() {
+        return quantity.isNotZero();
+    }
+
+    @Benchmark
+    public Quantity getInt() {
+        return quantity.getInt();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return quantity.equals(equal);
+    }
+
+    @Benchmark
+    public boolean equalsObject() {
+        return quantity.equals(object);
+    }
+
+    @Benchmark
+    public int hashCodeQuantity() {
+        return quantity.hashCode();
+    }
+
+    @Benchmark
+    public String toStringQuantity() {
+        return quantity.toString();
+    }
+
+    @Benchmark
+    public StringBuilder formatTo() {
+        builder.setLength(0);
+        return quantity.formatTo(builder);
+    }
+}
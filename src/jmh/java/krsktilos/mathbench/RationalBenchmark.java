@@ -0,0 +1,76 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import krsktilos.math.RationalQuantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пересчет 1000 количеств цепочкой коэффициентов (упаковки - штуки - граммы - килограммы):
+ * последовательные {@link Quantity#divide(Quantity)} против одного {@link RationalQuantity}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RationalBenchmark {
+    private static final int SIZE = 1000;
+
+    private final Quantity piecesPerPack = new Quantity(12);
+    private final Quantity gramsPerPiece = new Quantity("37.5");
+    private final Quantity gramsPerKg = new Quantity(1000);
+    private final Quantity[] packs = new Quantity[SIZE];
+    private QuantityVector packVector;
+    private RationalQuantity factor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SIZE; i++) {
+            packs[i] = Quantity.ofUnits(random.nextInt(1000000));
+        }
+        packVector = QuantityVector.of(packs);
+        factor = RationalQuantity.of(piecesPerPack).multiply(RationalQuantity.of(gramsPerPiece))
+                .divide(RationalQuantity.of(gramsPerKg));
+    }
+
+    @Benchmark
+    public Quantity[] divideChain() {
+        Quantity[] result = new Quantity[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = packs[i].multiply(piecesPerPack).multiply(gramsPerPiece).divide(gramsPerKg);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Quantity[] rationalFactor() {
+        return factor.applyTo(packs);
+    }
+
+    @Benchmark
+    public QuantityVector rationalVector() {
+        return factor.applyTo(packVector);
+    }
+
+    @Benchmark
+    public RationalQuantity buildFactor() {
+        return RationalQuantity.of(piecesPerPack).multiply(RationalQuantity.of(gramsPerPiece))
+                .divide(RationalQuantity.of(gramsPerKg));
+    }
+}
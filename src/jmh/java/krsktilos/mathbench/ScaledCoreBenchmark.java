@@ -0,0 +1,106 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общее ядро {@link Money} и {@link Quantity}: операции обеих величин через одни и те же
+ * вызовы ядра, операции разных масштабов, переход на {@link BigDecimal} при переполнении
+ * и та же арифметика на {@link BigDecimal} для сравнения.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScaledCoreBenchmark {
+    private Money money = new Money(10500.45);
+    private Money otherMoney = new Money(24.04);
+    private Money largeMoney = Money.ofUnits(Long.MAX_VALUE);
+    private Quantity quantity = new Quantity(1.5);
+    private Quantity otherQuantity = new Quantity(24.043);
+
+    private BigDecimal decimal = new BigDecimal("10500.45");
+    private BigDecimal otherDecimal = new BigDecimal("24.04");
+    private BigDecimal decimalQuantity = new BigDecimal("1.500");
+
+    @Benchmark
+    public Money moneyAdd() {
+        return money.add(otherMoney);
+    }
+
+    @Benchmark
+    public Quantity quantityAdd() {
+        return quantity.add(otherQuantity);
+    }
+
+    @Benchmark
+    public Money mixedAdd() {
+        return money.add(otherQuantity);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAdd() {
+        return decimal.add(otherDecimal).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money moneyMultiply() {
+        return money.multiply(quantity);
+    }
+
+    @Benchmark
+    public Quantity quantityMultiply() {
+        return quantity.multiply(otherQuantity);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalMultiply() {
+        return decimal.multiply(decimalQuantity).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money moneyDivide() {
+        return money.divide(quantity);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDivide() {
+        return decimal.divide(decimalQuantity, 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public Money overflowAdd() {
+        return largeMoney.add(otherMoney);
+    }
+
+    @Benchmark
+    public boolean moneyCompare() {
+        return money.gt(otherMoney);
+    }
+
+    @Benchmark
+    public boolean quantityCompare() {
+        return quantity.gt(otherQuantity);
+    }
+
+    @Benchmark
+    public Money moneyGetInt() {
+        return money.getInt();
+    }
+}
@@ -0,0 +1,117 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Размер и скорость сериализации {@link Money}.
+ * Базовая линия {@code *BigDecimal} - граф {@link BigDecimal}, который записывала
+ * стандартная сериализация {@link Money}; {@code *Java} - стандартный поток через
+ * компактного заместителя; {@code *Compact} - {@link Money#writeTo(ByteBuffer)}.
+ * Размер записи в байтах выводится дополнительным счетчиком {@code bytes}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private final Money money = new Money(10500.45);
+    private final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    private byte[] javaBytes;
+    private byte[] bigDecimalBytes;
+    private byte[] compactBytes;
+
+    /**
+     * Размер записи.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        javaBytes = serialize(money);
+        bigDecimalBytes = serialize(money.getValue());
+        buffer.clear();
+        money.writeTo(buffer);
+        compactBytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(compactBytes);
+    }
+
+    @Benchmark
+    public byte[] writeBigDecimal(Size size) throws IOException {
+        byte[] bytes = serialize(money.getValue());
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] writeJava(Size size) throws IOException {
+        byte[] bytes = serialize(money);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteBuffer writeCompact(Size size) {
+        buffer.clear();
+        money.writeTo(buffer);
+        size.bytes = buffer.position();
+        return buffer;
+    }
+
+    @Benchmark
+    public Object readBigDecimal() throws IOException, ClassNotFoundException {
+        return new Money((BigDecimal) deserialize(bigDecimalBytes));
+    }
+
+    @Benchmark
+    public Object readJava() throws IOException, ClassNotFoundException {
+        return deserialize(javaBytes);
+    }
+
+    @Benchmark
+    public Money readCompact() {
+        return Money.readFrom(ByteBuffer.wrap(compactBytes));
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(byteOutputStream)) {
+            outputStream.writeObject(object);
+        }
+        return byteOutputStream.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return inputStream.readObject();
+        }
+    }
+}
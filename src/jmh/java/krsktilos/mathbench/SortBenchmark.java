@@ -0,0 +1,75 @@
+package krsktilos.mathbench;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneySort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сортировка и выбор 100000 цен: компаратор по {@link BigDecimal} против {@link MoneySort}.
+ * @author krsktilos
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    private static final int SIZE = 100000;
+
+    private final Money[] prices = new Money[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SIZE; i++) {
+            prices[i] = new Money(BigDecimal.valueOf(random.nextInt(100000000), 2));
+        }
+    }
+
+    @Benchmark
+    public Money[] sortByValue() {
+        Money[] values = prices.clone();
+        Arrays.sort(values, Comparator.comparing(Money::getValue));
+        return values;
+    }
+
+    @Benchmark
+    public Money[] sortComparable() {
+        Money[] values = prices.clone();
+        Arrays.sort(values);
+        return values;
+    }
+
+    @Benchmark
+    public Money[] sortPrimitive() {
+        Money[] values = prices.clone();
+        MoneySort.sort(values);
+        return values;
+    }
+
+    @Benchmark
+    public Money[] top10() {
+        return MoneySort.top(prices, 10);
+    }
+
+    @Benchmark
+    public Money percentile99() {
+        return MoneySort.percentile(prices, 99);
+    }
+}
@@ -0,0 +1,87 @@
+package krsktilos.math;
+
+import java.math.BigInteger;
+
+/**
+ * Распределение количества минимальных единиц на части без потери и без {@link java.math.BigDecimal}.
+ * Сумма частей всегда равна исходному значению, распределение детерминировано.
+ * Для отрицательного значения части симметричны частям модуля.
+ * @author krsktilos
+ */
+final class Allocation {
+    private Allocation() {
+    }
+
+    /**
+     * Делит значение на равные части; остаток по одной единице получают первые части.
+     * @param units значение, кроме {@link ScaledArithmetic#INFLATED}
+     * @param parts количество частей
+     * @return части
+     */
+    static long[] allocate(long units, int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Number of parts must be positive: " + parts);
+        }
+        long magnitude = Math.abs(units);
+        long base = magnitude / parts;
+        long remainder = magnitude % parts;
+        long[] result = new long[parts];
+        for (int i = 0; i < parts; i++) {
+            long part = i < remainder ? base + 1 : base;
+            result[i] = units < 0 ? -part : part;
+        }
+        return result;
+    }
+
+    /**
+     * Делит значение пропорционально неотрицательным весам.
+     * Часть {@code i} - разность округленных вверх накопленных долей
+     * {@code ceil(units * (w[0] + ... + w[i]) / W) - ceil(units * (w[0] + ... + w[i-1]) / W)},
+     * поэтому каждая часть отличается от точной доли меньше чем на единицу,
+     * а части с нулевым весом равны нулю.
+     * @param units значение, кроме {@link ScaledArithmetic#INFLATED}
+     * @param weights веса
+     * @return части
+     */
+    static long[] allocate(long units, long[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("No weights");
+        }
+        long total = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight: " + weight);
+            }
+            total = UnitArrays.checked(ScaledArithmetic.add(total, weight));
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Sum of weights is zero");
+        }
+        long magnitude = Math.abs(units);
+        long[] result = new long[weights.length];
+        long cumulative = 0;
+        long previous = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i];
+            long share = multiplyDivideCeiling(magnitude, cumulative, total);
+            long part = share - previous;
+            result[i] = units < 0 ? -part : part;
+            previous = share;
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает {@code ceil(a * b / c)} для {@code 0 <= b <= c}.
+     */
+    private static long multiplyDivideCeiling(long a, long b, long c) {
+        long product = ScaledArithmetic.multiply(a, b);
+        if (product != ScaledArithmetic.INFLATED) {
+            long quotient = product / c;
+            return product % c == 0 ? quotient : quotient + 1;
+        }
+        BigInteger[] division = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                .divideAndRemainder(BigInteger.valueOf(c));
+        return division[0].longValue() + (division[1].signum() == 0 ? 0 : 1);
+    }
+}
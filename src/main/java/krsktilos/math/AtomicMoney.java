@@ -0,0 +1,133 @@
+package krsktilos.math;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Денежная величина с атомарным изменением, хранимая как количество копеек в {@link AtomicLong}.
+ * Операции без блокировок; величины и результаты должны помещаться в {@code long}.
+ * При высокой конкуренции за накопление суммы используйте {@link MoneyAdder}.
+ * @author krsktilos
+ */
+public final class AtomicMoney {
+    private final AtomicLong units;
+
+    /**
+     * Создание нулевой величины.
+     */
+    public AtomicMoney() {
+        this.units = new AtomicLong();
+    }
+
+    /**
+     * Создание величины с начальным значением.
+     * @param initial начальное значение
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public AtomicMoney(Money initial) {
+        this.units = new AtomicLong(UnitArrays.checked(initial.units()));
+    }
+
+    /**
+     * Возвращает текущее значение.
+     * @return величина
+     */
+    public Money get() {
+        return Money.ofUnits(units.get());
+    }
+
+    /**
+     * Возвращает текущее значение в копейках.
+     * @return количество копеек
+     */
+    public long getUnits() {
+        return units.get();
+    }
+
+    /**
+     * Устанавливает значение.
+     * @param money величина
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public void set(Money money) {
+        units.set(UnitArrays.checked(money.units()));
+    }
+
+    /**
+     * Устанавливает значение и возвращает предыдущее.
+     * @param money величина
+     * @return предыдущее значение
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public Money getAndSet(Money money) {
+        return Money.ofUnits(units.getAndSet(UnitArrays.checked(money.units())));
+    }
+
+    /**
+     * Устанавливает значение, если текущее равно ожидаемому ({@link Money#eq}).
+     * @param expect ожидаемое значение
+     * @param update новое значение
+     * @return {@code true}, если значение установлено
+     * @throws ArithmeticException если новое значение не помещается в {@code long}
+     */
+    public boolean compareAndSet(Money expect, Money update) {
+        long expected = expect.units();
+        long updated = UnitArrays.checked(update.units());
+        return expected != ScaledArithmetic.INFLATED && units.compareAndSet(expected, updated);
+    }
+
+    /**
+     * Прибавляет величину.
+     * @param money слагаемое
+     * @throws ArithmeticException если слагаемое или сумма не помещаются в {@code long}
+     */
+    public void add(Money money) {
+        addAndGetUnits(UnitArrays.checked(money.units()));
+    }
+
+    /**
+     * Прибавляет величину и возвращает новое значение.
+     * @param money слагаемое
+     * @return сумма
+     * @throws ArithmeticException если слагаемое или сумма не помещаются в {@code long}
+     */
+    public Money addAndGet(Money money) {
+        return Money.ofUnits(addAndGetUnits(UnitArrays.checked(money.units())));
+    }
+
+    /**
+     * Прибавляет величину и возвращает предыдущее значение.
+     * @param money слагаемое
+     * @return предыдущее значение
+     * @throws ArithmeticException если слагаемое или сумма не помещаются в {@code long}
+     */
+    public Money getAndAdd(Money money) {
+        long delta = UnitArrays.checked(money.units());
+        for (;;) {
+            long current = units.get();
+            if (units.compareAndSet(current, UnitArrays.checked(ScaledArithmetic.add(current, delta)))) {
+                return Money.ofUnits(current);
+            }
+        }
+    }
+
+    /**
+     * Прибавляет количество копеек и возвращает новое значение в копейках.
+     * @param delta количество копеек
+     * @return сумма в копейках
+     * @throws ArithmeticException если сумма не помещается в {@code long}
+     */
+    public long addAndGetUnits(long delta) {
+        for (;;) {
+            long current = units.get();
+            long next = UnitArrays.checked(ScaledArithmetic.add(current, delta));
+            if (units.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return get().toString();
+    }
+}
@@ -0,0 +1,76 @@
+package krsktilos.math;
+
+/**
+ * Снимок счетчиков кэша величин, см. {@link Money#of(long)} и {@link Quantity#of(long)}.
+ * @author krsktilos
+ */
+public final class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long low;
+    private final long high;
+    private final int lruSize;
+
+    CacheStatistics(long hits, long misses, long low, long high, int lruSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.low = low;
+        this.high = high;
+        this.lruSize = lruSize;
+    }
+
+    /**
+     * Возвращает количество обращений, обслуженных кэшем.
+     * @return количество попаданий
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Возвращает количество обращений, потребовавших создания величины.
+     * @return количество промахов
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Возвращает долю попаданий.
+     * @return доля попаданий от 0 до 1
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Возвращает нижнюю границу кэшируемого диапазона в минимальных единицах.
+     * @return нижняя граница
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Возвращает верхнюю границу кэшируемого диапазона в минимальных единицах.
+     * @return верхняя граница
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * Возвращает количество величин в LRU.
+     * @return размер LRU
+     */
+    public int getLruSize() {
+        return lruSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hits + ", misses=" + misses
+                + ", range=[" + low + ", " + high + "], lruSize=" + lruSize + '}';
+    }
+}
@@ -0,0 +1,288 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Пересчет {@link CurrencyMoney} по курсам {@link RateProvider}.
+ * Курсы кэшируются вместе с заранее вычисленным множителем в минимальных единицах, поэтому пересчет
+ * сводится к одному умножению {@code long} с округлением {@link RoundingMode#HALF_UP} до масштаба
+ * целевой валюты; при переполнении используется {@link BigDecimal}.
+ * Курс перезапрашивается по истечении срока жизни; при превышении размера кэша вытесняется курс,
+ * загруженный раньше остальных.
+ * @author krsktilos
+ */
+public final class CurrencyConverter {
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final RateProvider provider;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Currency, Map<Currency, Rate>> rates = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Создает конвертер с бессрочным кэшем курсов.
+     * @param provider источник курсов
+     */
+    public CurrencyConverter(RateProvider provider) {
+        this(provider, NO_EXPIRY, TimeUnit.NANOSECONDS, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Создает конвертер.
+     * @param provider источник курсов
+     * @param ttl срок жизни курса в кэше, 0 - без кэширования
+     * @param unit единица срока жизни
+     * @param maxSize наибольшее количество валютных пар в кэше
+     */
+    public CurrencyConverter(RateProvider provider, long ttl, TimeUnit unit, int maxSize) {
+        if (ttl < 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid cache settings: ttl=" + ttl + ", maxSize=" + maxSize);
+        }
+        this.provider = provider;
+        this.ttlNanos = ttl == NO_EXPIRY ? NO_EXPIRY : unit.toNanos(ttl);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Возвращает курс пары валют.
+     * @param from исходная валюта
+     * @param to целевая валюта
+     * @return курс
+     * @throws IllegalArgumentException если курс неизвестен
+     */
+    public BigDecimal getRate(Currency from, Currency to) {
+        return rate(from, to).value;
+    }
+
+    /**
+     * Пересчитывает величину в другую валюту.
+     * @param amount величина
+     * @param to целевая валюта
+     * @return величина в валюте {@code to}
+     */
+    public CurrencyMoney convert(CurrencyMoney amount, Currency to) {
+        if (amount.getCurrency() == to) {
+            return amount;
+        }
+        return rate(amount.getCurrency(), to).convert(amount);
+    }
+
+    /**
+     * Пересчитывает массив величин в другую валюту; величины могут быть в разных валютах.
+     * @param amounts величины
+     * @param to целевая валюта
+     * @return величины в валюте {@code to}
+     */
+    public CurrencyMoney[] convert(CurrencyMoney[] amounts, Currency to) {
+        CurrencyMoney[] result = new CurrencyMoney[amounts.length];
+        Rate rate = null;
+        for (int i = 0; i < amounts.length; i++) {
+            CurrencyMoney amount = amounts[i];
+            if (amount.getCurrency() == to) {
+                result[i] = amount;
+                continue;
+            }
+            if (rate == null || rate.from != amount.getCurrency()) {
+                rate = rate(amount.getCurrency(), to);
+            }
+            result[i] = rate.convert(amount);
+        }
+        return result;
+    }
+
+    /**
+     * Пересчитывает поток величин в другую валюту.
+     * @param amounts величины
+     * @param to целевая валюта
+     * @return поток величин в валюте {@code to}
+     */
+    public Stream<CurrencyMoney> convert(Stream<CurrencyMoney> amounts, Currency to) {
+        return amounts.map(amount -> convert(amount, to));
+    }
+
+    /**
+     * Пересчитывает количество минимальных единиц в другую валюту.
+     * @param units количество минимальных единиц валюты {@code from}
+     * @param from исходная валюта
+     * @param to целевая валюта
+     * @return количество минимальных единиц валюты {@code to}
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    public long convertUnits(long units, Currency from, Currency to) {
+        if (from == to) {
+            return units;
+        }
+        return UnitArrays.checked(rate(from, to).convert(units));
+    }
+
+    /**
+     * Пересчитывает массив количеств минимальных единиц в другую валюту.
+     * @param units количества минимальных единиц валюты {@code from}
+     * @param from исходная валюта
+     * @param to целевая валюта
+     * @return количества минимальных единиц валюты {@code to}
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    public long[] convertUnits(long[] units, Currency from, Currency to) {
+        if (from == to) {
+            return units.clone();
+        }
+        Rate rate = rate(from, to);
+        long[] result = new long[units.length];
+        for (int i = 0; i < units.length; i++) {
+            result[i] = UnitArrays.checked(rate.convert(units[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет курс пары валют из кэша.
+     * @param from исходная валюта
+     * @param to целевая валюта
+     */
+    public void invalidate(Currency from, Currency to) {
+        Map<Currency, Rate> targets = rates.get(from);
+        if (targets != null && targets.remove(to) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Очищает кэш курсов.
+     */
+    public void invalidateAll() {
+        for (Map<Currency, Rate> targets : rates.values()) {
+            for (Currency to : targets.keySet()) {
+                if (targets.remove(to) != null) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество валютных пар в кэше.
+     * @return размер кэша
+     */
+    public int cacheSize() {
+        return size.get();
+    }
+
+    /**
+     * Возвращает количество обращений к источнику курсов.
+     * @return количество загрузок
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    private Rate rate(Currency from, Currency to) {
+        Map<Currency, Rate> targets = rates.get(from);
+        if (targets == null) {
+            targets = rates.computeIfAbsent(from, currency -> new ConcurrentHashMap<>());
+        }
+        Rate rate = targets.get(to);
+        if (rate != null && (ttlNanos == NO_EXPIRY || System.nanoTime() - rate.loadedAt < ttlNanos)) {
+            return rate;
+        }
+        loads.increment();
+        BigDecimal value = provider.getRate(from, to);
+        if (value == null) {
+            throw new IllegalArgumentException("No exchange rate: " + from + " -> " + to);
+        }
+        Rate loaded = new Rate(from, to, value, System.nanoTime());
+        if (targets.put(to, loaded) == null && size.incrementAndGet() > maxSize) {
+            evict();
+        }
+        return loaded;
+    }
+
+    private void evict() {
+        while (size.get() > maxSize) {
+            Map<Currency, Rate> eldestTargets = null;
+            Rate eldest = null;
+            for (Map<Currency, Rate> targets : rates.values()) {
+                for (Rate rate : targets.values()) {
+                    if (eldest == null || rate.loadedAt - eldest.loadedAt < 0) {
+                        eldestTargets = targets;
+                        eldest = rate;
+                    }
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (eldestTargets.remove(eldest.to, eldest)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Курс пары валют с множителем в минимальных единицах.
+     */
+    private static final class Rate {
+        private final Currency from;
+        private final Currency to;
+        private final BigDecimal value;
+        private final int fromScale;
+        private final int toScale;
+        /**
+         * Курс в единицах масштаба {@link #scale} либо {@link ScaledArithmetic#INFLATED}, если
+         * пересчет нельзя выполнить в {@code long}.
+         */
+        private final long units;
+        private final int scale;
+        private final long loadedAt;
+
+        Rate(Currency from, Currency to, BigDecimal value, long loadedAt) {
+            this.from = from;
+            this.to = to;
+            this.value = value;
+            this.fromScale = CurrencyMoney.scale(from);
+            this.toScale = CurrencyMoney.scale(to);
+            this.loadedAt = loadedAt;
+            BigDecimal stripped = value.stripTrailingZeros();
+            if (stripped.scale() < 0) {
+                stripped = stripped.setScale(0);
+            }
+            this.scale = stripped.scale();
+            this.units = fromScale + scale <= 18 ? ScaledArithmetic.toUnits(stripped, scale) : ScaledArithmetic.INFLATED;
+        }
+
+        long convert(long amount) {
+            if (units != ScaledArithmetic.INFLATED) {
+                long result = ScaledArithmetic.multiply(amount, fromScale, units, scale, toScale);
+                if (result != ScaledArithmetic.INFLATED) {
+                    return result;
+                }
+            }
+            return ScaledArithmetic.toUnits(convert(ScaledArithmetic.toBigDecimal(amount, fromScale)), toScale);
+        }
+
+        BigDecimal convert(BigDecimal amount) {
+            return amount.multiply(value).setScale(toScale, ROUNDING_MODE);
+        }
+
+        CurrencyMoney convert(CurrencyMoney amount) {
+            if (amount.units() != ScaledArithmetic.INFLATED) {
+                long result = convert(amount.units());
+                if (result != ScaledArithmetic.INFLATED) {
+                    return CurrencyMoney.ofUnits(result, to);
+                }
+            }
+            return new CurrencyMoney(convert(amount.getValue()), to);
+        }
+    }
+}
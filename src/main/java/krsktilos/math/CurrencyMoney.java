@@ -0,0 +1,291 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Денежная величина в валюте {@link Currency}.
+ * Масштаб определяется валютой ({@link Currency#getDefaultFractionDigits()}: 2 для RUB и USD, 0 для JPY,
+ * 3 для BHD), округление в большую сторону.
+ * Арифметика и сравнение возможны только между величинами в одной валюте.
+ * @author krsktilos
+ */
+public final class CurrencyMoney {
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int MAX_SCALE = 18;
+
+    private final Currency currency;
+    private final BigDecimal value;
+    /**
+     * Количество минимальных единиц валюты либо {@link ScaledArithmetic#INFLATED}.
+     */
+    private final long units;
+
+    public CurrencyMoney(BigDecimal value, Currency currency) {
+        this.currency = currency;
+        this.value = value.setScale(scale(currency), ROUNDING_MODE);
+        this.units = ScaledArithmetic.toUnits(this.value, this.value.scale());
+    }
+
+    public CurrencyMoney(String value, Currency currency) {
+        this(new BigDecimal(value), currency);
+    }
+
+    public CurrencyMoney(Money money, Currency currency) {
+        this(money.getValue(), currency);
+    }
+
+    private CurrencyMoney(long units, Currency currency) {
+        this.currency = currency;
+        this.units = units;
+        this.value = ScaledArithmetic.toBigDecimal(units, scale(currency));
+    }
+
+    /**
+     * Создание величины из количества минимальных единиц валюты.
+     * @param units количество минимальных единиц
+     * @param currency валюта
+     * @return величина
+     */
+    public static CurrencyMoney ofUnits(long units, Currency currency) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return new CurrencyMoney(ScaledArithmetic.toBigDecimal(units, scale(currency)), currency);
+        }
+        return new CurrencyMoney(units, currency);
+    }
+
+    /**
+     * Возвращает масштаб валюты.
+     * @param currency валюта
+     * @return количество знаков после запятой
+     * @throws IllegalArgumentException если у валюты нет минимальных единиц (например, XAU)
+     */
+    public static int scale(Currency currency) {
+        int scale = currency.getDefaultFractionDigits();
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return scale;
+    }
+
+    /**
+     * Возвращает валюту.
+     * @return валюта
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Возвращает масштаб величины.
+     * @return количество знаков после запятой
+     */
+    public int getScale() {
+        return value.scale();
+    }
+
+    /**
+     * Возвращает базовое значение величины.
+     * @return базовое значение {@link BigDecimal}
+     */
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    /**
+     * Возвращает количество минимальных единиц валюты.
+     * @return количество единиц
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public long getUnits() {
+        return UnitArrays.checked(units);
+    }
+
+    long units() {
+        return units;
+    }
+
+    /**
+     * Возвращает результат логической операции РАВНО (=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean eq(CurrencyMoney money) {
+        return compare(money) == 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ (>).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean gt(CurrencyMoney money) {
+        return compare(money) > 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ ЛИБО РАВНО (>=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean ge(CurrencyMoney money) {
+        return compare(money) >= 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ (<).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean lt(CurrencyMoney money) {
+        return compare(money) < 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ ЛИБО РАВНО (<=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean le(CurrencyMoney money) {
+        return compare(money) <= 0;
+    }
+
+    /**
+     * Арифметическая операция сложения.
+     * @param money слагаемое в той же валюте
+     * @return сумма
+     */
+    public CurrencyMoney add(CurrencyMoney money) {
+        checkCurrency(money);
+        if (units != ScaledArithmetic.INFLATED && money.units != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.add(units, money.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new CurrencyMoney(result, currency);
+            }
+        }
+        return new CurrencyMoney(value.add(money.value), currency);
+    }
+
+    /**
+     * Арифметическая операция вычитания.
+     * @param money вычитаемое в той же валюте
+     * @return разница
+     */
+    public CurrencyMoney subtract(CurrencyMoney money) {
+        checkCurrency(money);
+        if (units != ScaledArithmetic.INFLATED && money.units != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.subtract(units, money.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new CurrencyMoney(result, currency);
+            }
+        }
+        return new CurrencyMoney(value.subtract(money.value), currency);
+    }
+
+    /**
+     * Арифметическая операция умножения на количество {@link Quantity}.
+     * @param quantity множитель
+     * @return произведение
+     */
+    public CurrencyMoney multiply(Quantity quantity) {
+        if (units != ScaledArithmetic.INFLATED && quantity.units() != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.multiply(units, getScale(), quantity.units(), 3, getScale());
+            if (result != ScaledArithmetic.INFLATED) {
+                return new CurrencyMoney(result, currency);
+            }
+        }
+        return new CurrencyMoney(value.multiply(quantity.getValue()), currency);
+    }
+
+    /**
+     * Арифметическая операция деления на количество {@link Quantity}.
+     * @param quantity делитель
+     * @return частное
+     */
+    public CurrencyMoney divide(Quantity quantity) {
+        return new CurrencyMoney(value.divide(quantity.getValue(), getScale(), ROUNDING_MODE), currency);
+    }
+
+    /**
+     * Делит величину на равные части без потери минимальных единиц, см. {@link Money#allocate(int)}.
+     * @param parts количество частей
+     * @return части
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public CurrencyMoney[] allocate(int parts) {
+        return of(Allocation.allocate(getUnits(), parts));
+    }
+
+    /**
+     * Делит величину пропорционально долям без потери минимальных единиц, см. {@link Money#allocate(Quantity...)}.
+     * @param ratios доли
+     * @return части
+     * @throws ArithmeticException если величина или доля не помещаются в {@code long}
+     */
+    public CurrencyMoney[] allocate(Quantity... ratios) {
+        long[] weights = new long[ratios.length];
+        for (int i = 0; i < ratios.length; i++) {
+            weights[i] = UnitArrays.checked(ratios[i].units());
+        }
+        return of(Allocation.allocate(getUnits(), weights));
+    }
+
+    private CurrencyMoney[] of(long[] units) {
+        CurrencyMoney[] result = new CurrencyMoney[units.length];
+        for (int i = 0; i < units.length; i++) {
+            result[i] = new CurrencyMoney(units[i], currency);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает величину без валюты с округлением до копеек.
+     * @return величина
+     */
+    public Money toMoney() {
+        return Money.of(value);
+    }
+
+    /**
+     * Проверка на нулевое значение.
+     * @return результат
+     */
+    public boolean isZero() {
+        return value.signum() == 0;
+    }
+
+    private int compare(CurrencyMoney money) {
+        checkCurrency(money);
+        return ScaledCore.compare(units, value, money.units, money.value);
+    }
+
+    private void checkCurrency(CurrencyMoney money) {
+        if (currency != money.currency) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " != " + money.currency);
+        }
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (object instanceof CurrencyMoney) {
+            CurrencyMoney money = (CurrencyMoney) object;
+            return currency == money.currency && value.equals(money.value);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = units != ScaledArithmetic.INFLATED ? Long.hashCode(units) : value.hashCode();
+        return 31 * currency.hashCode() + hash;
+    }
+
+    @Override
+    public String toString() {
+        return value.toPlainString() + ' ' + currency.getCurrencyCode();
+    }
+}
@@ -0,0 +1,425 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Масштабированная величина с масштабом и округлением политики {@link DecimalPolicy}.
+ * Значение хранится количеством минимальных единиц в {@code long}; {@link BigDecimal} создается
+ * только для значений, не помещающихся в {@code long}, и при вызове {@link #getValue()}.
+ * Сложение, вычитание и сравнение возможны между величинами одной политики; умножение и деление
+ * принимают величину любой политики и округляют результат по политике левого операнда.
+ * <pre>
+ * Decimal&lt;UnitPrice&gt; price = Decimal.of("12.3456", UnitPrice.INSTANCE);
+ * Decimal&lt;Cents&gt; amount = Decimal.of(price.multiply(quantity).getValue(), Cents.INSTANCE);
+ * </pre>
+ * @param <P> политика
+ * @author krsktilos
+ */
+public final class Decimal<P extends DecimalPolicy> implements Comparable<Decimal<P>> {
+    private final P policy;
+    /**
+     * Количество минимальных единиц либо {@link ScaledArithmetic#INFLATED}.
+     */
+    private final long units;
+    /**
+     * Значение, если оно не помещается в {@code long}, иначе {@code null}.
+     */
+    private final BigDecimal inflated;
+
+    private Decimal(P policy, long units, BigDecimal inflated) {
+        this.policy = policy;
+        this.units = units;
+        this.inflated = inflated;
+    }
+
+    /**
+     * Создание величины с округлением по политике.
+     * @param value значение
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> of(BigDecimal value, P policy) {
+        long units = policy.toUnits(value);
+        if (units != ScaledArithmetic.INFLATED) {
+            return new Decimal<>(policy, units, null);
+        }
+        return new Decimal<>(policy, ScaledArithmetic.INFLATED, policy.round(value));
+    }
+
+    /**
+     * Создание величины из строки с округлением по политике.
+     * @param value значение
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> of(String value, P policy) {
+        return of(new BigDecimal(value), policy);
+    }
+
+    /**
+     * Создание величины из целого значения.
+     * @param value значение
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> of(long value, P policy) {
+        return valueOf(ScaledArithmetic.multiply(value, policy.one()), policy, BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Создание величины из денег {@link Money}.
+     * @param money значение
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> of(Money money, P policy) {
+        return of(money.units(), 2, money.getValue(), policy);
+    }
+
+    /**
+     * Создание величины из количества {@link Quantity}.
+     * @param quantity значение
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> of(Quantity quantity, P policy) {
+        return of(quantity.units(), 3, quantity.getValue(), policy);
+    }
+
+    /**
+     * Создание величины из количества минимальных единиц политики.
+     * @param units количество единиц
+     * @param policy политика
+     * @param <P> политика
+     * @return величина
+     */
+    public static <P extends DecimalPolicy> Decimal<P> ofUnits(long units, P policy) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Decimal<>(policy, units, ScaledArithmetic.toBigDecimal(units, policy.getScale()));
+        }
+        return new Decimal<>(policy, units, null);
+    }
+
+    private static <P extends DecimalPolicy> Decimal<P> of(long units, int scale, BigDecimal value, P policy) {
+        if (units != ScaledArithmetic.INFLATED) {
+            return valueOf(policy.rescale(units, scale), policy, value);
+        }
+        return of(value, policy);
+    }
+
+    private static <P extends DecimalPolicy> Decimal<P> valueOf(long units, P policy, BigDecimal value) {
+        if (units != ScaledArithmetic.INFLATED) {
+            return new Decimal<>(policy, units, null);
+        }
+        return of(value, policy);
+    }
+
+    /**
+     * Возвращает политику величины.
+     * @return политика
+     */
+    public P getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Возвращает масштаб величины.
+     * @return количество знаков после запятой
+     */
+    public int getScale() {
+        return policy.getScale();
+    }
+
+    /**
+     * Возвращает базовое значение величины.
+     * @return базовое значение {@link BigDecimal}
+     */
+    public BigDecimal getValue() {
+        if (inflated != null) {
+            return inflated;
+        }
+        return ScaledArithmetic.toBigDecimal(units, policy.getScale());
+    }
+
+    /**
+     * Возвращает количество минимальных единиц.
+     * @return количество единиц
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public long getUnits() {
+        return UnitArrays.checked(units);
+    }
+
+    long units() {
+        return units;
+    }
+
+    /**
+     * Возвращает результат логической операции РАВНО (=).
+     * @param decimal сравниваемая величина
+     * @return результат
+     */
+    public boolean eq(Decimal<P> decimal) {
+        return compareTo(decimal) == 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ (>).
+     * @param decimal сравниваемая величина
+     * @return результат
+     */
+    public boolean gt(Decimal<P> decimal) {
+        return compareTo(decimal) > 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ ЛИБО РАВНО (>=).
+     * @param decimal сравниваемая величина
+     * @return результат
+     */
+    public boolean ge(Decimal<P> decimal) {
+        return compareTo(decimal) >= 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ (<).
+     * @param decimal сравниваемая величина
+     * @return результат
+     */
+    public boolean lt(Decimal<P> decimal) {
+        return compareTo(decimal) < 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ ЛИБО РАВНО (<=).
+     * @param decimal сравниваемая величина
+     * @return результат
+     */
+    public boolean le(Decimal<P> decimal) {
+        return compareTo(decimal) <= 0;
+    }
+
+    @Override
+    public int compareTo(Decimal<P> decimal) {
+        if (inflated == null && decimal.inflated == null) {
+            return Long.compare(units, decimal.units);
+        }
+        return getValue().compareTo(decimal.getValue());
+    }
+
+    /**
+     * Арифметическая операция сложения.
+     * @param decimal слагаемое
+     * @return сумма
+     */
+    public Decimal<P> add(Decimal<P> decimal) {
+        if (inflated == null && decimal.inflated == null) {
+            long result = ScaledArithmetic.add(units, decimal.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new Decimal<>(policy, result, null);
+            }
+        }
+        return of(getValue().add(decimal.getValue()), policy);
+    }
+
+    /**
+     * Арифметическая операция вычитания.
+     * @param decimal вычитаемое
+     * @return разница
+     */
+    public Decimal<P> subtract(Decimal<P> decimal) {
+        if (inflated == null && decimal.inflated == null) {
+            long result = ScaledArithmetic.subtract(units, decimal.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new Decimal<>(policy, result, null);
+            }
+        }
+        return of(getValue().subtract(decimal.getValue()), policy);
+    }
+
+    /**
+     * Арифметическая операция умножения с округлением по политике этой величины.
+     * @param decimal множитель любой политики
+     * @return произведение
+     */
+    public Decimal<P> multiply(Decimal<?> decimal) {
+        if (inflated == null && decimal.inflated == null) {
+            long product = ScaledArithmetic.multiply(units, decimal.units);
+            if (product != ScaledArithmetic.INFLATED) {
+                long result = policy.rescale(product, getScale() + decimal.getScale());
+                if (result != ScaledArithmetic.INFLATED) {
+                    return new Decimal<>(policy, result, null);
+                }
+            }
+        }
+        return of(getValue().multiply(decimal.getValue()), policy);
+    }
+
+    /**
+     * Арифметическая операция умножения на количество {@link Quantity} с округлением по политике.
+     * @param quantity множитель
+     * @return произведение
+     */
+    public Decimal<P> multiply(Quantity quantity) {
+        if (inflated == null && quantity.units() != ScaledArithmetic.INFLATED) {
+            long product = ScaledArithmetic.multiply(units, quantity.units());
+            if (product != ScaledArithmetic.INFLATED) {
+                long result = policy.rescale(product, getScale() + 3);
+                if (result != ScaledArithmetic.INFLATED) {
+                    return new Decimal<>(policy, result, null);
+                }
+            }
+        }
+        return of(getValue().multiply(quantity.getValue()), policy);
+    }
+
+    /**
+     * Арифметическая операция деления с округлением по политике этой величины.
+     * @param decimal делитель любой политики
+     * @return частное
+     * @throws ArithmeticException при делении на ноль
+     */
+    public Decimal<P> divide(Decimal<?> decimal) {
+        if (inflated == null && decimal.inflated == null) {
+            long dividend = ScaledArithmetic.multiply(units, ScaledArithmetic.powerOfTen(decimal.getScale()));
+            if (dividend != ScaledArithmetic.INFLATED && decimal.units != 0) {
+                return new Decimal<>(policy, policy.divide(dividend, decimal.units), null);
+            }
+        }
+        return of(getValue().divide(decimal.getValue(), getScale(), policy.getRoundingMode()), policy);
+    }
+
+    /**
+     * Арифметическая операция деления на количество {@link Quantity} с округлением по политике.
+     * @param quantity делитель
+     * @return частное
+     * @throws ArithmeticException при делении на ноль
+     */
+    public Decimal<P> divide(Quantity quantity) {
+        if (inflated == null && quantity.units() != ScaledArithmetic.INFLATED) {
+            long dividend = ScaledArithmetic.multiply(units, 1000);
+            if (dividend != ScaledArithmetic.INFLATED && quantity.units() != 0) {
+                return new Decimal<>(policy, policy.divide(dividend, quantity.units()), null);
+            }
+        }
+        return of(getValue().divide(quantity.getValue(), getScale(), policy.getRoundingMode()), policy);
+    }
+
+    /**
+     * Возвращает величину с противоположным знаком.
+     * @return величина
+     */
+    public Decimal<P> negate() {
+        if (inflated == null) {
+            return new Decimal<>(policy, -units, null);
+        }
+        return of(getValue().negate(), policy);
+    }
+
+    /**
+     * Возвращает целую часть величины.
+     * @return целая часть величины
+     */
+    public Decimal<P> getInt() {
+        if (inflated == null) {
+            return new Decimal<>(policy, units / policy.one() * policy.one(), null);
+        }
+        return of(inflated.setScale(0, RoundingMode.DOWN), policy);
+    }
+
+    /**
+     * Проверка на нулевое значение.
+     * @return результат
+     */
+    public boolean isZero() {
+        return units == 0;
+    }
+
+    /**
+     * Переводит величину в другую политику с ее округлением.
+     * @param target политика
+     * @param <Q> политика
+     * @return величина
+     */
+    public <Q extends DecimalPolicy> Decimal<Q> withPolicy(Q target) {
+        if (target == policy) {
+            @SuppressWarnings("unchecked")
+            Decimal<Q> same = (Decimal<Q>) this;
+            return same;
+        }
+        if (inflated == null) {
+            long result = target.rescale(units, getScale());
+            if (result != ScaledArithmetic.INFLATED) {
+                return new Decimal<>(target, result, null);
+            }
+        }
+        return of(getValue(), target);
+    }
+
+    /**
+     * Возвращает величину в деньгах {@link Money}.
+     * @return деньги
+     */
+    public Money toMoney() {
+        if (inflated == null) {
+            long result = ScaledArithmetic.rescale(units, getScale(), 2);
+            if (result != ScaledArithmetic.INFLATED) {
+                return Money.ofUnits(result);
+            }
+        }
+        return Money.of(getValue());
+    }
+
+    /**
+     * Возвращает величину в количестве {@link Quantity}.
+     * @return количество
+     */
+    public Quantity toQuantity() {
+        if (inflated == null) {
+            long result = ScaledArithmetic.rescale(units, getScale(), 3);
+            if (result != ScaledArithmetic.INFLATED) {
+                return Quantity.ofUnits(result);
+            }
+        }
+        return Quantity.of(getValue());
+    }
+
+    /**
+     * Величины равны, если у них одна политика и одно значение.
+     * @param object сравниваемое
+     * @return результат
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (object instanceof Decimal) {
+            Decimal<?> decimal = (Decimal<?>) object;
+            if (policy != decimal.policy) {
+                return false;
+            }
+            if (inflated == null || decimal.inflated == null) {
+                return units == decimal.units;
+            }
+            return inflated.equals(decimal.inflated);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return inflated == null ? Long.hashCode(units) : inflated.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getValue().toString();
+    }
+}
@@ -0,0 +1,197 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Политика масштабированной величины {@link Decimal}: масштаб и способ округления.
+ * Каждая политика - отдельный финальный класс-одиночка, поэтому тип {@code Decimal<P>} отличает,
+ * например, цены за единицу от сумм. Масштаб и способ округления - поля экземпляра, которые
+ * читаются при каждой операции, а округление частного выбирается по способу округления во время
+ * выполнения: это общий путь для любой политики, без отдельного кода для каждой.
+ * Собственная политика объявляется так:
+ * <pre>
+ * public final class Mills extends DecimalPolicy {
+ *     public static final Mills INSTANCE = new Mills();
+ *
+ *     private Mills() {
+ *         super(3, RoundingMode.HALF_EVEN);
+ *     }
+ * }
+ * </pre>
+ * @author krsktilos
+ */
+public abstract class DecimalPolicy {
+    private static final int MAX_SCALE = 18;
+
+    private final int scale;
+    private final RoundingMode roundingMode;
+    private final long one;
+
+    /**
+     * @param scale масштаб (0..18)
+     * @param roundingMode способ округления
+     */
+    protected DecimalPolicy(int scale, RoundingMode roundingMode) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be in [0, " + MAX_SCALE + "]: " + scale);
+        }
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+        this.one = ScaledArithmetic.powerOfTen(scale);
+    }
+
+    /**
+     * Возвращает масштаб.
+     * @return количество знаков после запятой
+     */
+    public final int getScale() {
+        return scale;
+    }
+
+    /**
+     * Возвращает способ округления.
+     * @return способ округления
+     */
+    public final RoundingMode getRoundingMode() {
+        return roundingMode;
+    }
+
+    /**
+     * Возвращает количество минимальных единиц в единице величины.
+     * @return 10 в степени масштаба
+     */
+    final long one() {
+        return one;
+    }
+
+    /**
+     * Округляет значение до масштаба политики.
+     * @param value значение
+     * @return округленное значение
+     */
+    final BigDecimal round(BigDecimal value) {
+        return value.setScale(scale, roundingMode);
+    }
+
+    /**
+     * Переводит значение в количество минимальных единиц.
+     * @param value значение
+     * @return количество единиц либо {@link ScaledArithmetic#INFLATED}
+     */
+    final long toUnits(BigDecimal value) {
+        return ScaledArithmetic.toUnits(round(value), scale);
+    }
+
+    /**
+     * Переводит значение масштаба {@code fromScale} в масштаб политики с ее округлением.
+     * @param units значение
+     * @param fromScale исходный масштаб (0..36)
+     * @return количество единиц либо {@link ScaledArithmetic#INFLATED}
+     */
+    final long rescale(long units, int fromScale) {
+        if (fromScale == scale) {
+            return units;
+        }
+        if (fromScale < scale) {
+            return ScaledArithmetic.multiply(units, ScaledArithmetic.powerOfTen(scale - fromScale));
+        }
+        int shift = fromScale - scale;
+        if (shift > MAX_SCALE) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return divide(units, ScaledArithmetic.powerOfTen(shift));
+    }
+
+    /**
+     * Целочисленное деление с округлением политики.
+     * @param dividend делимое
+     * @param divisor делитель
+     * @return частное
+     * @throws ArithmeticException при делении на ноль либо при {@link RoundingMode#UNNECESSARY} и остатке
+     */
+    final long divide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int signum = (dividend ^ divisor) < 0 ? -1 : 1;
+        return increment(quotient, remainder, divisor, signum) ? quotient + signum : quotient;
+    }
+
+    private boolean increment(long quotient, long remainder, long divisor, int signum) {
+        switch (roundingMode) {
+            case UP:
+                return true;
+            case DOWN:
+                return false;
+            case CEILING:
+                return signum > 0;
+            case FLOOR:
+                return signum < 0;
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            default:
+                long absRemainder = Math.abs(remainder);
+                long absDivisor = divisor < 0 ? -divisor : divisor;
+                int half = Long.compareUnsigned(absRemainder, absDivisor - absRemainder);
+                if (half != 0) {
+                    return half > 0;
+                }
+                if (roundingMode == RoundingMode.HALF_EVEN) {
+                    return (quotient & 1) != 0;
+                }
+                return roundingMode == RoundingMode.HALF_UP;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{scale=" + scale + ", rounding=" + roundingMode + '}';
+    }
+
+    /**
+     * Копейки: масштаб 2, округление {@link RoundingMode#HALF_UP}, как у {@link Money}.
+     */
+    public static final class Cents extends DecimalPolicy {
+        public static final Cents INSTANCE = new Cents();
+
+        private Cents() {
+            super(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Копейки с банковским округлением {@link RoundingMode#HALF_EVEN}.
+     */
+    public static final class BankersCents extends DecimalPolicy {
+        public static final BankersCents INSTANCE = new BankersCents();
+
+        private BankersCents() {
+            super(2, RoundingMode.HALF_EVEN);
+        }
+    }
+
+    /**
+     * Тысячные доли: масштаб 3, округление {@link RoundingMode#HALF_UP}, как у {@link Quantity}.
+     */
+    public static final class Thousandths extends DecimalPolicy {
+        public static final Thousandths INSTANCE = new Thousandths();
+
+        private Thousandths() {
+            super(3, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Цена за единицу: масштаб 4, округление {@link RoundingMode#HALF_UP}.
+     */
+    public static final class UnitPrice extends DecimalPolicy {
+        public static final UnitPrice INSTANCE = new UnitPrice();
+
+        private UnitPrice() {
+            super(4, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package krsktilos.math;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная величина, хранимая как количество копеек в {@code long}.
+ * Округление в большую сторону с точностью до 2х знаков, результаты совпадают с {@link Money}.
+ * Сложение, вычитание, умножение и сравнение выполняются над {@code long};
+ * {@link BigDecimal} используется только при переполнении и при делении.
+ * @author krsktilos
+ */
+public final class FastMoney implements Serializable {
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int SCALE = 2;
+
+    public static final FastMoney HUNDRED = ofUnits(10000);
+    public static final FastMoney ZERO = ofUnits(0);
+    public static final FastMoney MAX = ofUnits(100000000);
+
+    /**
+     * Количество копеек либо {@link ScaledArithmetic#INFLATED}.
+     */
+    private final long units;
+    /**
+     * Значение, не поместившееся в {@code long}, иначе {@code null}.
+     */
+    private final BigDecimal inflated;
+
+    private FastMoney(long units, BigDecimal inflated) {
+        this.units = units;
+        this.inflated = inflated;
+    }
+
+    public FastMoney(BigDecimal value) {
+        this(valueOf(value));
+    }
+
+    public FastMoney(Money value) {
+        this(value.units(), value.units() == ScaledArithmetic.INFLATED ? value.getValue() : null);
+    }
+
+    public FastMoney(FastMoney value) {
+        this(value.units, value.inflated);
+    }
+
+    public FastMoney(String value) {
+        this(new BigDecimal(value));
+    }
+
+    public FastMoney(float value) {
+        this(BigDecimal.valueOf(value));
+    }
+
+    public FastMoney(double value) {
+        this(BigDecimal.valueOf(value));
+    }
+
+    public FastMoney(int value) {
+        this(value * 100L, null);
+    }
+
+    public FastMoney(long value) {
+        this(valueOf(ScaledArithmetic.multiply(value, 100), value));
+    }
+
+    /**
+     * Создание величины из количества копеек.
+     * @param units количество копеек
+     * @return величина
+     */
+    public static FastMoney ofUnits(long units) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return new FastMoney(units, ScaledArithmetic.toBigDecimal(units, SCALE));
+        }
+        return new FastMoney(units, null);
+    }
+
+    /**
+     * Возвращает результат логической операции РАВНО (=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean eq(FastMoney money) {
+        return compare(money) == 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ (>).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean gt(FastMoney money) {
+        return compare(money) > 0;
+    }
+
+    /**
+     * Возвращает результат логической операции БОЛЬШЕ ЛИБО РАВНО (>=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean ge(FastMoney money) {
+        return compare(money) >= 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ (<).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean lt(FastMoney money) {
+        return compare(money) < 0;
+    }
+
+    /**
+     * Возвращает результат логической операции МЕНЬШЕ ЛИБО РАВНО (<=).
+     * @param money сравниваемая величина
+     * @return результат
+     */
+    public boolean le(FastMoney money) {
+        return compare(money) <= 0;
+    }
+
+    /**
+     * Арифметическая операция сложения денег.
+     * @param money слагаемое
+     * @return сумма
+     */
+    public FastMoney add(FastMoney money) {
+        if (isCompact() && money.isCompact()) {
+            long result = ScaledArithmetic.add(units, money.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(result, null);
+            }
+        }
+        return valueOf(getValue().add(money.getValue()));
+    }
+
+    /**
+     * Арифметическая операция сложения денег и количества {@link Quantity}.
+     * @param quantity слагаемое
+     * @return сумма
+     */
+    public FastMoney add(Quantity quantity) {
+        long other = quantity.units();
+        long scaled = isCompact() ? ScaledArithmetic.multiply(units, 10) : ScaledArithmetic.INFLATED;
+        if (scaled != ScaledArithmetic.INFLATED && other != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.add(scaled, other);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(ScaledArithmetic.divide(result, 10), null);
+            }
+        }
+        return valueOf(getValue().add(quantity.getValue()));
+    }
+
+    /**
+     * Арифметическая операция вычитания денег.
+     * @param value вычитаемое
+     * @return разница
+     */
+    public FastMoney subtract(FastMoney value) {
+        if (isCompact() && value.isCompact()) {
+            long result = ScaledArithmetic.subtract(units, value.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(result, null);
+            }
+        }
+        return valueOf(getValue().subtract(value.getValue()));
+    }
+
+    /**
+     * Арифметическая операция вычитания количества {@link Quantity} из денег.
+     * @param quantity вычитаемое
+     * @return разница
+     */
+    public FastMoney subtract(Quantity quantity) {
+        long other = quantity.units();
+        long scaled = isCompact() ? ScaledArithmetic.multiply(units, 10) : ScaledArithmetic.INFLATED;
+        if (scaled != ScaledArithmetic.INFLATED && other != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.subtract(scaled, other);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(ScaledArithmetic.divide(result, 10), null);
+            }
+        }
+        return valueOf(getValue().subtract(quantity.getValue()));
+    }
+
+    /**
+     * Арифметическая операция умножения денег.
+     * @param value умножаемое
+     * @return сумма
+     */
+    public FastMoney multiply(FastMoney value) {
+        if (isCompact() && value.isCompact()) {
+            long result = ScaledArithmetic.multiply(units, value.units);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(ScaledArithmetic.divide(result, 100), null);
+            }
+        }
+        return valueOf(getValue().multiply(value.getValue()));
+    }
+
+    /**
+     * Арифметическая операция умножения денег на количество {@link Quantity}.
+     * @param quantity умножаемое
+     * @return сумма
+     */
+    public FastMoney multiply(Quantity quantity) {
+        long other = quantity.units();
+        if (isCompact() && other != ScaledArithmetic.INFLATED) {
+            long result = ScaledArithmetic.multiply(units, other);
+            if (result != ScaledArithmetic.INFLATED) {
+                return new FastMoney(ScaledArithmetic.divide(result, 1000), null);
+            }
+        }
+        return valueOf(getValue().multiply(quantity.getValue()));
+    }
+
+    /**
+     * Арифметическая операция деления денег.
+     * @param value делитель
+     * @return отношение
+     */
+    public FastMoney divide(FastMoney value) {
+        return valueOf(getValue().divide(value.getValue(), SCALE, ROUNDING_MODE));
+    }
+
+    /**
+     * Арифметическая операция деления денег на количество {@link Quantity}.
+     * @param quantity делитель
+     * @return отношение
+     */
+    public FastMoney divide(Quantity quantity) {
+        return valueOf(getValue().divide(quantity.getValue(), SCALE, ROUNDING_MODE));
+    }
+
+    /**
+     * Возвращает базовое значение величины.
+     * @return базовое значение {@link BigDecimal}
+     */
+    public BigDecimal getValue() {
+        if (isCompact()) {
+            return ScaledArithmetic.toBigDecimal(units, SCALE);
+        }
+        return inflated;
+    }
+
+    /**
+     * Возвращает количество копеек.
+     * @return количество копеек
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public long getUnits() {
+        if (!isCompact()) {
+            throw new ArithmeticException("Value does not fit into long: " + inflated);
+        }
+        return units;
+    }
+
+    /**
+     * Преобразование в {@link Money}.
+     * @return величина
+     */
+    public Money toMoney() {
+        if (isCompact()) {
+            return Money.ofUnits(units);
+        }
+        return new Money(inflated);
+    }
+
+    /**
+     * Возвращает результат проверки на эквивалентость нулю {@link FastMoney#ZERO}.
+     * @return результат
+     */
+    public boolean isZero() {
+        return isCompact() && units == 0;
+    }
+
+    /**
+     * Возвращает результат проверки на несоответствие
+     * нулевому {@link FastMoney#ZERO} значению.
+     * @return результат
+     */
+    public boolean isNotZero() {
+        return !isZero();
+    }
+
+    /**
+     * Возвращает целую часть величины.
+     * @return целая часть величины
+     */
+    public FastMoney getInt() {
+        if (isCompact()) {
+            return new FastMoney((long) (int) (units / 100) * 100, null);
+        }
+        return new FastMoney(inflated.intValue());
+    }
+
+    private boolean isCompact() {
+        return inflated == null;
+    }
+
+    private int compare(FastMoney money) {
+        if (isCompact() && money.isCompact()) {
+            return Long.compare(units, money.units);
+        }
+        return getValue().compareTo(money.getValue());
+    }
+
+    /**
+     * Упрощенное создание объекта с приведением к компактному представлению.
+     * @param value базовое значение
+     * @return величина
+     */
+    private static FastMoney valueOf(BigDecimal value) {
+        BigDecimal scaled = value.setScale(SCALE, ROUNDING_MODE);
+        long units = ScaledArithmetic.toUnits(scaled, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new FastMoney(units, scaled);
+        }
+        return new FastMoney(units, null);
+    }
+
+    /**
+     * Создание объекта из произведения, вычисленного в {@code long}.
+     * @param units количество копеек либо {@link ScaledArithmetic#INFLATED}
+     * @param value исходное значение для медленного пути
+     * @return величина
+     */
+    private static FastMoney valueOf(long units, long value) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return valueOf(new BigDecimal(value));
+        }
+        return new FastMoney(units, null);
+    }
+
+    /**
+     * Корректное сравнение возможно только между деньгами {@link FastMoney}.
+     * @param object сравниваемое
+     * @return результат
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (object instanceof FastMoney) {
+            FastMoney money = (FastMoney) object;
+            return this.eq(money);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        if (isCompact()) {
+            return Long.hashCode(units);
+        }
+        return inflated.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getValue().toString();
+    }
+}
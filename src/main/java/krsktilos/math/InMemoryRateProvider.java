@@ -0,0 +1,62 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Источник курсов в памяти, для тестов и локальных расчетов.
+ * Курс валюты к самой себе равен единице; обратные курсы не выводятся и задаются явно.
+ * @author krsktilos
+ */
+public final class InMemoryRateProvider implements RateProvider {
+    private final Map<Currency, Map<Currency, BigDecimal>> rates = new ConcurrentHashMap<>();
+
+    /**
+     * Устанавливает курс.
+     * @param from исходная валюта
+     * @param to целевая валюта
+     * @param rate количество единиц валюты {@code to} за одну единицу валюты {@code from}
+     * @return этот источник
+     */
+    public InMemoryRateProvider setRate(Currency from, Currency to, BigDecimal rate) {
+        if (rate.signum() <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        rates.computeIfAbsent(from, currency -> new ConcurrentHashMap<>()).put(to, rate);
+        return this;
+    }
+
+    /**
+     * Устанавливает курс.
+     * @param from код исходной валюты
+     * @param to код целевой валюты
+     * @param rate количество единиц валюты {@code to} за одну единицу валюты {@code from}
+     * @return этот источник
+     */
+    public InMemoryRateProvider setRate(String from, String to, String rate) {
+        return setRate(Currency.getInstance(from), Currency.getInstance(to), new BigDecimal(rate));
+    }
+
+    /**
+     * Удаляет курс.
+     * @param from исходная валюта
+     * @param to целевая валюта
+     */
+    public void removeRate(Currency from, Currency to) {
+        Map<Currency, BigDecimal> targets = rates.get(from);
+        if (targets != null) {
+            targets.remove(to);
+        }
+    }
+
+    @Override
+    public BigDecimal getRate(Currency from, Currency to) {
+        if (from == to) {
+            return BigDecimal.ONE;
+        }
+        Map<Currency, BigDecimal> targets = rates.get(from);
+        return targets == null ? null : targets.get(to);
+    }
+}
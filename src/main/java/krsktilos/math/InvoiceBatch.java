@@ -0,0 +1,316 @@
+package krsktilos.math;
+
+import java.util.Arrays;
+
+/**
+ * Пакет строк счетов в колонках для {@link InvoicePipeline}.
+ * Входные колонки: номер счета, цена в копейках, количество в тысячных долях, скидка и налог
+ * в процентах с точностью до тысячных. Выходные колонки заполняет {@link InvoicePipeline#process(InvoiceBatch)}:
+ * по строкам - сумма, скидка, налог и итог, по счетам - те же суммы.
+ * Строки одного счета должны идти подряд. Пакет предназначен для повторного использования:
+ * {@link #clear()} сохраняет выделенные массивы.
+ * @author krsktilos
+ */
+public final class InvoiceBatch {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private int size;
+    private int[] invoices;
+    private long[] prices;
+    private long[] quantities;
+    private long[] discountRates;
+    private long[] taxRates;
+
+    long[] amounts;
+    long[] discounts;
+    long[] taxes;
+    long[] totals;
+
+    private int invoiceCount;
+    private int[] invoiceIds = new int[0];
+    private long[] invoiceAmounts = new long[0];
+    private long[] invoiceDiscounts = new long[0];
+    private long[] invoiceTaxes = new long[0];
+    private long[] invoiceTotals = new long[0];
+    private boolean processed;
+
+    public InvoiceBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity начальная вместимость в строках
+     */
+    public InvoiceBatch(int capacity) {
+        invoices = new int[capacity];
+        prices = new long[capacity];
+        quantities = new long[capacity];
+        discountRates = new long[capacity];
+        taxRates = new long[capacity];
+        amounts = new long[capacity];
+        discounts = new long[capacity];
+        taxes = new long[capacity];
+        totals = new long[capacity];
+    }
+
+    /**
+     * Добавляет строку.
+     * @param invoice номер счета
+     * @param price цена
+     * @param quantity количество
+     * @param discountPercent скидка в процентах
+     * @param taxPercent налог в процентах
+     * @return номер строки в пакете
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public int addLine(int invoice, Money price, Quantity quantity, Quantity discountPercent, Quantity taxPercent) {
+        return addLineUnits(invoice, UnitArrays.checked(price.units()), UnitArrays.checked(quantity.units()),
+                UnitArrays.checked(discountPercent.units()), UnitArrays.checked(taxPercent.units()));
+    }
+
+    /**
+     * Добавляет строку в минимальных единицах.
+     * @param invoice номер счета
+     * @param price цена в копейках
+     * @param quantity количество в тысячных долях
+     * @param discountPercent скидка в тысячных долях процента
+     * @param taxPercent налог в тысячных долях процента
+     * @return номер строки в пакете
+     */
+    public int addLineUnits(int invoice, long price, long quantity, long discountPercent, long taxPercent) {
+        if (size == invoices.length) {
+            grow();
+        }
+        int line = size++;
+        invoices[line] = invoice;
+        prices[line] = price;
+        quantities[line] = quantity;
+        discountRates[line] = discountPercent;
+        taxRates[line] = taxPercent;
+        processed = false;
+        return line;
+    }
+
+    /**
+     * Удаляет все строки, сохраняя выделенную память.
+     */
+    public void clear() {
+        size = 0;
+        invoiceCount = 0;
+        processed = false;
+    }
+
+    /**
+     * Возвращает количество строк.
+     * @return количество строк
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает сумму строки: цена, умноженная на количество.
+     * @param line номер строки
+     * @return сумма
+     */
+    public Money getAmount(int line) {
+        return Money.ofUnits(amounts[checkLine(line)]);
+    }
+
+    /**
+     * Возвращает скидку строки.
+     * @param line номер строки
+     * @return скидка
+     */
+    public Money getDiscount(int line) {
+        return Money.ofUnits(discounts[checkLine(line)]);
+    }
+
+    /**
+     * Возвращает налог строки.
+     * @param line номер строки
+     * @return налог
+     */
+    public Money getTax(int line) {
+        return Money.ofUnits(taxes[checkLine(line)]);
+    }
+
+    /**
+     * Возвращает итог строки: сумма за вычетом скидки с налогом.
+     * @param line номер строки
+     * @return итог
+     */
+    public Money getTotal(int line) {
+        return Money.ofUnits(totals[checkLine(line)]);
+    }
+
+    /**
+     * Возвращает итог строки в копейках.
+     * @param line номер строки
+     * @return итог в копейках
+     */
+    public long getTotalUnits(int line) {
+        return totals[checkLine(line)];
+    }
+
+    /**
+     * Возвращает количество счетов.
+     * @return количество счетов
+     */
+    public int invoiceCount() {
+        checkProcessed();
+        return invoiceCount;
+    }
+
+    /**
+     * Возвращает номер счета.
+     * @param index порядковый номер счета в пакете
+     * @return номер счета
+     */
+    public int getInvoice(int index) {
+        return invoiceIds[checkInvoice(index)];
+    }
+
+    /**
+     * Возвращает сумму счета.
+     * @param index порядковый номер счета в пакете
+     * @return сумма
+     */
+    public Money getInvoiceAmount(int index) {
+        return Money.ofUnits(invoiceAmounts[checkInvoice(index)]);
+    }
+
+    /**
+     * Возвращает скидку счета.
+     * @param index порядковый номер счета в пакете
+     * @return скидка
+     */
+    public Money getInvoiceDiscount(int index) {
+        return Money.ofUnits(invoiceDiscounts[checkInvoice(index)]);
+    }
+
+    /**
+     * Возвращает налог счета.
+     * @param index порядковый номер счета в пакете
+     * @return налог
+     */
+    public Money getInvoiceTax(int index) {
+        return Money.ofUnits(invoiceTaxes[checkInvoice(index)]);
+    }
+
+    /**
+     * Возвращает итог счета.
+     * @param index порядковый номер счета в пакете
+     * @return итог
+     */
+    public Money getInvoiceTotal(int index) {
+        return Money.ofUnits(invoiceTotals[checkInvoice(index)]);
+    }
+
+    /**
+     * Возвращает итог всех счетов пакета.
+     * @return итог
+     * @throws ArithmeticException если итог не помещается в {@code long}
+     */
+    public Money getGrandTotal() {
+        checkProcessed();
+        long total = 0;
+        for (int i = 0; i < invoiceCount; i++) {
+            total = UnitArrays.checked(ScaledArithmetic.add(total, invoiceTotals[i]));
+        }
+        return Money.ofUnits(total);
+    }
+
+    int invoice(int line) {
+        return invoices[line];
+    }
+
+    long price(int line) {
+        return prices[line];
+    }
+
+    long quantity(int line) {
+        return quantities[line];
+    }
+
+    long discountRate(int line) {
+        return discountRates[line];
+    }
+
+    long taxRate(int line) {
+        return taxRates[line];
+    }
+
+    /**
+     * Подводит итоги по счетам после расчета строк.
+     */
+    void totalInvoices() {
+        invoiceCount = 0;
+        int last = 0;
+        for (int line = 0; line < size; line++) {
+            int invoice = invoices[line];
+            if (invoiceCount == 0 || invoice != last) {
+                startInvoice(invoice);
+                last = invoice;
+            }
+            int index = invoiceCount - 1;
+            invoiceAmounts[index] = UnitArrays.checked(ScaledArithmetic.add(invoiceAmounts[index], amounts[line]));
+            invoiceDiscounts[index] = UnitArrays.checked(ScaledArithmetic.add(invoiceDiscounts[index], discounts[line]));
+            invoiceTaxes[index] = UnitArrays.checked(ScaledArithmetic.add(invoiceTaxes[index], taxes[line]));
+            invoiceTotals[index] = UnitArrays.checked(ScaledArithmetic.add(invoiceTotals[index], totals[line]));
+        }
+        processed = true;
+    }
+
+    private void startInvoice(int invoice) {
+        if (invoiceCount == invoiceIds.length) {
+            int capacity = Math.max(16, invoiceCount * 2);
+            invoiceIds = Arrays.copyOf(invoiceIds, capacity);
+            invoiceAmounts = Arrays.copyOf(invoiceAmounts, capacity);
+            invoiceDiscounts = Arrays.copyOf(invoiceDiscounts, capacity);
+            invoiceTaxes = Arrays.copyOf(invoiceTaxes, capacity);
+            invoiceTotals = Arrays.copyOf(invoiceTotals, capacity);
+        }
+        int index = invoiceCount++;
+        invoiceIds[index] = invoice;
+        invoiceAmounts[index] = 0;
+        invoiceDiscounts[index] = 0;
+        invoiceTaxes[index] = 0;
+        invoiceTotals[index] = 0;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, size * 2);
+        invoices = Arrays.copyOf(invoices, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        discountRates = Arrays.copyOf(discountRates, capacity);
+        taxRates = Arrays.copyOf(taxRates, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        discounts = Arrays.copyOf(discounts, capacity);
+        taxes = Arrays.copyOf(taxes, capacity);
+        totals = Arrays.copyOf(totals, capacity);
+    }
+
+    private int checkLine(int line) {
+        checkProcessed();
+        if (line < 0 || line >= size) {
+            throw new IndexOutOfBoundsException("Line: " + line + ", size: " + size);
+        }
+        return line;
+    }
+
+    private int checkInvoice(int index) {
+        checkProcessed();
+        if (index < 0 || index >= invoiceCount) {
+            throw new IndexOutOfBoundsException("Invoice: " + index + ", count: " + invoiceCount);
+        }
+        return index;
+    }
+
+    private void checkProcessed() {
+        if (!processed) {
+            throw new IllegalStateException("Batch is not processed");
+        }
+    }
+}
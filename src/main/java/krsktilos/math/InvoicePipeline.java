@@ -0,0 +1,161 @@
+package krsktilos.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Расчет пакетов строк счетов {@link InvoiceBatch}.
+ * Для каждой строки вычисляется то же, что и последовательность вызовов {@link Money}:
+ * <pre>
+ * amount   = price.multiply(quantity)
+ * discount = amount.multiply(discountPercent).divide(Money.HUNDRED)
+ * net      = amount.subtract(discount)
+ * tax      = net.multiply(taxPercent).divide(Money.HUNDRED)
+ * total    = net.add(tax)
+ * </pre>
+ * с теми же округлениями {@link java.math.RoundingMode#HALF_UP}, но над копейками в {@code long}
+ * и без создания объектов; строки с переполнением пересчитываются через {@link Money}.
+ * Строки обрабатываются частями по {@code chunkSize}; пакеты больше одной части при включенном
+ * параллельном режиме считаются в {@link ForkJoinPool#commonPool()}. Итоги по счетам подводятся
+ * после расчета строк.
+ * @author krsktilos
+ */
+public final class InvoicePipeline {
+    /**
+     * Размер части по умолчанию.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    private static final long HUNDRED_PERCENT = 100;
+
+    private final int chunkSize;
+    private final boolean parallel;
+
+    public InvoicePipeline() {
+        this(DEFAULT_CHUNK_SIZE, true);
+    }
+
+    /**
+     * @param chunkSize количество строк, обрабатываемых одной задачей
+     * @param parallel обрабатывать ли части параллельно
+     */
+    public InvoicePipeline(int chunkSize, boolean parallel) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Рассчитывает строки и итоги счетов пакета.
+     * @param batch пакет
+     * @throws ArithmeticException если результат не помещается в {@code long} копеек
+     */
+    public void process(InvoiceBatch batch) {
+        int size = batch.size();
+        if (parallel && size > chunkSize) {
+            ForkJoinPool.commonPool().invoke(new Chunk(batch, 0, size));
+        } else {
+            for (int from = 0; from < size; from += chunkSize) {
+                lines(batch, from, Math.min(size, from + chunkSize));
+            }
+        }
+        batch.totalInvoices();
+    }
+
+    private static void lines(InvoiceBatch batch, int from, int to) {
+        long[] amounts = batch.amounts;
+        long[] discounts = batch.discounts;
+        long[] taxes = batch.taxes;
+        long[] totals = batch.totals;
+        for (int line = from; line < to; line++) {
+            long amount = multiply(batch.price(line), batch.quantity(line));
+            long discount = percent(amount, batch.discountRate(line));
+            long net = ScaledCore.subtract(amount, 2, discount, 2, 2);
+            long tax = percent(net, batch.taxRate(line));
+            long total = ScaledCore.add(net, 2, tax, 2, 2);
+            if (total == ScaledArithmetic.INFLATED) {
+                exact(batch, line);
+                continue;
+            }
+            amounts[line] = amount;
+            discounts[line] = discount;
+            taxes[line] = tax;
+            totals[line] = total;
+        }
+    }
+
+    /**
+     * Копейки, умноженные на тысячные доли, с округлением {@link java.math.RoundingMode#HALF_UP} до копеек.
+     * Делители - константы, поэтому JIT заменяет деление умножением.
+     */
+    private static long multiply(long cents, long thousandths) {
+        if (cents == ScaledArithmetic.INFLATED) {
+            return cents;
+        }
+        long product = ScaledArithmetic.multiply(cents, thousandths);
+        if (product == ScaledArithmetic.INFLATED) {
+            return product;
+        }
+        long quotient = product / 1000;
+        long remainder = product - quotient * 1000;
+        if (remainder >= 500) {
+            quotient++;
+        } else if (remainder <= -500) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    private static long percent(long amount, long rate) {
+        long product = multiply(amount, rate);
+        if (product == ScaledArithmetic.INFLATED) {
+            return product;
+        }
+        long quotient = product / HUNDRED_PERCENT;
+        long remainder = product - quotient * HUNDRED_PERCENT;
+        if (remainder >= HUNDRED_PERCENT / 2) {
+            quotient++;
+        } else if (remainder <= -HUNDRED_PERCENT / 2) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    private static void exact(InvoiceBatch batch, int line) {
+        Money amount = Money.ofUnits(batch.price(line)).multiply(Quantity.ofUnits(batch.quantity(line)));
+        Money discount = amount.multiply(Quantity.ofUnits(batch.discountRate(line))).divide(Money.HUNDRED);
+        Money net = amount.subtract(discount);
+        Money tax = net.multiply(Quantity.ofUnits(batch.taxRate(line))).divide(Money.HUNDRED);
+        batch.amounts[line] = UnitArrays.checked(amount.units());
+        batch.discounts[line] = UnitArrays.checked(discount.units());
+        batch.taxes[line] = UnitArrays.checked(tax.units());
+        batch.totals[line] = UnitArrays.checked(net.add(tax).units());
+    }
+
+    /**
+     * Рекурсивное разбиение строк пополам до размера части.
+     */
+    private final class Chunk extends RecursiveAction {
+        private final InvoiceBatch batch;
+        private final int from;
+        private final int to;
+
+        Chunk(InvoiceBatch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                lines(batch, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Chunk(batch, from, middle), new Chunk(batch, middle, to));
+        }
+    }
+}
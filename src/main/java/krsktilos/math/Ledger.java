@@ -0,0 +1,372 @@
+package krsktilos.math;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Файл записей фиксированной ширины с полями {@link Money} и {@link Quantity},
+ * отображаемый в память через {@link FileChannel#map}.
+ * Каждое поле хранится как количество минимальных единиц в {@code long} (little-endian),
+ * чтение и запись выполняются напрямую в отображенном буфере с произвольным доступом по индексу.
+ * Формат: заголовок (сигнатура, версия, количество полей, количество записей, емкость, типы полей)
+ * и записи подряд. Емкость задается при создании.
+ * Не потокобезопасен при записи.
+ * @author krsktilos
+ */
+public final class Ledger implements Closeable {
+    private static final int MAGIC = 0x4B4D4C47;
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int COLUMNS_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 20;
+    private static final int TYPES_OFFSET = 28;
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    /**
+     * Тип поля записи.
+     */
+    public enum Column {
+        MONEY,
+        QUANTITY
+    }
+
+    private final FileChannel channel;
+    private final Column[] columns;
+    private final int recordSize;
+    private final long capacity;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+    private final long recordsPerSegment;
+    private long size;
+
+    private Ledger(FileChannel channel, Column[] columns, long capacity, long size) throws IOException {
+        this.channel = channel;
+        this.columns = columns;
+        this.recordSize = columns.length * Long.BYTES;
+        this.capacity = capacity;
+        this.size = size;
+        int headerSize = headerSize(columns.length);
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+        this.header.order(ByteOrder.LITTLE_ENDIAN);
+        this.recordsPerSegment = Math.max(1, SEGMENT_BYTES / recordSize);
+        int segmentCount = (int) ((capacity + recordsPerSegment - 1) / recordsPerSegment);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = i * recordsPerSegment;
+            long records = Math.min(recordsPerSegment, capacity - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    headerSize + first * recordSize, records * recordSize);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Создает файл (перезаписывая существующий) и отображает его в память.
+     * @param path путь к файлу
+     * @param capacity максимальное количество записей
+     * @param columns типы полей записи
+     * @return файл записей
+     * @throws IOException ошибка ввода-вывода
+     */
+    public static Ledger create(Path path, long capacity, Column... columns) throws IOException {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("No columns");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Ledger ledger = new Ledger(channel, columns.clone(), capacity, 0);
+            ledger.header.putInt(MAGIC_OFFSET, MAGIC);
+            ledger.header.putInt(VERSION_OFFSET, VERSION);
+            ledger.header.putInt(COLUMNS_OFFSET, columns.length);
+            ledger.header.putLong(SIZE_OFFSET, 0);
+            ledger.header.putLong(CAPACITY_OFFSET, capacity);
+            for (int i = 0; i < columns.length; i++) {
+                ledger.header.put(TYPES_OFFSET + i, (byte) columns[i].ordinal());
+            }
+            return ledger;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Открывает существующий файл и отображает его в память.
+     * @param path путь к файлу
+     * @return файл записей
+     * @throws IOException ошибка ввода-вывода или некорректный формат
+     */
+    public static Ledger open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer prefix = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), TYPES_OFFSET));
+            prefix.order(ByteOrder.LITTLE_ENDIAN);
+            if (prefix.limit() < TYPES_OFFSET || prefix.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a ledger file: " + path);
+            }
+            if (prefix.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Unsupported ledger version: " + prefix.getInt(VERSION_OFFSET));
+            }
+            int columnCount = prefix.getInt(COLUMNS_OFFSET);
+            long size = prefix.getLong(SIZE_OFFSET);
+            long capacity = prefix.getLong(CAPACITY_OFFSET);
+            if (columnCount <= 0 || size < 0 || size > capacity
+                    || channel.size() < headerSize(columnCount) + capacity * columnCount * Long.BYTES) {
+                throw new IOException("Corrupted ledger header: " + path);
+            }
+            MappedByteBuffer types = channel.map(FileChannel.MapMode.READ_ONLY, TYPES_OFFSET, columnCount);
+            Column[] columns = new Column[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                int type = types.get(i);
+                if (type < 0 || type >= Column.values().length) {
+                    throw new IOException("Unknown column type: " + type);
+                }
+                columns[i] = Column.values()[type];
+            }
+            return new Ledger(channel, columns, capacity, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает количество записей.
+     * @return количество записей
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Возвращает максимальное количество записей.
+     * @return емкость
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает типы полей записи.
+     * @return типы полей
+     */
+    public Column[] columns() {
+        return columns.clone();
+    }
+
+    /**
+     * Добавляет запись с нулевыми полями.
+     * @return индекс записи
+     * @throws IllegalStateException если емкость исчерпана
+     */
+    public long append() {
+        if (size == capacity) {
+            throw new IllegalStateException("Ledger is full: " + capacity);
+        }
+        long index = size;
+        for (int column = 0; column < columns.length; column++) {
+            putUnits(index, column, 0);
+        }
+        size = index + 1;
+        header.putLong(SIZE_OFFSET, size);
+        return index;
+    }
+
+    /**
+     * Возвращает денежное поле записи.
+     * @param index индекс записи
+     * @param column номер поля
+     * @return величина
+     */
+    public Money getMoney(long index, int column) {
+        checkColumn(column, Column.MONEY);
+        return Money.ofUnits(getUnits(index, column));
+    }
+
+    /**
+     * Изменяет денежное поле записи.
+     * @param index индекс записи
+     * @param column номер поля
+     * @param value величина
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public void setMoney(long index, int column, Money value) {
+        checkColumn(column, Column.MONEY);
+        setUnits(index, column, UnitArrays.checked(value.units()));
+    }
+
+    /**
+     * Возвращает количественное поле записи.
+     * @param index индекс записи
+     * @param column номер поля
+     * @return величина
+     */
+    public Quantity getQuantity(long index, int column) {
+        checkColumn(column, Column.QUANTITY);
+        return Quantity.ofUnits(getUnits(index, column));
+    }
+
+    /**
+     * Изменяет количественное поле записи.
+     * @param index индекс записи
+     * @param column номер поля
+     * @param value величина
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public void setQuantity(long index, int column, Quantity value) {
+        checkColumn(column, Column.QUANTITY);
+        setUnits(index, column, UnitArrays.checked(value.units()));
+    }
+
+    /**
+     * Возвращает поле записи в минимальных единицах (копейки либо тысячные доли).
+     * @param index индекс записи
+     * @param column номер поля
+     * @return количество единиц
+     */
+    public long getUnits(long index, int column) {
+        checkIndex(index, column);
+        return segments[(int) (index / recordsPerSegment)].getLong(offset(index, column));
+    }
+
+    /**
+     * Изменяет поле записи в минимальных единицах (копейки либо тысячные доли).
+     * @param index индекс записи
+     * @param column номер поля
+     * @param units количество единиц
+     */
+    public void setUnits(long index, int column, long units) {
+        checkIndex(index, column);
+        putUnits(index, column, units);
+    }
+
+    /**
+     * Последовательно передает значения поля всех записей в минимальных единицах.
+     * @param column номер поля
+     * @param consumer получатель
+     */
+    public void forEachUnits(int column, LongConsumer consumer) {
+        checkColumn(column);
+        for (long index = 0; index < size; index++) {
+            consumer.accept(segments[(int) (index / recordsPerSegment)].getLong(offset(index, column)));
+        }
+    }
+
+    /**
+     * Возвращает точную сумму денежного поля всех записей.
+     * @param column номер поля
+     * @return сумма
+     */
+    public Money sumMoney(int column) {
+        checkColumn(column, Column.MONEY);
+        return MoneyMath.toMoney(sum(column));
+    }
+
+    /**
+     * Возвращает точную сумму количественного поля всех записей.
+     * @param column номер поля
+     * @return сумма
+     */
+    public Quantity sumQuantity(int column) {
+        checkColumn(column, Column.QUANTITY);
+        return QuantityAccumulator.toQuantity(sum(column));
+    }
+
+    /**
+     * Возвращает сумму стоимостей {@code price * quantity} всех записей,
+     * произведения округляются как в {@link Money#multiply(Quantity)}.
+     * @param priceColumn номер денежного поля
+     * @param quantityColumn номер количественного поля
+     * @return сумма
+     */
+    public Money sumProducts(int priceColumn, int quantityColumn) {
+        checkColumn(priceColumn, Column.MONEY);
+        checkColumn(quantityColumn, Column.QUANTITY);
+        ScaledSum sum = new ScaledSum(2);
+        for (long index = 0; index < size; index++) {
+            MappedByteBuffer segment = segments[(int) (index / recordsPerSegment)];
+            long price = segment.getLong(offset(index, priceColumn));
+            long quantity = segment.getLong(offset(index, quantityColumn));
+            long product = ScaledArithmetic.multiply(price, 2, quantity, 3, 2);
+            if (product == ScaledArithmetic.INFLATED) {
+                sum.add(Money.ofUnits(price).multiply(Quantity.ofUnits(quantity)).getValue());
+            } else {
+                sum.add(product);
+            }
+        }
+        return MoneyMath.toMoney(sum);
+    }
+
+    /**
+     * Сбрасывает изменения на диск.
+     */
+    public void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Сбрасывает изменения на диск и закрывает файл.
+     * Отображение освобождается сборщиком мусора.
+     * @throws IOException ошибка ввода-вывода
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private ScaledSum sum(int column) {
+        ScaledSum sum = new ScaledSum(columns[column] == Column.MONEY ? 2 : 3);
+        for (long index = 0; index < size; index++) {
+            sum.add(segments[(int) (index / recordsPerSegment)].getLong(offset(index, column)));
+        }
+        return sum;
+    }
+
+    private void putUnits(long index, int column, long units) {
+        segments[(int) (index / recordsPerSegment)].putLong(offset(index, column), units);
+    }
+
+    private int offset(long index, int column) {
+        return (int) (index % recordsPerSegment) * recordSize + column * Long.BYTES;
+    }
+
+    private void checkColumn(int column, Column type) {
+        if (column < 0 || column >= columns.length || columns[column] != type) {
+            throw new IllegalArgumentException("Column " + column + " is not " + type);
+        }
+    }
+
+    private void checkIndex(long index, int column) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        checkColumn(column);
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns.length) {
+            throw new IndexOutOfBoundsException("Column: " + column + ", columns: " + columns.length);
+        }
+    }
+
+    private static int headerSize(int columnCount) {
+        return (TYPES_OFFSET + columnCount + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+}
@@ -0,0 +1,395 @@
+package krsktilos.math;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики операций {@link Money} и {@link Quantity}: количество операций, переходов на
+ * {@link BigDecimal}, округлений с потерей знаков и выборочное время выполнения.
+ * Включается системным свойством {@code krsktilos.math.metrics=true}; доля операций, время которых
+ * измеряется, задается свойством {@code krsktilos.math.metrics.sampleRate} (1 из N, по умолчанию 1024).
+ * Признак {@link #ENABLED} - статическая константа, поэтому в выключенном состоянии JIT удаляет
+ * проверки вместе с кодом учета.
+ * @author krsktilos
+ */
+public final class Metrics {
+    /**
+     * Имя {@link MetricsMXBean} в JMX.
+     */
+    public static final String OBJECT_NAME = "krsktilos.math:type=Metrics";
+
+    static final boolean ENABLED = Boolean.getBoolean("krsktilos.math.metrics");
+
+    private static final int SAMPLE_RATE = Math.max(1, Integer.getInteger("krsktilos.math.metrics.sampleRate", 1024));
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final int OPERATION_COUNT = Operation.values().length;
+
+    private static final LongAdder[] operations = adders();
+    private static final LongAdder[] slowPaths = adders();
+    private static final LongAdder[] samples = adders();
+    private static final LongAdder[] latencies = adders();
+    private static final LongAccumulator[] maxLatencies = new LongAccumulator[OPERATION_COUNT];
+    private static final LongAdder roundings = new LongAdder();
+
+    private static volatile MetricsListener[] listeners = new MetricsListener[0];
+
+    static {
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            maxLatencies[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[OPERATION_COUNT];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Операции, учитываемые {@link Metrics}.
+     */
+    public enum Operation {
+        MONEY_ADD, MONEY_SUBTRACT, MONEY_MULTIPLY, MONEY_DIVIDE,
+        QUANTITY_ADD, QUANTITY_SUBTRACT, QUANTITY_MULTIPLY, QUANTITY_DIVIDE
+    }
+
+    /**
+     * Признак включенного учета.
+     * @return {@code true}, если учет включен
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Возвращает долю операций, время которых измеряется: одна из возвращаемого числа.
+     * @return знаменатель доли
+     */
+    public static int getSampleRate() {
+        return SAMPLE_RATE;
+    }
+
+    /**
+     * Возвращает количество операций.
+     * @param operation операция
+     * @return количество
+     */
+    public static long getCount(Operation operation) {
+        return operations[operation.ordinal()].sum();
+    }
+
+    /**
+     * Возвращает количество операций, выполненных над {@link BigDecimal}.
+     * @param operation операция
+     * @return количество
+     */
+    public static long getSlowPathCount(Operation operation) {
+        return slowPaths[operation.ordinal()].sum();
+    }
+
+    /**
+     * Возвращает количество округлений {@link java.math.RoundingMode#HALF_UP}, изменивших значение.
+     * @return количество
+     */
+    public static long getRoundingCount() {
+        return roundings.sum();
+    }
+
+    /**
+     * Возвращает количество операций, время которых измерено.
+     * @param operation операция
+     * @return количество
+     */
+    public static long getLatencySampleCount(Operation operation) {
+        return samples[operation.ordinal()].sum();
+    }
+
+    /**
+     * Возвращает среднее измеренное время операции.
+     * @param operation операция
+     * @return время в наносекундах либо {@code NaN}, если измерений нет
+     */
+    public static double getMeanLatencyNanos(Operation operation) {
+        long count = samples[operation.ordinal()].sum();
+        return count == 0 ? Double.NaN : (double) latencies[operation.ordinal()].sum() / count;
+    }
+
+    /**
+     * Возвращает наибольшее измеренное время операции.
+     * @param operation операция
+     * @return время в наносекундах
+     */
+    public static long getMaxLatencyNanos(Operation operation) {
+        return maxLatencies[operation.ordinal()].get();
+    }
+
+    /**
+     * Обнуляет счетчики.
+     */
+    public static void reset() {
+        for (int i = 0; i < OPERATION_COUNT; i++) {
+            operations[i].reset();
+            slowPaths[i].reset();
+            samples[i].reset();
+            latencies[i].reset();
+            maxLatencies[i].reset();
+        }
+        roundings.reset();
+    }
+
+    /**
+     * Добавляет получателя событий.
+     * @param listener получатель
+     */
+    public static synchronized void addListener(MetricsListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("listener");
+        }
+        MetricsListener[] current = listeners;
+        MetricsListener[] updated = new MetricsListener[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Удаляет получателя событий.
+     * @param listener получатель
+     * @return {@code true}, если получатель был добавлен
+     */
+    public static synchronized boolean removeListener(MetricsListener listener) {
+        MetricsListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                MetricsListener[] updated = new MetricsListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Регистрирует {@link MetricsMXBean} в платформенном MBeanServer под именем {@link #OBJECT_NAME}.
+     * Повторная регистрация ничего не делает.
+     * @return имя
+     * @throws IllegalStateException если регистрация не удалась
+     */
+    public static synchronized ObjectName registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(new Bean(), MetricsMXBean.class, true), name);
+            }
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Учитывает начало операции.
+     * @param operation операция
+     * @return отметка времени для {@link #stop(Operation, long)}
+     */
+    static long start(Operation operation) {
+        operations[operation.ordinal()].increment();
+        MetricsListener[] current = listeners;
+        for (MetricsListener listener : current) {
+            listener.onOperation(operation);
+        }
+        if (SAMPLE_RATE == 1 || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            return System.nanoTime();
+        }
+        return NOT_SAMPLED;
+    }
+
+    /**
+     * Учитывает окончание операции.
+     * @param operation операция
+     * @param start отметка {@link #start(Operation)}
+     */
+    static void stop(Operation operation, long start) {
+        if (start == NOT_SAMPLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        int index = operation.ordinal();
+        samples[index].increment();
+        latencies[index].add(nanos);
+        maxLatencies[index].accumulate(nanos);
+        MetricsListener[] current = listeners;
+        for (MetricsListener listener : current) {
+            listener.onLatency(operation, nanos);
+        }
+    }
+
+    /**
+     * Учитывает переход операции на {@link BigDecimal}.
+     * @param operation операция
+     */
+    static void slowPath(Operation operation) {
+        slowPaths[operation.ordinal()].increment();
+        MetricsListener[] current = listeners;
+        for (MetricsListener listener : current) {
+            listener.onSlowPath(operation);
+        }
+    }
+
+    /**
+     * Учитывает переход деления на {@link BigDecimal} и округление его результата.
+     * @param operation операция
+     * @param dividend делимое
+     * @param divisor делитель
+     * @param scale масштаб частного
+     */
+    static void slowDivide(Operation operation, BigDecimal dividend, BigDecimal divisor, int scale) {
+        slowPath(operation);
+        if (divisor.signum() != 0 && dividend.scaleByPowerOfTen(scale).remainder(divisor).signum() != 0) {
+            rounding();
+        }
+    }
+
+    /**
+     * Учитывает округление суммы или разности в {@code long}, если слагаемое {@code b} имеет больший
+     * масштаб, чем результат (масштаб первого слагаемого совпадает с масштабом результата).
+     * @param b второе слагаемое
+     * @param bScale масштаб второго слагаемого
+     * @param scale масштаб результата
+     */
+    static void roundedSum(long b, int bScale, int scale) {
+        if (bScale > scale && b % ScaledArithmetic.powerOfTen(bScale - scale) != 0) {
+            rounding();
+        }
+    }
+
+    /**
+     * Учитывает округление произведения, вычисленного в {@code long} без переполнения.
+     * @param a множитель
+     * @param aScale масштаб множителя
+     * @param b множитель
+     * @param bScale масштаб множителя
+     * @param scale масштаб результата
+     */
+    static void roundedProduct(long a, int aScale, long b, int bScale, int scale) {
+        int exponent = aScale + bScale - scale;
+        if (exponent > 0 && a * b % ScaledArithmetic.powerOfTen(exponent) != 0) {
+            rounding();
+        }
+    }
+
+    /**
+     * Учитывает округление частного, вычисленного в {@code long} без переполнения.
+     * @param a делимое
+     * @param aScale масштаб делимого
+     * @param b ненулевой делитель
+     * @param bScale масштаб делителя
+     * @param scale масштаб результата
+     */
+    static void roundedQuotient(long a, int aScale, long b, int bScale, int scale) {
+        int exponent = bScale - aScale + scale;
+        long remainder = exponent >= 0
+                ? a * ScaledArithmetic.powerOfTen(exponent) % b
+                : a % (b * ScaledArithmetic.powerOfTen(-exponent));
+        if (remainder != 0) {
+            rounding();
+        }
+    }
+
+    /**
+     * Учитывает округление значения, если оно изменило значение.
+     * @param exact точное значение
+     * @param rounded округленное значение
+     */
+    static void rounding(BigDecimal exact, BigDecimal rounded) {
+        if (exact.compareTo(rounded) != 0) {
+            rounding();
+        }
+    }
+
+    /**
+     * Учитывает округление с потерей знаков.
+     */
+    static void rounding() {
+        roundings.increment();
+        MetricsListener[] current = listeners;
+        for (MetricsListener listener : current) {
+            listener.onRounding();
+        }
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public int getSampleRate() {
+            return SAMPLE_RATE;
+        }
+
+        @Override
+        public Map<String, Long> getOperationCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                counts.put(operation.name(), getCount(operation));
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getSlowPathCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                counts.put(operation.name(), getSlowPathCount(operation));
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Double> getMeanLatencyNanos() {
+            Map<String, Double> latencies = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation.name(), Metrics.getMeanLatencyNanos(operation));
+            }
+            return latencies;
+        }
+
+        @Override
+        public Map<String, Long> getMaxLatencyNanos() {
+            Map<String, Long> latencies = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation.name(), Metrics.getMaxLatencyNanos(operation));
+            }
+            return latencies;
+        }
+
+        @Override
+        public long getRoundingCount() {
+            return Metrics.getRoundingCount();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
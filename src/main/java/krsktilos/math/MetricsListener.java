@@ -0,0 +1,36 @@
+package krsktilos.math;
+
+/**
+ * Получатель событий {@link Metrics}. Вызывается синхронно в потоке операции, поэтому должен быть
+ * быстрым и потокобезопасным; по умолчанию события игнорируются.
+ * @author krsktilos
+ */
+public interface MetricsListener {
+    /**
+     * Начало операции.
+     * @param operation операция
+     */
+    default void onOperation(Metrics.Operation operation) {
+    }
+
+    /**
+     * Операция выполняется над {@link java.math.BigDecimal}, так как значение не помещается в {@code long}.
+     * @param operation операция
+     */
+    default void onSlowPath(Metrics.Operation operation) {
+    }
+
+    /**
+     * Значение округлено с потерей знаков.
+     */
+    default void onRounding() {
+    }
+
+    /**
+     * Измерено время выполнения операции, попавшей в выборку.
+     * @param operation операция
+     * @param nanos время в наносекундах
+     */
+    default void onLatency(Metrics.Operation operation, long nanos) {
+    }
+}
@@ -0,0 +1,26 @@
+package krsktilos.math;
+
+import java.util.Map;
+
+/**
+ * JMX-представление {@link Metrics}, регистрируется {@link Metrics#registerMBean()}.
+ * Словари отображают имя операции {@link Metrics.Operation} на значение.
+ * @author krsktilos
+ */
+public interface MetricsMXBean {
+    boolean isEnabled();
+
+    int getSampleRate();
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getSlowPathCounts();
+
+    Map<String, Double> getMeanLatencyNanos();
+
+    Map<String, Long> getMaxLatencyNanos();
+
+    long getRoundingCount();
+
+    void reset();
+}
@@ -1,15 +1,23 @@
 package krsktilos.math;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Денежная величина.
  * Округление в большую сторону с точностью до 2х знаков.
  * @author krsktilos
  */
-public final class Money implements Serializable {
+public final class Money implements Serializable, Comparable<Money> {
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     private static final int SCALE = 2;
 
@@ -18,9 +26,22 @@ public final class Money implements Serializable {
     public static final Money MAX = new Money(1000000);
 
     private final BigDecimal value;
+    /**
+     * Количество минимальных единиц либо {@link ScaledArithmetic#INFLATED}.
+     */
+    private final transient long units;
 
     public Money(BigDecimal value) {
         this.value = value.setScale(SCALE, ROUNDING_MODE);
+        this.units = ScaledArithmetic.toUnits(this.value, SCALE);
+        if (Metrics.ENABLED && value.scale() > SCALE) {
+            Metrics.rounding(value, this.value);
+        }
+    }
+
+    private Money(long units, BigDecimal value) {
+        this.units = units;
+        this.value = value;
     }
 
     public Money(Money value) {
@@ -47,13 +68,176 @@ public final class Money implements Serializable {
         this(new BigDecimal(value));
     }
 
+    /**
+     * Создание величины из целого значения с использованием кэша.
+     * @param value целое значение
+     * @return величина
+     */
+    public static Money of(long value) {
+        long units = ScaledArithmetic.multiply(value, ScaledArithmetic.powerOfTen(SCALE));
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Money(value);
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Создание величины с использованием кэша.
+     * @param value базовое значение
+     * @return величина
+     */
+    public static Money of(BigDecimal value) {
+        long units = ScaledArithmetic.toUnits(value, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Money(value);
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Создание величины из строки с использованием кэша.
+     * @param value строковое представление
+     * @return величина
+     */
+    public static Money of(String value) {
+        return parse(value);
+    }
+
+    /**
+     * Разбор десятичной записи без промежуточного {@link BigDecimal}.
+     * Принимает те же записи, что и {@link #Money(String)}, с тем же результатом.
+     * @param text запись
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Money parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Разбор части десятичной записи {@code [start, end)}, см. {@link #parse(CharSequence)}.
+     * @param text запись
+     * @param start начало
+     * @param end конец (не включая)
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Money parse(CharSequence text, int start, int end) {
+        long units = ScaledText.parse(text, start, end, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Money(new BigDecimal(text.subSequence(start, end).toString()));
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Разбор десятичной записи в кодировке ASCII, см. {@link #parse(CharSequence)}.
+     * @param bytes буфер
+     * @param offset начало записи
+     * @param length длина записи
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Money parse(byte[] bytes, int offset, int length) {
+        long units = ScaledText.parse(bytes, offset, length, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Money(new BigDecimal(new String(bytes, offset, length, StandardCharsets.US_ASCII)));
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Разбор части десятичной записи {@code [start, end)} сразу в количество копеек.
+     * @param text запись
+     * @param start начало
+     * @param end конец (не включая)
+     * @return количество копеек
+     * @throws NumberFormatException если запись некорректна
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public static long parseUnits(CharSequence text, int start, int end) {
+        long units = ScaledText.parse(text, start, end, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            units = parse(text, start, end).units;
+        }
+        return UnitArrays.checked(units);
+    }
+
+    /**
+     * Разбор десятичной записи в кодировке ASCII сразу в количество копеек.
+     * @param bytes буфер
+     * @param offset начало записи
+     * @param length длина записи
+     * @return количество копеек
+     * @throws NumberFormatException если запись некорректна
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public static long parseUnits(byte[] bytes, int offset, int length) {
+        long units = ScaledText.parse(bytes, offset, length, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            units = parse(bytes, offset, length).units;
+        }
+        return UnitArrays.checked(units);
+    }
+
+    /**
+     * Создание величины из дробного значения с использованием кэша.
+     * @param value дробное значение
+     * @return величина
+     */
+    public static Money of(double value) {
+        return of(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Создание величины из количества копеек с использованием кэша.
+     * @param units количество копеек
+     * @return величина
+     */
+    public static Money ofUnits(long units) {
+        return Cache.INSTANCE.get(units);
+    }
+
+    /**
+     * Возвращает счетчики кэша величин.
+     * Диапазон кэша в копеек задается системными свойствами
+     * {@code krsktilos.math.Money.cache.low} и {@code krsktilos.math.Money.cache.high}
+     * (по умолчанию от 0.00 до 999.99), размер LRU для остальных значений -
+     * {@code krsktilos.math.Money.cache.lruSize} (по умолчанию выключен).
+     * @return счетчики
+     */
+    public static CacheStatistics cacheStatistics() {
+        return Cache.INSTANCE.statistics();
+    }
+
+    /**
+     * Возвращает проверяемую арифметику с границами {@code [min, max]}.
+     * @param min нижняя граница
+     * @param max верхняя граница
+     * @param overflow поведение при выходе за границы
+     * @return проверяемая арифметика
+     * @throws IllegalArgumentException если границы не помещаются в {@code long} копеек или {@code min > max}
+     */
+    public static Checked checked(Money min, Money max, Overflow overflow) {
+        return new Checked(min, max, overflow);
+    }
+
+    /**
+     * Возвращает проверяемую арифметику, контролирующую только переполнение {@code long} копеек.
+     * @param overflow поведение при переполнении
+     * @return проверяемая арифметика
+     */
+    public static Checked checked(Overflow overflow) {
+        return new Checked(ofUnits(Long.MIN_VALUE + 1), ofUnits(Long.MAX_VALUE), overflow);
+    }
+
     /**
      * Возвращает результат логической операции РАВНО (=).
      * @param money сравниваемая величина
      * @return результат
      */
     public boolean eq(Money money) {
-        return getValue().compareTo(money.getValue()) == 0;
+        return ScaledCore.compare(units, value, money.units, money.value) == 0;
     }
 
     /**
@@ -62,7 +246,7 @@ public final class Money implements Serializable {
      * @return результат
      */
     public boolean gt(Money money) {
-        return getValue().compareTo(money.getValue()) > 0;
+        return ScaledCore.compare(units, value, money.units, money.value) > 0;
     }
 
     /**
@@ -71,7 +255,7 @@ public final class Money implements Serializable {
      * @return результат
      */
     public boolean ge(Money money) {
-        return getValue().compareTo(money.getValue()) >= 0;
+        return ScaledCore.compare(units, value, money.units, money.value) >= 0;
     }
 
     /**
@@ -80,7 +264,7 @@ public final class Money implements Serializable {
      * @return результат
      */
     public boolean lt(Money money) {
-        return getValue().compareTo(money.getValue()) < 0;
+        return ScaledCore.compare(units, value, money.units, money.value) < 0;
     }
 
     /**
@@ -89,7 +273,17 @@ public final class Money implements Serializable {
      * @return результат
      */
     public boolean le(Money money) {
-        return getValue().compareTo(money.getValue()) <= 0;
+        return ScaledCore.compare(units, value, money.units, money.value) <= 0;
+    }
+
+    /**
+     * Сравнение по значению, согласованное с {@link #eq}, {@link #gt} и {@link #lt}.
+     * @param money сравниваемая величина
+     * @return отрицательное, ноль или положительное число
+     */
+    @Override
+    public int compareTo(Money money) {
+        return ScaledCore.compare(units, value, money.units, money.value);
     }
 
     /**
@@ -98,6 +292,23 @@ public final class Money implements Serializable {
      * @return сумма
      */
     public Money add(Money money) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_ADD);
+            Money result = add0(money);
+            Metrics.stop(Metrics.Operation.MONEY_ADD, start);
+            return result;
+        }
+        return add0(money);
+    }
+
+    private Money add0(Money money) {
+        long result = ScaledCore.add(units, SCALE, money.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_ADD);
+        }
         return valueOf(getValue().add(money.getValue()));
     }
 
@@ -107,6 +318,26 @@ public final class Money implements Serializable {
      * @return сумма
      */
     public Money add(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_ADD);
+            Money result = add0(quantity);
+            Metrics.stop(Metrics.Operation.MONEY_ADD, start);
+            return result;
+        }
+        return add0(quantity);
+    }
+
+    private Money add0(Quantity quantity) {
+        long result = ScaledCore.add(units, SCALE, quantity.units(), 3, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedSum(quantity.units(), 3, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_ADD);
+        }
         return valueOf(getValue().add(quantity.getValue()));
     }
 
@@ -116,6 +347,23 @@ public final class Money implements Serializable {
      * @return разница
      */
     public Money subtract(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_SUBTRACT);
+            Money result = subtract0(value);
+            Metrics.stop(Metrics.Operation.MONEY_SUBTRACT, start);
+            return result;
+        }
+        return subtract0(value);
+    }
+
+    private Money subtract0(Money value) {
+        long result = ScaledCore.subtract(units, SCALE, value.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_SUBTRACT);
+        }
         return valueOf(getValue().subtract(value.getValue()));
     }
 
@@ -125,6 +373,26 @@ public final class Money implements Serializable {
      * @return разница
      */
     public Money subtract(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_SUBTRACT);
+            Money result = subtract0(quantity);
+            Metrics.stop(Metrics.Operation.MONEY_SUBTRACT, start);
+            return result;
+        }
+        return subtract0(quantity);
+    }
+
+    private Money subtract0(Quantity quantity) {
+        long result = ScaledCore.subtract(units, SCALE, quantity.units(), 3, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedSum(quantity.units(), 3, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_SUBTRACT);
+        }
         return valueOf(getValue().subtract(quantity.getValue()));
     }
 
@@ -134,6 +402,26 @@ public final class Money implements Serializable {
      * @return сумма
      */
     public Money multiply(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_MULTIPLY);
+            Money result = multiply0(value);
+            Metrics.stop(Metrics.Operation.MONEY_MULTIPLY, start);
+            return result;
+        }
+        return multiply0(value);
+    }
+
+    private Money multiply0(Money value) {
+        long result = ScaledCore.multiply(units, SCALE, value.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedProduct(units, SCALE, value.units(), SCALE, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_MULTIPLY);
+        }
         return valueOf(getValue().multiply(value.getValue()));
     }
 
@@ -143,6 +431,26 @@ public final class Money implements Serializable {
      * @return сумма
      */
     public Money multiply(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_MULTIPLY);
+            Money result = multiply0(quantity);
+            Metrics.stop(Metrics.Operation.MONEY_MULTIPLY, start);
+            return result;
+        }
+        return multiply0(quantity);
+    }
+
+    private Money multiply0(Quantity quantity) {
+        long result = ScaledCore.multiply(units, SCALE, quantity.units(), 3, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedProduct(units, SCALE, quantity.units(), 3, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.MONEY_MULTIPLY);
+        }
         return valueOf(getValue().multiply(quantity.getValue()));
     }
 
@@ -152,6 +460,26 @@ public final class Money implements Serializable {
      * @return отношение
      */
     public Money divide(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_DIVIDE);
+            Money result = divide0(value);
+            Metrics.stop(Metrics.Operation.MONEY_DIVIDE, start);
+            return result;
+        }
+        return divide0(value);
+    }
+
+    private Money divide0(Money value) {
+        long result = ScaledCore.divide(units, SCALE, value.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedQuotient(units, SCALE, value.units(), SCALE, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowDivide(Metrics.Operation.MONEY_DIVIDE, getValue(), value.getValue(), SCALE);
+        }
         return valueOf(getValue().divide(value.getValue(), SCALE, ROUNDING_MODE));
     }
 
@@ -161,9 +489,83 @@ public final class Money implements Serializable {
      * @return отношение
      */
     public Money divide(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.MONEY_DIVIDE);
+            Money result = divide0(quantity);
+            Metrics.stop(Metrics.Operation.MONEY_DIVIDE, start);
+            return result;
+        }
+        return divide0(quantity);
+    }
+
+    private Money divide0(Quantity quantity) {
+        long result = ScaledCore.divide(units, SCALE, quantity.units(), 3, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedQuotient(units, SCALE, quantity.units(), 3, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowDivide(Metrics.Operation.MONEY_DIVIDE, getValue(), quantity.getValue(), SCALE);
+        }
         return valueOf(getValue().divide(quantity.getValue(), SCALE, ROUNDING_MODE));
     }
 
+    /**
+     * Делит величину на равные части без потери копеек: остаток по одной копейке получают первые части.
+     * @param parts количество частей
+     * @return части, сумма которых равна величине
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public Money[] allocate(int parts) {
+        return toMoney(Allocation.allocate(UnitArrays.checked(units), parts));
+    }
+
+    /**
+     * Делит величину пропорционально неотрицательным долям без потери копеек.
+     * Каждая часть отличается от точной доли меньше чем на копейку, части с нулевой долей равны нулю.
+     * @param ratios доли
+     * @return части, сумма которых равна величине
+     * @throws ArithmeticException если величина или доля не помещаются в {@code long}
+     */
+    public Money[] allocate(Quantity... ratios) {
+        long[] weights = new long[ratios.length];
+        for (int i = 0; i < ratios.length; i++) {
+            weights[i] = UnitArrays.checked(ratios[i].units());
+        }
+        return toMoney(Allocation.allocate(UnitArrays.checked(units), weights));
+    }
+
+    /**
+     * Делит величину пропорционально колонке долей, см. {@link #allocate(Quantity...)}.
+     * @param ratios доли
+     * @return колонка частей, сумма которых равна величине
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public MoneyVector allocate(QuantityVector ratios) {
+        return new MoneyVector(Allocation.allocate(UnitArrays.checked(units), ratios.units()));
+    }
+
+    /**
+     * Делит величину пропорционально колонке неотрицательных сумм (например, сумм строк счета),
+     * см. {@link #allocate(Quantity...)}.
+     * @param weights суммы
+     * @return колонка частей, сумма которых равна величине
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public MoneyVector allocate(MoneyVector weights) {
+        return new MoneyVector(Allocation.allocate(UnitArrays.checked(units), weights.units()));
+    }
+
+    private static Money[] toMoney(long[] units) {
+        Money[] result = new Money[units.length];
+        for (int i = 0; i < units.length; i++) {
+            result[i] = ofUnits(units[i]);
+        }
+        return result;
+    }
+
     /**
      * Возвращает базовое значение величины.
      * @return базовое значение {@link BigDecimal}
@@ -181,6 +583,91 @@ public final class Money implements Serializable {
         return new Money(value);
     }
 
+    private static Money valueOf(long units) {
+        return new Money(units, ScaledArithmetic.toBigDecimal(units, SCALE));
+    }
+
+    /**
+     * Возвращает количество копеек без выделения памяти.
+     * @return количество копеек либо {@link ScaledArithmetic#INFLATED}
+     */
+    long units() {
+        return units;
+    }
+
+    /**
+     * Записывает величину в компактном двоичном формате: байт-тег и количество копеек в zig-zag varint.
+     * @param out получатель
+     * @throws IOException ошибка записи
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        ScaledCodec.write(out, ScaledCodec.MONEY, units, value);
+    }
+
+    /**
+     * Записывает величину в компактном двоичном формате, см. {@link #writeTo(DataOutput)}.
+     * @param out получатель
+     * @throws java.nio.BufferOverflowException если места недостаточно
+     */
+    public void writeTo(ByteBuffer out) {
+        ScaledCodec.write(out, ScaledCodec.MONEY, units, value);
+    }
+
+    /**
+     * Читает величину, записанную {@link #writeTo(DataOutput)}.
+     * @param in источник
+     * @return величина
+     * @throws IOException ошибка чтения или некорректная запись
+     */
+    public static Money readFrom(DataInput in) throws IOException {
+        return readFrom(in.readByte(), in);
+    }
+
+    /**
+     * Читает величину, записанную {@link #writeTo(ByteBuffer)}.
+     * @param in источник
+     * @return величина
+     * @throws IllegalArgumentException если запись некорректна
+     * @throws java.nio.BufferUnderflowException если запись неполная
+     */
+    public static Money readFrom(ByteBuffer in) {
+        byte tag = in.get();
+        if (!ScaledCodec.isType(tag, ScaledCodec.MONEY)) {
+            throw new IllegalArgumentException("Unexpected type tag: " + tag);
+        }
+        if (ScaledCodec.isInflated(tag)) {
+            return new Money(ScaledCodec.readInflated(in, SCALE));
+        }
+        return ofUnits(ScaledCodec.readVarLong(in));
+    }
+
+    static Money readFrom(byte tag, DataInput in) throws IOException {
+        if (!ScaledCodec.isType(tag, ScaledCodec.MONEY)) {
+            throw new StreamCorruptedException("Unexpected type tag: " + tag);
+        }
+        if (ScaledCodec.isInflated(tag)) {
+            return new Money(ScaledCodec.readInflated(in, SCALE));
+        }
+        return ofUnits(ScaledCodec.readVarLong(in));
+    }
+
+    /**
+     * Сериализация через компактный формат {@link Ser}.
+     * @return заместитель
+     */
+    private Object writeReplace() {
+        return new Ser(this);
+    }
+
+    /**
+     * Десериализация возможна только через {@link Ser}.
+     * @param in поток
+     * @throws InvalidObjectException всегда
+     */
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Deserialization via serialization delegate");
+    }
+
     /**
      * Возвращает результат проверки на эквивалентость нулю {@link Money#ZERO}.
      * @return результат
@@ -203,7 +690,7 @@ public final class Money implements Serializable {
      * @return целая часть величины
      */
     public Money getInt() {
-        return new Money(getValue().intValue());
+        return valueOf(ScaledCore.intValue(units, value, SCALE) * ScaledArithmetic.powerOfTen(SCALE));
     }
 
     /**
@@ -213,23 +700,319 @@ public final class Money implements Serializable {
      */
     @Override
     public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
         if (object instanceof Money) {
             Money money = (Money) object;
+            if (units != ScaledArithmetic.INFLATED || money.units != ScaledArithmetic.INFLATED) {
+                return units == money.units;
+            }
             return this.eq(money);
         }
         return false;
     }
 
+    /**
+     * Хэш вычисляется по количеству минимальных единиц и согласован с {@link #equals(Object)}:
+     * значение всегда хранится с одним масштабом, поэтому равные величины имеют равные единицы.
+     * @return хэш
+     */
     @Override
     public int hashCode() {
-        final int prime = 12;
-        int result = 4;
-        result = prime * result + getValue().hashCode();
-        return result;
+        if (units != ScaledArithmetic.INFLATED) {
+            return Long.hashCode(units);
+        }
+        return getValue().hashCode();
     }
 
     @Override
     public String toString() {
         return getValue().toString();
     }
+
+    /**
+     * Дописывает запись величины, совпадающую с {@link #toString()}, без промежуточной строки.
+     * @param out получатель
+     * @return получатель
+     */
+    public StringBuilder formatTo(StringBuilder out) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return out.append(toString());
+        }
+        ScaledText.format(units, SCALE, out);
+        return out;
+    }
+
+    /**
+     * Записывает запись величины, совпадающую с {@link #toString()}, в массив символов.
+     * @param out получатель
+     * @param offset позиция начала записи
+     * @return количество записанных символов
+     * @throws IndexOutOfBoundsException если места недостаточно
+     */
+    public int formatTo(char[] out, int offset) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return ScaledText.format(toString(), out, offset);
+        }
+        return ScaledText.format(units, SCALE, out, offset);
+    }
+
+    /**
+     * Записывает запись величины, совпадающую с {@link #toString()}, в буфер в кодировке ASCII
+     * начиная с текущей позиции.
+     * @param out получатель
+     * @throws java.nio.BufferOverflowException если места недостаточно
+     */
+    public void formatTo(ByteBuffer out) {
+        if (units == ScaledArithmetic.INFLATED) {
+            ScaledText.format(toString(), out);
+        } else {
+            ScaledText.format(units, SCALE, out);
+        }
+    }
+
+    /**
+     * Поведение проверяемой арифметики {@link Checked} при выходе результата за границы.
+     */
+    public enum Overflow {
+        /**
+         * Бросить {@link ArithmeticException}.
+         */
+        THROW,
+        /**
+         * Вернуть ближайшую границу.
+         */
+        SATURATE
+    }
+
+    /**
+     * Арифметика денег с контролем границ {@code [min, max]} и переполнения.
+     * Операция выполняется над копейками, результат сравнивается с границами в копейках двумя
+     * сравнениями {@code long}; переполнение {@code long} дает {@link ScaledArithmetic#INFLATED},
+     * который меньше любой границы, поэтому отдельной проверки не требует.
+     * Точное значение на {@link BigDecimal} вычисляется только для результатов вне границ.
+     */
+    public static final class Checked {
+        private final Money min;
+        private final Money max;
+        private final long minUnits;
+        private final long maxUnits;
+        private final Overflow overflow;
+
+        private Checked(Money min, Money max, Overflow overflow) {
+            if (min.units == ScaledArithmetic.INFLATED || max.units == ScaledArithmetic.INFLATED || min.units > max.units) {
+                throw new IllegalArgumentException("Invalid bounds: [" + min + ", " + max + "]");
+            }
+            this.min = min;
+            this.max = max;
+            this.minUnits = min.units;
+            this.maxUnits = max.units;
+            this.overflow = overflow;
+        }
+
+        /**
+         * Возвращает нижнюю границу.
+         * @return нижняя граница
+         */
+        public Money getMin() {
+            return min;
+        }
+
+        /**
+         * Возвращает верхнюю границу.
+         * @return верхняя граница
+         */
+        public Money getMax() {
+            return max;
+        }
+
+        /**
+         * Возвращает поведение при выходе за границы.
+         * @return поведение
+         */
+        public Overflow getOverflow() {
+            return overflow;
+        }
+
+        /**
+         * Проверяет величину на вхождение в границы.
+         * @param money величина
+         * @return величина либо ближайшая граница в режиме {@link Overflow#SATURATE}
+         */
+        public Money check(Money money) {
+            if (money.units >= minUnits && money.units <= maxUnits) {
+                return money;
+            }
+            return bound(money);
+        }
+
+        /**
+         * Проверяемое сложение.
+         * @param a слагаемое
+         * @param b слагаемое
+         * @return сумма
+         */
+        public Money add(Money a, Money b) {
+            long result = ScaledCore.add(a.units, SCALE, b.units, SCALE, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.add(b));
+        }
+
+        /**
+         * Проверяемое вычитание.
+         * @param a уменьшаемое
+         * @param b вычитаемое
+         * @return разница
+         */
+        public Money subtract(Money a, Money b) {
+            long result = ScaledCore.subtract(a.units, SCALE, b.units, SCALE, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.subtract(b));
+        }
+
+        /**
+         * Проверяемое умножение на количество.
+         * @param a множитель
+         * @param b количество
+         * @return произведение
+         */
+        public Money multiply(Money a, Quantity b) {
+            long result = ScaledCore.multiply(a.units, SCALE, b.units(), 3, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.multiply(b));
+        }
+
+        /**
+         * Проверяемое умножение денег.
+         * @param a множитель
+         * @param b множитель
+         * @return произведение
+         */
+        public Money multiply(Money a, Money b) {
+            long result = ScaledCore.multiply(a.units, SCALE, b.units, SCALE, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.multiply(b));
+        }
+
+        /**
+         * Проверяемое деление на количество.
+         * @param a делимое
+         * @param b делитель
+         * @return частное
+         * @throws ArithmeticException при делении на ноль
+         */
+        public Money divide(Money a, Quantity b) {
+            long result = ScaledCore.divide(a.units, SCALE, b.units(), 3, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.divide(b));
+        }
+
+        /**
+         * Проверяемое деление денег.
+         * @param a делимое
+         * @param b делитель
+         * @return частное
+         * @throws ArithmeticException при делении на ноль
+         */
+        public Money divide(Money a, Money b) {
+            long result = ScaledCore.divide(a.units, SCALE, b.units, SCALE, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(a.divide(b));
+        }
+
+        /**
+         * Проверяемая сумма; границы проверяются для итоговой суммы, промежуточные суммы могут
+         * выходить за границы, но не за пределы {@code long}.
+         * @param values слагаемые
+         * @return сумма
+         */
+        public Money sum(Money... values) {
+            long result = 0;
+            for (Money value : values) {
+                result = ScaledCore.add(result, SCALE, value.units, SCALE, SCALE);
+                if (result == ScaledArithmetic.INFLATED) {
+                    return bound(MoneyMath.sum(values));
+                }
+            }
+            if (result >= minUnits && result <= maxUnits) {
+                return valueOf(result);
+            }
+            return bound(valueOf(result));
+        }
+
+        /**
+         * Проверяемое сложение копеек.
+         * @param a слагаемое в копейках
+         * @param b слагаемое в копейках
+         * @return сумма в копейках
+         */
+        public long addUnits(long a, long b) {
+            long result = ScaledArithmetic.add(a, b);
+            if (result >= minUnits && result <= maxUnits) {
+                return result;
+            }
+            return bound(new Money(BigDecimal.valueOf(a, SCALE).add(BigDecimal.valueOf(b, SCALE)))).units;
+        }
+
+        /**
+         * Проверяемое вычитание копеек.
+         * @param a уменьшаемое в копейках
+         * @param b вычитаемое в копейках
+         * @return разница в копейках
+         */
+        public long subtractUnits(long a, long b) {
+            long result = ScaledArithmetic.subtract(a, b);
+            if (result >= minUnits && result <= maxUnits) {
+                return result;
+            }
+            return bound(new Money(BigDecimal.valueOf(a, SCALE).subtract(BigDecimal.valueOf(b, SCALE)))).units;
+        }
+
+        /**
+         * Проверяемое умножение копеек на количество тысячных долей.
+         * @param a множитель в копейках
+         * @param b множитель в тысячных долях
+         * @return произведение в копейках
+         */
+        public long multiplyUnits(long a, long b) {
+            long result = ScaledArithmetic.multiply(a, SCALE, b, 3, SCALE);
+            if (result >= minUnits && result <= maxUnits) {
+                return result;
+            }
+            return bound(new Money(BigDecimal.valueOf(a, SCALE).multiply(BigDecimal.valueOf(b, 3)))).units;
+        }
+
+        private Money bound(Money exact) {
+            boolean below = exact.lt(min);
+            if (!below && exact.le(max)) {
+                return exact;
+            }
+            if (overflow == Overflow.THROW) {
+                throw new ArithmeticException("Money out of bounds [" + min + ", " + max + "]: " + exact);
+            }
+            return below ? min : max;
+        }
+    }
+
+    /**
+     * Кэш часто используемых величин, создается при первом обращении.
+     */
+    private static final class Cache {
+        static final ValueCache<Money> INSTANCE = new ValueCache<>(
+                "krsktilos.math.Money.cache", 99999,
+                units -> new Money(units, ScaledArithmetic.toBigDecimal(units, SCALE)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package krsktilos.math;
+
+/**
+ * Изменяемый сумматор денежных величин {@link Money}.
+ * Накопление выполняется в копейках без выделения памяти на каждом шаге;
+ * результат совпадает с цепочкой {@code total = total.add(value)}.
+ * Не потокобезопасен: для повторного использования в потоке достаточно {@link #reset()},
+ * например {@code ThreadLocal.withInitial(MoneyAccumulator::new)}.
+ * @author krsktilos
+ */
+public final class MoneyAccumulator {
+    private static final int SCALE = 2;
+    private static final int QUANTITY_SCALE = 3;
+
+    private final ScaledSum sum = new ScaledSum(SCALE);
+
+    /**
+     * Прибавляет деньги.
+     * @param money слагаемое
+     * @return этот сумматор
+     */
+    public MoneyAccumulator add(Money money) {
+        long units = money.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(money.getValue());
+        } else {
+            sum.add(units);
+        }
+        return this;
+    }
+
+    /**
+     * Вычитает деньги.
+     * @param money вычитаемое
+     * @return этот сумматор
+     */
+    public MoneyAccumulator subtract(Money money) {
+        long units = money.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.subtract(money.getValue());
+        } else {
+            sum.subtract(units);
+        }
+        return this;
+    }
+
+    /**
+     * Прибавляет стоимость {@code price * quantity}.
+     * Произведение округляется так же, как в {@link Money#multiply(Quantity)}.
+     * @param price цена
+     * @param quantity количество
+     * @return этот сумматор
+     */
+    public MoneyAccumulator addProduct(Money price, Quantity quantity) {
+        long units = ScaledArithmetic.INFLATED;
+        if (price.units() != ScaledArithmetic.INFLATED && quantity.units() != ScaledArithmetic.INFLATED) {
+            units = ScaledArithmetic.multiply(price.units(), SCALE, quantity.units(), QUANTITY_SCALE, SCALE);
+        }
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(price.multiply(quantity).getValue());
+        } else {
+            sum.add(units);
+        }
+        return this;
+    }
+
+    /**
+     * Прибавляет накопленное другим сумматором.
+     * @param accumulator сумматор
+     * @return этот сумматор
+     */
+    public MoneyAccumulator add(MoneyAccumulator accumulator) {
+        sum.add(accumulator.sum);
+        return this;
+    }
+
+    /**
+     * Сбрасывает накопленное значение в ноль.
+     * @return этот сумматор
+     */
+    public MoneyAccumulator reset() {
+        sum.reset();
+        return this;
+    }
+
+    /**
+     * Возвращает результат проверки на равенство накопленного нулю.
+     * @return результат
+     */
+    public boolean isZero() {
+        return sum.isZero();
+    }
+
+    /**
+     * Возвращает накопленное значение.
+     * @return сумма
+     */
+    public Money toMoney() {
+        long units = sum.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Money(sum.toBigDecimal());
+        }
+        return Money.ofUnits(units);
+    }
+
+    @Override
+    public String toString() {
+        return sum.toBigDecimal().toString();
+    }
+}
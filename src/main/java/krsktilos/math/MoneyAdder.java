@@ -0,0 +1,159 @@
+package krsktilos.math;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Накопитель денежной суммы для конкурентного добавления из многих потоков
+ * по аналогии с {@link java.util.concurrent.atomic.LongAdder}: при конкуренции за базовое значение
+ * или его переполнении потоки распределяются по ячейкам (в копейках), которые складываются при чтении.
+ * Ячейки разнесены по разным строкам кэша; поток, проигравший CAS за ячейку, переходит
+ * к другой. Сумма ячеек вычисляется точно;
+ * при переполнении ячейки добавление переходит в следующую.
+ * {@link #sum()} не атомарна относительно одновременных добавлений.
+ * @author krsktilos
+ */
+public final class MoneyAdder {
+    /**
+     * Расстояние между ячейками в {@code long}, 128 байт.
+     */
+    private static final int PADDING = 16;
+    private static final int MAX_CELLS = 64;
+
+    /**
+     * Номер ячейки потока: идентификатор потока, перемешанный мультипликативным хэшем;
+     * изменяется {@link #rehash(int)} при конкуренции за ячейку.
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+        int probe = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32);
+        return new int[]{probe != 0 ? probe : 1};
+    });
+
+    private final AtomicLong base = new AtomicLong();
+    private volatile AtomicLongArray cells;
+    private int mask;
+
+    /**
+     * Прибавляет величину.
+     * @param money слагаемое
+     * @throws ArithmeticException если слагаемое не помещается в {@code long} либо переполнены все ячейки
+     */
+    public void add(Money money) {
+        addUnits(UnitArrays.checked(money.units()));
+    }
+
+    /**
+     * Вычитает величину.
+     * @param money вычитаемое
+     * @throws ArithmeticException если вычитаемое не помещается в {@code long} либо переполнены все ячейки
+     */
+    public void subtract(Money money) {
+        long units = UnitArrays.checked(money.units());
+        addUnits(UnitArrays.checked(ScaledArithmetic.subtract(0, units)));
+    }
+
+    /**
+     * Прибавляет количество копеек.
+     * @param delta количество копеек
+     * @throws ArithmeticException если переполнены все ячейки
+     */
+    public void addUnits(long delta) {
+        AtomicLongArray cells = this.cells;
+        if (cells == null) {
+            long current = base.get();
+            long next = ScaledArithmetic.add(current, delta);
+            if (next != ScaledArithmetic.INFLATED && base.compareAndSet(current, next)) {
+                return;
+            }
+            cells = cells();
+        }
+        int[] probe = PROBE.get();
+        int attempt = 0;
+        while (attempt <= mask) {
+            int index = ((probe[0] + attempt) & mask) * PADDING;
+            long current = cells.get(index);
+            long next = ScaledArithmetic.add(current, delta);
+            if (next == ScaledArithmetic.INFLATED) {
+                attempt++;
+            } else if (cells.compareAndSet(index, current, next)) {
+                return;
+            } else {
+                probe[0] = rehash(probe[0]);
+                attempt = 0;
+            }
+        }
+        for (;;) {
+            long current = base.get();
+            if (base.compareAndSet(current, UnitArrays.checked(ScaledArithmetic.add(current, delta)))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Возвращает текущую сумму.
+     * @return сумма
+     */
+    public Money sum() {
+        ScaledSum sum = new ScaledSum(2);
+        sum.add(base.get());
+        AtomicLongArray cells = this.cells;
+        if (cells != null) {
+            for (int i = 0; i < cells.length(); i += PADDING) {
+                sum.add(cells.get(i));
+            }
+        }
+        return MoneyMath.toMoney(sum);
+    }
+
+    /**
+     * Возвращает текущую сумму и обнуляет накопитель.
+     * Добавления, выполняемые одновременно, попадают либо в результат, либо в новую сумму.
+     * @return сумма
+     */
+    public Money sumThenReset() {
+        ScaledSum sum = new ScaledSum(2);
+        sum.add(base.getAndSet(0));
+        AtomicLongArray cells = this.cells;
+        if (cells != null) {
+            for (int i = 0; i < cells.length(); i += PADDING) {
+                sum.add(cells.getAndSet(i, 0));
+            }
+        }
+        return MoneyMath.toMoney(sum);
+    }
+
+    /**
+     * Обнуляет накопитель.
+     */
+    public void reset() {
+        sumThenReset();
+    }
+
+    private synchronized AtomicLongArray cells() {
+        AtomicLongArray cells = this.cells;
+        if (cells == null) {
+            int count = Math.min(MAX_CELLS, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+            mask = count - 1;
+            cells = new AtomicLongArray(count * PADDING);
+            this.cells = cells;
+        }
+        return cells;
+    }
+
+    /**
+     * Перемешивает номер ячейки потока после неудачного CAS (xorshift), чтобы потоки,
+     * попавшие в одну ячейку, разошлись по разным, как в {@link java.util.concurrent.atomic.LongAdder}.
+     */
+    private static int rehash(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        return probe;
+    }
+
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+}
@@ -0,0 +1,104 @@
+package krsktilos.math;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Коллекторы {@link java.util.stream.Stream} для агрегации денежных величин {@link Money}.
+ * Накопление выполняется в изменяемом состоянии в копейках, без {@link Money} на каждый элемент;
+ * части параллельного потока объединяются сложением накопленного.
+ * Варианты с функцией-извлекателем подходят для {@link java.util.stream.Collectors#groupingBy}.
+ * @author krsktilos
+ */
+public final class MoneyCollectors {
+
+    private MoneyCollectors() {
+    }
+
+    /**
+     * Сумма величин.
+     * @return коллектор
+     */
+    public static Collector<Money, ?, Money> summing() {
+        return summing(Function.identity());
+    }
+
+    /**
+     * Сумма величин, извлеченных из элементов.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, Money> summing(Function<? super T, Money> mapper) {
+        return Collector.of(MoneyAccumulator::new,
+                (accumulator, item) -> accumulator.add(mapper.apply(item)),
+                MoneyAccumulator::add,
+                MoneyAccumulator::toMoney,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Сумма стоимостей {@code price * quantity}, произведения округляются как в {@link Money#multiply(Quantity)}.
+     * @param price извлекатель цены
+     * @param quantity извлекатель количества
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, Money> summingProducts(Function<? super T, Money> price,
+                                                             Function<? super T, Quantity> quantity) {
+        return Collector.of(MoneyAccumulator::new,
+                (accumulator, item) -> accumulator.addProduct(price.apply(item), quantity.apply(item)),
+                MoneyAccumulator::add,
+                MoneyAccumulator::toMoney,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Среднее значение величин, {@link Money#ZERO} для пустого потока.
+     * @return коллектор
+     */
+    public static Collector<Money, ?, Money> averaging() {
+        return averaging(Function.identity());
+    }
+
+    /**
+     * Среднее значение величин, извлеченных из элементов, {@link Money#ZERO} для пустого потока.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, Money> averaging(Function<? super T, Money> mapper) {
+        return Collector.of(MoneySummaryStatistics::new,
+                (statistics, item) -> statistics.accept(mapper.apply(item)),
+                MoneyCollectors::combine,
+                MoneySummaryStatistics::getAverage,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Статистика величин: количество, сумма, минимум, максимум, среднее.
+     * @return коллектор
+     */
+    public static Collector<Money, ?, MoneySummaryStatistics> summarizing() {
+        return summarizing(Function.identity());
+    }
+
+    /**
+     * Статистика величин, извлеченных из элементов.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, MoneySummaryStatistics> summarizing(Function<? super T, Money> mapper) {
+        return Collector.of(MoneySummaryStatistics::new,
+                (statistics, item) -> statistics.accept(mapper.apply(item)),
+                MoneyCollectors::combine,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static MoneySummaryStatistics combine(MoneySummaryStatistics left, MoneySummaryStatistics right) {
+        left.combine(right);
+        return left;
+    }
+}
@@ -0,0 +1,679 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Отложенное выражение над величинами {@link Money} и {@link Quantity}.
+ * Операции строят дерево, которое вычисляется только при вызове {@link #toMoney} / {@link #toQuantity}.
+ * В режиме {@link Rounding#FINAL} промежуточные результаты точные
+ * (частное - с точностью {@link MathContext#DECIMAL128}), результат округляется один раз;
+ * в режиме {@link Rounding#EACH_STEP} каждая операция округляется так же, как соответствующий метод
+ * {@link Money} / {@link Quantity} (тип результата - тип левого операнда).
+ * Аргументы выражения задаются индексами и передаются в минимальных единицах (копейки либо тысячные доли),
+ * одно выражение может вычисляться для колонок аргументов.
+ * Вычисление ведется в {@code long}, {@link BigDecimal} используется только при переполнении и для частного.
+ * Неизменяемо и потокобезопасно.
+ * @author krsktilos
+ */
+public final class MoneyExpr {
+    /**
+     * Режим округления выражения.
+     */
+    public enum Rounding {
+        /**
+         * Точные промежуточные результаты, одно округление результата.
+         */
+        FINAL,
+        /**
+         * Округление после каждой операции, как в методах {@link Money} и {@link Quantity}.
+         */
+        EACH_STEP
+    }
+
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final MathContext DIVISION_CONTEXT = MathContext.DECIMAL128;
+    private static final int MONEY_SCALE = 2;
+    private static final int QUANTITY_SCALE = 3;
+    private static final int MAX_SCALE = 18;
+
+    private static final byte CONSTANT = 0;
+    private static final byte ARGUMENT = 1;
+    private static final byte ADD = 2;
+    private static final byte SUBTRACT = 3;
+    private static final byte MULTIPLY = 4;
+    private static final byte DIVIDE = 5;
+
+    private final byte operation;
+    /**
+     * Масштаб типа результата: 2 для денег, 3 для количества.
+     */
+    private final int scale;
+    /**
+     * Количество единиц константы либо индекс аргумента.
+     */
+    private final long operand;
+    /**
+     * Значение константы, не помещающейся в {@code long}.
+     */
+    private final BigDecimal value;
+    private final MoneyExpr left;
+    private final MoneyExpr right;
+    private final Rounding rounding;
+    private volatile Program program;
+
+    private MoneyExpr(byte operation, int scale, long operand, BigDecimal value,
+                      MoneyExpr left, MoneyExpr right, Rounding rounding) {
+        this.operation = operation;
+        this.scale = scale;
+        this.operand = operand;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        this.rounding = rounding;
+    }
+
+    /**
+     * Создание выражения-константы.
+     * @param money величина
+     * @return выражение
+     */
+    public static MoneyExpr of(Money money) {
+        return constant(money.units(), money.getValue(), MONEY_SCALE);
+    }
+
+    /**
+     * Создание выражения-константы.
+     * @param quantity величина
+     * @return выражение
+     */
+    public static MoneyExpr of(Quantity quantity) {
+        return constant(quantity.units(), quantity.getValue(), QUANTITY_SCALE);
+    }
+
+    /**
+     * Создание денежного аргумента, передаваемого в копейках.
+     * @param index индекс аргумента
+     * @return выражение
+     */
+    public static MoneyExpr money(int index) {
+        return argument(index, MONEY_SCALE);
+    }
+
+    /**
+     * Создание количественного аргумента, передаваемого в тысячных долях.
+     * @param index индекс аргумента
+     * @return выражение
+     */
+    public static MoneyExpr quantity(int index) {
+        return argument(index, QUANTITY_SCALE);
+    }
+
+    private static MoneyExpr constant(long units, BigDecimal value, int scale) {
+        return new MoneyExpr(CONSTANT, scale, units, units == ScaledArithmetic.INFLATED ? value : null,
+                null, null, Rounding.FINAL);
+    }
+
+    private static MoneyExpr argument(int index, int scale) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Negative argument index: " + index);
+        }
+        return new MoneyExpr(ARGUMENT, scale, index, null, null, null, Rounding.FINAL);
+    }
+
+    /**
+     * Возвращает выражение с заданным режимом округления.
+     * Выражения, построенные из него операциями, наследуют режим.
+     * @param rounding режим округления
+     * @return выражение
+     */
+    public MoneyExpr withRounding(Rounding rounding) {
+        if (rounding == this.rounding) {
+            return this;
+        }
+        return new MoneyExpr(operation, scale, operand, value, left, right, rounding);
+    }
+
+    /**
+     * Отложенная операция сложения.
+     * @param expr слагаемое
+     * @return выражение
+     */
+    public MoneyExpr add(MoneyExpr expr) {
+        return binary(ADD, expr);
+    }
+
+    /**
+     * Отложенная операция сложения.
+     * @param money слагаемое
+     * @return выражение
+     */
+    public MoneyExpr add(Money money) {
+        return binary(ADD, of(money));
+    }
+
+    /**
+     * Отложенная операция сложения.
+     * @param quantity слагаемое
+     * @return выражение
+     */
+    public MoneyExpr add(Quantity quantity) {
+        return binary(ADD, of(quantity));
+    }
+
+    /**
+     * Отложенная операция вычитания.
+     * @param expr вычитаемое
+     * @return выражение
+     */
+    public MoneyExpr subtract(MoneyExpr expr) {
+        return binary(SUBTRACT, expr);
+    }
+
+    /**
+     * Отложенная операция вычитания.
+     * @param money вычитаемое
+     * @return выражение
+     */
+    public MoneyExpr subtract(Money money) {
+        return binary(SUBTRACT, of(money));
+    }
+
+    /**
+     * Отложенная операция вычитания.
+     * @param quantity вычитаемое
+     * @return выражение
+     */
+    public MoneyExpr subtract(Quantity quantity) {
+        return binary(SUBTRACT, of(quantity));
+    }
+
+    /**
+     * Отложенная операция умножения.
+     * @param expr множитель
+     * @return выражение
+     */
+    public MoneyExpr multiply(MoneyExpr expr) {
+        return binary(MULTIPLY, expr);
+    }
+
+    /**
+     * Отложенная операция умножения.
+     * @param money множитель
+     * @return выражение
+     */
+    public MoneyExpr multiply(Money money) {
+        return binary(MULTIPLY, of(money));
+    }
+
+    /**
+     * Отложенная операция умножения.
+     * @param quantity множитель
+     * @return выражение
+     */
+    public MoneyExpr multiply(Quantity quantity) {
+        return binary(MULTIPLY, of(quantity));
+    }
+
+    /**
+     * Отложенная операция деления.
+     * @param expr делитель
+     * @return выражение
+     */
+    public MoneyExpr divide(MoneyExpr expr) {
+        return binary(DIVIDE, expr);
+    }
+
+    /**
+     * Отложенная операция деления.
+     * @param money делитель
+     * @return выражение
+     */
+    public MoneyExpr divide(Money money) {
+        return binary(DIVIDE, of(money));
+    }
+
+    /**
+     * Отложенная операция деления.
+     * @param quantity делитель
+     * @return выражение
+     */
+    public MoneyExpr divide(Quantity quantity) {
+        return binary(DIVIDE, of(quantity));
+    }
+
+    private MoneyExpr binary(byte operation, MoneyExpr expr) {
+        return new MoneyExpr(operation, scale, 0, null, this, expr, rounding);
+    }
+
+    /**
+     * Вычисляет выражение как денежную величину.
+     * @param arguments аргументы в минимальных единицах
+     * @return величина
+     * @throws ArithmeticException при делении на ноль
+     */
+    public Money toMoney(long... arguments) {
+        Evaluator evaluator = new Evaluator(program());
+        evaluator.checkArity(arguments.length);
+        evaluator.run(arguments);
+        long units = evaluator.units(MONEY_SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return Money.of(evaluator.result(MONEY_SCALE));
+        }
+        return Money.ofUnits(units);
+    }
+
+    /**
+     * Вычисляет выражение как количественную величину.
+     * @param arguments аргументы в минимальных единицах
+     * @return величина
+     * @throws ArithmeticException при делении на ноль
+     */
+    public Quantity toQuantity(long... arguments) {
+        Evaluator evaluator = new Evaluator(program());
+        evaluator.checkArity(arguments.length);
+        evaluator.run(arguments);
+        long units = evaluator.units(QUANTITY_SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return Quantity.of(evaluator.result(QUANTITY_SCALE));
+        }
+        return Quantity.ofUnits(units);
+    }
+
+    /**
+     * Вычисляет выражение для каждой строки колонок аргументов.
+     * @param columns колонки аргументов в минимальных единицах
+     * @return колонка денежных величин
+     * @throws ArithmeticException при делении на ноль или если результат не помещается в {@code long}
+     */
+    public MoneyVector toMoneyVector(long[]... columns) {
+        return new MoneyVector(evaluate(columns, MONEY_SCALE));
+    }
+
+    /**
+     * Вычисляет выражение для каждой строки колонок аргументов.
+     * @param columns колонки аргументов в минимальных единицах
+     * @return колонка количественных величин
+     * @throws ArithmeticException при делении на ноль или если результат не помещается в {@code long}
+     */
+    public QuantityVector toQuantityVector(long[]... columns) {
+        return new QuantityVector(evaluate(columns, QUANTITY_SCALE));
+    }
+
+    private long[] evaluate(long[][] columns, int resultScale) {
+        Program program = program();
+        if (columns.length < program.arity) {
+            throw new IllegalArgumentException("Expected " + program.arity + " columns, got " + columns.length);
+        }
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("No columns");
+        }
+        int size = columns[0].length;
+        for (long[] column : columns) {
+            if (column.length != size) {
+                throw new IllegalArgumentException("Column sizes differ: " + size + " != " + column.length);
+            }
+        }
+        return program.evaluate(columns, size, resultScale);
+    }
+
+    private Program program() {
+        Program program = this.program;
+        if (program == null) {
+            program = new Program(this, rounding);
+            this.program = program;
+        }
+        return program;
+    }
+
+    @Override
+    public String toString() {
+        switch (operation) {
+            case CONSTANT:
+                return (value != null ? value : ScaledArithmetic.toBigDecimal(operand, scale)).toPlainString();
+            case ARGUMENT:
+                return (scale == MONEY_SCALE ? "money[" : "quantity[") + operand + ']';
+            default:
+                return "(" + left + ' ' + "  +-*/".charAt(operation) + ' ' + right + ')';
+        }
+    }
+
+    /**
+     * Выражение в обратной польской записи. Масштаб каждого результата в {@code long} и множители
+     * выравнивания масштабов вычисляются при построении, вычислителю остаются только целочисленные операции.
+     */
+    private static final class Program {
+        /**
+         * Масштаб результата, который не может быть представлен в {@code long}.
+         */
+        static final int INFLATED_SCALE = -1;
+
+        final boolean eachStep;
+        final byte[] operations;
+        final long[] operands;
+        final BigDecimal[] values;
+        /**
+         * Масштаб результата операции в {@code long} либо {@link #INFLATED_SCALE}.
+         */
+        final int[] scales;
+        /**
+         * Масштаб результата операции в режиме {@link Rounding#EACH_STEP}.
+         */
+        final int[] roundingScales;
+        final long[] leftFactors;
+        final long[] rightFactors;
+        /**
+         * Делитель для округления результата в режиме {@link Rounding#EACH_STEP}.
+         */
+        final long[] divisors;
+        final int depth;
+        int length;
+        int arity;
+
+        Program(MoneyExpr expr, Rounding rounding) {
+            int size = count(expr);
+            eachStep = rounding == Rounding.EACH_STEP;
+            operations = new byte[size];
+            operands = new long[size];
+            values = new BigDecimal[size];
+            scales = new int[size];
+            roundingScales = new int[size];
+            leftFactors = new long[size];
+            rightFactors = new long[size];
+            divisors = new long[size];
+            depth = depth(expr);
+            compile(expr);
+        }
+
+        private static int count(MoneyExpr expr) {
+            return expr.left == null ? 1 : count(expr.left) + count(expr.right) + 1;
+        }
+
+        /**
+         * Возвращает глубину стека, необходимую для вычисления.
+         */
+        private static int depth(MoneyExpr expr) {
+            return expr.left == null ? 1 : Math.max(depth(expr.left), depth(expr.right) + 1);
+        }
+
+        /**
+         * Добавляет выражение в программу.
+         * @return масштаб результата в {@code long} либо {@link #INFLATED_SCALE}
+         */
+        private int compile(MoneyExpr expr) {
+            int resultScale = expr.scale;
+            long leftFactor = 1;
+            long rightFactor = 1;
+            long divisor = 1;
+            if (expr.left != null) {
+                int leftScale = compile(expr.left);
+                int rightScale = compile(expr.right);
+                if (leftScale == INFLATED_SCALE || rightScale == INFLATED_SCALE) {
+                    resultScale = INFLATED_SCALE;
+                } else if (expr.operation == ADD || expr.operation == SUBTRACT) {
+                    int common = Math.max(leftScale, rightScale);
+                    leftFactor = ScaledArithmetic.powerOfTen(common - leftScale);
+                    rightFactor = ScaledArithmetic.powerOfTen(common - rightScale);
+                    if (eachStep) {
+                        divisor = ScaledArithmetic.powerOfTen(common - expr.scale);
+                    } else {
+                        resultScale = common;
+                    }
+                } else if (expr.operation == MULTIPLY) {
+                    if (eachStep) {
+                        divisor = ScaledArithmetic.powerOfTen(leftScale + rightScale - expr.scale);
+                    } else {
+                        resultScale = leftScale + rightScale <= MAX_SCALE ? leftScale + rightScale : INFLATED_SCALE;
+                    }
+                } else if (eachStep) {
+                    int exponent = rightScale - leftScale + expr.scale;
+                    if (exponent >= 0) {
+                        leftFactor = ScaledArithmetic.powerOfTen(exponent);
+                    } else {
+                        rightFactor = ScaledArithmetic.powerOfTen(-exponent);
+                    }
+                } else {
+                    resultScale = INFLATED_SCALE;
+                }
+            } else if (expr.operation == ARGUMENT) {
+                arity = (int) Math.max(arity, expr.operand + 1);
+            }
+            operations[length] = expr.operation;
+            operands[length] = expr.operand;
+            values[length] = expr.value;
+            scales[length] = resultScale;
+            roundingScales[length] = expr.scale;
+            leftFactors[length] = leftFactor;
+            rightFactors[length] = rightFactor;
+            divisors[length] = divisor;
+            length++;
+            return resultScale;
+        }
+
+        /**
+         * Вычисляет программу по колонкам: каждая операция выполняется циклом по всем строкам.
+         * Строки, в которых произошло переполнение, вычисляются повторно {@link Evaluator}.
+         */
+        long[] evaluate(long[][] columns, int size, int resultScale) {
+            Evaluator evaluator = new Evaluator(this);
+            long[] result = new long[size];
+            boolean[] inflated = new boolean[size];
+            boolean columnar = scales[length - 1] != INFLATED_SCALE;
+            for (int i = 0; i < length && columnar; i++) {
+                columnar = values[i] == null;
+            }
+            if (columnar) {
+                long[][] stack = new long[depth][];
+                long[][] buffers = new long[depth][];
+                int top = -1;
+                for (int i = 0; i < length; i++) {
+                    byte operation = operations[i];
+                    if (operation == ARGUMENT) {
+                        long[] column = columns[(int) operands[i]];
+                        for (int row = 0; row < size; row++) {
+                            inflated[row] |= column[row] == ScaledArithmetic.INFLATED;
+                        }
+                        stack[++top] = column;
+                    } else if (operation == CONSTANT) {
+                        long[] column = buffer(buffers, ++top, size);
+                        Arrays.fill(column, operands[i]);
+                        stack[top] = column;
+                    } else {
+                        top--;
+                        long[] left = stack[top];
+                        long[] right = stack[top + 1];
+                        long[] out = buffer(buffers, top, size);
+                        for (int row = 0; row < size; row++) {
+                            long value = operation == DIVIDE && inflated[row] ? 0
+                                    : apply(i, left[row], right[row]);
+                            inflated[row] |= value == ScaledArithmetic.INFLATED;
+                            out[row] = value;
+                        }
+                        stack[top] = out;
+                    }
+                }
+                long[] out = stack[0];
+                int scale = scales[length - 1];
+                for (int row = 0; row < size; row++) {
+                    long units = ScaledArithmetic.rescale(out[row], scale, resultScale);
+                    inflated[row] |= units == ScaledArithmetic.INFLATED;
+                    result[row] = units;
+                }
+            } else {
+                Arrays.fill(inflated, true);
+            }
+            long[] arguments = new long[columns.length];
+            for (int row = 0; row < size; row++) {
+                if (inflated[row]) {
+                    for (int j = 0; j < columns.length; j++) {
+                        arguments[j] = columns[j][row];
+                    }
+                    evaluator.run(arguments);
+                    long units = evaluator.units(resultScale);
+                    if (units == ScaledArithmetic.INFLATED) {
+                        units = ScaledArithmetic.toUnits(evaluator.result(resultScale), resultScale);
+                    }
+                    result[row] = UnitArrays.checked(units);
+                }
+            }
+            return result;
+        }
+
+        private static long[] buffer(long[][] buffers, int index, int size) {
+            if (buffers[index] == null) {
+                buffers[index] = new long[size];
+            }
+            return buffers[index];
+        }
+
+        /**
+         * Операция {@code i} над {@code long} с выравниванием масштабов и округлением.
+         * @return результат в масштабе {@link #scales} либо {@link ScaledArithmetic#INFLATED}
+         */
+        long apply(int i, long x, long y) {
+            long leftFactor = leftFactors[i];
+            long rightFactor = rightFactors[i];
+            if (leftFactor != 1) {
+                x = ScaledArithmetic.multiply(x, leftFactor);
+            }
+            if (rightFactor != 1) {
+                y = ScaledArithmetic.multiply(y, rightFactor);
+            }
+            if (x == ScaledArithmetic.INFLATED || y == ScaledArithmetic.INFLATED) {
+                return ScaledArithmetic.INFLATED;
+            }
+            long result;
+            switch (operations[i]) {
+                case ADD:
+                    result = ScaledArithmetic.add(x, y);
+                    break;
+                case SUBTRACT:
+                    result = ScaledArithmetic.subtract(x, y);
+                    break;
+                case MULTIPLY:
+                    result = ScaledArithmetic.multiply(x, y);
+                    break;
+                default:
+                    result = ScaledArithmetic.divide(x, y);
+                    break;
+            }
+            long divisor = divisors[i];
+            if (divisor == 1 || result == ScaledArithmetic.INFLATED) {
+                return result;
+            }
+            return ScaledArithmetic.divide(result, divisor);
+        }
+    }
+
+    /**
+     * Стековый вычислитель программы; значение стека хранится как количество единиц
+     * в масштабе, известном из программы, либо как {@link BigDecimal}.
+     */
+    private static final class Evaluator {
+        private final Program program;
+        private final long[] units;
+        private final int[] scales;
+        private final BigDecimal[] values;
+
+        Evaluator(Program program) {
+            this.program = program;
+            this.units = new long[program.depth];
+            this.scales = new int[program.depth];
+            this.values = new BigDecimal[program.depth];
+        }
+
+        void checkArity(int count) {
+            if (count < program.arity) {
+                throw new IllegalArgumentException("Expected " + program.arity + " arguments, got " + count);
+            }
+        }
+
+        void run(long[] arguments) {
+            int top = -1;
+            for (int i = 0; i < program.length; i++) {
+                byte operation = program.operations[i];
+                if (operation == CONSTANT || operation == ARGUMENT) {
+                    top++;
+                    long operand = operation == CONSTANT ? program.operands[i] : arguments[(int) program.operands[i]];
+                    units[top] = operand;
+                    scales[top] = program.scales[i];
+                    values[top] = operand != ScaledArithmetic.INFLATED ? null
+                            : operation == CONSTANT ? program.values[i] : BigDecimal.valueOf(operand, program.scales[i]);
+                } else {
+                    top--;
+                    if (values[top] != null || values[top + 1] != null || program.scales[i] == Program.INFLATED_SCALE
+                            || !compact(i, top)) {
+                        inflated(i, top);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Операция над {@code long}.
+         * @return {@code false} при переполнении
+         */
+        private boolean compact(int i, int a) {
+            long result = program.apply(i, units[a], units[a + 1]);
+            if (result == ScaledArithmetic.INFLATED) {
+                return false;
+            }
+            units[a] = result;
+            scales[a] = program.scales[i];
+            return true;
+        }
+
+        private void inflated(int i, int a) {
+            BigDecimal x = value(a);
+            BigDecimal y = value(a + 1);
+            int roundingScale = program.roundingScales[i];
+            BigDecimal result;
+            switch (program.operations[i]) {
+                case ADD:
+                    result = x.add(y);
+                    break;
+                case SUBTRACT:
+                    result = x.subtract(y);
+                    break;
+                case MULTIPLY:
+                    result = x.multiply(y);
+                    break;
+                default:
+                    result = program.eachStep
+                            ? x.divide(y, roundingScale, ROUNDING_MODE) : x.divide(y, DIVISION_CONTEXT);
+                    break;
+            }
+            if (program.eachStep) {
+                result = result.setScale(roundingScale, ROUNDING_MODE);
+            }
+            int scale = program.scales[i];
+            long compact = scale != Program.INFLATED_SCALE && scale == result.scale()
+                    ? ScaledArithmetic.toUnits(result, scale) : ScaledArithmetic.INFLATED;
+            units[a] = compact;
+            scales[a] = scale;
+            values[a] = compact == ScaledArithmetic.INFLATED ? result : null;
+        }
+
+        private BigDecimal value(int index) {
+            BigDecimal value = values[index];
+            return value != null ? value : ScaledArithmetic.toBigDecimal(units[index], scales[index]);
+        }
+
+        /**
+         * Округляет результат вычисления до масштаба.
+         * @return количество единиц либо {@link ScaledArithmetic#INFLATED}
+         */
+        long units(int scale) {
+            if (values[0] != null) {
+                return ScaledArithmetic.INFLATED;
+            }
+            return ScaledArithmetic.rescale(units[0], scales[0], scale);
+        }
+
+        BigDecimal result(int scale) {
+            return value(0).setScale(scale, ROUNDING_MODE);
+        }
+    }
+}
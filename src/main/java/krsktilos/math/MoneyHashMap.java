@@ -0,0 +1,245 @@
+package krsktilos.math;
+
+import java.util.Arrays;
+
+/**
+ * Хэш-таблица с ключами - денежными величинами {@link Money}, хранимыми как количество копеек.
+ * Открытая адресация без упаковки ключей и без объектов записей.
+ * Ключ должен помещаться в {@code long}. Не потокобезопасна.
+ * @param <V> тип значения
+ * @author krsktilos
+ */
+public final class MoneyHashMap<V> {
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Создание пустой таблицы.
+     */
+    public MoneyHashMap() {
+        this(8);
+    }
+
+    /**
+     * Создание пустой таблицы под заданное количество ключей.
+     * @param expectedSize ожидаемое количество ключей
+     */
+    public MoneyHashMap(int expectedSize) {
+        allocate(UnitHashing.capacity(expectedSize));
+    }
+
+    /**
+     * Возвращает количество ключей.
+     * @return количество
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет отсутствие ключей.
+     * @return результат
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return результат
+     */
+    public boolean containsKey(Money key) {
+        return containsUnits(key.units());
+    }
+
+    /**
+     * Проверяет наличие ключа, заданного количеством копеек.
+     * @param units количество копеек
+     * @return результат
+     */
+    public boolean containsUnits(long units) {
+        return units != UnitHashing.EMPTY && find(units) >= 0;
+    }
+
+    /**
+     * Возвращает значение по ключу либо {@code null}.
+     * @param key ключ
+     * @return значение
+     */
+    public V get(Money key) {
+        return getUnits(key.units());
+    }
+
+    /**
+     * Возвращает значение по ключу, заданному количеством копеек, либо {@code null}.
+     * @param units количество копеек
+     * @return значение
+     */
+    @SuppressWarnings("unchecked")
+    public V getUnits(long units) {
+        if (units == UnitHashing.EMPTY) {
+            return null;
+        }
+        int slot = find(units);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * Связывает значение с ключом.
+     * @param key ключ
+     * @param value значение
+     * @return предыдущее значение либо {@code null}
+     * @throws ArithmeticException если ключ не помещается в {@code long}
+     */
+    public V put(Money key, V value) {
+        return putUnits(UnitArrays.checked(key.units()), value);
+    }
+
+    /**
+     * Связывает значение с ключом, заданным количеством копеек.
+     * @param units количество копеек
+     * @param value значение
+     * @return предыдущее значение либо {@code null}
+     * @throws ArithmeticException если ключ равен {@link Long#MIN_VALUE}
+     */
+    @SuppressWarnings("unchecked")
+    public V putUnits(long units, V value) {
+        int slot = find(UnitArrays.checked(units));
+        if (slot >= 0) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        slot = -slot - 1;
+        keys[slot] = units;
+        values[slot] = value;
+        if (++size > (mask + 1) >> 1) {
+            allocate((mask + 1) << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет ключ.
+     * @param key ключ
+     * @return удаленное значение либо {@code null}
+     */
+    public V remove(Money key) {
+        return removeUnits(key.units());
+    }
+
+    /**
+     * Удаляет ключ, заданный количеством копеек.
+     * @param units количество копеек
+     * @return удаленное значение либо {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V removeUnits(long units) {
+        if (units == UnitHashing.EMPTY) {
+            return null;
+        }
+        int slot = find(units);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        int gap = slot;
+        for (int i = (slot + 1) & mask; keys[i] != UnitHashing.EMPTY; i = (i + 1) & mask) {
+            if (UnitHashing.shouldMove(UnitHashing.index(keys[i], mask), gap, i, mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = UnitHashing.EMPTY;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        Arrays.fill(keys, UnitHashing.EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Передает все пары ключ-значение в порядке таблицы.
+     * @param consumer получатель
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != UnitHashing.EMPTY) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Ищет ключ.
+     * @return ячейка ключа либо {@code -(свободная ячейка) - 1}
+     */
+    private int find(long units) {
+        for (int i = UnitHashing.index(units, mask); ; i = (i + 1) & mask) {
+            long key = keys[i];
+            if (key == units) {
+                return i;
+            }
+            if (key == UnitHashing.EMPTY) {
+                return -i - 1;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, UnitHashing.EMPTY);
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != UnitHashing.EMPTY) {
+                    int slot = -find(oldKeys[i]) - 1;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((units, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            ScaledText.format(units, 2, builder);
+            builder.append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Получатель пары ключ-значение.
+     * @param <V> тип значения
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Принимает пару.
+         * @param units ключ в копейках
+         * @param value значение
+         */
+        void accept(long units, V value);
+    }
+}
@@ -0,0 +1,404 @@
+package krsktilos.math;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Гистограмма денежных величин в копейках с заданной относительной точностью, по устройству
+ * HdrHistogram. Диапазон {@code [0, highestTrackable]} делится на интервалы-степени двойки,
+ * каждый интервал - на равные поддиапазоны так, что величина восстанавливается с точностью
+ * {@code significantDigits} значащих цифр. Память постоянна и определяется только диапазоном
+ * и точностью; запись - вычисление индекса и инкремент без выделения памяти.
+ * Гистограмма не потокобезопасна: каждый поток пишет в свою, снимки объединяются {@link #add(MoneyHistogram)}.
+ * @author krsktilos
+ */
+public final class MoneyHistogram {
+    private static final int MAGIC = 0x4B4D4847;
+    private static final byte VERSION = 1;
+    private static final int MAX_SIGNIFICANT_DIGITS = 5;
+
+    private final long highestTrackable;
+    private final int significantDigits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final int subBucketCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] counts;
+
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * @param highestTrackable наибольшая записываемая величина
+     * @param significantDigits количество значащих цифр (0..5)
+     */
+    public MoneyHistogram(Money highestTrackable, int significantDigits) {
+        this(UnitArrays.checked(highestTrackable.units()), significantDigits);
+    }
+
+    /**
+     * @param highestTrackableUnits наибольшая записываемая величина в копейках
+     * @param significantDigits количество значащих цифр (0..5)
+     */
+    public MoneyHistogram(long highestTrackableUnits, int significantDigits) {
+        if (significantDigits < 0 || significantDigits > MAX_SIGNIFICANT_DIGITS) {
+            throw new IllegalArgumentException("Significant digits must be in [0, " + MAX_SIGNIFICANT_DIGITS + "]: "
+                    + significantDigits);
+        }
+        if (highestTrackableUnits < 2) {
+            throw new IllegalArgumentException("Highest trackable value must be at least 2: " + highestTrackableUnits);
+        }
+        this.highestTrackable = highestTrackableUnits;
+        this.significantDigits = significantDigits;
+        long largestSingleUnitValue = 2 * ScaledArithmetic.powerOfTen(significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestSingleUnitValue - 1);
+        this.subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+        this.subBucketCount = 1 << (subBucketHalfCountMagnitude + 1);
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+        this.counts = new long[(bucketCount(highestTrackableUnits) + 1) * subBucketHalfCount];
+    }
+
+    private int bucketCount(long highest) {
+        long smallestUntrackable = subBucketCount;
+        int buckets = 1;
+        while (smallestUntrackable <= highest) {
+            if (smallestUntrackable > Long.MAX_VALUE / 2) {
+                return buckets + 1;
+            }
+            smallestUntrackable <<= 1;
+            buckets++;
+        }
+        return buckets;
+    }
+
+    /**
+     * Записывает величину.
+     * @param value величина
+     * @throws IllegalArgumentException если величина отрицательна или больше наибольшей записываемой
+     */
+    public void record(Money value) {
+        recordUnits(value.units(), 1);
+    }
+
+    /**
+     * Записывает величину в копейках.
+     * @param units величина в копейках
+     * @throws IllegalArgumentException если величина отрицательна или больше наибольшей записываемой
+     */
+    public void recordUnits(long units) {
+        recordUnits(units, 1);
+    }
+
+    /**
+     * Записывает величину в копейках несколько раз.
+     * @param units величина в копейках
+     * @param count количество
+     * @throws IllegalArgumentException если величина отрицательна или больше наибольшей записываемой
+     */
+    public void recordUnits(long units, long count) {
+        if (units < 0 || units > highestTrackable) {
+            throw new IllegalArgumentException("Value out of range [0, " + highestTrackable + "]: " + units);
+        }
+        counts[index(units)] += count;
+        totalCount += count;
+        if (units < min) {
+            min = units;
+        }
+        if (units > max) {
+            max = units;
+        }
+    }
+
+    /**
+     * Возвращает количество записанных величин.
+     * @return количество
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Возвращает наименьшую записанную величину (точно).
+     * @return наименьшая величина
+     * @throws NoSuchElementException если величин нет
+     */
+    public Money getMin() {
+        checkNotEmpty();
+        return Money.ofUnits(min);
+    }
+
+    /**
+     * Возвращает наибольшую записанную величину (точно).
+     * @return наибольшая величина
+     * @throws NoSuchElementException если величин нет
+     */
+    public Money getMax() {
+        checkNotEmpty();
+        return Money.ofUnits(max);
+    }
+
+    /**
+     * Возвращает величину перцентиля: наибольшую величину поддиапазона, в котором накопленное
+     * количество достигает {@code percentile} процентов, но не больше наибольшей записанной.
+     * @param percentile перцентиль от 0 до 100
+     * @return величина
+     * @throws NoSuchElementException если величин нет
+     */
+    public Money getValueAtPercentile(double percentile) {
+        return Money.ofUnits(getUnitsAtPercentile(percentile));
+    }
+
+    /**
+     * Возвращает величину перцентиля в копейках, см. {@link #getValueAtPercentile(double)}.
+     * @param percentile перцентиль от 0 до 100
+     * @return величина в копейках
+     * @throws NoSuchElementException если величин нет
+     */
+    public long getUnitsAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+        }
+        checkNotEmpty();
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulative = 0;
+        for (int index = 0; index < counts.length; index++) {
+            cumulative += counts[index];
+            if (cumulative >= target) {
+                return Math.max(min, Math.min(max, highestEquivalent(index)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Возвращает количество величин, не больших заданной (с точностью гистограммы).
+     * @param value величина
+     * @return количество
+     */
+    public long getCountAtOrBelow(Money value) {
+        long units = value.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return value.getValue().signum() < 0 ? 0 : totalCount;
+        }
+        if (units < 0) {
+            return 0;
+        }
+        int last = units > highestTrackable ? counts.length - 1 : index(units);
+        long result = 0;
+        for (int index = 0; index <= last; index++) {
+            result += counts[index];
+        }
+        return result;
+    }
+
+    /**
+     * Перебирает непустые поддиапазоны по возрастанию.
+     * @param consumer получатель
+     */
+    public void forEachBucket(BucketConsumer consumer) {
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] != 0) {
+                consumer.accept(lowestEquivalent(index), highestEquivalent(index), counts[index]);
+            }
+        }
+    }
+
+    /**
+     * Добавляет записи другой гистограммы с той же точностью.
+     * @param other гистограмма
+     * @throws IllegalArgumentException если точность различается или величины другой гистограммы
+     *                                  не помещаются в диапазон этой
+     */
+    public void add(MoneyHistogram other) {
+        if (other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Incompatible histograms: " + significantDigits + " and "
+                    + other.significantDigits + " significant digits");
+        }
+        if (other.totalCount == 0) {
+            return;
+        }
+        if (other.max > highestTrackable) {
+            throw new IllegalArgumentException("Value out of range [0, " + highestTrackable + "]: " + other.max);
+        }
+        int length = Math.min(counts.length, other.counts.length);
+        for (int index = 0; index < length; index++) {
+            counts[index] += other.counts[index];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Возвращает независимую копию гистограммы.
+     * @return копия
+     */
+    public MoneyHistogram copy() {
+        MoneyHistogram copy = new MoneyHistogram(highestTrackable, significantDigits);
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    /**
+     * Возвращает наибольший размер записи {@link #writeTo(ByteBuffer)}.
+     * @return размер в байтах
+     */
+    public int getMaxEncodedSize() {
+        return 4 + 2 + 3 * 10 + 5 + counts.length * 10;
+    }
+
+    /**
+     * Записывает гистограмму в компактном двоичном формате: заголовок и счетчики в zig-zag varint,
+     * где серии пустых поддиапазонов записываются одним отрицательным числом.
+     * @param out получатель
+     * @throws java.nio.BufferOverflowException если места недостаточно
+     */
+    public void writeTo(ByteBuffer out) {
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put((byte) significantDigits);
+        ScaledCodec.writeVarLong(out, highestTrackable);
+        ScaledCodec.writeVarLong(out, min);
+        ScaledCodec.writeVarLong(out, max);
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        ScaledCodec.writeVarLong(out, length);
+        int index = 0;
+        while (index < length) {
+            if (counts[index] != 0) {
+                ScaledCodec.writeVarLong(out, counts[index++]);
+                continue;
+            }
+            int zeros = 0;
+            while (counts[index] == 0) {
+                zeros++;
+                index++;
+            }
+            ScaledCodec.writeVarLong(out, -zeros);
+        }
+    }
+
+    /**
+     * Читает гистограмму, записанную {@link #writeTo(ByteBuffer)}.
+     * @param in источник
+     * @return гистограмма
+     * @throws IllegalArgumentException если запись некорректна
+     */
+    public static MoneyHistogram readFrom(ByteBuffer in) {
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            throw new IllegalArgumentException("Not a money histogram");
+        }
+        int significantDigits = in.get();
+        MoneyHistogram histogram = new MoneyHistogram(ScaledCodec.readVarLong(in), significantDigits);
+        long min = ScaledCodec.readVarLong(in);
+        long max = ScaledCodec.readVarLong(in);
+        long length = ScaledCodec.readVarLong(in);
+        boolean empty = min == Long.MAX_VALUE && max == Long.MIN_VALUE;
+        if (!empty && (min < 0 || min > max || max > histogram.highestTrackable)) {
+            throw new IllegalArgumentException("Malformed histogram");
+        }
+        if (length < 0 || length > histogram.counts.length) {
+            throw new IllegalArgumentException("Malformed histogram");
+        }
+        long total = 0;
+        int index = 0;
+        while (index < length) {
+            long count = ScaledCodec.readVarLong(in);
+            if (count > 0) {
+                histogram.counts[index++] = count;
+                total += count;
+            } else if (count < 0 && -count <= length - index) {
+                index += (int) -count;
+            } else {
+                throw new IllegalArgumentException("Malformed histogram");
+            }
+        }
+        if (empty != (total == 0) || !empty && (histogram.counts[histogram.index(min)] == 0
+                || histogram.index(max) != length - 1 || histogram.countsBelow(histogram.index(min)) != 0)) {
+            throw new IllegalArgumentException("Malformed histogram");
+        }
+        if (total != 0) {
+            histogram.totalCount = total;
+            histogram.min = min;
+            histogram.max = max;
+        }
+        return histogram;
+    }
+
+    private long countsBelow(int index) {
+        long result = 0;
+        for (int i = 0; i < index; i++) {
+            result += counts[i];
+        }
+        return result;
+    }
+
+    private int index(long units) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(units | subBucketMask);
+        int subBucketIndex = (int) (units >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long lowestEquivalent(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return (long) subBucketIndex << bucketIndex;
+    }
+
+    private long highestEquivalent(int index) {
+        int bucketIndex = Math.max((index >> subBucketHalfCountMagnitude) - 1, 0);
+        return lowestEquivalent(index) + (1L << bucketIndex) - 1;
+    }
+
+    private void checkNotEmpty() {
+        if (totalCount == 0) {
+            throw new NoSuchElementException("No values");
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (totalCount == 0) {
+            return "MoneyHistogram{count=0}";
+        }
+        return "MoneyHistogram{count=" + totalCount
+                + ", min=" + getMin()
+                + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99)
+                + ", max=" + getMax() + '}';
+    }
+
+    /**
+     * Получатель поддиапазонов гистограммы.
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        /**
+         * @param lowUnits нижняя граница поддиапазона в копейках (включительно)
+         * @param highUnits верхняя граница поддиапазона в копейках (включительно)
+         * @param count количество величин
+         */
+        void accept(long lowUnits, long highUnits, long count);
+    }
+}
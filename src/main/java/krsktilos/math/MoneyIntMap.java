@@ -0,0 +1,283 @@
+package krsktilos.math;
+
+import java.util.Arrays;
+
+/**
+ * Хэш-таблица {@link Money} - {@code int} (например, количество заявок на ценовом уровне),
+ * ключи хранятся как количество копеек, значения - без упаковки.
+ * Отсутствующему ключу соответствует значение {@link #getMissingValue()}.
+ * Ключ должен помещаться в {@code long}. Не потокобезопасна.
+ * @author krsktilos
+ */
+public final class MoneyIntMap {
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Создание пустой таблицы, отсутствующему ключу соответствует 0.
+     */
+    public MoneyIntMap() {
+        this(8, 0);
+    }
+
+    /**
+     * Создание пустой таблицы под заданное количество ключей.
+     * @param expectedSize ожидаемое количество ключей
+     * @param missingValue значение отсутствующего ключа
+     */
+    public MoneyIntMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(UnitHashing.capacity(expectedSize));
+    }
+
+    /**
+     * Возвращает значение отсутствующего ключа.
+     * @return значение
+     */
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Возвращает количество ключей.
+     * @return количество
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет отсутствие ключей.
+     * @return результат
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return результат
+     */
+    public boolean containsKey(Money key) {
+        return containsUnits(key.units());
+    }
+
+    /**
+     * Проверяет наличие ключа, заданного количеством копеек.
+     * @param units количество копеек
+     * @return результат
+     */
+    public boolean containsUnits(long units) {
+        return units != UnitHashing.EMPTY && find(units) >= 0;
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение либо {@link #getMissingValue()}
+     */
+    public int get(Money key) {
+        return getUnits(key.units());
+    }
+
+    /**
+     * Возвращает значение по ключу, заданному количеством копеек.
+     * @param units количество копеек
+     * @return значение либо {@link #getMissingValue()}
+     */
+    public int getUnits(long units) {
+        if (units == UnitHashing.EMPTY) {
+            return missingValue;
+        }
+        int slot = find(units);
+        return slot >= 0 ? values[slot] : missingValue;
+    }
+
+    /**
+     * Связывает значение с ключом.
+     * @param key ключ
+     * @param value значение
+     * @return предыдущее значение либо {@link #getMissingValue()}
+     * @throws ArithmeticException если ключ не помещается в {@code long}
+     */
+    public int put(Money key, int value) {
+        return putUnits(UnitArrays.checked(key.units()), value);
+    }
+
+    /**
+     * Связывает значение с ключом, заданным количеством копеек.
+     * @param units количество копеек
+     * @param value значение
+     * @return предыдущее значение либо {@link #getMissingValue()}
+     * @throws ArithmeticException если ключ равен {@link Long#MIN_VALUE}
+     */
+    public int putUnits(long units, int value) {
+        int slot = slot(UnitArrays.checked(units));
+        int previous = values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * Прибавляет приращение к значению ключа; отсутствующий ключ добавляется со значением
+     * {@code getMissingValue() + delta}.
+     * @param key ключ
+     * @param delta приращение
+     * @return новое значение
+     * @throws ArithmeticException если ключ не помещается в {@code long}
+     */
+    public int addTo(Money key, int delta) {
+        return addToUnits(UnitArrays.checked(key.units()), delta);
+    }
+
+    /**
+     * Прибавляет приращение к значению ключа, заданного количеством копеек, см. {@link #addTo(Money, int)}.
+     * @param units количество копеек
+     * @param delta приращение
+     * @return новое значение
+     * @throws ArithmeticException если ключ равен {@link Long#MIN_VALUE}
+     */
+    public int addToUnits(long units, int delta) {
+        int slot = slot(UnitArrays.checked(units));
+        return values[slot] += delta;
+    }
+
+    /**
+     * Удаляет ключ.
+     * @param key ключ
+     * @return удаленное значение либо {@link #getMissingValue()}
+     */
+    public int remove(Money key) {
+        return removeUnits(key.units());
+    }
+
+    /**
+     * Удаляет ключ, заданный количеством копеек.
+     * @param units количество копеек
+     * @return удаленное значение либо {@link #getMissingValue()}
+     */
+    public int removeUnits(long units) {
+        if (units == UnitHashing.EMPTY) {
+            return missingValue;
+        }
+        int slot = find(units);
+        if (slot < 0) {
+            return missingValue;
+        }
+        int previous = values[slot];
+        int gap = slot;
+        for (int i = (slot + 1) & mask; keys[i] != UnitHashing.EMPTY; i = (i + 1) & mask) {
+            if (UnitHashing.shouldMove(UnitHashing.index(keys[i], mask), gap, i, mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = UnitHashing.EMPTY;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        Arrays.fill(keys, UnitHashing.EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Передает все пары ключ-значение в порядке таблицы.
+     * @param consumer получатель
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != UnitHashing.EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Возвращает ячейку ключа, добавляя ключ со значением {@link #missingValue} при отсутствии.
+     */
+    private int slot(long units) {
+        int slot = find(units);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size + 1 > (mask + 1) >> 1) {
+            allocate((mask + 1) << 1);
+            slot = find(units);
+        }
+        slot = -slot - 1;
+        keys[slot] = units;
+        values[slot] = missingValue;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Ищет ключ.
+     * @return ячейка ключа либо {@code -(свободная ячейка) - 1}
+     */
+    private int find(long units) {
+        for (int i = UnitHashing.index(units, mask); ; i = (i + 1) & mask) {
+            long key = keys[i];
+            if (key == units) {
+                return i;
+            }
+            if (key == UnitHashing.EMPTY) {
+                return -i - 1;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, UnitHashing.EMPTY);
+        if (oldKeys != null) {
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != UnitHashing.EMPTY) {
+                    int slot = -find(oldKeys[i]) - 1;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((units, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            ScaledText.format(units, 2, builder);
+            builder.append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Получатель пары ключ-значение.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Принимает пару.
+         * @param units ключ в копейках
+         * @param value значение
+         */
+        void accept(long units, int value);
+    }
+}
@@ -0,0 +1,362 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Агрегатные операции над наборами денежных величин {@link Money}.
+ * Промежуточные суммы точные, результат округляется один раз по правилам {@link Money}.
+ * Массивы длиннее {@link #PARALLEL_THRESHOLD} обрабатываются параллельно в {@link ForkJoinPool#commonPool()},
+ * потоки {@link Stream} - в соответствии с их собственным режимом ({@link Stream#parallel()}).
+ * Результат не зависит от способа разбиения.
+ * @author krsktilos
+ */
+public final class MoneyMath {
+    /**
+     * Размер части массива, обрабатываемой одной задачей.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int SCALE = 2;
+    private static final int QUANTITY_SCALE = 3;
+    private static final int PRODUCT_SCALE = SCALE + QUANTITY_SCALE;
+
+    private MoneyMath() {
+    }
+
+    /**
+     * Возвращает сумму величин.
+     * @param values величины
+     * @return сумма
+     */
+    public static Money sum(Money... values) {
+        return toMoney(sumOf(values));
+    }
+
+    /**
+     * Возвращает сумму величин.
+     * @param values величины
+     * @return сумма
+     */
+    public static Money sum(Iterable<Money> values) {
+        ScaledSum sum = new ScaledSum(SCALE);
+        for (Money value : values) {
+            add(sum, value);
+        }
+        return toMoney(sum);
+    }
+
+    /**
+     * Возвращает сумму величин.
+     * @param values величины
+     * @return сумма
+     */
+    public static Money sum(Stream<Money> values) {
+        return toMoney(values.collect(() -> new ScaledSum(SCALE), MoneyMath::add, ScaledSum::add));
+    }
+
+    /**
+     * Возвращает среднее значение величин.
+     * @param values величины
+     * @return среднее
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money average(Money... values) {
+        return average(sumOf(values), values.length);
+    }
+
+    /**
+     * Возвращает среднее значение величин.
+     * @param values величины
+     * @return среднее
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money average(Iterable<Money> values) {
+        ScaledSum sum = new ScaledSum(SCALE);
+        long count = 0;
+        for (Money value : values) {
+            add(sum, value);
+            count++;
+        }
+        return average(sum, count);
+    }
+
+    /**
+     * Возвращает среднее значение величин.
+     * @param values величины
+     * @return среднее
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money average(Stream<Money> values) {
+        MoneySummaryStatistics statistics = values.collect(
+                MoneySummaryStatistics::new, MoneySummaryStatistics::accept, MoneySummaryStatistics::combine);
+        if (statistics.getCount() == 0) {
+            throw empty();
+        }
+        return statistics.getAverage();
+    }
+
+    /**
+     * Возвращает минимальную величину.
+     * @param values величины
+     * @return минимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money min(Money... values) {
+        return reduce(values, MoneyMath::min);
+    }
+
+    /**
+     * Возвращает минимальную величину.
+     * @param values величины
+     * @return минимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money min(Iterable<Money> values) {
+        return reduce(values, MoneyMath::min);
+    }
+
+    /**
+     * Возвращает минимальную величину.
+     * @param values величины
+     * @return минимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money min(Stream<Money> values) {
+        return values.reduce(MoneyMath::min).orElseThrow(MoneyMath::empty);
+    }
+
+    /**
+     * Возвращает максимальную величину.
+     * @param values величины
+     * @return максимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money max(Money... values) {
+        return reduce(values, MoneyMath::max);
+    }
+
+    /**
+     * Возвращает максимальную величину.
+     * @param values величины
+     * @return максимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money max(Iterable<Money> values) {
+        return reduce(values, MoneyMath::max);
+    }
+
+    /**
+     * Возвращает максимальную величину.
+     * @param values величины
+     * @return максимум
+     * @throws NoSuchElementException если величин нет
+     */
+    public static Money max(Stream<Money> values) {
+        return values.reduce(MoneyMath::max).orElseThrow(MoneyMath::empty);
+    }
+
+    /**
+     * Возвращает взвешенную сумму {@code Σ values[i] * weights[i]}.
+     * Произведения не округляются, округляется только итог,
+     * в отличие от суммы {@link Money#multiply(Quantity)} по строкам.
+     * @param values величины
+     * @param weights веса
+     * @return взвешенная сумма
+     */
+    public static Money weightedSum(Money[] values, Quantity[] weights) {
+        if (values.length != weights.length) {
+            throw new IllegalArgumentException("Array sizes differ: " + values.length + " != " + weights.length);
+        }
+        return toMoney(invoke(values.length, (from, to) -> {
+            ScaledSum sum = new ScaledSum(PRODUCT_SCALE);
+            for (int i = from; i < to; i++) {
+                addProduct(sum, values[i], weights[i]);
+            }
+            return sum;
+        }, MoneyMath::merge));
+    }
+
+    /**
+     * Возвращает взвешенную сумму, см. {@link #weightedSum(Money[], Quantity[])}.
+     * @param items элементы
+     * @param value величина элемента
+     * @param weight вес элемента
+     * @param <T> тип элемента
+     * @return взвешенная сумма
+     */
+    public static <T> Money weightedSum(Iterable<T> items, Function<T, Money> value, Function<T, Quantity> weight) {
+        ScaledSum sum = new ScaledSum(PRODUCT_SCALE);
+        for (T item : items) {
+            addProduct(sum, value.apply(item), weight.apply(item));
+        }
+        return toMoney(sum);
+    }
+
+    /**
+     * Возвращает взвешенную сумму, см. {@link #weightedSum(Money[], Quantity[])}.
+     * @param items элементы
+     * @param value величина элемента
+     * @param weight вес элемента
+     * @param <T> тип элемента
+     * @return взвешенная сумма
+     */
+    public static <T> Money weightedSum(Stream<T> items, Function<T, Money> value, Function<T, Quantity> weight) {
+        return toMoney(items.collect(() -> new ScaledSum(PRODUCT_SCALE),
+                (sum, item) -> addProduct(sum, value.apply(item), weight.apply(item)),
+                ScaledSum::add));
+    }
+
+    private static ScaledSum sumOf(Money[] values) {
+        return invoke(values.length, (from, to) -> {
+            ScaledSum sum = new ScaledSum(SCALE);
+            for (int i = from; i < to; i++) {
+                add(sum, values[i]);
+            }
+            return sum;
+        }, MoneyMath::merge);
+    }
+
+    private static Money reduce(Money[] values, BinaryOperator<Money> operator) {
+        if (values.length == 0) {
+            throw empty();
+        }
+        return invoke(values.length, (from, to) -> {
+            Money result = values[from];
+            for (int i = from + 1; i < to; i++) {
+                result = operator.apply(result, values[i]);
+            }
+            return result;
+        }, operator);
+    }
+
+    private static Money reduce(Iterable<Money> values, BinaryOperator<Money> operator) {
+        Iterator<Money> iterator = values.iterator();
+        if (!iterator.hasNext()) {
+            throw empty();
+        }
+        Money result = iterator.next();
+        while (iterator.hasNext()) {
+            result = operator.apply(result, iterator.next());
+        }
+        return result;
+    }
+
+    private static <R> R invoke(int length, Leaf<R> leaf, BinaryOperator<R> combiner) {
+        if (length <= PARALLEL_THRESHOLD) {
+            return leaf.apply(0, length);
+        }
+        return ForkJoinPool.commonPool().invoke(new Reduction<>(0, length, leaf, combiner));
+    }
+
+    static void add(ScaledSum sum, Money value) {
+        long units = value.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(value.getValue());
+        } else {
+            sum.add(units);
+        }
+    }
+
+    static void addProduct(ScaledSum sum, Money value, Quantity weight) {
+        long product = ScaledArithmetic.INFLATED;
+        if (value.units() != ScaledArithmetic.INFLATED && weight.units() != ScaledArithmetic.INFLATED) {
+            product = ScaledArithmetic.multiply(value.units(), weight.units());
+        }
+        if (product == ScaledArithmetic.INFLATED) {
+            sum.add(value.getValue().multiply(weight.getValue()));
+        } else {
+            sum.add(product);
+        }
+    }
+
+    static Money min(Money a, Money b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    static Money max(Money a, Money b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Округляет точную сумму любого масштаба до денег.
+     * @param sum сумма
+     * @return величина
+     */
+    static Money toMoney(ScaledSum sum) {
+        long units = sum.units();
+        if (units != ScaledArithmetic.INFLATED) {
+            long rounded = ScaledArithmetic.rescale(units, sum.scale(), SCALE);
+            if (rounded != ScaledArithmetic.INFLATED) {
+                return Money.ofUnits(rounded);
+            }
+        }
+        return new Money(sum.toBigDecimal());
+    }
+
+    static Money average(ScaledSum sum, long count) {
+        if (count == 0) {
+            throw empty();
+        }
+        long units = sum.units();
+        if (units != ScaledArithmetic.INFLATED) {
+            return Money.ofUnits(ScaledArithmetic.divide(units, count));
+        }
+        return new Money(sum.toBigDecimal().divide(BigDecimal.valueOf(count), SCALE, ROUNDING_MODE));
+    }
+
+    private static ScaledSum merge(ScaledSum left, ScaledSum right) {
+        left.add(right);
+        return left;
+    }
+
+    private static NoSuchElementException empty() {
+        return new NoSuchElementException("No values");
+    }
+
+    /**
+     * Обработка части массива {@code [from, to)}.
+     */
+    @FunctionalInterface
+    private interface Leaf<R> {
+        R apply(int from, int to);
+    }
+
+    /**
+     * Рекурсивное разбиение массива пополам до {@link #PARALLEL_THRESHOLD}.
+     */
+    private static final class Reduction<R> extends RecursiveTask<R> {
+        private final int from;
+        private final int to;
+        private final Leaf<R> leaf;
+        private final BinaryOperator<R> combiner;
+
+        Reduction(int from, int to, Leaf<R> leaf, BinaryOperator<R> combiner) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return leaf.apply(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Reduction<R> left = new Reduction<>(from, middle, leaf, combiner);
+            Reduction<R> right = new Reduction<>(middle, to, leaf, combiner);
+            left.fork();
+            R rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
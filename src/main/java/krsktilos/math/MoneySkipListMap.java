@@ -0,0 +1,515 @@
+package krsktilos.math;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Упорядоченная таблица с ключами - денежными величинами {@link Money}, хранимыми как количество копеек
+ * (ценовые уровни стакана, ценовая лестница).
+ * Список с пропусками: нижний уровень - связный список узлов, верхние - разреженные индексы.
+ * Чтение и навигация ({@link #floorKey}, {@link #ceilingKey}, {@link #lowerKey}, {@link #higherKey},
+ * обход диапазона) выполняются без блокировок, изменения - под одной блокировкой.
+ * Удаленный узел помечается пустым значением, поэтому {@code null} не может быть значением.
+ * Ключ должен помещаться в {@code long}.
+ * @param <V> тип значения
+ * @author krsktilos
+ */
+public final class MoneySkipListMap<V> {
+    private static final int MAX_HEIGHT = 16;
+
+    private final Node<V> head = new Node<>(Long.MIN_VALUE, null, null);
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Крайние слева индексы уровней, изменяются под блокировкой.
+     */
+    @SuppressWarnings("unchecked")
+    private final Index<V>[] predecessors = (Index<V>[]) new Index<?>[MAX_HEIGHT];
+    private volatile Index<V> top = new Index<>(head, null, null);
+    private volatile int size;
+    private int height = 1;
+    private int seed = 0x2545F491;
+
+    /**
+     * Возвращает количество ключей.
+     * @return количество
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет отсутствие ключей.
+     * @return результат
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return результат
+     */
+    public boolean containsKey(Money key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Возвращает значение по ключу либо {@code null}.
+     * @param key ключ
+     * @return значение
+     */
+    public V get(Money key) {
+        return getUnits(key.units());
+    }
+
+    /**
+     * Возвращает значение по ключу, заданному количеством копеек, либо {@code null}.
+     * @param units количество копеек
+     * @return значение
+     */
+    public V getUnits(long units) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return null;
+        }
+        Node<V> node = findPredecessor(units).next;
+        return node != null && node.key == units ? node.value : null;
+    }
+
+    /**
+     * Связывает значение с ключом.
+     * @param key ключ
+     * @param value значение
+     * @return предыдущее значение либо {@code null}
+     * @throws ArithmeticException если ключ не помещается в {@code long}
+     */
+    public V put(Money key, V value) {
+        return putUnits(UnitArrays.checked(key.units()), value);
+    }
+
+    /**
+     * Связывает значение с ключом, заданным количеством копеек.
+     * @param units количество копеек
+     * @param value значение
+     * @return предыдущее значение либо {@code null}
+     * @throws ArithmeticException если ключ равен {@link Long#MIN_VALUE}
+     */
+    public V putUnits(long units, V value) {
+        UnitArrays.checked(units);
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        lock.lock();
+        try {
+            Node<V> predecessor = descend(units);
+            Node<V> next = predecessor.next;
+            if (next != null && next.key == units) {
+                V previous = next.value;
+                next.value = value;
+                return previous;
+            }
+            Node<V> node = new Node<>(units, value, next);
+            predecessor.next = node;
+            int levels = randomLevels();
+            while (height < levels) {
+                Index<V> index = new Index<>(head, top, null);
+                predecessors[height++] = index;
+                top = index;
+            }
+            Index<V> down = null;
+            for (int level = 0; level < levels; level++) {
+                Index<V> index = new Index<>(node, down, predecessors[level].right);
+                predecessors[level].right = index;
+                down = index;
+            }
+            size++;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет ключ.
+     * @param key ключ
+     * @return удаленное значение либо {@code null}
+     */
+    public V remove(Money key) {
+        return removeUnits(key.units());
+    }
+
+    /**
+     * Удаляет ключ, заданный количеством копеек.
+     * @param units количество копеек
+     * @return удаленное значение либо {@code null}
+     */
+    public V removeUnits(long units) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Node<V> predecessor = descend(units);
+            Node<V> node = predecessor.next;
+            if (node == null || node.key != units) {
+                return null;
+            }
+            V previous = node.value;
+            node.value = null;
+            for (int level = height - 1; level >= 0; level--) {
+                Index<V> right = predecessors[level].right;
+                if (right != null && right.node == node) {
+                    predecessors[level].right = right.right;
+                }
+            }
+            predecessor.next = node.next;
+            size--;
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node<V> node = head.next; node != null; node = node.next) {
+                node.value = null;
+            }
+            head.next = null;
+            height = 1;
+            top = new Index<>(head, null, null);
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает наименьший ключ либо {@code null}.
+     * @return ключ
+     */
+    public Money firstKey() {
+        return key(first(head.next));
+    }
+
+    /**
+     * Возвращает наибольший ключ либо {@code null}.
+     * @return ключ
+     */
+    public Money lastKey() {
+        Index<V> index = top;
+        for (;;) {
+            Index<V> right = index.right;
+            if (right != null) {
+                index = right;
+            } else if (index.down != null) {
+                index = index.down;
+            } else {
+                break;
+            }
+        }
+        Node<V> result = null;
+        for (Node<V> node = index.node; node != null; node = node.next) {
+            if (node != head && node.value != null) {
+                result = node;
+            }
+        }
+        if (result == null && index.node != head) {
+            result = last(index.node.key, false);
+        }
+        return key(result);
+    }
+
+    /**
+     * Возвращает наибольший ключ, меньший либо равный заданному ({@link Money#le}), либо {@code null}.
+     * @param key ключ
+     * @return ключ
+     */
+    public Money floorKey(Money key) {
+        long units = key.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return key.gt(Money.ZERO) ? lastKey() : null;
+        }
+        return key(last(units, true));
+    }
+
+    /**
+     * Возвращает наибольший ключ, строго меньший заданного ({@link Money#lt}), либо {@code null}.
+     * @param key ключ
+     * @return ключ
+     */
+    public Money lowerKey(Money key) {
+        long units = key.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return key.gt(Money.ZERO) ? lastKey() : null;
+        }
+        return key(last(units, false));
+    }
+
+    /**
+     * Возвращает наименьший ключ, больший либо равный заданному ({@link Money#ge}), либо {@code null}.
+     * @param key ключ
+     * @return ключ
+     */
+    public Money ceilingKey(Money key) {
+        long units = key.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return key.lt(Money.ZERO) ? firstKey() : null;
+        }
+        return key(first(findPredecessor(units).next));
+    }
+
+    /**
+     * Возвращает наименьший ключ, строго больший заданного ({@link Money#gt}), либо {@code null}.
+     * @param key ключ
+     * @return ключ
+     */
+    public Money higherKey(Money key) {
+        long units = key.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return key.lt(Money.ZERO) ? firstKey() : null;
+        }
+        if (units == Long.MAX_VALUE) {
+            return null;
+        }
+        return key(first(findPredecessor(units + 1).next));
+    }
+
+    /**
+     * Возвращает наибольший ключ, меньший либо равный заданному, в копейках без создания {@link Money}.
+     * @param units количество копеек
+     * @return ключ в копейках либо {@link Long#MIN_VALUE}, если ключа нет
+     */
+    public long floorUnits(long units) {
+        return units(units == ScaledArithmetic.INFLATED ? null : last(units, true));
+    }
+
+    /**
+     * Возвращает наибольший ключ, строго меньший заданного, в копейках без создания {@link Money}.
+     * @param units количество копеек
+     * @return ключ в копейках либо {@link Long#MIN_VALUE}, если ключа нет
+     */
+    public long lowerUnits(long units) {
+        return units(units == ScaledArithmetic.INFLATED ? null : last(units, false));
+    }
+
+    /**
+     * Возвращает наименьший ключ, больший либо равный заданному, в копейках без создания {@link Money}.
+     * @param units количество копеек
+     * @return ключ в копейках либо {@link Long#MIN_VALUE}, если ключа нет
+     */
+    public long ceilingUnits(long units) {
+        return units(first(findPredecessor(units).next));
+    }
+
+    /**
+     * Возвращает наименьший ключ, строго больший заданного, в копейках без создания {@link Money}.
+     * @param units количество копеек
+     * @return ключ в копейках либо {@link Long#MIN_VALUE}, если ключа нет
+     */
+    public long higherUnits(long units) {
+        return units == Long.MAX_VALUE ? ScaledArithmetic.INFLATED : units(first(findPredecessor(units + 1).next));
+    }
+
+    /**
+     * Передает пары ключ-значение по возрастанию ключа.
+     * @param consumer получатель
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        forEach(head.next, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Передает пары ключ-значение с ключами из диапазона по возрастанию ключа.
+     * @param from нижняя граница
+     * @param fromInclusive включать нижнюю границу ({@link Money#ge}) либо нет ({@link Money#gt})
+     * @param to верхняя граница
+     * @param toInclusive включать верхнюю границу ({@link Money#le}) либо нет ({@link Money#lt})
+     * @param consumer получатель
+     * @throws ArithmeticException если граница не помещается в {@code long}
+     */
+    public void forEachInRange(Money from, boolean fromInclusive, Money to, boolean toInclusive,
+                               EntryConsumer<? super V> consumer) {
+        long low = UnitArrays.checked(from.units());
+        long high = UnitArrays.checked(to.units());
+        if (!fromInclusive) {
+            if (low == Long.MAX_VALUE) {
+                return;
+            }
+            low++;
+        }
+        if (!toInclusive) {
+            if (high == Long.MIN_VALUE + 1) {
+                return;
+            }
+            high--;
+        }
+        if (low <= high) {
+            forEach(findPredecessor(low).next, high, consumer);
+        }
+    }
+
+    private static <V> void forEach(Node<V> node, long high, EntryConsumer<? super V> consumer) {
+        for (; node != null && node.key <= high; node = node.next) {
+            V value = node.value;
+            if (value != null) {
+                consumer.accept(node.key, value);
+            }
+        }
+    }
+
+    /**
+     * Возвращает последний узел с ключом меньше {@code units} либо голову; узел может быть удаленным.
+     */
+    private Node<V> findPredecessor(long units) {
+        Index<V> index = top;
+        for (;;) {
+            Index<V> right = index.right;
+            if (right != null && right.key < units) {
+                index = right;
+            } else if (index.down != null) {
+                index = index.down;
+            } else {
+                break;
+            }
+        }
+        Node<V> predecessor = index.node;
+        for (Node<V> next = predecessor.next; next != null && next.key < units; next = next.next) {
+            predecessor = next;
+        }
+        return predecessor;
+    }
+
+    /**
+     * Возвращает последний неудаленный узел с ключом меньше {@code units}
+     * (не больше, если {@code inclusive}) либо {@code null}.
+     */
+    private Node<V> last(long units, boolean inclusive) {
+        Node<V> node = findPredecessor(units);
+        if (inclusive) {
+            Node<V> next = node.next;
+            if (next != null && next.key == units && next.value != null) {
+                return next;
+            }
+        }
+        while (node != head && node.value == null) {
+            node = findPredecessor(node.key);
+        }
+        return node == head ? null : node;
+    }
+
+    private static <V> Node<V> first(Node<V> node) {
+        while (node != null && node.value == null) {
+            node = node.next;
+        }
+        return node;
+    }
+
+    private static Money key(Node<?> node) {
+        return node == null ? null : Money.ofUnits(node.key);
+    }
+
+    private static long units(Node<?> node) {
+        return node == null ? ScaledArithmetic.INFLATED : node.key;
+    }
+
+    /**
+     * Спуск с запоминанием крайнего слева индекса каждого уровня перед ключом; вызывается под блокировкой.
+     * @return последний узел с ключом меньше заданного либо голова
+     */
+    private Node<V> descend(long units) {
+        Index<V> index = top;
+        for (int level = height - 1; ; level--) {
+            for (Index<V> right = index.right; right != null && right.key < units; right = index.right) {
+                index = right;
+            }
+            predecessors[level] = index;
+            if (level == 0) {
+                break;
+            }
+            index = index.down;
+        }
+        Node<V> predecessor = index.node;
+        for (Node<V> next = predecessor.next; next != null && next.key < units; next = next.next) {
+            predecessor = next;
+        }
+        return predecessor;
+    }
+
+    /**
+     * Количество индексных уровней нового узла: 0 с вероятностью 3/4, далее геометрически с основанием 4.
+     */
+    private int randomLevels() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return Math.min(Integer.numberOfTrailingZeros(x | Integer.MIN_VALUE) >>> 1, MAX_HEIGHT - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((units, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            ScaledText.format(units, 2, builder);
+            builder.append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+    /**
+     * Узел нижнего уровня.
+     */
+    private static final class Node<V> {
+        final long key;
+        volatile V value;
+        volatile Node<V> next;
+
+        Node(long key, V value, Node<V> next) {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Элемент индексного уровня.
+     */
+    private static final class Index<V> {
+        /**
+         * Копия ключа узла, чтобы спуск не обращался к узлам.
+         */
+        final long key;
+        final Node<V> node;
+        final Index<V> down;
+        volatile Index<V> right;
+
+        Index(Node<V> node, Index<V> down, Index<V> right) {
+            this.key = node.key;
+            this.node = node;
+            this.down = down;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Получатель пары ключ-значение.
+     * @param <V> тип значения
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Принимает пару.
+         * @param units ключ в копейках
+         * @param value значение
+         */
+        void accept(long units, V value);
+    }
+}
@@ -0,0 +1,79 @@
+package krsktilos.math;
+
+import java.util.List;
+
+/**
+ * Сортировка и выбор денежных величин {@link Money} без сравнения {@link java.math.BigDecimal}:
+ * копейки и номера элементов упаковываются в массив {@code long}, который сортируется как примитивы,
+ * после чего элементы переставляются. Сортировка стабильна. Выбор наибольших, наименьших величин
+ * и перцентилей выполняется частичной сортировкой за линейное в среднем время.
+ * @author krsktilos
+ */
+public final class MoneySort {
+    private MoneySort() {
+    }
+
+    /**
+     * Сортирует величины по возрастанию.
+     * @param values величины
+     */
+    public static void sort(Money[] values) {
+        UnitSort.sort(values, Money::units, false);
+    }
+
+    /**
+     * Сортирует величины по возрастанию в {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     * @param values величины
+     */
+    public static void parallelSort(Money[] values) {
+        UnitSort.sort(values, Money::units, true);
+    }
+
+    /**
+     * Сортирует список величин по возрастанию.
+     * @param values величины
+     */
+    public static void sort(List<Money> values) {
+        UnitSort.sort(values, values.toArray(new Money[0]), Money::units, false);
+    }
+
+    /**
+     * Возвращает {@code k} наибольших величин по убыванию.
+     * @param values величины
+     * @param k количество
+     * @return наибольшие величины
+     */
+    public static Money[] top(Money[] values, int k) {
+        return UnitSort.top(values, k, Money::units);
+    }
+
+    /**
+     * Возвращает {@code k} наименьших величин по возрастанию.
+     * @param values величины
+     * @param k количество
+     * @return наименьшие величины
+     */
+    public static Money[] bottom(Money[] values, int k) {
+        return UnitSort.bottom(values, k, Money::units);
+    }
+
+    /**
+     * Возвращает перцентиль по методу ближайшего ранга: наименьшую величину, не меньше которой
+     * {@code percentile} процентов величин.
+     * @param values величины
+     * @param percentile перцентиль от 0 до 100
+     * @return величина
+     */
+    public static Money percentile(Money[] values, double percentile) {
+        return UnitSort.select(values, UnitSort.percentileRank(values.length, percentile), Money::units);
+    }
+
+    /**
+     * Возвращает медиану (50-й перцентиль).
+     * @param values величины
+     * @return медиана
+     */
+    public static Money median(Money[] values) {
+        return percentile(values, 50);
+    }
+}
@@ -0,0 +1,98 @@
+package krsktilos.math;
+
+import java.util.function.Consumer;
+
+/**
+ * Статистика по набору денежных величин {@link Money}: количество, сумма, минимум, максимум, среднее.
+ * Сумма накапливается точно в копейках, среднее округляется один раз.
+ * Не потокобезопасна; части, собранные в разных потоках, объединяются {@link #combine}.
+ * @author krsktilos
+ */
+public final class MoneySummaryStatistics implements Consumer<Money> {
+    private final ScaledSum sum = new ScaledSum(2);
+    private long count;
+    private Money min;
+    private Money max;
+
+    /**
+     * Учитывает величину.
+     * @param money величина
+     */
+    @Override
+    public void accept(Money money) {
+        MoneyMath.add(sum, money);
+        if (count == 0) {
+            min = money;
+            max = money;
+        } else {
+            min = MoneyMath.min(min, money);
+            max = MoneyMath.max(max, money);
+        }
+        count++;
+    }
+
+    /**
+     * Объединяет статистику с другой.
+     * @param statistics статистика
+     */
+    public void combine(MoneySummaryStatistics statistics) {
+        if (statistics.count == 0) {
+            return;
+        }
+        sum.add(statistics.sum);
+        if (count == 0) {
+            min = statistics.min;
+            max = statistics.max;
+        } else {
+            min = MoneyMath.min(min, statistics.min);
+            max = MoneyMath.max(max, statistics.max);
+        }
+        count += statistics.count;
+    }
+
+    /**
+     * Возвращает количество величин.
+     * @return количество
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает сумму величин.
+     * @return сумма
+     */
+    public Money getSum() {
+        return MoneyMath.toMoney(sum);
+    }
+
+    /**
+     * Возвращает минимальную величину либо {@link Money#ZERO}, если величин нет.
+     * @return минимум
+     */
+    public Money getMin() {
+        return count == 0 ? Money.ZERO : min;
+    }
+
+    /**
+     * Возвращает максимальную величину либо {@link Money#ZERO}, если величин нет.
+     * @return максимум
+     */
+    public Money getMax() {
+        return count == 0 ? Money.ZERO : max;
+    }
+
+    /**
+     * Возвращает среднее значение либо {@link Money#ZERO}, если величин нет.
+     * @return среднее
+     */
+    public Money getAverage() {
+        return count == 0 ? Money.ZERO : MoneyMath.average(sum, count);
+    }
+
+    @Override
+    public String toString() {
+        return "MoneySummaryStatistics{count=" + count + ", sum=" + getSum() + ", min=" + getMin()
+                + ", average=" + getAverage() + ", max=" + getMax() + '}';
+    }
+}
@@ -0,0 +1,306 @@
+package krsktilos.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Колонка денежных величин {@link Money}, хранимая как массив копеек {@code long[]}.
+ * Поэлементные операции возвращают новую колонку и следуют правилам округления {@link Money}.
+ * При переполнении {@code long} выбрасывается {@link ArithmeticException}.
+ * @author krsktilos
+ */
+public final class MoneyVector {
+    private static final int SCALE = 2;
+    private static final int QUANTITY_SCALE = 3;
+
+    private final long[] units;
+
+    /**
+     * Создание колонки заданного размера, заполненной нулями.
+     * @param size размер
+     */
+    public MoneyVector(int size) {
+        this(new long[size]);
+    }
+
+    MoneyVector(long[] units) {
+        this.units = units;
+    }
+
+    /**
+     * Создание колонки из величин.
+     * @param values величины
+     * @return колонка
+     */
+    public static MoneyVector of(Money... values) {
+        long[] units = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            units[i] = unitsOf(values[i]);
+        }
+        return new MoneyVector(units);
+    }
+
+    /**
+     * Создание колонки из коллекции величин.
+     * @param values величины
+     * @return колонка
+     */
+    public static MoneyVector of(Collection<Money> values) {
+        long[] units = new long[values.size()];
+        int i = 0;
+        for (Money value : values) {
+            units[i++] = unitsOf(value);
+        }
+        return new MoneyVector(units);
+    }
+
+    /**
+     * Создание колонки из количества копеек.
+     * @param units количество копеек
+     * @return колонка
+     */
+    public static MoneyVector ofUnits(long... units) {
+        return new MoneyVector(units.clone());
+    }
+
+    /**
+     * Возвращает размер колонки.
+     * @return размер
+     */
+    public int size() {
+        return units.length;
+    }
+
+    /**
+     * Возвращает величину по индексу.
+     * @param index индекс
+     * @return величина
+     */
+    public Money get(int index) {
+        return Money.ofUnits(units[index]);
+    }
+
+    /**
+     * Возвращает количество копеек по индексу.
+     * @param index индекс
+     * @return количество копеек
+     */
+    public long getUnits(int index) {
+        return units[index];
+    }
+
+    /**
+     * Изменяет величину по индексу.
+     * @param index индекс
+     * @param value величина
+     */
+    public void set(int index, Money value) {
+        units[index] = unitsOf(value);
+    }
+
+    /**
+     * Изменяет количество копеек по индексу.
+     * @param index индекс
+     * @param units количество копеек
+     */
+    public void setUnits(int index, long units) {
+        this.units[index] = units;
+    }
+
+    /**
+     * Поэлементное сложение денег.
+     * @param vector слагаемые
+     * @return суммы
+     */
+    public MoneyVector add(MoneyVector vector) {
+        return new MoneyVector(UnitArrays.add(units, vector.units));
+    }
+
+    /**
+     * Сложение каждого элемента с величиной.
+     * @param money слагаемое
+     * @return суммы
+     */
+    public MoneyVector add(Money money) {
+        return new MoneyVector(UnitArrays.add(units, unitsOf(money)));
+    }
+
+    /**
+     * Поэлементное вычитание денег.
+     * @param vector вычитаемые
+     * @return разницы
+     */
+    public MoneyVector subtract(MoneyVector vector) {
+        return new MoneyVector(UnitArrays.subtract(units, vector.units));
+    }
+
+    /**
+     * Вычитание величины из каждого элемента.
+     * @param money вычитаемое
+     * @return разницы
+     */
+    public MoneyVector subtract(Money money) {
+        return new MoneyVector(UnitArrays.subtract(units, unitsOf(money)));
+    }
+
+    /**
+     * Поэлементное умножение денег, см. {@link Money#multiply(Money)}.
+     * @param vector множители
+     * @return произведения
+     */
+    public MoneyVector multiply(MoneyVector vector) {
+        return new MoneyVector(UnitArrays.multiply(units, SCALE, vector.units, SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное умножение денег на количество, см. {@link Money#multiply(Quantity)}.
+     * @param vector множители
+     * @return произведения
+     */
+    public MoneyVector multiply(QuantityVector vector) {
+        return new MoneyVector(UnitArrays.multiply(units, SCALE, vector.units(), QUANTITY_SCALE, SCALE));
+    }
+
+    /**
+     * Умножение каждого элемента на величину, см. {@link Money#multiply(Money)}.
+     * @param money множитель
+     * @return произведения
+     */
+    public MoneyVector multiply(Money money) {
+        return new MoneyVector(UnitArrays.multiply(units, SCALE, unitsOf(money), SCALE, SCALE));
+    }
+
+    /**
+     * Умножение каждого элемента на количество, см. {@link Money#multiply(Quantity)}.
+     * @param quantity множитель
+     * @return произведения
+     */
+    public MoneyVector multiply(Quantity quantity) {
+        return new MoneyVector(UnitArrays.multiply(units, SCALE, QuantityVector.unitsOf(quantity), QUANTITY_SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное деление денег, см. {@link Money#divide(Money)}.
+     * @param vector делители
+     * @return отношения
+     */
+    public MoneyVector divide(MoneyVector vector) {
+        return new MoneyVector(UnitArrays.divide(units, SCALE, vector.units, SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное деление денег на количество, см. {@link Money#divide(Quantity)}.
+     * @param vector делители
+     * @return отношения
+     */
+    public MoneyVector divide(QuantityVector vector) {
+        return new MoneyVector(UnitArrays.divide(units, SCALE, vector.units(), QUANTITY_SCALE, SCALE));
+    }
+
+    /**
+     * Деление каждого элемента на величину, см. {@link Money#divide(Money)}.
+     * @param money делитель
+     * @return отношения
+     */
+    public MoneyVector divide(Money money) {
+        return new MoneyVector(UnitArrays.divide(units, SCALE, unitsOf(money), SCALE, SCALE));
+    }
+
+    /**
+     * Деление каждого элемента на количество, см. {@link Money#divide(Quantity)}.
+     * @param quantity делитель
+     * @return отношения
+     */
+    public MoneyVector divide(Quantity quantity) {
+        return new MoneyVector(UnitArrays.divide(units, SCALE, QuantityVector.unitsOf(quantity), QUANTITY_SCALE, SCALE));
+    }
+
+    /**
+     * Возвращает сумму элементов. Сумма пустой колонки равна {@link Money#ZERO}.
+     * @return сумма
+     */
+    public Money sum() {
+        return new Money(UnitArrays.sum(units, SCALE));
+    }
+
+    /**
+     * Возвращает минимальный элемент.
+     * @return минимум
+     * @throws java.util.NoSuchElementException если колонка пуста
+     */
+    public Money min() {
+        return Money.ofUnits(UnitArrays.min(units));
+    }
+
+    /**
+     * Возвращает максимальный элемент.
+     * @return максимум
+     * @throws java.util.NoSuchElementException если колонка пуста
+     */
+    public Money max() {
+        return Money.ofUnits(UnitArrays.max(units));
+    }
+
+    /**
+     * Преобразование в массив величин.
+     * @return массив
+     */
+    public Money[] toArray() {
+        Money[] values = new Money[units.length];
+        for (int i = 0; i < units.length; i++) {
+            values[i] = Money.ofUnits(units[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Преобразование в список величин.
+     * @return список
+     */
+    public List<Money> toList() {
+        return new ArrayList<>(Arrays.asList(toArray()));
+    }
+
+    /**
+     * Возвращает копию массива копеек.
+     * @return количество копеек
+     */
+    public long[] toUnitsArray() {
+        return units.clone();
+    }
+
+    long[] units() {
+        return units;
+    }
+
+    /**
+     * Возвращает количество копеек величины.
+     * @param money величина
+     * @return количество копеек
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    static long unitsOf(Money money) {
+        return UnitArrays.checked(money.units());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object instanceof MoneyVector) {
+            MoneyVector vector = (MoneyVector) object;
+            return Arrays.equals(units, vector.units);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,293 @@
+package krsktilos.math;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Растущий массив {@code long} вне кучи: сегменты одинакового размера (степень двойки) в прямых
+ * {@link ByteBuffer}. Индекс раскладывается сдвигом и маской на номер сегмента и смещение.
+ * После {@link #close()} память сегментов освобождается сразу, если JVM позволяет вызвать
+ * очистку прямого буфера, иначе - сборщиком мусора; любое обращение бросает {@link IllegalStateException}.
+ * Не потокобезопасен.
+ * @author krsktilos
+ */
+final class OffHeapLongs implements AutoCloseable {
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+    static final int MAX_SEGMENT_SIZE = 1 << 27;
+
+    private static final Cleaner CLEANER = cleaner();
+
+    private final int segmentShift;
+    private final int segmentMask;
+
+    private ByteBuffer[] buffers;
+    private LongBuffer[] segments;
+    private int segmentCount;
+    private long size;
+
+    OffHeapLongs(long initialCapacity, int segmentSize) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        if (segmentSize <= 0 || segmentSize > MAX_SEGMENT_SIZE || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("Segment size must be a power of two in [1, " + MAX_SEGMENT_SIZE + "]: "
+                    + segmentSize);
+        }
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+        this.buffers = new ByteBuffer[4];
+        this.segments = new LongBuffer[4];
+        ensureCapacity(initialCapacity);
+    }
+
+    long size() {
+        checkOpen();
+        return size;
+    }
+
+    long capacity() {
+        checkOpen();
+        return (long) segmentCount << segmentShift;
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи.
+     * @return байты
+     */
+    long memoryBytes() {
+        return capacity() * Long.BYTES;
+    }
+
+    long get(long index) {
+        checkIndex(index);
+        return segments[(int) (index >>> segmentShift)].get((int) index & segmentMask);
+    }
+
+    void set(long index, long value) {
+        checkIndex(index);
+        segments[(int) (index >>> segmentShift)].put((int) index & segmentMask, value);
+    }
+
+    long append(long value) {
+        checkOpen();
+        long index = size;
+        ensureCapacity(index + 1);
+        segments[(int) (index >>> segmentShift)].put((int) index & segmentMask, value);
+        size = index + 1;
+        return index;
+    }
+
+    void append(long[] values, int from, int to) {
+        checkOpen();
+        checkRange(from, to, values.length);
+        ensureCapacity(size + (to - from));
+        while (from < to) {
+            LongBuffer segment = segments[(int) (size >>> segmentShift)];
+            int offset = (int) size & segmentMask;
+            int length = Math.min(to - from, segment.capacity() - offset);
+            ((LongBuffer) segment.duplicate().position(offset)).put(values, from, length);
+            from += length;
+            size += length;
+        }
+    }
+
+    void get(long index, long[] target, int from, int to) {
+        checkOpen();
+        checkRange(from, to, target.length);
+        if (index < 0 || index > size - (to - from)) {
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + to - from) + ") out of bounds for size " + size);
+        }
+        while (from < to) {
+            LongBuffer segment = segments[(int) (index >>> segmentShift)];
+            int offset = (int) index & segmentMask;
+            int length = Math.min(to - from, segment.capacity() - offset);
+            ((LongBuffer) segment.duplicate().position(offset)).get(target, from, length);
+            from += length;
+            index += length;
+        }
+    }
+
+    /**
+     * Точная сумма элементов диапазона без выделения памяти, пока она помещается в {@code long}.
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @param scale масштаб
+     * @return сумма
+     */
+    ScaledSum sum(long from, long to, int scale) {
+        checkRange(from, to);
+        ScaledSum sum = new ScaledSum(scale);
+        while (from < to) {
+            LongBuffer segment = segments[(int) (from >>> segmentShift)];
+            int offset = (int) from & segmentMask;
+            int end = (int) Math.min(segment.capacity(), offset + (to - from));
+            for (int i = offset; i < end; i++) {
+                sum.add(segment.get(i));
+            }
+            from += end - offset;
+        }
+        return sum;
+    }
+
+    long min(long from, long to) {
+        checkNotEmpty(from, to);
+        long min = Long.MAX_VALUE;
+        while (from < to) {
+            LongBuffer segment = segments[(int) (from >>> segmentShift)];
+            int offset = (int) from & segmentMask;
+            int end = (int) Math.min(segment.capacity(), offset + (to - from));
+            for (int i = offset; i < end; i++) {
+                min = Math.min(min, segment.get(i));
+            }
+            from += end - offset;
+        }
+        return min;
+    }
+
+    long max(long from, long to) {
+        checkNotEmpty(from, to);
+        long max = Long.MIN_VALUE;
+        while (from < to) {
+            LongBuffer segment = segments[(int) (from >>> segmentShift)];
+            int offset = (int) from & segmentMask;
+            int end = (int) Math.min(segment.capacity(), offset + (to - from));
+            for (int i = offset; i < end; i++) {
+                max = Math.max(max, segment.get(i));
+            }
+            from += end - offset;
+        }
+        return max;
+    }
+
+    void clear() {
+        checkOpen();
+        size = 0;
+    }
+
+    boolean isClosed() {
+        return segments == null;
+    }
+
+    @Override
+    public void close() {
+        if (segments == null) {
+            return;
+        }
+        ByteBuffer[] released = buffers;
+        int count = segmentCount;
+        buffers = null;
+        segments = null;
+        segmentCount = 0;
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            CLEANER.free(released[i]);
+        }
+    }
+
+    private void ensureCapacity(long capacity) {
+        long segmentsNeeded = (capacity + segmentMask) >>> segmentShift;
+        if (segmentsNeeded > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Capacity is too large: " + capacity);
+        }
+        if (segmentsNeeded > segments.length) {
+            int length = (int) Math.max(segmentsNeeded, Math.min((long) segments.length * 2, Integer.MAX_VALUE - 8));
+            ByteBuffer[] newBuffers = new ByteBuffer[length];
+            LongBuffer[] newSegments = new LongBuffer[length];
+            System.arraycopy(buffers, 0, newBuffers, 0, segmentCount);
+            System.arraycopy(segments, 0, newSegments, 0, segmentCount);
+            buffers = newBuffers;
+            segments = newSegments;
+        }
+        while (segmentCount < segmentsNeeded) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((segmentMask + 1) * Long.BYTES).order(ByteOrder.nativeOrder());
+            buffers[segmentCount] = buffer;
+            segments[segmentCount] = buffer.asLongBuffer();
+            segmentCount++;
+        }
+    }
+
+    private void checkOpen() {
+        if (segments == null) {
+            throw new IllegalStateException("Store is closed");
+        }
+    }
+
+    private void checkIndex(long index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkRange(long from, long to) {
+        checkOpen();
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + size);
+        }
+    }
+
+    private void checkNotEmpty(long from, long to) {
+        checkRange(from, to);
+        if (from == to) {
+            throw new NoSuchElementException("Store is empty");
+        }
+    }
+
+    private static void checkRange(int from, int to, int length) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+    }
+
+    /**
+     * Немедленное освобождение прямого буфера: {@code Unsafe.invokeCleaner} в Java 9+,
+     * {@code DirectBuffer.cleaner().clean()} в Java 8; если ни то, ни другое недоступно,
+     * память освобождает сборщик мусора.
+     */
+    private interface Cleaner {
+        void free(ByteBuffer buffer);
+    }
+
+    private static Cleaner cleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // освободит сборщик мусора
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 8
+        }
+        try {
+            ByteBuffer probe = ByteBuffer.allocateDirect(1);
+            final Method cleanerMethod = probe.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Method clean = cleanerMethod.getReturnType().getMethod("clean");
+            clean.setAccessible(true);
+            return buffer -> {
+                try {
+                    Object cleaner = cleanerMethod.invoke(buffer);
+                    if (cleaner != null) {
+                        clean.invoke(cleaner);
+                    }
+                } catch (ReflectiveOperationException e) {
+                    // освободит сборщик мусора
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return buffer -> {
+            };
+        }
+    }
+}
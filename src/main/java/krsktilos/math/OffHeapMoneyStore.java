@@ -0,0 +1,258 @@
+package krsktilos.math;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Колонка денежных величин {@link Money} вне кучи: копейки хранятся как {@code long} в прямых
+ * {@link java.nio.ByteBuffer} сегментами по {@code segmentSize} элементов, поэтому сотни миллионов
+ * сумм занимают 8 байт на элемент и не увеличивают работу сборщика мусора.
+ * Величины {@link Money} создаются только при чтении ({@link #get(long)}, {@link #asList()}).
+ * Память освобождается {@link #close()}; после закрытия обращения бросают {@link IllegalStateException}.
+ * Хранилище не потокобезопасно.
+ * @author krsktilos
+ */
+public final class OffHeapMoneyStore implements AutoCloseable {
+    private static final int SCALE = 2;
+
+    private final OffHeapLongs units;
+
+    /**
+     * Создание пустого хранилища.
+     */
+    public OffHeapMoneyStore() {
+        this(0);
+    }
+
+    /**
+     * @param initialCapacity начальная емкость
+     */
+    public OffHeapMoneyStore(long initialCapacity) {
+        this(initialCapacity, OffHeapLongs.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param initialCapacity начальная емкость
+     * @param segmentSize количество элементов в сегменте, степень двойки не больше {@code 2^27}
+     */
+    public OffHeapMoneyStore(long initialCapacity, int segmentSize) {
+        this.units = new OffHeapLongs(initialCapacity, segmentSize);
+    }
+
+    /**
+     * Возвращает количество элементов.
+     * @return количество
+     */
+    public long size() {
+        return units.size();
+    }
+
+    /**
+     * Возвращает объем занятой памяти вне кучи.
+     * @return байты
+     */
+    public long memoryBytes() {
+        return units.memoryBytes();
+    }
+
+    /**
+     * Возвращает величину по индексу.
+     * @param index индекс
+     * @return величина
+     */
+    public Money get(long index) {
+        return Money.ofUnits(units.get(index));
+    }
+
+    /**
+     * Возвращает количество копеек по индексу.
+     * @param index индекс
+     * @return количество копеек
+     */
+    public long getUnits(long index) {
+        return units.get(index);
+    }
+
+    /**
+     * Копирует количества копеек, начиная с индекса, в массив.
+     * @param index индекс первого элемента
+     * @param target массив
+     * @param from первый индекс массива
+     * @param to индекс массива после последнего
+     */
+    public void getUnits(long index, long[] target, int from, int to) {
+        units.get(index, target, from, to);
+    }
+
+    /**
+     * Изменяет величину по индексу.
+     * @param index индекс
+     * @param value величина
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public void set(long index, Money value) {
+        units.set(index, MoneyVector.unitsOf(value));
+    }
+
+    /**
+     * Изменяет количество копеек по индексу.
+     * @param index индекс
+     * @param units количество копеек
+     */
+    public void setUnits(long index, long units) {
+        this.units.set(index, units);
+    }
+
+    /**
+     * Добавляет величину в конец.
+     * @param value величина
+     * @return индекс
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public long append(Money value) {
+        return units.append(MoneyVector.unitsOf(value));
+    }
+
+    /**
+     * Добавляет количество копеек в конец.
+     * @param units количество копеек
+     * @return индекс
+     */
+    public long appendUnits(long units) {
+        return this.units.append(units);
+    }
+
+    /**
+     * Добавляет количества копеек в конец.
+     * @param units количества копеек
+     * @param from первый индекс массива
+     * @param to индекс массива после последнего
+     */
+    public void appendUnits(long[] units, int from, int to) {
+        this.units.append(units, from, to);
+    }
+
+    /**
+     * Добавляет элементы колонки в конец.
+     * @param vector колонка
+     */
+    public void appendAll(MoneyVector vector) {
+        long[] values = vector.toUnitsArray();
+        units.append(values, 0, values.length);
+    }
+
+    /**
+     * Возвращает колонку элементов диапазона.
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @return колонка
+     */
+    public MoneyVector toVector(long from, long to) {
+        long[] values = new long[Math.toIntExact(to - from)];
+        units.get(from, values, 0, values.length);
+        return new MoneyVector(values);
+    }
+
+    /**
+     * Возвращает точную сумму элементов. Сумма пустого хранилища равна {@link Money#ZERO}.
+     * @return сумма
+     */
+    public Money sum() {
+        return sum(0, size());
+    }
+
+    /**
+     * Возвращает точную сумму элементов диапазона.
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @return сумма
+     */
+    public Money sum(long from, long to) {
+        return MoneyMath.toMoney(units.sum(from, to, SCALE));
+    }
+
+    /**
+     * Возвращает среднее элементов с округлением {@link java.math.RoundingMode#HALF_UP}.
+     * @return среднее
+     * @throws java.util.NoSuchElementException если хранилище пусто
+     */
+    public Money average() {
+        long size = size();
+        return MoneyMath.average(units.sum(0, size, SCALE), size);
+    }
+
+    /**
+     * Возвращает минимальный элемент.
+     * @return минимум
+     * @throws java.util.NoSuchElementException если хранилище пусто
+     */
+    public Money min() {
+        return Money.ofUnits(units.min(0, size()));
+    }
+
+    /**
+     * Возвращает максимальный элемент.
+     * @return максимум
+     * @throws java.util.NoSuchElementException если хранилище пусто
+     */
+    public Money max() {
+        return Money.ofUnits(units.max(0, size()));
+    }
+
+    /**
+     * Возвращает изменяемое представление хранилища списком фиксированного размера: величины
+     * создаются при каждом чтении, запись изменяет хранилище, добавления в хранилище видны в списке.
+     * @return список
+     * @throws IllegalStateException при чтении размера, если элементов больше {@link Integer#MAX_VALUE}
+     */
+    public List<Money> asList() {
+        return new View();
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя выделенную память.
+     */
+    public void clear() {
+        units.clear();
+    }
+
+    /**
+     * Проверка закрытия хранилища.
+     * @return {@code true}, если хранилище закрыто
+     */
+    public boolean isClosed() {
+        return units.isClosed();
+    }
+
+    /**
+     * Освобождает память вне кучи. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        units.close();
+    }
+
+    private final class View extends AbstractList<Money> implements RandomAccess {
+        @Override
+        public Money get(int index) {
+            return OffHeapMoneyStore.this.get(index);
+        }
+
+        @Override
+        public Money set(int index, Money element) {
+            Money previous = OffHeapMoneyStore.this.get(index);
+            OffHeapMoneyStore.this.set(index, element);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            long size = OffHeapMoneyStore.this.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Store is too large for a list: " + size);
+            }
+            return (int) size;
+        }
+    }
+}
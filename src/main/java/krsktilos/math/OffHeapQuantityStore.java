@@ -0,0 +1,260 @@
+package krsktilos.math;
+
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Колонка количественных величин {@link Quantity} вне кучи: тысячные доли хранятся как {@code long} в прямых
+ * {@link java.nio.ByteBuffer} сегментами по {@code segmentSize} элементов, поэтому сотни миллионов
+ * величин занимают 8 байт на элемент и не увеличивают работу сборщика мусора.
+ * Величины {@link Quantity} создаются только при чтении ({@link #get(long)}, {@link #asList()}).
+ * Память освобождается {@link #close()}; после закрытия обращения бросают {@link IllegalStateException}.
+ * Хранилище не потокобезопасно.
+ * @author krsktilos
+ */
+public final class OffHeapQuantityStore implements AutoCloseable {
+    private static final int SCALE = 3;
+
+    private final OffHeapLongs units;
+
+    /**
+     * Создание пустого хранилища.
+     */
+    public OffHeapQuantityStore() {
+        this(0);
+    }
+
+    /**
+     * @param initialCapacity начальная емкость
+     */
+    public OffHeapQuantityStore(long initialCapacity) {
+        this(initialCapacity, OffHeapLongs.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param initialCapacity начальная емкость
+     * @param segmentSize количество элементов в сегменте, степень двойки не больше {@code 2^27}
+     */
+    public OffHeapQuantityStore(long initialCapacity, int segmentSize) {
+        this.units = new OffHeapLongs(initialCapacity, segmentSize);
+    }
+
+    /**
+     * Возвращает количество элементов.
+     * @return количество
+     */
+    public long size() {
+        return units.size();
+    }
+
+    /**
+     * Возвращает объем занятой памяти вне кучи.
+     * @return байты
+     */
+    public long memoryBytes() {
+        return units.memoryBytes();
+    }
+
+    /**
+     * Возвращает величину по индексу.
+     * @param index индекс
+     * @return величина
+     */
+    public Quantity get(long index) {
+        return Quantity.ofUnits(units.get(index));
+    }
+
+    /**
+     * Возвращает количество тысячных долей по индексу.
+     * @param index индекс
+     * @return количество тысячных долей
+     */
+    public long getUnits(long index) {
+        return units.get(index);
+    }
+
+    /**
+     * Копирует количества тысячных долей, начиная с индекса, в массив.
+     * @param index индекс первого элемента
+     * @param target массив
+     * @param from первый индекс массива
+     * @param to индекс массива после последнего
+     */
+    public void getUnits(long index, long[] target, int from, int to) {
+        units.get(index, target, from, to);
+    }
+
+    /**
+     * Изменяет величину по индексу.
+     * @param index индекс
+     * @param value величина
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public void set(long index, Quantity value) {
+        units.set(index, QuantityVector.unitsOf(value));
+    }
+
+    /**
+     * Изменяет количество тысячных долей по индексу.
+     * @param index индекс
+     * @param units количество тысячных долей
+     */
+    public void setUnits(long index, long units) {
+        this.units.set(index, units);
+    }
+
+    /**
+     * Добавляет величину в конец.
+     * @param value величина
+     * @return индекс
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    public long append(Quantity value) {
+        return units.append(QuantityVector.unitsOf(value));
+    }
+
+    /**
+     * Добавляет количество тысячных долей в конец.
+     * @param units количество тысячных долей
+     * @return индекс
+     */
+    public long appendUnits(long units) {
+        return this.units.append(units);
+    }
+
+    /**
+     * Добавляет количества тысячных долей в конец.
+     * @param units количества тысячных долей
+     * @param from первый индекс массива
+     * @param to индекс массива после последнего
+     */
+    public void appendUnits(long[] units, int from, int to) {
+        this.units.append(units, from, to);
+    }
+
+    /**
+     * Добавляет элементы колонки в конец.
+     * @param vector колонка
+     */
+    public void appendAll(QuantityVector vector) {
+        long[] values = vector.toUnitsArray();
+        units.append(values, 0, values.length);
+    }
+
+    /**
+     * Возвращает колонку элементов диапазона.
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @return колонка
+     */
+    public QuantityVector toVector(long from, long to) {
+        long[] values = new long[Math.toIntExact(to - from)];
+        units.get(from, values, 0, values.length);
+        return new QuantityVector(values);
+    }
+
+    /**
+     * Возвращает точную сумму элементов. Сумма пустого хранилища равна {@link Quantity#ZERO}.
+     * @return сумма
+     */
+    public Quantity sum() {
+        return sum(0, size());
+    }
+
+    /**
+     * Возвращает точную сумму элементов диапазона.
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @return сумма
+     */
+    public Quantity sum(long from, long to) {
+        return QuantityAccumulator.toQuantity(units.sum(from, to, SCALE));
+    }
+
+    /**
+     * Возвращает среднее элементов с округлением {@link RoundingMode#HALF_UP}.
+     * @return среднее
+     * @throws NoSuchElementException если хранилище пусто
+     */
+    public Quantity average() {
+        long size = size();
+        return QuantitySummaryStatistics.average(units.sum(0, size, SCALE), size);
+    }
+
+    /**
+     * Возвращает минимальный элемент.
+     * @return минимум
+     * @throws NoSuchElementException если хранилище пусто
+     */
+    public Quantity min() {
+        return Quantity.ofUnits(units.min(0, size()));
+    }
+
+    /**
+     * Возвращает максимальный элемент.
+     * @return максимум
+     * @throws NoSuchElementException если хранилище пусто
+     */
+    public Quantity max() {
+        return Quantity.ofUnits(units.max(0, size()));
+    }
+
+    /**
+     * Возвращает изменяемое представление хранилища списком фиксированного размера: величины
+     * создаются при каждом чтении, запись изменяет хранилище, добавления в хранилище видны в списке.
+     * @return список
+     * @throws IllegalStateException при чтении размера, если элементов больше {@link Integer#MAX_VALUE}
+     */
+    public List<Quantity> asList() {
+        return new View();
+    }
+
+    /**
+     * Удаляет все элементы, сохраняя выделенную память.
+     */
+    public void clear() {
+        units.clear();
+    }
+
+    /**
+     * Проверка закрытия хранилища.
+     * @return {@code true}, если хранилище закрыто
+     */
+    public boolean isClosed() {
+        return units.isClosed();
+    }
+
+    /**
+     * Освобождает память вне кучи. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        units.close();
+    }
+
+    private final class View extends AbstractList<Quantity> implements RandomAccess {
+        @Override
+        public Quantity get(int index) {
+            return OffHeapQuantityStore.this.get(index);
+        }
+
+        @Override
+        public Quantity set(int index, Quantity element) {
+            Quantity previous = OffHeapQuantityStore.this.get(index);
+            OffHeapQuantityStore.this.set(index, element);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            long size = OffHeapQuantityStore.this.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Store is too large for a list: " + size);
+            }
+            return (int) size;
+        }
+    }
+}
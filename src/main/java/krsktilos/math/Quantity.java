@@ -1,15 +1,23 @@
 package krsktilos.math;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Количественная величина.
  * Округление в большую сторону с точностью до 3х знаков.
  * @author krsktilos
  */
-public final class Quantity implements Serializable {
+public final class Quantity implements Serializable, Comparable<Quantity> {
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     private static final int SCALE = 3;
 
@@ -17,9 +25,22 @@ public final class Quantity implements Serializable {
     public static final Quantity ONE = new Quantity(BigDecimal.ONE);
 
     private final BigDecimal value;
+    /**
+     * Количество минимальных единиц либо {@link ScaledArithmetic#INFLATED}.
+     */
+    private final transient long units;
 
     public Quantity(BigDecimal value) {
         this.value = value.setScale(SCALE, ROUNDING_MODE);
+        this.units = ScaledArithmetic.toUnits(this.value, SCALE);
+        if (Metrics.ENABLED && value.scale() > SCALE) {
+            Metrics.rounding(value, this.value);
+        }
+    }
+
+    private Quantity(long units, BigDecimal value) {
+        this.units = units;
+        this.value = value;
     }
 
     public Quantity(String value) {
@@ -42,13 +63,155 @@ public final class Quantity implements Serializable {
         this(new BigDecimal(value));
     }
 
+    /**
+     * Создание величины из целого значения с использованием кэша.
+     * @param value целое значение
+     * @return величина
+     */
+    public static Quantity of(long value) {
+        long units = ScaledArithmetic.multiply(value, ScaledArithmetic.powerOfTen(SCALE));
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Quantity(value);
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Создание величины с использованием кэша.
+     * @param value базовое значение
+     * @return величина
+     */
+    public static Quantity of(BigDecimal value) {
+        long units = ScaledArithmetic.toUnits(value, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Quantity(value);
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Создание величины из строки с использованием кэша.
+     * @param value строковое представление
+     * @return величина
+     */
+    public static Quantity of(String value) {
+        return parse(value);
+    }
+
+    /**
+     * Разбор десятичной записи без промежуточного {@link BigDecimal}.
+     * Принимает те же записи, что и {@link #Quantity(String)}, с тем же результатом.
+     * @param text запись
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Quantity parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Разбор части десятичной записи {@code [start, end)}, см. {@link #parse(CharSequence)}.
+     * @param text запись
+     * @param start начало
+     * @param end конец (не включая)
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Quantity parse(CharSequence text, int start, int end) {
+        long units = ScaledText.parse(text, start, end, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Quantity(new BigDecimal(text.subSequence(start, end).toString()));
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Разбор десятичной записи в кодировке ASCII, см. {@link #parse(CharSequence)}.
+     * @param bytes буфер
+     * @param offset начало записи
+     * @param length длина записи
+     * @return величина
+     * @throws NumberFormatException если запись некорректна
+     */
+    public static Quantity parse(byte[] bytes, int offset, int length) {
+        long units = ScaledText.parse(bytes, offset, length, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Quantity(new BigDecimal(new String(bytes, offset, length, StandardCharsets.US_ASCII)));
+        }
+        return ofUnits(units);
+    }
+
+    /**
+     * Разбор части десятичной записи {@code [start, end)} сразу в количество тысячных долей.
+     * @param text запись
+     * @param start начало
+     * @param end конец (не включая)
+     * @return количество тысячных долей
+     * @throws NumberFormatException если запись некорректна
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public static long parseUnits(CharSequence text, int start, int end) {
+        long units = ScaledText.parse(text, start, end, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            units = parse(text, start, end).units;
+        }
+        return UnitArrays.checked(units);
+    }
+
+    /**
+     * Разбор десятичной записи в кодировке ASCII сразу в количество тысячных долей.
+     * @param bytes буфер
+     * @param offset начало записи
+     * @param length длина записи
+     * @return количество тысячных долей
+     * @throws NumberFormatException если запись некорректна
+     * @throws ArithmeticException если значение не помещается в {@code long}
+     */
+    public static long parseUnits(byte[] bytes, int offset, int length) {
+        long units = ScaledText.parse(bytes, offset, length, SCALE);
+        if (units == ScaledArithmetic.INFLATED) {
+            units = parse(bytes, offset, length).units;
+        }
+        return UnitArrays.checked(units);
+    }
+
+    /**
+     * Создание величины из дробного значения с использованием кэша.
+     * @param value дробное значение
+     * @return величина
+     */
+    public static Quantity of(double value) {
+        return of(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Создание величины из количества тысячных долей с использованием кэша.
+     * @param units количество тысячных долей
+     * @return величина
+     */
+    public static Quantity ofUnits(long units) {
+        return Cache.INSTANCE.get(units);
+    }
+
+    /**
+     * Возвращает счетчики кэша величин.
+     * Диапазон кэша в тысячных долей задается системными свойствами
+     * {@code krsktilos.math.Quantity.cache.low} и {@code krsktilos.math.Quantity.cache.high}
+     * (по умолчанию от 0.000 до 100.000), размер LRU для остальных значений -
+     * {@code krsktilos.math.Quantity.cache.lruSize} (по умолчанию выключен).
+     * @return счетчики
+     */
+    public static CacheStatistics cacheStatistics() {
+        return Cache.INSTANCE.statistics();
+    }
+
     /**
      * Возвращает результат логической операции РАВНО (=).
      * @param quantity сравниваемая величина
      * @return результат
      */
     public boolean eq(Quantity quantity) {
-        return getValue().compareTo(quantity.getValue()) == 0;
+        return ScaledCore.compare(units, value, quantity.units, quantity.value) == 0;
     }
 
     /**
@@ -57,7 +220,7 @@ public final class Quantity implements Serializable {
      * @return результат
      */
     public boolean gt(Quantity quantity) {
-        return getValue().compareTo(quantity.getValue()) > 0;
+        return ScaledCore.compare(units, value, quantity.units, quantity.value) > 0;
     }
 
     /**
@@ -66,7 +229,7 @@ public final class Quantity implements Serializable {
      * @return результат
      */
     public boolean ge(Quantity quantity) {
-        return getValue().compareTo(quantity.getValue()) >= 0;
+        return ScaledCore.compare(units, value, quantity.units, quantity.value) >= 0;
     }
 
     /**
@@ -75,7 +238,7 @@ public final class Quantity implements Serializable {
      * @return результат
      */
     public boolean lt(Quantity quantity) {
-        return getValue().compareTo(quantity.getValue()) < 0;
+        return ScaledCore.compare(units, value, quantity.units, quantity.value) < 0;
     }
 
     /**
@@ -84,7 +247,17 @@ public final class Quantity implements Serializable {
      * @return результат
      */
     public boolean le(Quantity quantity) {
-        return getValue().compareTo(quantity.getValue()) <= 0;
+        return ScaledCore.compare(units, value, quantity.units, quantity.value) <= 0;
+    }
+
+    /**
+     * Сравнение по значению, согласованное с {@link #eq}, {@link #gt} и {@link #lt}.
+     * @param quantity сравниваемая величина
+     * @return отрицательное, ноль или положительное число
+     */
+    @Override
+    public int compareTo(Quantity quantity) {
+        return ScaledCore.compare(units, value, quantity.units, quantity.value);
     }
 
     /**
@@ -93,6 +266,23 @@ public final class Quantity implements Serializable {
      * @return сумма
      */
     public Quantity add(Money money) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_ADD);
+            Quantity result = add0(money);
+            Metrics.stop(Metrics.Operation.QUANTITY_ADD, start);
+            return result;
+        }
+        return add0(money);
+    }
+
+    private Quantity add0(Money money) {
+        long result = ScaledCore.add(units, SCALE, money.units(), 2, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_ADD);
+        }
         return valueOf(getValue().add(money.getValue()));
     }
 
@@ -102,6 +292,23 @@ public final class Quantity implements Serializable {
      * @return сумма
      */
     public Quantity add(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_ADD);
+            Quantity result = add0(quantity);
+            Metrics.stop(Metrics.Operation.QUANTITY_ADD, start);
+            return result;
+        }
+        return add0(quantity);
+    }
+
+    private Quantity add0(Quantity quantity) {
+        long result = ScaledCore.add(units, SCALE, quantity.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_ADD);
+        }
         return valueOf(getValue().add(quantity.getValue()));
     }
 
@@ -111,6 +318,23 @@ public final class Quantity implements Serializable {
      * @return разница
      */
     public Quantity subtract(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_SUBTRACT);
+            Quantity result = subtract0(value);
+            Metrics.stop(Metrics.Operation.QUANTITY_SUBTRACT, start);
+            return result;
+        }
+        return subtract0(value);
+    }
+
+    private Quantity subtract0(Money value) {
+        long result = ScaledCore.subtract(units, SCALE, value.units(), 2, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_SUBTRACT);
+        }
         return valueOf(getValue().subtract(value.getValue()));
     }
 
@@ -120,6 +344,23 @@ public final class Quantity implements Serializable {
      * @return разница
      */
     public Quantity subtract(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_SUBTRACT);
+            Quantity result = subtract0(quantity);
+            Metrics.stop(Metrics.Operation.QUANTITY_SUBTRACT, start);
+            return result;
+        }
+        return subtract0(quantity);
+    }
+
+    private Quantity subtract0(Quantity quantity) {
+        long result = ScaledCore.subtract(units, SCALE, quantity.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_SUBTRACT);
+        }
         return valueOf(getValue().subtract(quantity.getValue()));
     }
 
@@ -129,6 +370,26 @@ public final class Quantity implements Serializable {
      * @return сумма
      */
     public Quantity multiply(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_MULTIPLY);
+            Quantity result = multiply0(value);
+            Metrics.stop(Metrics.Operation.QUANTITY_MULTIPLY, start);
+            return result;
+        }
+        return multiply0(value);
+    }
+
+    private Quantity multiply0(Money value) {
+        long result = ScaledCore.multiply(units, SCALE, value.units(), 2, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedProduct(units, SCALE, value.units(), 2, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_MULTIPLY);
+        }
         return valueOf(getValue().multiply(value.getValue()));
     }
 
@@ -138,6 +399,26 @@ public final class Quantity implements Serializable {
      * @return сумма
      */
     public Quantity multiply(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_MULTIPLY);
+            Quantity result = multiply0(quantity);
+            Metrics.stop(Metrics.Operation.QUANTITY_MULTIPLY, start);
+            return result;
+        }
+        return multiply0(quantity);
+    }
+
+    private Quantity multiply0(Quantity quantity) {
+        long result = ScaledCore.multiply(units, SCALE, quantity.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedProduct(units, SCALE, quantity.units(), SCALE, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowPath(Metrics.Operation.QUANTITY_MULTIPLY);
+        }
         return valueOf(getValue().multiply(quantity.getValue()));
     }
 
@@ -147,6 +428,26 @@ public final class Quantity implements Serializable {
      * @return отношение
      */
     public Quantity divide(Money value) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_DIVIDE);
+            Quantity result = divide0(value);
+            Metrics.stop(Metrics.Operation.QUANTITY_DIVIDE, start);
+            return result;
+        }
+        return divide0(value);
+    }
+
+    private Quantity divide0(Money value) {
+        long result = ScaledCore.divide(units, SCALE, value.units(), 2, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedQuotient(units, SCALE, value.units(), 2, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowDivide(Metrics.Operation.QUANTITY_DIVIDE, getValue(), value.getValue(), SCALE);
+        }
         return valueOf(getValue().divide(value.getValue(), SCALE, ROUNDING_MODE));
     }
 
@@ -156,6 +457,26 @@ public final class Quantity implements Serializable {
      * @return отношение
      */
     public Quantity divide(Quantity quantity) {
+        if (Metrics.ENABLED) {
+            long start = Metrics.start(Metrics.Operation.QUANTITY_DIVIDE);
+            Quantity result = divide0(quantity);
+            Metrics.stop(Metrics.Operation.QUANTITY_DIVIDE, start);
+            return result;
+        }
+        return divide0(quantity);
+    }
+
+    private Quantity divide0(Quantity quantity) {
+        long result = ScaledCore.divide(units, SCALE, quantity.units(), SCALE, SCALE);
+        if (result != ScaledArithmetic.INFLATED) {
+            if (Metrics.ENABLED) {
+                Metrics.roundedQuotient(units, SCALE, quantity.units(), SCALE, SCALE);
+            }
+            return valueOf(result);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.slowDivide(Metrics.Operation.QUANTITY_DIVIDE, getValue(), quantity.getValue(), SCALE);
+        }
         return valueOf(getValue().divide(quantity.getValue(), SCALE, ROUNDING_MODE));
     }
 
@@ -171,6 +492,91 @@ public final class Quantity implements Serializable {
         return new Quantity(value);
     }
 
+    private static Quantity valueOf(long units) {
+        return new Quantity(units, ScaledArithmetic.toBigDecimal(units, SCALE));
+    }
+
+    /**
+     * Возвращает количество тысячных долей без выделения памяти.
+     * @return количество тысячных долей либо {@link ScaledArithmetic#INFLATED}
+     */
+    long units() {
+        return units;
+    }
+
+    /**
+     * Записывает величину в компактном двоичном формате: байт-тег и количество тысячных долей в zig-zag varint.
+     * @param out получатель
+     * @throws IOException ошибка записи
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        ScaledCodec.write(out, ScaledCodec.QUANTITY, units, value);
+    }
+
+    /**
+     * Записывает величину в компактном двоичном формате, см. {@link #writeTo(DataOutput)}.
+     * @param out получатель
+     * @throws java.nio.BufferOverflowException если места недостаточно
+     */
+    public void writeTo(ByteBuffer out) {
+        ScaledCodec.write(out, ScaledCodec.QUANTITY, units, value);
+    }
+
+    /**
+     * Читает величину, записанную {@link #writeTo(DataOutput)}.
+     * @param in источник
+     * @return величина
+     * @throws IOException ошибка чтения или некорректная запись
+     */
+    public static Quantity readFrom(DataInput in) throws IOException {
+        return readFrom(in.readByte(), in);
+    }
+
+    /**
+     * Читает величину, записанную {@link #writeTo(ByteBuffer)}.
+     * @param in источник
+     * @return величина
+     * @throws IllegalArgumentException если запись некорректна
+     * @throws java.nio.BufferUnderflowException если запись неполная
+     */
+    public static Quantity readFrom(ByteBuffer in) {
+        byte tag = in.get();
+        if (!ScaledCodec.isType(tag, ScaledCodec.QUANTITY)) {
+            throw new IllegalArgumentException("Unexpected type tag: " + tag);
+        }
+        if (ScaledCodec.isInflated(tag)) {
+            return new Quantity(ScaledCodec.readInflated(in, SCALE));
+        }
+        return ofUnits(ScaledCodec.readVarLong(in));
+    }
+
+    static Quantity readFrom(byte tag, DataInput in) throws IOException {
+        if (!ScaledCodec.isType(tag, ScaledCodec.QUANTITY)) {
+            throw new StreamCorruptedException("Unexpected type tag: " + tag);
+        }
+        if (ScaledCodec.isInflated(tag)) {
+            return new Quantity(ScaledCodec.readInflated(in, SCALE));
+        }
+        return ofUnits(ScaledCodec.readVarLong(in));
+    }
+
+    /**
+     * Сериализация через компактный формат {@link Ser}.
+     * @return заместитель
+     */
+    private Object writeReplace() {
+        return new Ser(this);
+    }
+
+    /**
+     * Десериализация возможна только через {@link Ser}.
+     * @param in поток
+     * @throws InvalidObjectException всегда
+     */
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Deserialization via serialization delegate");
+    }
+
     /**
      * Возвращает результат проверки на эквивалентость нулю {@link Quantity#ZERO}.
      * @return результат
@@ -193,7 +599,7 @@ public final class Quantity implements Serializable {
      * @return целая часть величины
      */
     public Quantity getInt() {
-        return new Quantity(getValue().intValue());
+        return valueOf(ScaledCore.intValue(units, value, SCALE) * ScaledArithmetic.powerOfTen(SCALE));
     }
 
     /**
@@ -203,23 +609,84 @@ public final class Quantity implements Serializable {
      */
     @Override
     public boolean equals(Object object) {
+        if (object == this) {
+            return true;
+        }
         if (object instanceof Quantity) {
             Quantity quantity = (Quantity) object;
+            if (units != ScaledArithmetic.INFLATED || quantity.units != ScaledArithmetic.INFLATED) {
+                return units == quantity.units;
+            }
             return this.eq(quantity);
         }
         return false;
     }
 
+    /**
+     * Хэш вычисляется по количеству минимальных единиц и согласован с {@link #equals(Object)}:
+     * значение всегда хранится с одним масштабом, поэтому равные величины имеют равные единицы.
+     * @return хэш
+     */
     @Override
     public int hashCode() {
-        final int prime = 16;
-        int result = 5;
-        result = prime * result + getValue().hashCode();
-        return result;
+        if (units != ScaledArithmetic.INFLATED) {
+            return Long.hashCode(units);
+        }
+        return getValue().hashCode();
     }
 
     @Override
     public String toString() {
         return getValue().toString();
     }
+
+    /**
+     * Дописывает запись величины, совпадающую с {@link #toString()}, без промежуточной строки.
+     * @param out получатель
+     * @return получатель
+     */
+    public StringBuilder formatTo(StringBuilder out) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return out.append(toString());
+        }
+        ScaledText.format(units, SCALE, out);
+        return out;
+    }
+
+    /**
+     * Записывает запись величины, совпадающую с {@link #toString()}, в массив символов.
+     * @param out получатель
+     * @param offset позиция начала записи
+     * @return количество записанных символов
+     * @throws IndexOutOfBoundsException если места недостаточно
+     */
+    public int formatTo(char[] out, int offset) {
+        if (units == ScaledArithmetic.INFLATED) {
+            return ScaledText.format(toString(), out, offset);
+        }
+        return ScaledText.format(units, SCALE, out, offset);
+    }
+
+    /**
+     * Записывает запись величины, совпадающую с {@link #toString()}, в буфер в кодировке ASCII
+     * начиная с текущей позиции.
+     * @param out получатель
+     * @throws java.nio.BufferOverflowException если места недостаточно
+     */
+    public void formatTo(ByteBuffer out) {
+        if (units == ScaledArithmetic.INFLATED) {
+            ScaledText.format(toString(), out);
+        } else {
+            ScaledText.format(units, SCALE, out);
+        }
+    }
+
+    /**
+     * Кэш часто используемых величин, создается при первом обращении.
+     */
+    private static final class Cache {
+        static final ValueCache<Quantity> INSTANCE = new ValueCache<>(
+                "krsktilos.math.Quantity.cache", 100000,
+                units -> new Quantity(units, ScaledArithmetic.toBigDecimal(units, SCALE)));
+    }
 }
@@ -0,0 +1,121 @@
+package krsktilos.math;
+
+/**
+ * Изменяемый сумматор количественных величин {@link Quantity}.
+ * Накопление выполняется в тысячных долях без выделения памяти на каждом шаге;
+ * результат совпадает с цепочкой {@code total = total.add(value)}.
+ * Не потокобезопасен: для повторного использования в потоке достаточно {@link #reset()},
+ * например {@code ThreadLocal.withInitial(QuantityAccumulator::new)}.
+ * @author krsktilos
+ */
+public final class QuantityAccumulator {
+    private static final int SCALE = 3;
+
+    private final ScaledSum sum = new ScaledSum(SCALE);
+
+    /**
+     * Прибавляет количество.
+     * @param quantity слагаемое
+     * @return этот сумматор
+     */
+    public QuantityAccumulator add(Quantity quantity) {
+        long units = quantity.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(quantity.getValue());
+        } else {
+            sum.add(units);
+        }
+        return this;
+    }
+
+    /**
+     * Вычитает количество.
+     * @param quantity вычитаемое
+     * @return этот сумматор
+     */
+    public QuantityAccumulator subtract(Quantity quantity) {
+        long units = quantity.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.subtract(quantity.getValue());
+        } else {
+            sum.subtract(units);
+        }
+        return this;
+    }
+
+    /**
+     * Прибавляет произведение {@code quantity * factor}.
+     * Произведение округляется так же, как в {@link Quantity#multiply(Quantity)}.
+     * @param quantity количество
+     * @param factor множитель
+     * @return этот сумматор
+     */
+    public QuantityAccumulator addProduct(Quantity quantity, Quantity factor) {
+        long units = ScaledArithmetic.INFLATED;
+        if (quantity.units() != ScaledArithmetic.INFLATED && factor.units() != ScaledArithmetic.INFLATED) {
+            units = ScaledArithmetic.multiply(quantity.units(), SCALE, factor.units(), SCALE, SCALE);
+        }
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(quantity.multiply(factor).getValue());
+        } else {
+            sum.add(units);
+        }
+        return this;
+    }
+
+    /**
+     * Прибавляет накопленное другим сумматором.
+     * @param accumulator сумматор
+     * @return этот сумматор
+     */
+    public QuantityAccumulator add(QuantityAccumulator accumulator) {
+        sum.add(accumulator.sum);
+        return this;
+    }
+
+    /**
+     * Сбрасывает накопленное значение в ноль.
+     * @return этот сумматор
+     */
+    public QuantityAccumulator reset() {
+        sum.reset();
+        return this;
+    }
+
+    /**
+     * Возвращает результат проверки на равенство накопленного нулю.
+     * @return результат
+     */
+    public boolean isZero() {
+        return sum.isZero();
+    }
+
+    /**
+     * Возвращает накопленное значение.
+     * @return сумма
+     */
+    public Quantity toQuantity() {
+        return toQuantity(sum);
+    }
+
+    /**
+     * Округляет точную сумму любого масштаба до количества.
+     * @param sum сумма
+     * @return величина
+     */
+    static Quantity toQuantity(ScaledSum sum) {
+        long units = sum.units();
+        if (units != ScaledArithmetic.INFLATED) {
+            long rounded = ScaledArithmetic.rescale(units, sum.scale(), SCALE);
+            if (rounded != ScaledArithmetic.INFLATED) {
+                return Quantity.ofUnits(rounded);
+            }
+        }
+        return new Quantity(sum.toBigDecimal());
+    }
+
+    @Override
+    public String toString() {
+        return sum.toBigDecimal().toString();
+    }
+}
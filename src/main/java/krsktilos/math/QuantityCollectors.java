@@ -0,0 +1,88 @@
+package krsktilos.math;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Коллекторы {@link java.util.stream.Stream} для агрегации количественных величин {@link Quantity}.
+ * Накопление выполняется в изменяемом состоянии в тысячных долях, без {@link Quantity} на каждый элемент;
+ * части параллельного потока объединяются сложением накопленного.
+ * Варианты с функцией-извлекателем подходят для {@link java.util.stream.Collectors#groupingBy}.
+ * @author krsktilos
+ */
+public final class QuantityCollectors {
+
+    private QuantityCollectors() {
+    }
+
+    /**
+     * Сумма величин.
+     * @return коллектор
+     */
+    public static Collector<Quantity, ?, Quantity> summing() {
+        return summing(Function.identity());
+    }
+
+    /**
+     * Сумма величин, извлеченных из элементов.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, Quantity> summing(Function<? super T, Quantity> mapper) {
+        return Collector.of(QuantityAccumulator::new,
+                (accumulator, item) -> accumulator.add(mapper.apply(item)),
+                QuantityAccumulator::add,
+                QuantityAccumulator::toQuantity,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Среднее значение величин, {@link Quantity#ZERO} для пустого потока.
+     * @return коллектор
+     */
+    public static Collector<Quantity, ?, Quantity> averaging() {
+        return averaging(Function.identity());
+    }
+
+    /**
+     * Среднее значение величин, извлеченных из элементов, {@link Quantity#ZERO} для пустого потока.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, Quantity> averaging(Function<? super T, Quantity> mapper) {
+        return Collector.of(QuantitySummaryStatistics::new,
+                (statistics, item) -> statistics.accept(mapper.apply(item)),
+                QuantityCollectors::combine,
+                QuantitySummaryStatistics::getAverage,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Статистика величин: количество, сумма, минимум, максимум, среднее.
+     * @return коллектор
+     */
+    public static Collector<Quantity, ?, QuantitySummaryStatistics> summarizing() {
+        return summarizing(Function.identity());
+    }
+
+    /**
+     * Статистика величин, извлеченных из элементов.
+     * @param mapper извлекатель величины
+     * @param <T> тип элемента
+     * @return коллектор
+     */
+    public static <T> Collector<T, ?, QuantitySummaryStatistics> summarizing(Function<? super T, Quantity> mapper) {
+        return Collector.of(QuantitySummaryStatistics::new,
+                (statistics, item) -> statistics.accept(mapper.apply(item)),
+                QuantityCollectors::combine,
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static QuantitySummaryStatistics combine(QuantitySummaryStatistics left, QuantitySummaryStatistics right) {
+        left.combine(right);
+        return left;
+    }
+}
@@ -0,0 +1,79 @@
+package krsktilos.math;
+
+import java.util.List;
+
+/**
+ * Сортировка и выбор количеств {@link Quantity} без сравнения {@link java.math.BigDecimal}:
+ * тысячные доли и номера элементов упаковываются в массив {@code long}, который сортируется как примитивы,
+ * после чего элементы переставляются. Сортировка стабильна. Выбор наибольших, наименьших величин
+ * и перцентилей выполняется частичной сортировкой за линейное в среднем время.
+ * @author krsktilos
+ */
+public final class QuantitySort {
+    private QuantitySort() {
+    }
+
+    /**
+     * Сортирует величины по возрастанию.
+     * @param values величины
+     */
+    public static void sort(Quantity[] values) {
+        UnitSort.sort(values, Quantity::units, false);
+    }
+
+    /**
+     * Сортирует величины по возрастанию в {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+     * @param values величины
+     */
+    public static void parallelSort(Quantity[] values) {
+        UnitSort.sort(values, Quantity::units, true);
+    }
+
+    /**
+     * Сортирует список величин по возрастанию.
+     * @param values величины
+     */
+    public static void sort(List<Quantity> values) {
+        UnitSort.sort(values, values.toArray(new Quantity[0]), Quantity::units, false);
+    }
+
+    /**
+     * Возвращает {@code k} наибольших величин по убыванию.
+     * @param values величины
+     * @param k количество
+     * @return наибольшие величины
+     */
+    public static Quantity[] top(Quantity[] values, int k) {
+        return UnitSort.top(values, k, Quantity::units);
+    }
+
+    /**
+     * Возвращает {@code k} наименьших величин по возрастанию.
+     * @param values величины
+     * @param k количество
+     * @return наименьшие величины
+     */
+    public static Quantity[] bottom(Quantity[] values, int k) {
+        return UnitSort.bottom(values, k, Quantity::units);
+    }
+
+    /**
+     * Возвращает перцентиль по методу ближайшего ранга: наименьшую величину, не меньше которой
+     * {@code percentile} процентов величин.
+     * @param values величины
+     * @param percentile перцентиль от 0 до 100
+     * @return величина
+     */
+    public static Quantity percentile(Quantity[] values, double percentile) {
+        return UnitSort.select(values, UnitSort.percentileRank(values.length, percentile), Quantity::units);
+    }
+
+    /**
+     * Возвращает медиану (50-й перцентиль).
+     * @param values величины
+     * @return медиана
+     */
+    public static Quantity median(Quantity[] values) {
+        return percentile(values, 50);
+    }
+}
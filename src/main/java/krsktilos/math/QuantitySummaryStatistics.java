@@ -0,0 +1,131 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Статистика по набору количественных величин {@link Quantity}: количество, сумма, минимум, максимум, среднее.
+ * Сумма накапливается точно в тысячных долях, среднее округляется один раз.
+ * Не потокобезопасна; части, собранные в разных потоках, объединяются {@link #combine}.
+ * @author krsktilos
+ */
+public final class QuantitySummaryStatistics implements Consumer<Quantity> {
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final int SCALE = 3;
+
+    private final ScaledSum sum = new ScaledSum(SCALE);
+    private long count;
+    private Quantity min;
+    private Quantity max;
+
+    /**
+     * Учитывает величину.
+     * @param quantity величина
+     */
+    @Override
+    public void accept(Quantity quantity) {
+        long units = quantity.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            sum.add(quantity.getValue());
+        } else {
+            sum.add(units);
+        }
+        if (count == 0) {
+            min = quantity;
+            max = quantity;
+        } else {
+            min = min.compareTo(quantity) <= 0 ? min : quantity;
+            max = max.compareTo(quantity) >= 0 ? max : quantity;
+        }
+        count++;
+    }
+
+    /**
+     * Объединяет статистику с другой.
+     * @param statistics статистика
+     */
+    public void combine(QuantitySummaryStatistics statistics) {
+        if (statistics.count == 0) {
+            return;
+        }
+        sum.add(statistics.sum);
+        if (count == 0) {
+            min = statistics.min;
+            max = statistics.max;
+        } else {
+            min = min.compareTo(statistics.min) <= 0 ? min : statistics.min;
+            max = max.compareTo(statistics.max) >= 0 ? max : statistics.max;
+        }
+        count += statistics.count;
+    }
+
+    /**
+     * Возвращает количество величин.
+     * @return количество
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает сумму величин.
+     * @return сумма
+     */
+    public Quantity getSum() {
+        long units = sum.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return new Quantity(sum.toBigDecimal());
+        }
+        return Quantity.ofUnits(units);
+    }
+
+    /**
+     * Возвращает минимальную величину либо {@link Quantity#ZERO}, если величин нет.
+     * @return минимум
+     */
+    public Quantity getMin() {
+        return count == 0 ? Quantity.ZERO : min;
+    }
+
+    /**
+     * Возвращает максимальную величину либо {@link Quantity#ZERO}, если величин нет.
+     * @return максимум
+     */
+    public Quantity getMax() {
+        return count == 0 ? Quantity.ZERO : max;
+    }
+
+    /**
+     * Возвращает среднее значение либо {@link Quantity#ZERO}, если величин нет.
+     * @return среднее
+     */
+    public Quantity getAverage() {
+        return count == 0 ? Quantity.ZERO : average(sum, count);
+    }
+
+    /**
+     * Делит точную сумму на количество слагаемых с округлением до тысячных.
+     * @param sum сумма в тысячных долях
+     * @param count количество слагаемых
+     * @return среднее
+     * @throws NoSuchElementException если слагаемых нет
+     */
+    static Quantity average(ScaledSum sum, long count) {
+        if (count == 0) {
+            throw new NoSuchElementException("No values");
+        }
+        long units = sum.units();
+        if (units != ScaledArithmetic.INFLATED) {
+            return Quantity.ofUnits(ScaledArithmetic.divide(units, count));
+        }
+        return new Quantity(sum.toBigDecimal().divide(BigDecimal.valueOf(count), SCALE, ROUNDING_MODE));
+    }
+
+    @Override
+    public String toString() {
+        return "QuantitySummaryStatistics{count=" + count + ", sum=" + getSum() + ", min=" + getMin()
+                + ", average=" + getAverage() + ", max=" + getMax() + '}';
+    }
+}
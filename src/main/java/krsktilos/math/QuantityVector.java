@@ -0,0 +1,306 @@
+package krsktilos.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Колонка количественных величин {@link Quantity}, хранимая как массив тысячных долей {@code long[]}.
+ * Поэлементные операции возвращают новую колонку и следуют правилам округления {@link Quantity}.
+ * При переполнении {@code long} выбрасывается {@link ArithmeticException}.
+ * @author krsktilos
+ */
+public final class QuantityVector {
+    private static final int SCALE = 3;
+    private static final int MONEY_SCALE = 2;
+
+    private final long[] units;
+
+    /**
+     * Создание колонки заданного размера, заполненной нулями.
+     * @param size размер
+     */
+    public QuantityVector(int size) {
+        this(new long[size]);
+    }
+
+    QuantityVector(long[] units) {
+        this.units = units;
+    }
+
+    /**
+     * Создание колонки из величин.
+     * @param values величины
+     * @return колонка
+     */
+    public static QuantityVector of(Quantity... values) {
+        long[] units = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            units[i] = unitsOf(values[i]);
+        }
+        return new QuantityVector(units);
+    }
+
+    /**
+     * Создание колонки из коллекции величин.
+     * @param values величины
+     * @return колонка
+     */
+    public static QuantityVector of(Collection<Quantity> values) {
+        long[] units = new long[values.size()];
+        int i = 0;
+        for (Quantity value : values) {
+            units[i++] = unitsOf(value);
+        }
+        return new QuantityVector(units);
+    }
+
+    /**
+     * Создание колонки из количества тысячных долей.
+     * @param units количество тысячных долей
+     * @return колонка
+     */
+    public static QuantityVector ofUnits(long... units) {
+        return new QuantityVector(units.clone());
+    }
+
+    /**
+     * Возвращает размер колонки.
+     * @return размер
+     */
+    public int size() {
+        return units.length;
+    }
+
+    /**
+     * Возвращает величину по индексу.
+     * @param index индекс
+     * @return величина
+     */
+    public Quantity get(int index) {
+        return Quantity.ofUnits(units[index]);
+    }
+
+    /**
+     * Возвращает количество тысячных долей по индексу.
+     * @param index индекс
+     * @return количество тысячных долей
+     */
+    public long getUnits(int index) {
+        return units[index];
+    }
+
+    /**
+     * Изменяет величину по индексу.
+     * @param index индекс
+     * @param value величина
+     */
+    public void set(int index, Quantity value) {
+        units[index] = unitsOf(value);
+    }
+
+    /**
+     * Изменяет количество тысячных долей по индексу.
+     * @param index индекс
+     * @param units количество тысячных долей
+     */
+    public void setUnits(int index, long units) {
+        this.units[index] = units;
+    }
+
+    /**
+     * Поэлементное сложение количества.
+     * @param vector слагаемые
+     * @return суммы
+     */
+    public QuantityVector add(QuantityVector vector) {
+        return new QuantityVector(UnitArrays.add(units, vector.units));
+    }
+
+    /**
+     * Сложение каждого элемента с величиной.
+     * @param quantity слагаемое
+     * @return суммы
+     */
+    public QuantityVector add(Quantity quantity) {
+        return new QuantityVector(UnitArrays.add(units, unitsOf(quantity)));
+    }
+
+    /**
+     * Поэлементное вычитание количества.
+     * @param vector вычитаемые
+     * @return разницы
+     */
+    public QuantityVector subtract(QuantityVector vector) {
+        return new QuantityVector(UnitArrays.subtract(units, vector.units));
+    }
+
+    /**
+     * Вычитание величины из каждого элемента.
+     * @param quantity вычитаемое
+     * @return разницы
+     */
+    public QuantityVector subtract(Quantity quantity) {
+        return new QuantityVector(UnitArrays.subtract(units, unitsOf(quantity)));
+    }
+
+    /**
+     * Поэлементное умножение количества, см. {@link Quantity#multiply(Quantity)}.
+     * @param vector множители
+     * @return произведения
+     */
+    public QuantityVector multiply(QuantityVector vector) {
+        return new QuantityVector(UnitArrays.multiply(units, SCALE, vector.units, SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное умножение количества на деньги, см. {@link Quantity#multiply(Money)}.
+     * @param vector множители
+     * @return произведения
+     */
+    public QuantityVector multiply(MoneyVector vector) {
+        return new QuantityVector(UnitArrays.multiply(units, SCALE, vector.units(), MONEY_SCALE, SCALE));
+    }
+
+    /**
+     * Умножение каждого элемента на величину, см. {@link Quantity#multiply(Quantity)}.
+     * @param quantity множитель
+     * @return произведения
+     */
+    public QuantityVector multiply(Quantity quantity) {
+        return new QuantityVector(UnitArrays.multiply(units, SCALE, unitsOf(quantity), SCALE, SCALE));
+    }
+
+    /**
+     * Умножение каждого элемента на деньги, см. {@link Quantity#multiply(Money)}.
+     * @param money множитель
+     * @return произведения
+     */
+    public QuantityVector multiply(Money money) {
+        return new QuantityVector(UnitArrays.multiply(units, SCALE, MoneyVector.unitsOf(money), MONEY_SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное деление количества, см. {@link Quantity#divide(Quantity)}.
+     * @param vector делители
+     * @return отношения
+     */
+    public QuantityVector divide(QuantityVector vector) {
+        return new QuantityVector(UnitArrays.divide(units, SCALE, vector.units, SCALE, SCALE));
+    }
+
+    /**
+     * Поэлементное деление количества на деньги, см. {@link Quantity#divide(Money)}.
+     * @param vector делители
+     * @return отношения
+     */
+    public QuantityVector divide(MoneyVector vector) {
+        return new QuantityVector(UnitArrays.divide(units, SCALE, vector.units(), MONEY_SCALE, SCALE));
+    }
+
+    /**
+     * Деление каждого элемента на величину, см. {@link Quantity#divide(Quantity)}.
+     * @param quantity делитель
+     * @return отношения
+     */
+    public QuantityVector divide(Quantity quantity) {
+        return new QuantityVector(UnitArrays.divide(units, SCALE, unitsOf(quantity), SCALE, SCALE));
+    }
+
+    /**
+     * Деление каждого элемента на деньги, см. {@link Quantity#divide(Money)}.
+     * @param money делитель
+     * @return отношения
+     */
+    public QuantityVector divide(Money money) {
+        return new QuantityVector(UnitArrays.divide(units, SCALE, MoneyVector.unitsOf(money), MONEY_SCALE, SCALE));
+    }
+
+    /**
+     * Возвращает сумму элементов. Сумма пустой колонки равна {@link Quantity#ZERO}.
+     * @return сумма
+     */
+    public Quantity sum() {
+        return new Quantity(UnitArrays.sum(units, SCALE));
+    }
+
+    /**
+     * Возвращает минимальный элемент.
+     * @return минимум
+     * @throws java.util.NoSuchElementException если колонка пуста
+     */
+    public Quantity min() {
+        return Quantity.ofUnits(UnitArrays.min(units));
+    }
+
+    /**
+     * Возвращает максимальный элемент.
+     * @return максимум
+     * @throws java.util.NoSuchElementException если колонка пуста
+     */
+    public Quantity max() {
+        return Quantity.ofUnits(UnitArrays.max(units));
+    }
+
+    /**
+     * Преобразование в массив величин.
+     * @return массив
+     */
+    public Quantity[] toArray() {
+        Quantity[] values = new Quantity[units.length];
+        for (int i = 0; i < units.length; i++) {
+            values[i] = Quantity.ofUnits(units[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Преобразование в список величин.
+     * @return список
+     */
+    public List<Quantity> toList() {
+        return new ArrayList<>(Arrays.asList(toArray()));
+    }
+
+    /**
+     * Возвращает копию массива тысячных долей.
+     * @return количество тысячных долей
+     */
+    public long[] toUnitsArray() {
+        return units.clone();
+    }
+
+    long[] units() {
+        return units;
+    }
+
+    /**
+     * Возвращает количество тысячных долей величины.
+     * @param quantity величина
+     * @return количество тысячных долей
+     * @throws ArithmeticException если величина не помещается в {@code long}
+     */
+    static long unitsOf(Quantity quantity) {
+        return UnitArrays.checked(quantity.units());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object instanceof QuantityVector) {
+            QuantityVector vector = (QuantityVector) object;
+            return Arrays.equals(units, vector.units);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,18 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Источник курсов валют для {@link CurrencyConverter}.
+ * @author krsktilos
+ */
+public interface RateProvider {
+    /**
+     * Возвращает курс: количество единиц валюты {@code to} за одну единицу валюты {@code from}.
+     * @param from исходная валюта
+     * @param to целевая валюта
+     * @return курс либо {@code null}, если курс неизвестен
+     */
+    BigDecimal getRate(Currency from, Currency to);
+}
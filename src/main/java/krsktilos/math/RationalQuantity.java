@@ -0,0 +1,538 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Точная рациональная величина - несократимая дробь с положительным знаменателем, для цепочек
+ * пересчета единиц (кг в г, упаковки в штуки, коэффициенты), где {@link Quantity#divide(Quantity)}
+ * округлял бы каждый шаг. Числитель и знаменатель хранятся в {@code long} и сокращаются через НОД;
+ * при переполнении дробь хранится в {@link BigInteger} и возвращается в {@code long}, как только помещается.
+ * Умножение и деление - целочисленные операции с перекрестным сокращением; округление
+ * {@link RoundingMode#HALF_UP} выполняется один раз при переводе в {@link Quantity} или {@link Money}.
+ * @author krsktilos
+ */
+public final class RationalQuantity implements Comparable<RationalQuantity> {
+    public static final RationalQuantity ZERO = new RationalQuantity(0, 1, null, null);
+    public static final RationalQuantity ONE = new RationalQuantity(1, 1, null, null);
+
+    private static final int QUANTITY_SCALE = 3;
+    private static final int MONEY_SCALE = 2;
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+    private final long numerator;
+    private final long denominator;
+    /**
+     * Числитель и знаменатель, не помещающиеся в {@code long}, либо {@code null}.
+     */
+    private final BigInteger bigNumerator;
+    private final BigInteger bigDenominator;
+
+    private RationalQuantity(long numerator, long denominator, BigInteger bigNumerator, BigInteger bigDenominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.bigNumerator = bigNumerator;
+        this.bigDenominator = bigDenominator;
+    }
+
+    /**
+     * Создание целой величины.
+     * @param value значение
+     * @return величина
+     */
+    public static RationalQuantity of(long value) {
+        return valueOf(value, 1);
+    }
+
+    /**
+     * Создание дроби.
+     * @param numerator числитель
+     * @param denominator знаменатель
+     * @return величина
+     * @throws ArithmeticException если знаменатель равен нулю
+     */
+    public static RationalQuantity of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return valueOf(numerator, denominator);
+    }
+
+    /**
+     * Создание дроби.
+     * @param numerator числитель
+     * @param denominator знаменатель
+     * @return величина
+     * @throws ArithmeticException если знаменатель равен нулю
+     */
+    public static RationalQuantity of(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return valueOf(numerator, denominator);
+    }
+
+    /**
+     * Создание величины, точно равной десятичному значению.
+     * @param value значение
+     * @return величина
+     */
+    public static RationalQuantity of(BigDecimal value) {
+        if (value.scale() <= 0) {
+            return valueOf(value.toBigIntegerExact(), BigInteger.ONE);
+        }
+        return valueOf(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
+    }
+
+    /**
+     * Создание величины, точно равной количеству.
+     * @param quantity количество
+     * @return величина
+     */
+    public static RationalQuantity of(Quantity quantity) {
+        long units = quantity.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return of(quantity.getValue());
+        }
+        return valueOf(units, ScaledArithmetic.powerOfTen(QUANTITY_SCALE));
+    }
+
+    /**
+     * Создание величины, точно равной денежной величине.
+     * @param money денежная величина
+     * @return величина
+     */
+    public static RationalQuantity of(Money money) {
+        long units = money.units();
+        if (units == ScaledArithmetic.INFLATED) {
+            return of(money.getValue());
+        }
+        return valueOf(units, ScaledArithmetic.powerOfTen(MONEY_SCALE));
+    }
+
+    private static RationalQuantity valueOf(long numerator, long denominator) {
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            return valueOf(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+        }
+        if (denominator < 0) {
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        if (numerator == 0) {
+            return ZERO;
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new RationalQuantity(numerator / gcd, denominator / gcd, null, null);
+    }
+
+    private static RationalQuantity valueOf(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() < 0) {
+            numerator = numerator.negate();
+            denominator = denominator.negate();
+        }
+        if (numerator.signum() == 0) {
+            return ZERO;
+        }
+        BigInteger gcd = numerator.gcd(denominator);
+        if (!gcd.equals(BigInteger.ONE)) {
+            numerator = numerator.divide(gcd);
+            denominator = denominator.divide(gcd);
+        }
+        if (fits(numerator) && fits(denominator)) {
+            return new RationalQuantity(numerator.longValue(), denominator.longValue(), null, null);
+        }
+        return new RationalQuantity(0, 0, numerator, denominator);
+    }
+
+    private static boolean fits(BigInteger value) {
+        return value.bitLength() <= 63 && !value.equals(LONG_MIN);
+    }
+
+    /**
+     * Наибольший общий делитель неотрицательных чисел (бинарный алгоритм).
+     */
+    static long gcd(long a, long b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        } while (b != 0);
+        return a << shift;
+    }
+
+    /**
+     * Возвращает числитель несократимой дроби.
+     * @return числитель
+     */
+    public BigInteger getNumerator() {
+        return bigNumerator != null ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+
+    /**
+     * Возвращает положительный знаменатель несократимой дроби.
+     * @return знаменатель
+     */
+    public BigInteger getDenominator() {
+        return bigDenominator != null ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
+    /**
+     * Арифметическая операция умножения.
+     * @param value множитель
+     * @return произведение
+     */
+    public RationalQuantity multiply(RationalQuantity value) {
+        if (bigNumerator != null || value.bigNumerator != null) {
+            return valueOf(getNumerator().multiply(value.getNumerator()), getDenominator().multiply(value.getDenominator()));
+        }
+        return product(numerator, denominator, value.numerator, value.denominator);
+    }
+
+    /**
+     * Арифметическая операция умножения на целое.
+     * @param value множитель
+     * @return произведение
+     */
+    public RationalQuantity multiply(long value) {
+        return multiply(of(value));
+    }
+
+    /**
+     * Арифметическая операция деления.
+     * @param value делитель
+     * @return частное
+     * @throws ArithmeticException при делении на ноль
+     */
+    public RationalQuantity divide(RationalQuantity value) {
+        if (value.isZero()) {
+            throw new ArithmeticException("Division by zero");
+        }
+        if (bigNumerator != null || value.bigNumerator != null) {
+            return valueOf(getNumerator().multiply(value.getDenominator()), getDenominator().multiply(value.getNumerator()));
+        }
+        if (value.numerator < 0) {
+            return product(-numerator, denominator, value.denominator, -value.numerator);
+        }
+        return product(numerator, denominator, value.denominator, value.numerator);
+    }
+
+    /**
+     * Арифметическая операция деления на целое.
+     * @param value делитель
+     * @return частное
+     * @throws ArithmeticException при делении на ноль
+     */
+    public RationalQuantity divide(long value) {
+        return divide(of(value));
+    }
+
+    /**
+     * Произведение несократимых дробей с положительными знаменателями: перекрестное сокращение
+     * дает несократимый результат без вычисления НОД произведений.
+     */
+    private static RationalQuantity product(long an, long ad, long bn, long bd) {
+        if (an == 0 || bn == 0) {
+            return ZERO;
+        }
+        long g1 = gcd(Math.abs(an), bd);
+        long g2 = gcd(Math.abs(bn), ad);
+        long n = ScaledArithmetic.multiply(an / g1, bn / g2);
+        long d = ScaledArithmetic.multiply(ad / g2, bd / g1);
+        if (n == ScaledArithmetic.INFLATED || d == ScaledArithmetic.INFLATED) {
+            return valueOf(BigInteger.valueOf(an / g1).multiply(BigInteger.valueOf(bn / g2)),
+                    BigInteger.valueOf(ad / g2).multiply(BigInteger.valueOf(bd / g1)));
+        }
+        return new RationalQuantity(n, d, null, null);
+    }
+
+    /**
+     * Арифметическая операция сложения.
+     * @param value слагаемое
+     * @return сумма
+     */
+    public RationalQuantity add(RationalQuantity value) {
+        return sum(value, false);
+    }
+
+    /**
+     * Арифметическая операция вычитания.
+     * @param value вычитаемое
+     * @return разница
+     */
+    public RationalQuantity subtract(RationalQuantity value) {
+        return sum(value, true);
+    }
+
+    private RationalQuantity sum(RationalQuantity value, boolean negate) {
+        if (bigNumerator == null && value.bigNumerator == null) {
+            long bn = negate ? -value.numerator : value.numerator;
+            long gcd = gcd(denominator, value.denominator);
+            long d = ScaledArithmetic.multiply(denominator / gcd, value.denominator);
+            long left = ScaledArithmetic.multiply(numerator, value.denominator / gcd);
+            long right = ScaledArithmetic.multiply(bn, denominator / gcd);
+            if (d != ScaledArithmetic.INFLATED && left != ScaledArithmetic.INFLATED && right != ScaledArithmetic.INFLATED) {
+                long n = ScaledArithmetic.add(left, right);
+                if (n != ScaledArithmetic.INFLATED) {
+                    return valueOf(n, d);
+                }
+            }
+        }
+        BigInteger bn = negate ? value.getNumerator().negate() : value.getNumerator();
+        return valueOf(getNumerator().multiply(value.getDenominator()).add(bn.multiply(getDenominator())),
+                getDenominator().multiply(value.getDenominator()));
+    }
+
+    /**
+     * Возвращает величину с противоположным знаком.
+     * @return величина
+     */
+    public RationalQuantity negate() {
+        if (bigNumerator != null) {
+            return valueOf(bigNumerator.negate(), bigDenominator);
+        }
+        return new RationalQuantity(-numerator, denominator, null, null);
+    }
+
+    /**
+     * Возвращает обратную величину.
+     * @return величина
+     * @throws ArithmeticException если величина равна нулю
+     */
+    public RationalQuantity reciprocal() {
+        return ONE.divide(this);
+    }
+
+    /**
+     * Возвращает знак величины.
+     * @return -1, 0 или 1
+     */
+    public int signum() {
+        return bigNumerator != null ? bigNumerator.signum() : Long.signum(numerator);
+    }
+
+    /**
+     * Проверка на равенство нулю.
+     * @return {@code true}, если величина равна нулю
+     */
+    public boolean isZero() {
+        return signum() == 0;
+    }
+
+    /**
+     * Переводит величину в количество с округлением {@link RoundingMode#HALF_UP}.
+     * @return количество
+     */
+    public Quantity toQuantity() {
+        long units = toUnits(1, QUANTITY_SCALE);
+        if (units != ScaledArithmetic.INFLATED) {
+            return Quantity.ofUnits(units);
+        }
+        return new Quantity(toBigDecimal(QUANTITY_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Переводит величину в денежную с округлением {@link RoundingMode#HALF_UP}.
+     * @return денежная величина
+     */
+    public Money toMoney() {
+        long units = toUnits(1, MONEY_SCALE);
+        if (units != ScaledArithmetic.INFLATED) {
+            return Money.ofUnits(units);
+        }
+        return new Money(toBigDecimal(MONEY_SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Переводит величину в десятичную.
+     * @param scale масштаб
+     * @param roundingMode способ округления
+     * @return значение
+     */
+    public BigDecimal toBigDecimal(int scale, RoundingMode roundingMode) {
+        return new BigDecimal(getNumerator()).divide(new BigDecimal(getDenominator()), scale, roundingMode);
+    }
+
+    /**
+     * Умножает количество на величину с одним округлением {@link RoundingMode#HALF_UP}.
+     * @param quantity количество
+     * @return количество
+     */
+    public Quantity applyTo(Quantity quantity) {
+        long units = toUnits(quantity.units(), 0);
+        if (units != ScaledArithmetic.INFLATED) {
+            return Quantity.ofUnits(units);
+        }
+        return new Quantity(apply(quantity.getValue(), QUANTITY_SCALE));
+    }
+
+    /**
+     * Умножает денежную величину на величину с одним округлением {@link RoundingMode#HALF_UP}.
+     * @param money денежная величина
+     * @return денежная величина
+     */
+    public Money applyTo(Money money) {
+        long units = toUnits(money.units(), 0);
+        if (units != ScaledArithmetic.INFLATED) {
+            return Money.ofUnits(units);
+        }
+        return new Money(apply(money.getValue(), MONEY_SCALE));
+    }
+
+    /**
+     * Умножает каждое количество на величину, см. {@link #applyTo(Quantity)}.
+     * @param quantities количества
+     * @return количества
+     */
+    public Quantity[] applyTo(Quantity[] quantities) {
+        Quantity[] result = new Quantity[quantities.length];
+        for (int i = 0; i < quantities.length; i++) {
+            result[i] = applyTo(quantities[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Умножает каждую денежную величину на величину, см. {@link #applyTo(Money)}.
+     * @param values денежные величины
+     * @return денежные величины
+     */
+    public Money[] applyTo(Money[] values) {
+        Money[] result = new Money[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = applyTo(values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Умножает каждый элемент колонки на величину, см. {@link #applyTo(Quantity)}.
+     * @param vector колонка
+     * @return колонка
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    public QuantityVector applyTo(QuantityVector vector) {
+        long[] units = vector.toUnitsArray();
+        applyToUnits(units, 0, units.length);
+        return new QuantityVector(units);
+    }
+
+    /**
+     * Умножает каждый элемент колонки на величину, см. {@link #applyTo(Money)}.
+     * @param vector колонка
+     * @return колонка
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    public MoneyVector applyTo(MoneyVector vector) {
+        long[] units = vector.toUnitsArray();
+        applyToUnits(units, 0, units.length);
+        return new MoneyVector(units);
+    }
+
+    /**
+     * Умножает на месте количества минимальных единиц любого масштаба на величину с округлением
+     * {@link RoundingMode#HALF_UP}: одно целочисленное умножение и деление на элемент.
+     * @param units количества минимальных единиц
+     * @param from индекс первого элемента
+     * @param to индекс после последнего элемента
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    public void applyToUnits(long[] units, int from, int to) {
+        if (from < 0 || to > units.length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + units.length);
+        }
+        for (int i = from; i < to; i++) {
+            long result = toUnits(units[i], 0);
+            if (result == ScaledArithmetic.INFLATED) {
+                result = UnitArrays.checked(bigUnits(BigInteger.valueOf(units[i])));
+            }
+            units[i] = result;
+        }
+    }
+
+    /**
+     * Произведение {@code units * 10^scale} на величину, округленное {@link RoundingMode#HALF_UP}.
+     * @return результат либо {@link ScaledArithmetic#INFLATED}, если требуется {@link BigDecimal}
+     */
+    private long toUnits(long units, int scale) {
+        if (bigNumerator != null || units == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        long product = ScaledArithmetic.multiply(units, numerator);
+        if (scale != 0 && product != ScaledArithmetic.INFLATED) {
+            product = ScaledArithmetic.multiply(product, ScaledArithmetic.powerOfTen(scale));
+        }
+        if (product == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return denominator == 1 ? product : ScaledArithmetic.divide(product, denominator);
+    }
+
+    private long bigUnits(BigInteger units) {
+        BigInteger[] division = units.multiply(getNumerator()).divideAndRemainder(getDenominator());
+        BigInteger quotient = division[0];
+        if (division[1].abs().shiftLeft(1).compareTo(getDenominator()) >= 0) {
+            quotient = quotient.add(BigInteger.valueOf(division[1].signum()));
+        }
+        return fits(quotient) ? quotient.longValue() : ScaledArithmetic.INFLATED;
+    }
+
+    private BigDecimal apply(BigDecimal value, int scale) {
+        return value.multiply(new BigDecimal(getNumerator())).divide(new BigDecimal(getDenominator()), scale, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public int compareTo(RationalQuantity value) {
+        if (bigNumerator == null && value.bigNumerator == null) {
+            if (denominator == value.denominator) {
+                return Long.compare(numerator, value.numerator);
+            }
+            long left = ScaledArithmetic.multiply(numerator, value.denominator);
+            long right = ScaledArithmetic.multiply(value.numerator, denominator);
+            if (left != ScaledArithmetic.INFLATED && right != ScaledArithmetic.INFLATED) {
+                return Long.compare(left, right);
+            }
+        }
+        return getNumerator().multiply(value.getDenominator()).compareTo(value.getNumerator().multiply(getDenominator()));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object instanceof RationalQuantity) {
+            RationalQuantity value = (RationalQuantity) object;
+            if (bigNumerator == null) {
+                return value.bigNumerator == null && numerator == value.numerator && denominator == value.denominator;
+            }
+            return bigNumerator.equals(value.bigNumerator) && bigDenominator.equals(value.bigDenominator);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        if (bigNumerator == null) {
+            return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+        }
+        return 31 * bigNumerator.hashCode() + bigDenominator.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (bigNumerator == null) {
+            return denominator == 1 ? Long.toString(numerator) : numerator + "/" + denominator;
+        }
+        return bigNumerator + "/" + bigDenominator;
+    }
+}
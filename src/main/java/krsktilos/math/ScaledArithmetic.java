@@ -0,0 +1,200 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Арифметика над масштабированными целыми (количество минимальных единиц величины).
+ * Все операции без выделения памяти; переполнение сигнализируется значением {@link #INFLATED},
+ * после чего вызывающая сторона переходит на {@link BigDecimal}.
+ * @author krsktilos
+ */
+final class ScaledArithmetic {
+    /**
+     * Признак того, что значение не помещается в {@code long}.
+     */
+    static final long INFLATED = Long.MIN_VALUE;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L,
+            10L,
+            100L,
+            1000L,
+            10000L,
+            100000L,
+            1000000L,
+            10000000L,
+            100000000L,
+            1000000000L,
+            10000000000L,
+            100000000000L,
+            1000000000000L,
+            10000000000000L,
+            100000000000000L,
+            1000000000000000L,
+            10000000000000000L,
+            100000000000000000L,
+            1000000000000000000L
+    };
+
+    private ScaledArithmetic() {
+    }
+
+    /**
+     * Возвращает 10 в степени {@code power}.
+     * @param power степень (0..18)
+     * @return множитель
+     */
+    static long powerOfTen(int power) {
+        return POWERS_OF_TEN[power];
+    }
+
+    /**
+     * Сложение с контролем переполнения.
+     * @param a слагаемое
+     * @param b слагаемое
+     * @return сумма либо {@link #INFLATED}
+     */
+    static long add(long a, long b) {
+        long result = a + b;
+        if (((a ^ result) & (b ^ result)) < 0) {
+            return INFLATED;
+        }
+        return result;
+    }
+
+    /**
+     * Вычитание с контролем переполнения.
+     * @param a уменьшаемое
+     * @param b вычитаемое
+     * @return разница либо {@link #INFLATED}
+     */
+    static long subtract(long a, long b) {
+        long result = a - b;
+        if (((a ^ b) & (a ^ result)) < 0) {
+            return INFLATED;
+        }
+        return result;
+    }
+
+    /**
+     * Умножение с контролем переполнения.
+     * @param a множитель
+     * @param b множитель
+     * @return произведение либо {@link #INFLATED}
+     */
+    static long multiply(long a, long b) {
+        long result = a * b;
+        long absA = Math.abs(a);
+        long absB = Math.abs(b);
+        if (((absA | absB) >>> 31) != 0) {
+            if ((b != 0 && result / b != a) || (a == Long.MIN_VALUE && b == -1)) {
+                return INFLATED;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Целочисленное деление с округлением {@link RoundingMode#HALF_UP}.
+     * @param dividend делимое
+     * @param divisor делитель
+     * @return частное
+     * @throws ArithmeticException при делении на ноль
+     */
+    static long divide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder != 0 && remainder >= Math.abs(divisor) - remainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Изменение масштаба с округлением {@link RoundingMode#HALF_UP}.
+     * @param units значение в масштабе {@code fromScale}
+     * @param fromScale исходный масштаб
+     * @param toScale требуемый масштаб
+     * @return значение в масштабе {@code toScale} либо {@link #INFLATED}
+     */
+    static long rescale(long units, int fromScale, int toScale) {
+        if (fromScale == toScale) {
+            return units;
+        }
+        if (fromScale > toScale) {
+            return divide(units, POWERS_OF_TEN[fromScale - toScale]);
+        }
+        return multiply(units, POWERS_OF_TEN[toScale - fromScale]);
+    }
+
+    /**
+     * Умножение величин разных масштабов с округлением {@link RoundingMode#HALF_UP}.
+     * Совпадает с {@code a.multiply(b).setScale(scale, HALF_UP)}.
+     * @param a множитель
+     * @param aScale масштаб множителя
+     * @param b множитель
+     * @param bScale масштаб множителя
+     * @param scale масштаб результата
+     * @return произведение либо {@link #INFLATED}
+     */
+    static long multiply(long a, int aScale, long b, int bScale, int scale) {
+        long product = multiply(a, b);
+        if (product == INFLATED) {
+            return INFLATED;
+        }
+        return rescale(product, aScale + bScale, scale);
+    }
+
+    /**
+     * Деление величин разных масштабов с округлением {@link RoundingMode#HALF_UP}.
+     * Совпадает с {@code a.divide(b, scale, HALF_UP)}.
+     * @param a делимое
+     * @param aScale масштаб делимого
+     * @param b делитель
+     * @param bScale масштаб делителя
+     * @param scale масштаб результата
+     * @return частное либо {@link #INFLATED}
+     * @throws ArithmeticException при делении на ноль
+     */
+    static long divide(long a, int aScale, long b, int bScale, int scale) {
+        int exponent = bScale - aScale + scale;
+        if (exponent >= 0) {
+            long dividend = multiply(a, POWERS_OF_TEN[exponent]);
+            if (dividend == INFLATED) {
+                return INFLATED;
+            }
+            return divide(dividend, b);
+        }
+        long divisor = multiply(b, POWERS_OF_TEN[-exponent]);
+        if (divisor == INFLATED) {
+            return INFLATED;
+        }
+        return divide(a, divisor);
+    }
+
+    /**
+     * Переводит значение в количество минимальных единиц заданного масштаба.
+     * @param value значение
+     * @param scale масштаб
+     * @return количество единиц либо {@link #INFLATED}
+     */
+    static long toUnits(BigDecimal value, int scale) {
+        BigInteger unscaled = value.setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            return INFLATED;
+        }
+        return unscaled.longValue();
+    }
+
+    /**
+     * Переводит количество минимальных единиц в {@link BigDecimal}.
+     * @param units количество единиц
+     * @param scale масштаб
+     * @return значение
+     */
+    static BigDecimal toBigDecimal(long units, int scale) {
+        return BigDecimal.valueOf(units, scale);
+    }
+}
@@ -0,0 +1,143 @@
+package krsktilos.math;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Компактный двоичный формат величин.
+ * Запись начинается с байта-тега: тип величины ({@link #MONEY}, {@link #QUANTITY})
+ * и флаг {@link #INFLATED}. Компактное значение - количество минимальных единиц
+ * в кодировке zig-zag varint (1-10 байт); значение, не помещающееся в {@code long}, -
+ * длина varint и байты {@link BigInteger#toByteArray()} немасштабированного значения, не длиннее
+ * {@link #MAX_INFLATED_LENGTH}: больше не записывается, а при чтении такая длина считается повреждением
+ * и не приводит к выделению памяти.
+ * @author krsktilos
+ */
+final class ScaledCodec {
+    static final byte MONEY = 0x01;
+    static final byte QUANTITY = 0x02;
+    static final byte INFLATED = 0x10;
+
+    /**
+     * Наибольшая длина немасштабированного значения в байтах (около 157 000 десятичных цифр).
+     */
+    static final int MAX_INFLATED_LENGTH = 1 << 16;
+
+    private static final byte TYPE_MASK = 0x0F;
+
+    private ScaledCodec() {
+    }
+
+    static void write(DataOutput out, byte type, long units, BigDecimal value) throws IOException {
+        if (units == ScaledArithmetic.INFLATED) {
+            byte[] bytes = inflatedBytes(value);
+            out.writeByte(type | INFLATED);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        } else {
+            out.writeByte(type);
+            writeVarLong(out, units);
+        }
+    }
+
+    static void write(ByteBuffer out, byte type, long units, BigDecimal value) {
+        if (units == ScaledArithmetic.INFLATED) {
+            byte[] bytes = inflatedBytes(value);
+            out.put((byte) (type | INFLATED));
+            writeVarLong(out, bytes.length);
+            out.put(bytes);
+        } else {
+            out.put(type);
+            writeVarLong(out, units);
+        }
+    }
+
+    /**
+     * Проверяет тип записи.
+     * @param tag прочитанный тег
+     * @param type ожидаемый тип
+     * @return результат
+     */
+    static boolean isType(byte tag, byte type) {
+        return (tag & TYPE_MASK) == type && (tag & ~(TYPE_MASK | INFLATED)) == 0;
+    }
+
+    static boolean isInflated(byte tag) {
+        return (tag & INFLATED) != 0;
+    }
+
+    private static byte[] inflatedBytes(BigDecimal value) {
+        byte[] bytes = value.unscaledValue().toByteArray();
+        if (bytes.length > MAX_INFLATED_LENGTH) {
+            throw new IllegalArgumentException("Value is too large to encode: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    static BigDecimal readInflated(DataInput in, int scale) throws IOException {
+        long length = readVarLong(in);
+        if (length <= 0 || length > MAX_INFLATED_LENGTH) {
+            throw new StreamCorruptedException("Invalid length: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    static BigDecimal readInflated(ByteBuffer in, int scale) {
+        long length = readVarLong(in);
+        if (length <= 0 || length > MAX_INFLATED_LENGTH || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid length: " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    static void writeVarLong(ByteBuffer out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.put((byte) zigzag);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
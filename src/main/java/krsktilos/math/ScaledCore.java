@@ -0,0 +1,134 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Общее ядро {@link Money} и {@link Quantity}: сравнение, арифметика, округление и целая часть
+ * над количеством минимальных единиц.
+ * Операции принимают единицы и масштабы операндов и возвращают единицы результата в масштабе
+ * {@code scale} с округлением {@link RoundingMode#HALF_UP}, совпадающие с результатом {@link BigDecimal};
+ * {@link ScaledArithmetic#INFLATED} на входе или выходе означает, что вызывающая сторона должна
+ * выполнить операцию над {@link BigDecimal}. Методы статические и короткие, чтобы встраиваться JIT.
+ * @author krsktilos
+ */
+final class ScaledCore {
+    private ScaledCore() {
+    }
+
+    /**
+     * Сравнение величин одного масштаба.
+     * @param a количество единиц первой величины либо {@link ScaledArithmetic#INFLATED}
+     * @param aValue значение первой величины
+     * @param b количество единиц второй величины либо {@link ScaledArithmetic#INFLATED}
+     * @param bValue значение второй величины
+     * @return отрицательное, ноль или положительное число
+     */
+    static int compare(long a, BigDecimal aValue, long b, BigDecimal bValue) {
+        if (a != ScaledArithmetic.INFLATED && b != ScaledArithmetic.INFLATED) {
+            return Long.compare(a, b);
+        }
+        return aValue.compareTo(bValue);
+    }
+
+    /**
+     * Сложение величин разных масштабов.
+     * @param a слагаемое
+     * @param aScale масштаб слагаемого
+     * @param b слагаемое
+     * @param bScale масштаб слагаемого
+     * @param scale масштаб результата
+     * @return сумма либо {@link ScaledArithmetic#INFLATED}
+     */
+    static long add(long a, int aScale, long b, int bScale, int scale) {
+        if (a == ScaledArithmetic.INFLATED || b == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        if (aScale == bScale) {
+            long sum = ScaledArithmetic.add(a, b);
+            return sum == ScaledArithmetic.INFLATED ? sum : ScaledArithmetic.rescale(sum, aScale, scale);
+        }
+        int common = Math.max(aScale, bScale);
+        a = ScaledArithmetic.rescale(a, aScale, common);
+        b = ScaledArithmetic.rescale(b, bScale, common);
+        if (a == ScaledArithmetic.INFLATED || b == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        long sum = ScaledArithmetic.add(a, b);
+        return sum == ScaledArithmetic.INFLATED ? sum : ScaledArithmetic.rescale(sum, common, scale);
+    }
+
+    /**
+     * Вычитание величин разных масштабов.
+     * @param a уменьшаемое
+     * @param aScale масштаб уменьшаемого
+     * @param b вычитаемое
+     * @param bScale масштаб вычитаемого
+     * @param scale масштаб результата
+     * @return разница либо {@link ScaledArithmetic#INFLATED}
+     */
+    static long subtract(long a, int aScale, long b, int bScale, int scale) {
+        if (b == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return add(a, aScale, -b, bScale, scale);
+    }
+
+    /**
+     * Умножение величин разных масштабов.
+     * @param a множитель
+     * @param aScale масштаб множителя
+     * @param b множитель
+     * @param bScale масштаб множителя
+     * @param scale масштаб результата
+     * @return произведение либо {@link ScaledArithmetic#INFLATED}
+     */
+    static long multiply(long a, int aScale, long b, int bScale, int scale) {
+        if (a == ScaledArithmetic.INFLATED || b == ScaledArithmetic.INFLATED) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return ScaledArithmetic.multiply(a, aScale, b, bScale, scale);
+    }
+
+    /**
+     * Деление величин разных масштабов. Деление на ноль возвращает {@link ScaledArithmetic#INFLATED},
+     * чтобы исключение с привычным сообщением бросил {@link BigDecimal}.
+     * @param a делимое
+     * @param aScale масштаб делимого
+     * @param b делитель
+     * @param bScale масштаб делителя
+     * @param scale масштаб результата
+     * @return частное либо {@link ScaledArithmetic#INFLATED}
+     */
+    static long divide(long a, int aScale, long b, int bScale, int scale) {
+        if (a == ScaledArithmetic.INFLATED || b == ScaledArithmetic.INFLATED || b == 0) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return ScaledArithmetic.divide(a, aScale, b, bScale, scale);
+    }
+
+    /**
+     * Целая часть величины с семантикой {@link BigDecimal#intValue()}: отбрасывание дробной части
+     * и младшие 32 бита результата.
+     * @param units количество единиц либо {@link ScaledArithmetic#INFLATED}
+     * @param value значение
+     * @param scale масштаб
+     * @return целая часть
+     */
+    static int intValue(long units, BigDecimal value, int scale) {
+        if (units != ScaledArithmetic.INFLATED) {
+            return (int) (units / ScaledArithmetic.powerOfTen(scale));
+        }
+        return value.intValue();
+    }
+
+    /**
+     * Переводит целое значение в количество единиц.
+     * @param value целое значение
+     * @param scale масштаб
+     * @return количество единиц либо {@link ScaledArithmetic#INFLATED}
+     */
+    static long ofLong(long value, int scale) {
+        return ScaledArithmetic.multiply(value, ScaledArithmetic.powerOfTen(scale));
+    }
+}
@@ -0,0 +1,115 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Изменяемая точная сумма минимальных единиц заданного масштаба.
+ * Пока сумма помещается в {@code long}, память не выделяется;
+ * при переполнении накопленное переносится в {@link BigInteger}.
+ * Не потокобезопасна.
+ * @author krsktilos
+ */
+final class ScaledSum {
+    private final int scale;
+
+    private long units;
+    /**
+     * Часть суммы, не поместившаяся в {@code long}, либо {@code null}.
+     */
+    private BigInteger carry;
+
+    ScaledSum(int scale) {
+        this.scale = scale;
+    }
+
+    void add(long value) {
+        long result = units + value;
+        if (((units ^ result) & (value ^ result)) < 0) {
+            spill();
+            result = value;
+        }
+        units = result;
+    }
+
+    void subtract(long value) {
+        long result = units - value;
+        if (((units ^ value) & (units ^ result)) < 0) {
+            spill();
+            result = 0;
+            carry = carry.subtract(BigInteger.valueOf(value));
+        }
+        units = result;
+    }
+
+    /**
+     * Прибавляет значение, масштаб которого не превышает масштаб суммы.
+     * @param value слагаемое
+     */
+    void add(BigDecimal value) {
+        spill();
+        carry = carry.add(value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue());
+    }
+
+    /**
+     * Вычитает значение, масштаб которого не превышает масштаб суммы.
+     * @param value вычитаемое
+     */
+    void subtract(BigDecimal value) {
+        spill();
+        carry = carry.subtract(value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue());
+    }
+
+    void add(ScaledSum sum) {
+        if (sum.carry != null) {
+            spill();
+            carry = carry.add(sum.carry);
+        }
+        add(sum.units);
+    }
+
+    void reset() {
+        units = 0;
+        carry = null;
+    }
+
+    int scale() {
+        return scale;
+    }
+
+    boolean isZero() {
+        return units == 0 && (carry == null || carry.signum() == 0);
+    }
+
+    /**
+     * Возвращает сумму в минимальных единицах.
+     * @return сумма либо {@link ScaledArithmetic#INFLATED}
+     */
+    long units() {
+        if (carry == null) {
+            return units;
+        }
+        BigInteger total = carry.add(BigInteger.valueOf(units));
+        if (total.bitLength() > 63) {
+            return ScaledArithmetic.INFLATED;
+        }
+        return total.longValue();
+    }
+
+    BigDecimal toBigDecimal() {
+        if (carry == null) {
+            return ScaledArithmetic.toBigDecimal(units, scale);
+        }
+        return new BigDecimal(carry.add(BigInteger.valueOf(units)), scale);
+    }
+
+    private void spill() {
+        if (carry == null) {
+            carry = BigInteger.valueOf(units);
+        } else {
+            carry = carry.add(BigInteger.valueOf(units));
+        }
+        units = 0;
+    }
+}
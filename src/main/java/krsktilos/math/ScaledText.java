@@ -0,0 +1,235 @@
+package krsktilos.math;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Разбор и форматирование десятичной записи напрямую в минимальные единицы и из них.
+ * Разбирается запись вида {@code [+-]digits[.digits]}, лишние дробные знаки округляются
+ * {@link java.math.RoundingMode#HALF_UP}; для прочих записей (экспонента, переполнение)
+ * возвращается {@link ScaledArithmetic#INFLATED}, и вызывающая сторона использует {@link java.math.BigDecimal}.
+ * Форматирование совпадает с {@link java.math.BigDecimal#toString()} для масштаба 0..18.
+ * @author krsktilos
+ */
+final class ScaledText {
+    private static final long LIMIT = (Long.MAX_VALUE - 9) / 10;
+
+    private ScaledText() {
+    }
+
+    static long parse(CharSequence text, int start, int end, int scale) {
+        if (start >= end) {
+            return ScaledArithmetic.INFLATED;
+        }
+        int i = start;
+        char c = text.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fraction = -1;
+        boolean roundUp = false;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (fraction >= scale) {
+                    if (fraction == scale) {
+                        roundUp = c >= '5';
+                    }
+                    fraction++;
+                    continue;
+                }
+                if (value > LIMIT) {
+                    return ScaledArithmetic.INFLATED;
+                }
+                value = value * 10 + (c - '0');
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return ScaledArithmetic.INFLATED;
+            }
+        }
+        return finish(value, digits, fraction, roundUp, negative, scale);
+    }
+
+    static long parse(byte[] bytes, int offset, int length, int scale) {
+        int end = offset + length;
+        if (offset < 0 || length <= 0 || end > bytes.length) {
+            return ScaledArithmetic.INFLATED;
+        }
+        int i = offset;
+        byte c = bytes[i];
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fraction = -1;
+        boolean roundUp = false;
+        for (; i < end; i++) {
+            c = bytes[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (fraction >= scale) {
+                    if (fraction == scale) {
+                        roundUp = c >= '5';
+                    }
+                    fraction++;
+                    continue;
+                }
+                if (value > LIMIT) {
+                    return ScaledArithmetic.INFLATED;
+                }
+                value = value * 10 + (c - '0');
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else {
+                return ScaledArithmetic.INFLATED;
+            }
+        }
+        return finish(value, digits, fraction, roundUp, negative, scale);
+    }
+
+    private static long finish(long value, int digits, int fraction, boolean roundUp, boolean negative, int scale) {
+        if (digits == 0) {
+            return ScaledArithmetic.INFLATED;
+        }
+        for (int kept = Math.max(fraction, 0); kept < scale; kept++) {
+            if (value > LIMIT) {
+                return ScaledArithmetic.INFLATED;
+            }
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Возвращает длину записи значения.
+     * @param units количество единиц, кроме {@link ScaledArithmetic#INFLATED}
+     * @param scale масштаб
+     * @return количество символов
+     */
+    static int length(long units, int scale) {
+        long magnitude = Math.abs(units);
+        int digits = 1;
+        while (magnitude >= 10) {
+            magnitude /= 10;
+            digits++;
+        }
+        int length = Math.max(digits, scale + 1);
+        if (scale > 0) {
+            length++;
+        }
+        if (units < 0) {
+            length++;
+        }
+        return length;
+    }
+
+    static void format(long units, int scale, StringBuilder out) {
+        int length = length(units, scale);
+        int start = out.length();
+        out.setLength(start + length);
+        long magnitude = Math.abs(units);
+        int position = start + length;
+        for (int i = 0; i < scale; i++) {
+            out.setCharAt(--position, (char) ('0' + magnitude % 10));
+            magnitude /= 10;
+        }
+        if (scale > 0) {
+            out.setCharAt(--position, '.');
+        }
+        do {
+            out.setCharAt(--position, (char) ('0' + magnitude % 10));
+            magnitude /= 10;
+        } while (magnitude != 0);
+        if (units < 0) {
+            out.setCharAt(--position, '-');
+        }
+    }
+
+    static int format(long units, int scale, char[] out, int offset) {
+        int length = length(units, scale);
+        if (offset < 0 || offset + length > out.length) {
+            throw new IndexOutOfBoundsException("Not enough space: " + length + " chars at " + offset);
+        }
+        long magnitude = Math.abs(units);
+        int position = offset + length;
+        for (int i = 0; i < scale; i++) {
+            out[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+        if (scale > 0) {
+            out[--position] = '.';
+        }
+        do {
+            out[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        } while (magnitude != 0);
+        if (units < 0) {
+            out[--position] = '-';
+        }
+        return length;
+    }
+
+    static void format(long units, int scale, ByteBuffer out) {
+        int length = length(units, scale);
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        int start = out.position();
+        long magnitude = Math.abs(units);
+        int position = start + length;
+        for (int i = 0; i < scale; i++) {
+            out.put(--position, (byte) ('0' + magnitude % 10));
+            magnitude /= 10;
+        }
+        if (scale > 0) {
+            out.put(--position, (byte) '.');
+        }
+        do {
+            out.put(--position, (byte) ('0' + magnitude % 10));
+            magnitude /= 10;
+        } while (magnitude != 0);
+        if (units < 0) {
+            out.put(--position, (byte) '-');
+        }
+        out.position(start + length);
+    }
+
+    /**
+     * Запись строки в буфер символов для медленного пути.
+     */
+    static int format(String text, char[] out, int offset) {
+        if (offset < 0 || offset + text.length() > out.length) {
+            throw new IndexOutOfBoundsException("Not enough space: " + text.length() + " chars at " + offset);
+        }
+        text.getChars(0, text.length(), out, offset);
+        return text.length();
+    }
+
+    /**
+     * Запись строки в буфер байт (ASCII) для медленного пути.
+     */
+    static void format(String text, ByteBuffer out) {
+        if (out.remaining() < text.length()) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            out.put((byte) text.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package krsktilos.math;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+
+/**
+ * Заместитель для сериализации {@link Money} и {@link Quantity} в компактном формате {@link ScaledCodec}
+ * вместо описания классов и графа {@link java.math.BigDecimal}.
+ * @author krsktilos
+ */
+final class Ser implements Externalizable {
+    private static final long serialVersionUID = 1L;
+
+    private Object object;
+
+    /**
+     * Конструктор для десериализации.
+     */
+    public Ser() {
+    }
+
+    Ser(Object object) {
+        this.object = object;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        if (object instanceof Money) {
+            ((Money) object).writeTo(out);
+        } else {
+            ((Quantity) object).writeTo(out);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        byte tag = in.readByte();
+        if (ScaledCodec.isType(tag, ScaledCodec.MONEY)) {
+            object = Money.readFrom(tag, in);
+        } else if (ScaledCodec.isType(tag, ScaledCodec.QUANTITY)) {
+            object = Quantity.readFrom(tag, in);
+        } else {
+            throw new StreamCorruptedException("Unexpected type tag: " + tag);
+        }
+    }
+
+    private Object readResolve() {
+        return object;
+    }
+}
@@ -0,0 +1,171 @@
+package krsktilos.math;
+
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+
+/**
+ * Поэлементные операции над массивами минимальных единиц величин.
+ * Циклы без ветвлений внутри тела там, где это возможно, чтобы JIT мог их векторизовать;
+ * переполнение проверяется один раз после цикла.
+ * @author krsktilos
+ */
+final class UnitArrays {
+
+    private UnitArrays() {
+    }
+
+    static long[] add(long[] a, long[] b) {
+        checkLength(a, b);
+        long[] result = new long[a.length];
+        long overflow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long r = a[i] + b[i];
+            overflow |= (a[i] ^ r) & (b[i] ^ r);
+            result[i] = r;
+        }
+        checkOverflow(overflow);
+        return result;
+    }
+
+    static long[] add(long[] a, long b) {
+        long[] result = new long[a.length];
+        long overflow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long r = a[i] + b;
+            overflow |= (a[i] ^ r) & (b ^ r);
+            result[i] = r;
+        }
+        checkOverflow(overflow);
+        return result;
+    }
+
+    static long[] subtract(long[] a, long[] b) {
+        checkLength(a, b);
+        long[] result = new long[a.length];
+        long overflow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long r = a[i] - b[i];
+            overflow |= (a[i] ^ b[i]) & (a[i] ^ r);
+            result[i] = r;
+        }
+        checkOverflow(overflow);
+        return result;
+    }
+
+    static long[] subtract(long[] a, long b) {
+        long[] result = new long[a.length];
+        long overflow = 0;
+        for (int i = 0; i < a.length; i++) {
+            long r = a[i] - b;
+            overflow |= (a[i] ^ b) & (a[i] ^ r);
+            result[i] = r;
+        }
+        checkOverflow(overflow);
+        return result;
+    }
+
+    static long[] multiply(long[] a, int aScale, long[] b, int bScale, int scale) {
+        checkLength(a, b);
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = checked(ScaledArithmetic.multiply(a[i], aScale, b[i], bScale, scale));
+        }
+        return result;
+    }
+
+    static long[] multiply(long[] a, int aScale, long b, int bScale, int scale) {
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = checked(ScaledArithmetic.multiply(a[i], aScale, b, bScale, scale));
+        }
+        return result;
+    }
+
+    static long[] divide(long[] a, int aScale, long[] b, int bScale, int scale) {
+        checkLength(a, b);
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = checked(ScaledArithmetic.divide(a[i], aScale, b[i], bScale, scale));
+        }
+        return result;
+    }
+
+    static long[] divide(long[] a, int aScale, long b, int bScale, int scale) {
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = checked(ScaledArithmetic.divide(a[i], aScale, b, bScale, scale));
+        }
+        return result;
+    }
+
+    /**
+     * Точная сумма элементов; при переполнении {@code long} досчитывается в {@link BigDecimal}.
+     * @param a слагаемые
+     * @param scale масштаб
+     * @return сумма
+     */
+    static BigDecimal sum(long[] a, int scale) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            long r = ScaledArithmetic.add(sum, a[i]);
+            if (r == ScaledArithmetic.INFLATED) {
+                BigDecimal total = ScaledArithmetic.toBigDecimal(sum, scale);
+                for (int j = i; j < a.length; j++) {
+                    total = total.add(ScaledArithmetic.toBigDecimal(a[j], scale));
+                }
+                return total;
+            }
+            sum = r;
+        }
+        return ScaledArithmetic.toBigDecimal(sum, scale);
+    }
+
+    static long min(long[] a) {
+        checkNotEmpty(a);
+        long min = a[0];
+        for (int i = 1; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    static long max(long[] a) {
+        checkNotEmpty(a);
+        long max = a[0];
+        for (int i = 1; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Проверяет результат операции на переполнение.
+     * @param units результат
+     * @return результат
+     * @throws ArithmeticException если результат не помещается в {@code long}
+     */
+    static long checked(long units) {
+        if (units == ScaledArithmetic.INFLATED) {
+            throw new ArithmeticException("long overflow");
+        }
+        return units;
+    }
+
+    private static void checkOverflow(long overflow) {
+        if (overflow < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+    }
+
+    private static void checkLength(long[] a, long[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Vector sizes differ: " + a.length + " != " + b.length);
+        }
+    }
+
+    private static void checkNotEmpty(long[] a) {
+        if (a.length == 0) {
+            throw new NoSuchElementException("Vector is empty");
+        }
+    }
+}
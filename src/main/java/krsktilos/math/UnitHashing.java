@@ -0,0 +1,57 @@
+package krsktilos.math;
+
+/**
+ * Общие функции хэш-таблиц с открытой адресацией по количеству минимальных единиц.
+ * Пустая ячейка помечается ключом {@link ScaledArithmetic#INFLATED}, который не бывает количеством единиц
+ * компактной величины.
+ * @author krsktilos
+ */
+final class UnitHashing {
+    static final long EMPTY = ScaledArithmetic.INFLATED;
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private UnitHashing() {
+    }
+
+    /**
+     * Возвращает емкость таблицы (степень двойки), при которой заполнение не превышает половины.
+     * @param expectedSize ожидаемое количество ключей
+     * @return емкость
+     */
+    static int capacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative size: " + expectedSize);
+        }
+        long required = Math.max(4L, (long) expectedSize * 2);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalStateException("Too many keys: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    /**
+     * Возвращает начальную ячейку ключа; соседние цены попадают в разные области таблицы.
+     * @param key ключ
+     * @param mask емкость - 1
+     * @return номер ячейки
+     */
+    static int index(long key, int mask) {
+        long hash = key * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Проверяет, нужно ли сдвинуть ключ из ячейки {@code slot} в освобожденную ячейку {@code gap}
+     * при удалении с обратным сдвигом.
+     * @param home начальная ячейка ключа
+     * @param gap освобожденная ячейка
+     * @param slot текущая ячейка ключа
+     * @param mask емкость - 1
+     * @return результат
+     */
+    static boolean shouldMove(int home, int gap, int slot, int mask) {
+        return ((slot - home) & mask) >= ((slot - gap) & mask);
+    }
+}
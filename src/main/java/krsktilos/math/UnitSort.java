@@ -0,0 +1,219 @@
+package krsktilos.math;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.ToLongFunction;
+
+/**
+ * Сортировка и выбор величин по количеству минимальных единиц, общие для {@link MoneySort} и {@link QuantitySort}.
+ * Единицы со смещением к минимуму и номер элемента упаковываются в один {@code long}:
+ * {@code (units - min) << indexBits | index}. Сортировка упакованного массива примитивов стабильна
+ * и дает перестановку элементов. Если значение не помещается в {@code long} либо разброс значений
+ * не оставляет места для номера, используется сортировка объектов.
+ * @author krsktilos
+ */
+final class UnitSort {
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private UnitSort() {
+    }
+
+    static <T extends Comparable<? super T>> void sort(T[] values, ToLongFunction<T> units, boolean parallel) {
+        long[] packed = pack(values, units);
+        if (packed == null) {
+            if (parallel) {
+                Arrays.parallelSort(values);
+            } else {
+                Arrays.sort(values);
+            }
+            return;
+        }
+        if (parallel) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+        T[] source = values.clone();
+        long mask = mask(values.length);
+        for (int i = 0; i < packed.length; i++) {
+            values[i] = source[(int) (packed[i] & mask)];
+        }
+    }
+
+    static <T extends Comparable<? super T>> void sort(List<T> list, T[] array, ToLongFunction<T> units, boolean parallel) {
+        sort(array, units, parallel);
+        ListIterator<T> iterator = list.listIterator();
+        for (T value : array) {
+            iterator.next();
+            iterator.set(value);
+        }
+    }
+
+    /**
+     * Возвращает {@code k} наибольших величин по убыванию.
+     */
+    static <T extends Comparable<? super T>> T[] top(T[] values, int k, ToLongFunction<T> units) {
+        checkCount(values, k);
+        T[] result = Arrays.copyOf(values, k);
+        long[] packed = pack(values, units);
+        if (packed == null) {
+            T[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < k; i++) {
+                result[i] = sorted[sorted.length - 1 - i];
+            }
+            return result;
+        }
+        int from = packed.length - k;
+        if (k > 0) {
+            select(packed, 0, packed.length, from);
+            Arrays.sort(packed, from, packed.length);
+        }
+        long mask = mask(values.length);
+        for (int i = 0; i < k; i++) {
+            result[i] = values[(int) (packed[packed.length - 1 - i] & mask)];
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает {@code k} наименьших величин по возрастанию.
+     */
+    static <T extends Comparable<? super T>> T[] bottom(T[] values, int k, ToLongFunction<T> units) {
+        checkCount(values, k);
+        T[] result = Arrays.copyOf(values, k);
+        long[] packed = pack(values, units);
+        if (packed == null) {
+            T[] sorted = values.clone();
+            Arrays.sort(sorted);
+            System.arraycopy(sorted, 0, result, 0, k);
+            return result;
+        }
+        if (k > 0) {
+            select(packed, 0, packed.length, k - 1);
+            Arrays.sort(packed, 0, k);
+        }
+        long mask = mask(values.length);
+        for (int i = 0; i < k; i++) {
+            result[i] = values[(int) (packed[i] & mask)];
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает величину ранга {@code rank} (с нуля) в порядке возрастания.
+     */
+    static <T extends Comparable<? super T>> T select(T[] values, int rank, ToLongFunction<T> units) {
+        long[] packed = pack(values, units);
+        if (packed == null) {
+            T[] sorted = values.clone();
+            Arrays.sort(sorted);
+            return sorted[rank];
+        }
+        select(packed, 0, packed.length, rank);
+        return values[(int) (packed[rank] & mask(values.length))];
+    }
+
+    /**
+     * Номер элемента перцентиля по методу ближайшего ранга.
+     * @param size количество величин
+     * @param percentile перцентиль от 0 до 100
+     * @return ранг с нуля
+     */
+    static int percentileRank(int size, double percentile) {
+        if (size == 0) {
+            throw new IllegalArgumentException("No values");
+        }
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return Math.max(rank, 1) - 1;
+    }
+
+    private static <T> long[] pack(T[] values, ToLongFunction<T> units) {
+        int size = values.length;
+        long[] packed = new long[size];
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            long value = units.applyAsLong(values[i]);
+            if (value == ScaledArithmetic.INFLATED) {
+                return null;
+            }
+            packed[i] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        int bits = indexBits(size);
+        if (size > 0 && (max - min) >>> (63 - bits) != 0) {
+            return null;
+        }
+        for (int i = 0; i < size; i++) {
+            packed[i] = (packed[i] - min) << bits | i;
+        }
+        return packed;
+    }
+
+    private static int indexBits(int size) {
+        return size <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(size - 1);
+    }
+
+    private static long mask(int size) {
+        return (1L << indexBits(size)) - 1;
+    }
+
+    /**
+     * Частичная сортировка {@code [from, to)}: на месте {@code k} оказывается элемент ранга {@code k},
+     * слева - не большие, справа - не меньшие. Среднее время линейное; при неудачных опорных элементах
+     * оставшаяся часть сортируется целиком.
+     */
+    static void select(long[] a, int from, int to, int k) {
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        while (to - from > INSERTION_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(a, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            long pivot = median(a[from], a[middle], a[to - 1]);
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (a[i] < pivot) {
+                    i++;
+                }
+                while (a[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    long t = a[i];
+                    a[i++] = a[j];
+                    a[j--] = t;
+                }
+            }
+            if (k <= j) {
+                to = j + 1;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(a, from, to);
+    }
+
+    private static long median(long a, long b, long c) {
+        if (a < b) {
+            return b < c ? b : Math.max(a, c);
+        }
+        return a < c ? a : Math.max(b, c);
+    }
+
+    private static void checkCount(Object[] values, int k) {
+        if (k < 0 || k > values.length) {
+            throw new IllegalArgumentException("Count must be in [0, " + values.length + "]: " + k);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package krsktilos.math;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Кэш неизменяемых величин по количеству минимальных единиц, аналог {@code Integer.valueOf}.
+ * Значения диапазона {@code [low, high]} хранятся в массиве и создаются при первом обращении;
+ * значения вне диапазона при ненулевом {@code lruSize} хранятся в ограниченном LRU.
+ * Параметры читаются из системных свойств {@code <prefix>.low}, {@code <prefix>.high},
+ * {@code <prefix>.lruSize}.
+ * @author krsktilos
+ */
+final class ValueCache<T> {
+    private static final int MAX_RANGE = 1 << 24;
+
+    private final long low;
+    private final long high;
+    private final Object[] range;
+    private final Map<Long, T> lru;
+    private final LongFunction<T> factory;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ValueCache(String prefix, long defaultHigh, LongFunction<T> factory) {
+        this(Long.getLong(prefix + ".low", 0),
+                Long.getLong(prefix + ".high", defaultHigh),
+                Integer.getInteger(prefix + ".lruSize", 0),
+                factory);
+    }
+
+    ValueCache(long low, long high, final int lruSize, LongFunction<T> factory) {
+        if (high < low || high - low >= MAX_RANGE) {
+            throw new IllegalArgumentException("Invalid cache range: [" + low + ", " + high + "]");
+        }
+        this.low = low;
+        this.high = high;
+        this.range = new Object[(int) (high - low + 1)];
+        this.factory = factory;
+        if (lruSize > 0) {
+            this.lru = new LinkedHashMap<Long, T>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, T> eldest) {
+                    return size() > lruSize;
+                }
+            };
+        } else {
+            this.lru = null;
+        }
+    }
+
+    /**
+     * Возвращает величину из кэша либо создает новую.
+     * @param units количество минимальных единиц
+     * @return величина
+     */
+    @SuppressWarnings("unchecked")
+    T get(long units) {
+        if (units >= low && units <= high) {
+            int index = (int) (units - low);
+            T value = (T) range[index];
+            if (value == null) {
+                misses.increment();
+                value = factory.apply(units);
+                range[index] = value;
+            } else {
+                hits.increment();
+            }
+            return value;
+        }
+        if (lru != null) {
+            synchronized (lru) {
+                T value = lru.get(units);
+                if (value != null) {
+                    hits.increment();
+                    return value;
+                }
+                misses.increment();
+                value = factory.apply(units);
+                lru.put(units, value);
+                return value;
+            }
+        }
+        misses.increment();
+        return factory.apply(units);
+    }
+
+    CacheStatistics statistics() {
+        int lruEntries = 0;
+        if (lru != null) {
+            synchronized (lru) {
+                lruEntries = lru.size();
+            }
+        }
+        return new CacheStatistics(hits.sum(), misses.sum(), low, high, lruEntries);
+    }
+}
@@ -0,0 +1,57 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.AtomicMoney;
+import krsktilos.math.Money;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class AtomicMoneyTest {
+
+    @Test
+    public void operationsTest() {
+        AtomicMoney money = new AtomicMoney(new Money(10.5));
+        assertEquals(new Money(10.5), money.get());
+        assertEquals(new Money(11), money.addAndGet(new Money(0.5)));
+        assertEquals(new Money(11), money.getAndAdd(new Money(-1)));
+        assertEquals(1000, money.getUnits());
+        assertTrue(money.compareAndSet(new Money("10.00"), new Money(3)));
+        assertFalse(money.compareAndSet(new Money(10), new Money(4)));
+        assertFalse(money.compareAndSet(new Money("1e30"), new Money(4)));
+        assertEquals(new Money(3), money.getAndSet(Money.ZERO));
+        money.add(new Money(0.01));
+        assertEquals("0.01", money.toString());
+        money.set(Money.ofUnits(Long.MAX_VALUE));
+        try {
+            money.add(new Money(0.01));
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        assertEquals(Long.MAX_VALUE, money.getUnits());
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        AtomicMoney total = new AtomicMoney();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    total.add(new Money(0.01));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(new Money(4000), total.get());
+    }
+}
@@ -0,0 +1,112 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.CurrencyConverter;
+import krsktilos.math.CurrencyMoney;
+import krsktilos.math.InMemoryRateProvider;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class CurrencyConverterTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final Currency BHD = Currency.getInstance("BHD");
+
+    private static InMemoryRateProvider provider() {
+        return new InMemoryRateProvider()
+                .setRate("USD", "EUR", "0.9215")
+                .setRate("USD", "JPY", "149.87")
+                .setRate("JPY", "BHD", "0.002515")
+                .setRate("EUR", "USD", "1.0852");
+    }
+
+    @Test
+    public void convertTest() {
+        CurrencyConverter converter = new CurrencyConverter(provider());
+        assertEquals(new CurrencyMoney("9.22", EUR), converter.convert(new CurrencyMoney("10", USD), EUR));
+        assertEquals(new CurrencyMoney("1499", JPY), converter.convert(new CurrencyMoney("10", USD), JPY));
+        assertEquals(new CurrencyMoney("2.515", BHD), converter.convert(new CurrencyMoney("1000", JPY), BHD));
+        assertEquals(new CurrencyMoney("0.003", BHD), converter.convert(new CurrencyMoney("1", JPY), BHD));
+        CurrencyMoney amount = new CurrencyMoney("10", USD);
+        assertSame(amount, converter.convert(amount, USD));
+        assertEquals(new BigDecimal("0.9215"), converter.getRate(USD, EUR));
+        try {
+            converter.convert(new CurrencyMoney("1", EUR), JPY);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        CurrencyConverter converter = new CurrencyConverter(provider());
+        CurrencyMoney amount = CurrencyMoney.ofUnits(Long.MAX_VALUE, USD);
+        BigDecimal expected = amount.getValue().multiply(new BigDecimal("149.87")).setScale(0, BigDecimal.ROUND_HALF_UP);
+        assertEquals(expected, converter.convert(amount, JPY).getValue());
+        CurrencyMoney inflated = new CurrencyMoney("1e20", USD);
+        assertEquals(new CurrencyMoney("9.215e19", EUR), converter.convert(inflated, EUR));
+        try {
+            converter.convertUnits(new long[]{1, Long.MAX_VALUE}, USD, JPY);
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+
+    @Test
+    public void batchTest() {
+        CurrencyConverter converter = new CurrencyConverter(provider());
+        long[] units = {1000, 1, -1, 0, 12345};
+        long[] converted = converter.convertUnits(units, USD, EUR);
+        for (int i = 0; i < units.length; i++) {
+            CurrencyMoney expected = converter.convert(CurrencyMoney.ofUnits(units[i], USD), EUR);
+            assertEquals(expected.getUnits(), converted[i]);
+            assertEquals(expected.getUnits(), converter.convertUnits(units[i], USD, EUR));
+        }
+        CurrencyMoney[] amounts = {new CurrencyMoney("1", USD), new CurrencyMoney("1", EUR), new CurrencyMoney("2", USD)};
+        CurrencyMoney[] result = converter.convert(amounts, USD);
+        assertEquals(new CurrencyMoney("1", USD), result[0]);
+        assertEquals(new CurrencyMoney("1.09", USD), result[1]);
+        assertEquals(new CurrencyMoney("2", USD), result[2]);
+        assertEquals("[1.84 EUR, 0.92 EUR]", converter.convert(Stream.of(new CurrencyMoney("2", USD), new CurrencyMoney("1", USD)), EUR)
+                .collect(Collectors.toList()).toString());
+    }
+
+    @Test
+    public void cacheTest() {
+        InMemoryRateProvider provider = provider();
+        CurrencyConverter converter = new CurrencyConverter(provider, 1, TimeUnit.HOURS, 2);
+        CurrencyMoney amount = new CurrencyMoney("10", USD);
+        converter.convert(amount, EUR);
+        provider.setRate("USD", "EUR", "0.5");
+        assertEquals(new CurrencyMoney("9.22", EUR), converter.convert(amount, EUR));
+        assertEquals(1, converter.getLoadCount());
+        converter.invalidate(USD, EUR);
+        assertEquals(new CurrencyMoney("5", EUR), converter.convert(amount, EUR));
+        assertEquals(2, converter.getLoadCount());
+
+        converter.convert(amount, JPY);
+        converter.convert(new CurrencyMoney("1", EUR), USD);
+        assertEquals(2, converter.cacheSize());
+        converter.convert(amount, JPY);
+        converter.convert(new CurrencyMoney("1", EUR), USD);
+        assertEquals(4, converter.getLoadCount());
+        converter.invalidateAll();
+        assertEquals(0, converter.cacheSize());
+
+        CurrencyConverter uncached = new CurrencyConverter(provider, 0, TimeUnit.SECONDS, 16);
+        uncached.convert(amount, EUR);
+        provider.setRate("USD", "EUR", "2");
+        assertEquals(new CurrencyMoney("20", EUR), uncached.convert(amount, EUR));
+        assertEquals(2, uncached.getLoadCount());
+    }
+}
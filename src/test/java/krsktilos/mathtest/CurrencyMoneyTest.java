@@ -0,0 +1,70 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.CurrencyMoney;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class CurrencyMoneyTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+    private static final Currency BHD = Currency.getInstance("BHD");
+
+    @Test
+    public void scaleTest() {
+        assertEquals("10.01 USD", new CurrencyMoney("10.005", USD).toString());
+        assertEquals("11 JPY", new CurrencyMoney("10.5", JPY).toString());
+        assertEquals("10.001 BHD", new CurrencyMoney("10.0005", BHD).toString());
+        assertEquals(10001, new CurrencyMoney("10.0005", BHD).getUnits());
+        assertEquals(3, CurrencyMoney.ofUnits(1, BHD).getScale());
+        assertEquals(new Money("10.01"), new CurrencyMoney("10.005", USD).toMoney());
+        try {
+            CurrencyMoney.scale(Currency.getInstance("XAU"));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void arithmeticTest() {
+        CurrencyMoney price = new CurrencyMoney("100", JPY);
+        assertEquals(new CurrencyMoney("150", JPY), price.add(new CurrencyMoney("50", JPY)));
+        assertEquals(new CurrencyMoney("-50", JPY), new CurrencyMoney("50", JPY).subtract(price));
+        assertEquals(new CurrencyMoney("33", JPY), price.multiply(new Quantity("0.333")));
+        assertEquals(new CurrencyMoney("0.334", BHD), new CurrencyMoney("1", BHD).divide(new Quantity(3)).add(CurrencyMoney.ofUnits(1, BHD)));
+        assertTrue(price.gt(new CurrencyMoney("99", JPY)));
+        assertTrue(price.le(new CurrencyMoney("100", JPY)));
+        try {
+            price.add(new CurrencyMoney("1", USD));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        CurrencyMoney big = CurrencyMoney.ofUnits(Long.MAX_VALUE, USD);
+        assertEquals(new BigDecimal("92233720368547758.08"), big.add(CurrencyMoney.ofUnits(1, USD)).getValue());
+    }
+
+    @Test
+    public void allocateTest() {
+        CurrencyMoney[] parts = new CurrencyMoney("100", JPY).allocate(3);
+        assertEquals(new CurrencyMoney("34", JPY), parts[0]);
+        assertEquals(new CurrencyMoney("33", JPY), parts[2]);
+        parts = new CurrencyMoney("0.010", BHD).allocate(new Quantity(1), new Quantity(2));
+        assertEquals(CurrencyMoney.ofUnits(4, BHD), parts[0]);
+        assertEquals(CurrencyMoney.ofUnits(6, BHD), parts[1]);
+    }
+
+    @Test
+    public void equalsTest() {
+        assertEquals(new CurrencyMoney("1.5", USD), new CurrencyMoney("1.50", USD));
+        assertEquals(new CurrencyMoney("1.5", USD).hashCode(), new CurrencyMoney("1.50", USD).hashCode());
+        assertNotEquals(new CurrencyMoney("1", USD), new CurrencyMoney("1", JPY));
+    }
+}
@@ -0,0 +1,104 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Decimal;
+import krsktilos.math.DecimalPolicy;
+import krsktilos.math.DecimalPolicy.BankersCents;
+import krsktilos.math.DecimalPolicy.Cents;
+import krsktilos.math.DecimalPolicy.UnitPrice;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class DecimalTest {
+
+    private static final class Floor extends DecimalPolicy {
+        static final Floor INSTANCE = new Floor();
+
+        private Floor() {
+            super(1, RoundingMode.FLOOR);
+        }
+    }
+
+    @Test
+    public void policyTest() {
+        assertEquals("12.3457", Decimal.of("12.34565", UnitPrice.INSTANCE).toString());
+        assertEquals("0.12", Decimal.of("0.125", BankersCents.INSTANCE).toString());
+        assertEquals("0.14", Decimal.of("0.135", BankersCents.INSTANCE).toString());
+        assertEquals("0.13", Decimal.of("0.125", Cents.INSTANCE).toString());
+        assertEquals("-1.3", Decimal.of("-1.21", Floor.INSTANCE).toString());
+        assertEquals(4, UnitPrice.INSTANCE.getScale());
+        assertEquals(RoundingMode.HALF_EVEN, BankersCents.INSTANCE.getRoundingMode());
+        assertEquals(5000, Decimal.of(50, Cents.INSTANCE).getUnits());
+    }
+
+    @Test
+    public void arithmeticTest() {
+        Decimal<UnitPrice> price = Decimal.of("1.2345", UnitPrice.INSTANCE);
+        Quantity quantity = new Quantity("2.5");
+        assertEquals("3.0863", price.multiply(quantity).toString());
+        assertEquals("3.09", Decimal.of(new Money("1"), Cents.INSTANCE).multiply(price.multiply(quantity)).toString());
+        assertEquals("3.09", price.multiply(quantity).withPolicy(Cents.INSTANCE).toString());
+        assertEquals(new Money("3.09"), price.multiply(quantity).toMoney());
+        assertEquals("2.4690", price.add(price).toString());
+        assertEquals("0.0000", price.subtract(price).toString());
+        assertEquals("0.4938", price.divide(quantity).toString());
+        assertEquals("0.62", Decimal.of("1.25", BankersCents.INSTANCE).divide(Decimal.of(2, Cents.INSTANCE)).toString());
+        assertEquals("-1.2345", price.negate().toString());
+        assertEquals("1.0000", price.getInt().toString());
+        assertTrue(price.gt(price.getInt()));
+        assertTrue(price.multiply(Quantity.ZERO).isZero());
+        try {
+            price.divide(Quantity.ZERO);
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        Decimal<Cents> max = Decimal.ofUnits(Long.MAX_VALUE, Cents.INSTANCE);
+        Decimal<Cents> sum = max.add(Decimal.ofUnits(1, Cents.INSTANCE));
+        assertEquals(new BigDecimal("92233720368547758.08"), sum.getValue());
+        assertEquals(max, sum.subtract(Decimal.ofUnits(1, Cents.INSTANCE)));
+        assertEquals(Decimal.of("1e30", Cents.INSTANCE), Decimal.of("1e30", Cents.INSTANCE));
+        assertEquals(new BigDecimal("1e30").multiply(new BigDecimal("0.5")).setScale(2, RoundingMode.HALF_UP),
+                Decimal.of("1e30", Cents.INSTANCE).multiply(new Quantity("0.5")).getValue());
+    }
+
+    @Test
+    public void bigDecimalAgreementTest() {
+        Random random = new Random(1);
+        DecimalPolicy[] policies = {Cents.INSTANCE, BankersCents.INSTANCE, UnitPrice.INSTANCE, Floor.INSTANCE};
+        for (DecimalPolicy policy : policies) {
+            for (int i = 0; i < 10000; i++) {
+                BigDecimal a = BigDecimal.valueOf(random.nextInt(2000000) - 1000000, policy.getScale());
+                BigDecimal b = BigDecimal.valueOf(random.nextInt(200000) - 100000, 3);
+                Decimal<DecimalPolicy> decimal = Decimal.of(a, policy);
+                Quantity quantity = Quantity.of(b);
+                assertEquals(a.multiply(b).setScale(policy.getScale(), policy.getRoundingMode()),
+                        decimal.multiply(quantity).getValue());
+                if (b.signum() != 0) {
+                    assertEquals(a.divide(b, policy.getScale(), policy.getRoundingMode()),
+                            decimal.divide(quantity).getValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equalsTest() {
+        assertEquals(Decimal.of("1.5", Cents.INSTANCE), Decimal.of("1.50", Cents.INSTANCE));
+        assertEquals(Decimal.of("1.5", Cents.INSTANCE).hashCode(), Decimal.of("1.50", Cents.INSTANCE).hashCode());
+        assertNotEquals(Decimal.of("1.5", Cents.INSTANCE), Decimal.of("1.5", BankersCents.INSTANCE));
+        assertEquals(0, Decimal.of("1.5", Cents.INSTANCE).compareTo(Decimal.of("1.50", Cents.INSTANCE)));
+    }
+}
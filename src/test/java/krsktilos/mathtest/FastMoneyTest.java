@@ -0,0 +1,156 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.FastMoney;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class FastMoneyTest {
+
+    @Test
+    public void constructorsTest() {
+        FastMoney money;
+
+        money = new FastMoney(new BigDecimal(125.479));
+        assertEquals("125.48", money.toString());
+        assertEquals(new FastMoney(125.48D), money);
+
+        money = new FastMoney("129.4");
+        assertEquals("129.40", money.toString());
+        assertEquals(12940, money.getUnits());
+
+        money = new FastMoney(129.499f);
+        assertEquals("129.50", money.toString());
+
+        money = new FastMoney(299);
+        assertEquals("299.00", money.toString());
+        assertEquals(new FastMoney("299"), money);
+
+        money = new FastMoney(new Money(100056L));
+        assertEquals("100056.00", money.toString());
+        assertEquals(new Money(100056L), money.toMoney());
+
+        assertEquals(FastMoney.ofUnits(-1), new FastMoney(-0.005));
+        assertEquals(FastMoney.HUNDRED, new FastMoney(100));
+        assertEquals(FastMoney.MAX, new FastMoney(1000000));
+    }
+
+    @Test
+    public void arithmeticTest() {
+        FastMoney money = new FastMoney(10500.45);
+
+        assertEquals(new FastMoney(10524.49), money.add(new FastMoney(24.043)));
+        assertEquals(new FastMoney(10524.49), money.add(new Quantity(24.043)));
+        assertEquals(new FastMoney(10001), money.subtract(new FastMoney(499.451)));
+        assertEquals(new FastMoney(10001), money.subtract(new Quantity(499.451)));
+        assertEquals(new FastMoney(5250.23), money.multiply(new FastMoney(0.5)));
+        assertEquals(new FastMoney(5250.23), money.multiply(new Quantity(0.5)));
+        assertEquals(new FastMoney(7000.30), money.divide(new FastMoney(1.5)));
+        assertEquals(new FastMoney(7000.30), money.divide(new Quantity(1.5)));
+        assertEquals(new FastMoney(10500.45), money);
+    }
+
+    @Test
+    public void overflowTest() {
+        FastMoney big = FastMoney.ofUnits(Long.MAX_VALUE);
+        FastMoney sum = big.add(FastMoney.ofUnits(1));
+        assertEquals("92233720368547758.08", sum.toString());
+        assertEquals(big, sum.subtract(FastMoney.ofUnits(1)));
+        assertEquals(Long.MAX_VALUE, sum.subtract(FastMoney.ofUnits(1)).getUnits());
+
+        FastMoney product = big.multiply(new FastMoney(2));
+        assertEquals(new Money(big.getValue()).multiply(new Money(2)).getValue(), product.getValue());
+        assertTrue(product.gt(big));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void inflatedUnitsTest() {
+        FastMoney.ofUnits(Long.MAX_VALUE).add(FastMoney.ofUnits(1)).getUnits();
+    }
+
+    @Test
+    public void compatibilityTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal a = BigDecimal.valueOf(random.nextLong() % 100000000000L, random.nextInt(5));
+            BigDecimal b = BigDecimal.valueOf(random.nextLong() % 10000000L, random.nextInt(5));
+            if (b.signum() == 0) {
+                b = BigDecimal.ONE;
+            }
+            Money money = new Money(a);
+            Money other = new Money(b);
+            Quantity quantity = new Quantity(b);
+            FastMoney fast = new FastMoney(a);
+            FastMoney fastOther = new FastMoney(b);
+
+            assertEquals(money.toString(), fast.toString());
+            assertEquals(money.add(other).toString(), fast.add(fastOther).toString());
+            assertEquals(money.add(quantity).toString(), fast.add(quantity).toString());
+            assertEquals(money.subtract(other).toString(), fast.subtract(fastOther).toString());
+            assertEquals(money.subtract(quantity).toString(), fast.subtract(quantity).toString());
+            assertEquals(money.multiply(other).toString(), fast.multiply(fastOther).toString());
+            assertEquals(money.multiply(quantity).toString(), fast.multiply(quantity).toString());
+            assertEquals(money.getInt().toString(), fast.getInt().toString());
+            assertEquals(money.gt(other), fast.gt(fastOther));
+            assertEquals(money.eq(other), fast.eq(fastOther));
+            if (other.isNotZero()) {
+                assertEquals(money.divide(other).toString(), fast.divide(fastOther).toString());
+            }
+            if (quantity.isNotZero()) {
+                assertEquals(money.divide(quantity).toString(), fast.divide(quantity).toString());
+            }
+        }
+    }
+
+    @Test
+    public void logicalOperationsTest() {
+        FastMoney money = new FastMoney(501.55);
+
+        assertTrue(money.lt(new FastMoney(501.56)));
+        assertFalse(money.lt(new FastMoney(501.55)));
+        assertTrue(money.le(new FastMoney(501.55)));
+        assertFalse(money.le(new FastMoney(501.54)));
+        assertTrue(money.eq(new FastMoney(501.5499)));
+        assertTrue(money.gt(new FastMoney(501.54)));
+        assertFalse(money.gt(new FastMoney(501.55)));
+        assertTrue(money.ge(new FastMoney(501.55)));
+        assertFalse(money.ge(new FastMoney(501.56)));
+
+        assertTrue(FastMoney.ZERO.isZero());
+        assertTrue(new FastMoney(0.01).isNotZero());
+    }
+
+    @Test
+    public void serializationTest() throws Exception {
+        FastMoney money = new FastMoney(666.99);
+
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(byteOutputStream);
+        outputStream.writeObject(money);
+        outputStream.flush();
+
+        ObjectInputStream inputStream = new ObjectInputStream(
+                new ByteArrayInputStream(byteOutputStream.toByteArray())
+        );
+
+        FastMoney restoredMoney = (FastMoney) inputStream.readObject();
+
+        outputStream.close();
+        inputStream.close();
+
+        assertEquals(money, restoredMoney);
+        assertEquals(money.hashCode(), restoredMoney.hashCode());
+    }
+}
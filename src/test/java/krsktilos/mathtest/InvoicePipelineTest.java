@@ -0,0 +1,119 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.InvoiceBatch;
+import krsktilos.math.InvoicePipeline;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class InvoicePipelineTest {
+
+    @Test
+    public void linesTest() {
+        InvoiceBatch batch = new InvoiceBatch(2);
+        batch.addLine(1, new Money("19.99"), new Quantity("3"), new Quantity("10"), new Quantity("20"));
+        batch.addLine(1, new Money("0.05"), new Quantity("0.333"), new Quantity("0"), new Quantity("20"));
+        batch.addLine(2, new Money("100"), new Quantity("1"), new Quantity("12.5"), new Quantity("0"));
+        new InvoicePipeline().process(batch);
+
+        assertEquals(new Money("59.97"), batch.getAmount(0));
+        assertEquals(new Money("6.00"), batch.getDiscount(0));
+        assertEquals(new Money("10.79"), batch.getTax(0));
+        assertEquals(new Money("64.76"), batch.getTotal(0));
+        assertEquals(new Money("0.02"), batch.getAmount(1));
+        assertEquals(new Money("0.02"), batch.getTotal(1));
+
+        assertEquals(2, batch.invoiceCount());
+        assertEquals(1, batch.getInvoice(0));
+        assertEquals(new Money("59.99"), batch.getInvoiceAmount(0));
+        assertEquals(new Money("6.00"), batch.getInvoiceDiscount(0));
+        assertEquals(new Money("10.79"), batch.getInvoiceTax(0));
+        assertEquals(new Money("64.78"), batch.getInvoiceTotal(0));
+        assertEquals(2, batch.getInvoice(1));
+        assertEquals(new Money("87.50"), batch.getInvoiceTotal(1));
+        assertEquals(new Money("152.28"), batch.getGrandTotal());
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        try {
+            batch.getTotal(0);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        batch.addLine(7, new Money("1"), new Quantity("1"), new Quantity("0"), new Quantity("0"));
+        new InvoicePipeline().process(batch);
+        assertEquals(1, batch.invoiceCount());
+        assertEquals(new Money("1"), batch.getGrandTotal());
+    }
+
+    @Test
+    public void moneyAgreementTest() {
+        Random random = new Random(1);
+        InvoiceBatch batch = new InvoiceBatch();
+        InvoiceBatch parallel = new InvoiceBatch();
+        int size = 20000;
+        long[][] columns = new long[4][size];
+        for (int round = 0; round < 3; round++) {
+            batch.clear();
+            parallel.clear();
+            int invoice = 0;
+            for (int line = 0; line < size; line++) {
+                if (line > 0 && random.nextInt(5) == 0) {
+                    invoice++;
+                }
+                columns[0][line] = random.nextInt(1000000);
+                columns[1][line] = random.nextInt(100000);
+                columns[2][line] = random.nextInt(50000);
+                columns[3][line] = random.nextInt(30000);
+                batch.addLineUnits(invoice, columns[0][line], columns[1][line], columns[2][line], columns[3][line]);
+                parallel.addLineUnits(invoice, columns[0][line], columns[1][line], columns[2][line], columns[3][line]);
+            }
+            new InvoicePipeline(Integer.MAX_VALUE, false).process(batch);
+            new InvoicePipeline(100, true).process(parallel);
+            Money grandTotal = Money.ZERO;
+            for (int line = 0; line < size; line++) {
+                Money amount = Money.ofUnits(columns[0][line]).multiply(Quantity.ofUnits(columns[1][line]));
+                Money discount = amount.multiply(Quantity.ofUnits(columns[2][line])).divide(Money.HUNDRED);
+                Money net = amount.subtract(discount);
+                Money tax = net.multiply(Quantity.ofUnits(columns[3][line])).divide(Money.HUNDRED);
+                assertEquals(amount, batch.getAmount(line));
+                assertEquals(discount, batch.getDiscount(line));
+                assertEquals(tax, batch.getTax(line));
+                assertEquals(net.add(tax), batch.getTotal(line));
+                assertEquals(batch.getTotalUnits(line), parallel.getTotalUnits(line));
+                grandTotal = grandTotal.add(net.add(tax));
+            }
+            assertEquals(invoice + 1, batch.invoiceCount());
+            assertEquals(batch.invoiceCount(), parallel.invoiceCount());
+            assertEquals(grandTotal, batch.getGrandTotal());
+            assertEquals(grandTotal, parallel.getGrandTotal());
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        InvoiceBatch batch = new InvoiceBatch();
+        batch.addLineUnits(1, Long.MAX_VALUE / 1000, 2000, 50000, 0);
+        new InvoicePipeline().process(batch);
+        Money amount = Money.ofUnits(Long.MAX_VALUE / 1000).multiply(new Quantity(2));
+        Money discount = amount.multiply(new Quantity(50)).divide(Money.HUNDRED);
+        assertEquals(amount, batch.getAmount(0));
+        assertEquals(discount, batch.getDiscount(0));
+        assertEquals(amount.subtract(discount), batch.getTotal(0));
+
+        batch.clear();
+        batch.addLineUnits(1, Long.MAX_VALUE, 2000, 0, 0);
+        try {
+            new InvoicePipeline().process(batch);
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+}
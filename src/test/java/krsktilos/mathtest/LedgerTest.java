@@ -0,0 +1,130 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Ledger;
+import krsktilos.math.Money;
+import krsktilos.math.Quantity;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class LedgerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readWriteTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (Ledger ledger = Ledger.create(path, 10, Ledger.Column.MONEY, Ledger.Column.QUANTITY)) {
+            assertEquals(0, ledger.size());
+            assertEquals(10, ledger.capacity());
+            assertEquals(0, ledger.append());
+            assertEquals(1, ledger.append());
+            ledger.setMoney(0, 0, new Money(10.5));
+            ledger.setQuantity(0, 1, new Quantity(2));
+            ledger.setUnits(1, 0, 99);
+            ledger.setQuantity(1, 1, new Quantity(0.5));
+            assertEquals(new Money(10.5), ledger.getMoney(0, 0));
+            assertEquals(new Quantity(2), ledger.getQuantity(0, 1));
+            assertEquals(new Money(0.99), ledger.getMoney(1, 0));
+            assertEquals(500, ledger.getUnits(1, 1));
+        }
+        try (Ledger ledger = Ledger.open(path)) {
+            assertEquals(2, ledger.size());
+            assertArrayEquals(new Ledger.Column[]{Ledger.Column.MONEY, Ledger.Column.QUANTITY}, ledger.columns());
+            assertEquals(new Money(10.5), ledger.getMoney(0, 0));
+            assertEquals(new Quantity(0.5), ledger.getQuantity(1, 1));
+            assertEquals(2, ledger.append());
+            assertEquals(Money.ZERO, ledger.getMoney(2, 0));
+        }
+    }
+
+    @Test
+    public void emptyLedgerTest() throws IOException {
+        try (Ledger ledger = Ledger.create(folder.newFile().toPath(), 10, Ledger.Column.MONEY)) {
+            long[] count = new long[1];
+            ledger.forEachUnits(0, units -> count[0]++);
+            assertEquals(0, count[0]);
+            assertEquals(Money.ZERO, ledger.sumMoney(0));
+            try {
+                ledger.forEachUnits(1, units -> count[0]++);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void aggregateTest() throws IOException {
+        Random random = new Random(11);
+        int size = 1000;
+        Money sum = Money.ZERO;
+        Quantity quantitySum = Quantity.ZERO;
+        Money cost = Money.ZERO;
+        try (Ledger ledger = Ledger.create(folder.newFile().toPath(), size,
+                Ledger.Column.MONEY, Ledger.Column.QUANTITY)) {
+            for (int i = 0; i < size; i++) {
+                Money price = Money.ofUnits(random.nextInt(1000000) - 100000);
+                Quantity quantity = Quantity.ofUnits(random.nextInt(100000));
+                long index = ledger.append();
+                ledger.setMoney(index, 0, price);
+                ledger.setQuantity(index, 1, quantity);
+                sum = sum.add(price);
+                quantitySum = quantitySum.add(quantity);
+                cost = cost.add(price.multiply(quantity));
+            }
+            assertEquals(sum, ledger.sumMoney(0));
+            assertEquals(quantitySum, ledger.sumQuantity(1));
+            assertEquals(cost, ledger.sumProducts(0, 1));
+            long[] total = new long[1];
+            ledger.forEachUnits(0, units -> total[0] += units);
+            assertEquals(sum.getValue().unscaledValue().longValue(), total[0]);
+        }
+    }
+
+    @Test
+    public void invalidTest() throws IOException {
+        Path path = folder.newFile().toPath();
+        try (Ledger ledger = Ledger.create(path, 1, Ledger.Column.MONEY)) {
+            try {
+                ledger.getMoney(0, 0);
+                fail();
+            } catch (IndexOutOfBoundsException ignored) {
+            }
+            ledger.append();
+            try {
+                ledger.append();
+                fail();
+            } catch (IllegalStateException ignored) {
+            }
+            try {
+                ledger.getQuantity(0, 0);
+                fail();
+            } catch (IllegalArgumentException ignored) {
+            }
+            try {
+                ledger.setMoney(0, 0, new Money("1e30"));
+                fail();
+            } catch (ArithmeticException ignored) {
+            }
+        }
+        Path garbage = folder.newFile().toPath();
+        Files.write(garbage, new byte[64]);
+        try {
+            Ledger.open(garbage).close();
+            fail();
+        } catch (IOException ignored) {
+        }
+    }
+}
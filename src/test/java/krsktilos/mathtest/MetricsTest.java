@@ -0,0 +1,145 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Metrics;
+import krsktilos.math.MetricsListener;
+import krsktilos.math.Money;
+import krsktilos.math.MoneyMath;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import krsktilos.math.RationalQuantity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Тест выполняется при включенном учете: {@code -Dkrsktilos.math.metrics=true}.
+ * @author krsktilos
+ */
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        assumeTrue(Metrics.isEnabled());
+        Metrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.reset();
+    }
+
+    @Test
+    public void operationCountTest() {
+        Money money = new Money("10.00");
+        Quantity quantity = new Quantity("1.5");
+        money.add(money).subtract(money).multiply(quantity).divide(quantity);
+        quantity.add(quantity).multiply(money);
+        assertEquals(1, Metrics.getCount(Metrics.Operation.MONEY_ADD));
+        assertEquals(1, Metrics.getCount(Metrics.Operation.MONEY_SUBTRACT));
+        assertEquals(1, Metrics.getCount(Metrics.Operation.MONEY_MULTIPLY));
+        assertEquals(1, Metrics.getCount(Metrics.Operation.MONEY_DIVIDE));
+        assertEquals(1, Metrics.getCount(Metrics.Operation.QUANTITY_ADD));
+        assertEquals(1, Metrics.getCount(Metrics.Operation.QUANTITY_MULTIPLY));
+        assertEquals(0, Metrics.getCount(Metrics.Operation.QUANTITY_DIVIDE));
+        assertEquals(0, Metrics.getSlowPathCount(Metrics.Operation.MONEY_ADD));
+        if (Metrics.getSampleRate() == 1) {
+            assertEquals(1, Metrics.getLatencySampleCount(Metrics.Operation.MONEY_ADD));
+            assertTrue(Metrics.getMeanLatencyNanos(Metrics.Operation.MONEY_ADD) >= 0);
+            assertTrue(Metrics.getMaxLatencyNanos(Metrics.Operation.MONEY_ADD) >= 0);
+        }
+        assertTrue(Double.isNaN(Metrics.getMeanLatencyNanos(Metrics.Operation.QUANTITY_DIVIDE)));
+    }
+
+    @Test
+    public void slowPathTest() {
+        Money huge = new Money("1e20");
+        huge.add(huge);
+        huge.divide(new Quantity(3));
+        assertEquals(1, Metrics.getSlowPathCount(Metrics.Operation.MONEY_ADD));
+        assertEquals(1, Metrics.getSlowPathCount(Metrics.Operation.MONEY_DIVIDE));
+        assertEquals(1, Metrics.getRoundingCount());
+    }
+
+    @Test
+    public void roundingTest() {
+        new Money("1.005");
+        new Money("1.000");
+        new Money("1.10");
+        assertEquals(1, Metrics.getRoundingCount());
+
+        Money price = new Money("0.10");
+        price.multiply(new Quantity("0.5"));
+        assertEquals(1, Metrics.getRoundingCount());
+        price.multiply(new Quantity("0.125"));
+        assertEquals(2, Metrics.getRoundingCount());
+        new Money(10).divide(new Quantity(3));
+        assertEquals(3, Metrics.getRoundingCount());
+        new Money(10).divide(new Quantity(4));
+        assertEquals(3, Metrics.getRoundingCount());
+        new Money(1).add(new Quantity("0.005"));
+        assertEquals(4, Metrics.getRoundingCount());
+        new Money(1).subtract(new Quantity("0.01"));
+        new Quantity(1).divide(new Money(4));
+        new Money(3).divide(new Money("1.5"));
+        assertEquals(4, Metrics.getRoundingCount());
+    }
+
+    @Test
+    public void otherRoundingTest() {
+        MoneyVector.of(new Money(10)).divide(new Quantity(3));
+        MoneyMath.average(new Money(1), new Money(0), new Money(0));
+        RationalQuantity.of(1, 3).toMoney();
+        assertEquals(0, Metrics.getRoundingCount());
+        assertEquals(0, Metrics.getCount(Metrics.Operation.MONEY_DIVIDE));
+    }
+
+    @Test
+    public void listenerTest() {
+        final AtomicLong operations = new AtomicLong();
+        final AtomicLong roundings = new AtomicLong();
+        MetricsListener listener = new MetricsListener() {
+            @Override
+            public void onOperation(Metrics.Operation operation) {
+                operations.incrementAndGet();
+            }
+
+            @Override
+            public void onRounding() {
+                roundings.incrementAndGet();
+            }
+        };
+        Metrics.addListener(listener);
+        try {
+            new Money(1).divide(new Money(3));
+            new Quantity(1).add(new Quantity(2));
+        } finally {
+            assertTrue(Metrics.removeListener(listener));
+        }
+        new Money(1).add(new Money(1));
+        assertFalse(Metrics.removeListener(listener));
+        assertEquals(2, operations.get());
+        assertEquals(1, roundings.get());
+    }
+
+    @Test
+    public void mbeanTest() throws Exception {
+        ObjectName name = Metrics.registerMBean();
+        assertEquals(name, Metrics.registerMBean());
+        new Money(1).add(new Money(2));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        TabularData counts = (TabularData) server.getAttribute(name, "OperationCounts");
+        assertEquals(1L, counts.get(new Object[]{"MONEY_ADD"}).get("value"));
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals(0, Metrics.getCount(Metrics.Operation.MONEY_ADD));
+    }
+}
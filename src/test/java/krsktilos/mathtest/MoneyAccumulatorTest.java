@@ -0,0 +1,70 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyAccumulator;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyAccumulatorTest {
+
+    @Test
+    public void accumulateTest() {
+        Random random = new Random(3);
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10000; i++) {
+            Money price = new Money(BigDecimal.valueOf(random.nextInt(10000000) - 1000000, 2));
+            Quantity quantity = new Quantity(BigDecimal.valueOf(random.nextInt(100000), 3));
+            if (i % 3 == 0) {
+                accumulator.subtract(price);
+                total = total.subtract(price);
+            } else {
+                accumulator.add(price).addProduct(price, quantity);
+                total = total.add(price).add(price.multiply(quantity));
+            }
+        }
+        assertEquals(total, accumulator.toMoney());
+        assertEquals(total.toString(), accumulator.toString());
+    }
+
+    @Test
+    public void resetTest() {
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        assertTrue(accumulator.isZero());
+        assertEquals(Money.ZERO, accumulator.toMoney());
+
+        accumulator.add(new Money(10.5)).addProduct(new Money(10.5), new Quantity(0.5));
+        assertEquals(new Money(15.75), accumulator.toMoney());
+        assertFalse(accumulator.isZero());
+
+        accumulator.reset();
+        assertTrue(accumulator.isZero());
+        accumulator.add(new Money(1));
+        assertEquals(new Money(1), accumulator.toMoney());
+
+        accumulator.add(new MoneyAccumulator().add(new Money(2)));
+        assertEquals(new Money(3), accumulator.toMoney());
+    }
+
+    @Test
+    public void overflowTest() {
+        Money big = Money.ofUnits(Long.MAX_VALUE);
+        MoneyAccumulator accumulator = new MoneyAccumulator();
+        accumulator.add(big).add(big).add(new Money(0.01));
+        assertEquals(big.add(big).add(new Money(0.01)), accumulator.toMoney());
+
+        accumulator.subtract(big).subtract(big);
+        assertEquals(new Money(0.01), accumulator.toMoney());
+
+        accumulator.reset().add(big.add(big)).addProduct(big, new Quantity(2));
+        assertEquals(big.add(big).add(big.multiply(new Quantity(2))), accumulator.toMoney());
+    }
+}
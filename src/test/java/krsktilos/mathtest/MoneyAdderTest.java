@@ -0,0 +1,66 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyAdder;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyAdderTest {
+
+    @Test
+    public void operationsTest() {
+        MoneyAdder adder = new MoneyAdder();
+        assertEquals(Money.ZERO, adder.sum());
+        adder.add(new Money(10.25));
+        adder.subtract(new Money(0.25));
+        adder.addUnits(1);
+        assertEquals(new Money(10.01), adder.sum());
+        assertEquals("10.01", adder.toString());
+        assertEquals(new Money(10.01), adder.sumThenReset());
+        assertEquals(Money.ZERO, adder.sum());
+        try {
+            adder.add(new Money("1e30"));
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        MoneyAdder adder = new MoneyAdder();
+        Money half = Money.ofUnits(Long.MAX_VALUE / 2);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    adder.add(new Money(0.01));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(new Money(8000), adder.sumThenReset());
+
+        adder.add(half);
+        adder.add(half);
+        adder.addUnits(Long.MAX_VALUE - (Long.MAX_VALUE / 2) * 2);
+        Thread other = new Thread(() -> adder.add(half));
+        other.start();
+        other.join();
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).add(half.getValue());
+        if (adder.sum().getValue().compareTo(expected) != 0) {
+            fail(adder.sum() + " != " + expected);
+        }
+    }
+}
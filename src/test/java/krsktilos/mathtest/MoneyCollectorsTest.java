@@ -0,0 +1,93 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyCollectors;
+import krsktilos.math.MoneySummaryStatistics;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyCollectorsTest {
+
+    @Test
+    public void summingTest() {
+        List<Money> values = values(100000);
+        Money expected = values.stream().reduce(Money.ZERO, Money::add);
+
+        assertEquals(expected, values.stream().collect(MoneyCollectors.summing()));
+        assertEquals(expected, values.parallelStream().collect(MoneyCollectors.summing()));
+        assertEquals(Money.ZERO, Stream.<Money>empty().collect(MoneyCollectors.summing()));
+    }
+
+    @Test
+    public void summingProductsTest() {
+        Money price = new Money(10.5);
+        Quantity quantity = new Quantity(0.333);
+        Money expected = price.multiply(quantity).multiply(new Money(1000));
+
+        Money total = Stream.generate(() -> price).limit(1000).parallel()
+                .collect(MoneyCollectors.summingProducts(p -> p, p -> quantity));
+        assertEquals(expected, total);
+    }
+
+    @Test
+    public void averagingTest() {
+        List<Money> values = values(100000);
+        BigDecimal sum = values.stream().map(Money::getValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money expected = new Money(sum.divide(BigDecimal.valueOf(values.size()), 2, RoundingMode.HALF_UP));
+
+        assertEquals(expected, values.parallelStream().collect(MoneyCollectors.averaging()));
+        assertEquals(Money.ZERO, Stream.<Money>empty().collect(MoneyCollectors.averaging()));
+    }
+
+    @Test
+    public void summarizingTest() {
+        MoneySummaryStatistics statistics = Stream.of(new Money(10), new Money(-2.5), new Money(0.01))
+                .parallel()
+                .collect(MoneyCollectors.summarizing());
+        System.out.println(statistics);
+        assertEquals(3, statistics.getCount());
+        assertEquals(new Money(7.51), statistics.getSum());
+        assertEquals(new Money(-2.5), statistics.getMin());
+        assertEquals(new Money(10), statistics.getMax());
+        assertEquals(new Money(2.50), statistics.getAverage());
+
+        MoneySummaryStatistics empty = new MoneySummaryStatistics();
+        assertEquals(0, empty.getCount());
+        assertEquals(Money.ZERO, empty.getMin());
+        empty.combine(statistics);
+        assertEquals(new Money(-2.5), empty.getMin());
+    }
+
+    @Test
+    public void groupingByTest() {
+        List<Money> values = values(10000);
+        Map<Boolean, Money> grouped = values.parallelStream()
+                .collect(Collectors.groupingBy(Money::isZero, MoneyCollectors.summing(m -> m)));
+        Money expected = values.stream().reduce(Money.ZERO, Money::add);
+        Money actual = grouped.values().stream().collect(MoneyCollectors.summing());
+        assertEquals(expected, actual);
+    }
+
+    private static List<Money> values(int size) {
+        Random random = new Random(17);
+        List<Money> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(new Money(BigDecimal.valueOf(random.nextInt(2000000) - 1000000, 2)));
+        }
+        return values;
+    }
+}
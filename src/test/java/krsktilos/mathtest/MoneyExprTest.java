@@ -0,0 +1,128 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyExpr;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyExprTest {
+
+    @Test
+    public void finalRoundingTest() {
+        Money price = new Money(10.01);
+        Quantity quantity = new Quantity(0.333);
+        Money tax = new Money(0.5);
+        Quantity rate = new Quantity(3);
+
+        MoneyExpr expr = MoneyExpr.of(price).multiply(quantity).add(tax).divide(rate);
+        BigDecimal exact = price.getValue().multiply(quantity.getValue()).add(tax.getValue())
+                .divide(rate.getValue(), 10, RoundingMode.HALF_UP);
+        assertEquals(new Money(exact), expr.toMoney());
+        assertEquals(new Quantity(exact), expr.toQuantity());
+        assertEquals(price.multiply(quantity).add(tax).divide(rate),
+                expr.withRounding(MoneyExpr.Rounding.EACH_STEP).toMoney());
+
+        MoneyExpr compound = MoneyExpr.of(new Money(0.01)).multiply(new Quantity(0.5)).multiply(new Quantity(3));
+        assertEquals(new Money(0.02), compound.toMoney());
+        assertEquals(new Money(0.03), compound.withRounding(MoneyExpr.Rounding.EACH_STEP).toMoney());
+        assertEquals("(((10.01 * 0.333) + 0.50) / 3.000)", expr.toString());
+    }
+
+    @Test
+    public void eachStepTest() {
+        Random random = new Random(5);
+        MoneyExpr expr = MoneyExpr.money(0).multiply(MoneyExpr.quantity(1)).add(MoneyExpr.money(2))
+                .subtract(MoneyExpr.quantity(1)).divide(MoneyExpr.quantity(3))
+                .withRounding(MoneyExpr.Rounding.EACH_STEP);
+        MoneyExpr quantityExpr = MoneyExpr.quantity(1).divide(MoneyExpr.money(0)).multiply(MoneyExpr.money(2))
+                .withRounding(MoneyExpr.Rounding.EACH_STEP);
+        for (int i = 0; i < 1000; i++) {
+            Money price = Money.ofUnits(random.nextInt(2000000) - 1000000);
+            Quantity quantity = Quantity.ofUnits(random.nextInt(100000) + 1);
+            Money tax = Money.ofUnits(random.nextInt(10000));
+            Quantity rate = Quantity.ofUnits(random.nextInt(5000) + 1);
+            long[] arguments = {units(price), units(quantity), units(tax), units(rate)};
+            assertEquals(price.multiply(quantity).add(tax).subtract(quantity).divide(rate), expr.toMoney(arguments));
+            if (!price.isZero()) {
+                assertEquals(quantity.divide(price).multiply(tax), quantityExpr.toQuantity(arguments));
+            }
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        Money big = new Money("92233720368547758.07");
+        MoneyExpr expr = MoneyExpr.of(big).add(big).subtract(big).multiply(new Quantity(2)).divide(new Money(2));
+        assertEquals(big, expr.toMoney());
+        assertEquals(big.add(big).subtract(big).multiply(new Quantity(2)).divide(new Money(2)),
+                expr.withRounding(MoneyExpr.Rounding.EACH_STEP).toMoney());
+        try {
+            MoneyExpr.of(Money.HUNDRED).divide(Money.ZERO).toMoney();
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+
+    @Test
+    public void batchTest() {
+        Random random = new Random(9);
+        int size = 500;
+        long[] prices = new long[size];
+        long[] quantities = new long[size];
+        for (int i = 0; i < size; i++) {
+            prices[i] = random.nextInt(1000000);
+            quantities[i] = random.nextInt(100000);
+        }
+        MoneyExpr cost = MoneyExpr.money(0).multiply(MoneyExpr.quantity(1)).multiply(new Quantity(1.2));
+        MoneyVector result = cost.toMoneyVector(prices, quantities);
+        QuantityVector quantityResult = cost.toQuantityVector(prices, quantities);
+        assertEquals(size, result.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(cost.toMoney(prices[i], quantities[i]), result.get(i));
+            assertEquals(cost.toQuantity(prices[i], quantities[i]), quantityResult.get(i));
+        }
+        prices[7] = Long.MAX_VALUE / 10;
+        quantities[7] = 1;
+        MoneyExpr[] exprs = {
+                cost,
+                cost.withRounding(MoneyExpr.Rounding.EACH_STEP),
+                cost.divide(MoneyExpr.quantity(1).add(new Quantity(1))),
+                cost.divide(MoneyExpr.quantity(1).add(new Quantity(1))).withRounding(MoneyExpr.Rounding.EACH_STEP)
+        };
+        for (MoneyExpr expr : exprs) {
+            MoneyVector vector = expr.toMoneyVector(prices, quantities);
+            for (int i = 0; i < size; i++) {
+                assertEquals(expr.toString(), expr.toMoney(prices[i], quantities[i]), vector.get(i));
+            }
+        }
+        try {
+            cost.toMoneyVector(prices);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            cost.toMoneyVector(prices, new long[1]);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static long units(Money money) {
+        return money.getValue().unscaledValue().longValue();
+    }
+
+    private static long units(Quantity quantity) {
+        return quantity.getValue().unscaledValue().longValue();
+    }
+}
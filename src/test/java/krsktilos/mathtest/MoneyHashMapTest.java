@@ -0,0 +1,68 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyHashMap;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyHashMapTest {
+
+    @Test
+    public void operationsTest() {
+        MoneyHashMap<String> map = new MoneyHashMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(new Money(10.5), "a"));
+        assertEquals("a", map.put(new Money(10.5), "b"));
+        assertEquals("b", map.get(new Money("10.50")));
+        assertEquals("b", map.getUnits(1050));
+        assertTrue(map.containsKey(Money.ofUnits(1050)));
+        assertFalse(map.containsUnits(Long.MIN_VALUE));
+        assertNull(map.get(new Money("1e30")));
+        assertEquals(1, map.size());
+        assertEquals("{10.50=b}", map.toString());
+        assertEquals("b", map.remove(new Money(10.5)));
+        assertNull(map.remove(new Money(10.5)));
+        assertTrue(map.isEmpty());
+        try {
+            map.put(new Money("1e30"), "c");
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+    }
+
+    @Test
+    public void randomTest() {
+        Random random = new Random(3);
+        MoneyHashMap<Integer> map = new MoneyHashMap<>();
+        Map<Money, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            Money key = Money.ofUnits(random.nextInt(2000) - 1000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Map<Money, Integer> actual = new HashMap<>();
+        map.forEach((units, value) -> actual.put(Money.ofUnits(units), value));
+        assertEquals(expected, actual);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+}
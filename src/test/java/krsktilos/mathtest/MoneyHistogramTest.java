@@ -0,0 +1,232 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyHistogram;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyHistogramTest {
+
+    private static long nearestRank(long[] sorted, double percentile) {
+        int rank = (int) Math.max(1, Math.ceil(percentile / 100 * sorted.length));
+        return sorted[rank - 1];
+    }
+
+    @Test
+    public void percentileTest() {
+        Random random = new Random(1);
+        for (int digits = 1; digits <= 5; digits++) {
+            MoneyHistogram histogram = new MoneyHistogram(new Money(10000000), digits);
+            long[] values = new long[10000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (long) (Math.exp(random.nextDouble() * 20)) % 1000000000L;
+                histogram.recordUnits(values[i]);
+            }
+            Arrays.sort(values);
+            assertEquals(values.length, histogram.getTotalCount());
+            assertEquals(Money.ofUnits(values[0]), histogram.getMin());
+            assertEquals(Money.ofUnits(values[values.length - 1]), histogram.getMax());
+            double error = Math.pow(10, -digits);
+            for (double p : new double[]{0, 1, 25, 50, 90, 99, 99.9, 100}) {
+                long expected = nearestRank(values, p);
+                long actual = histogram.getUnitsAtPercentile(p);
+                assertTrue(p + "% " + expected + " " + actual,
+                        actual >= expected && actual - expected <= Math.max(1, expected * error));
+            }
+        }
+    }
+
+    @Test
+    public void exactSmallValuesTest() {
+        MoneyHistogram histogram = new MoneyHistogram(100000, 2);
+        for (int i = 0; i < 200; i++) {
+            histogram.record(Money.ofUnits(i));
+        }
+        assertEquals(new Money("0.99"), histogram.getValueAtPercentile(50));
+        assertEquals(new Money("1.99"), histogram.getValueAtPercentile(100));
+        assertEquals(Money.ZERO, histogram.getValueAtPercentile(0));
+        assertEquals(100, histogram.getCountAtOrBelow(new Money("0.99")));
+        assertEquals(0, histogram.getCountAtOrBelow(new Money("-1")));
+        assertEquals(200, histogram.getCountAtOrBelow(new Money(1000000)));
+        assertEquals(200, histogram.getCountAtOrBelow(new Money("1e30")));
+        assertEquals(0, histogram.getCountAtOrBelow(new Money("-1e30")));
+    }
+
+    @Test
+    public void bucketsTest() {
+        MoneyHistogram histogram = new MoneyHistogram(1000000, 1);
+        histogram.recordUnits(5, 3);
+        histogram.recordUnits(100000);
+        final long[] total = new long[1];
+        histogram.forEachBucket((low, high, count) -> {
+            assertTrue(low <= high);
+            assertTrue(count > 0);
+            total[0] += count;
+        });
+        assertEquals(4, total[0]);
+    }
+
+    @Test
+    public void mergeTest() {
+        Random random = new Random(2);
+        MoneyHistogram all = new MoneyHistogram(100000000, 3);
+        MoneyHistogram left = new MoneyHistogram(100000000, 3);
+        MoneyHistogram right = new MoneyHistogram(1000000, 3);
+        for (int i = 0; i < 5000; i++) {
+            long value = random.nextInt(1000000);
+            all.recordUnits(value);
+            (i % 2 == 0 ? left : right).recordUnits(value);
+        }
+        MoneyHistogram merged = left.copy();
+        merged.add(right);
+        assertEquals(all.getTotalCount(), merged.getTotalCount());
+        assertEquals(all.getMin(), merged.getMin());
+        assertEquals(all.getMax(), merged.getMax());
+        for (double p = 0; p <= 100; p += 2.5) {
+            assertEquals(all.getValueAtPercentile(p), merged.getValueAtPercentile(p));
+        }
+        assertEquals(2500, left.getTotalCount());
+
+        merged.reset();
+        assertEquals(0, merged.getTotalCount());
+        all.recordUnits(50000000);
+        try {
+            right.add(all);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            all.add(new MoneyHistogram(100000000, 2));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void serializationTest() {
+        Random random = new Random(3);
+        MoneyHistogram histogram = new MoneyHistogram(new Money(1000000), 3);
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordUnits(random.nextInt(100000) + 1000);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getMaxEncodedSize());
+        histogram.writeTo(buffer);
+        assertTrue(buffer.position() < histogram.getMaxEncodedSize() / 10);
+        buffer.flip();
+        MoneyHistogram read = MoneyHistogram.readFrom(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(histogram.getTotalCount(), read.getTotalCount());
+        assertEquals(histogram.getMin(), read.getMin());
+        assertEquals(histogram.getMax(), read.getMax());
+        for (double p = 0; p <= 100; p += 5) {
+            assertEquals(histogram.getValueAtPercentile(p), read.getValueAtPercentile(p));
+        }
+
+        buffer.clear();
+        new MoneyHistogram(1000, 2).writeTo(buffer);
+        buffer.flip();
+        assertEquals(0, MoneyHistogram.readFrom(buffer).getTotalCount());
+
+        for (long[] header : new long[][]{{500, 400}, {-1, 400}, {100, 2000000}, {100, 100}, {50000, 100000}}) {
+            MoneyHistogram small = new MoneyHistogram(1000000, 2);
+            small.recordUnits(400);
+            buffer.clear();
+            small.writeTo(buffer);
+            buffer.flip();
+            ByteBuffer corrupt = ByteBuffer.allocate(64);
+            corrupt.put(buffer.array(), 0, 6);
+            buffer.position(6);
+            ScaledVarLong.write(corrupt, ScaledVarLong.read(buffer));
+            ScaledVarLong.read(buffer);
+            ScaledVarLong.read(buffer);
+            ScaledVarLong.write(corrupt, header[0]);
+            ScaledVarLong.write(corrupt, header[1]);
+            corrupt.put(buffer);
+            corrupt.flip();
+            try {
+                MoneyHistogram.readFrom(corrupt);
+                fail(Arrays.toString(header));
+            } catch (IllegalArgumentException e) {
+                // ok
+            }
+        }
+
+        try {
+            MoneyHistogram.readFrom(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void rangeTest() {
+        MoneyHistogram histogram = new MoneyHistogram(1000, 2);
+        histogram.recordUnits(1000);
+        try {
+            histogram.recordUnits(1001);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            histogram.record(new Money(-1));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            new MoneyHistogram(1000, 6);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            new MoneyHistogram(1000, 2).getMin();
+            fail();
+        } catch (NoSuchElementException e) {
+            // ok
+        }
+        MoneyHistogram wide = new MoneyHistogram(Long.MAX_VALUE, 3);
+        wide.recordUnits(Long.MAX_VALUE);
+        wide.recordUnits(0);
+        assertEquals(Money.ofUnits(Long.MAX_VALUE), wide.getValueAtPercentile(100));
+        assertEquals(Money.ZERO, wide.getValueAtPercentile(50));
+    }
+
+    /**
+     * Zig-zag varint формата {@link MoneyHistogram#writeTo(ByteBuffer)}.
+     */
+    private static final class ScaledVarLong {
+        static void write(ByteBuffer out, long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.put((byte) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.put((byte) zigzag);
+        }
+
+        static long read(ByteBuffer in) {
+            long zigzag = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+        }
+    }
+}
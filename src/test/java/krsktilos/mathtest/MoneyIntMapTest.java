@@ -0,0 +1,63 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyIntMap;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyIntMapTest {
+
+    @Test
+    public void operationsTest() {
+        MoneyIntMap map = new MoneyIntMap(4, -1);
+        assertEquals(-1, map.get(new Money(1)));
+        assertEquals(-1, map.put(new Money(1), 5));
+        assertEquals(5, map.put(new Money(1), 6));
+        assertEquals(9, map.addTo(new Money(1), 3));
+        assertEquals(1, map.addTo(new Money(2), 2));
+        assertEquals(2, map.size());
+        assertEquals(9, map.getUnits(100));
+        assertEquals(-1, map.get(new Money("1e30")));
+        assertEquals(9, map.remove(new Money(1)));
+        assertEquals(-1, map.remove(new Money(1)));
+        assertEquals("{2.00=1}", map.toString());
+    }
+
+    @Test
+    public void randomTest() {
+        Random random = new Random(4);
+        MoneyIntMap map = new MoneyIntMap();
+        Map<Money, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            Money key = Money.ofUnits(random.nextInt(5000) * 5L);
+            switch (random.nextInt(4)) {
+                case 0:
+                    Integer previous = expected.put(key, i);
+                    assertEquals(previous == null ? 0 : previous, map.put(key, i));
+                    break;
+                case 1:
+                    Integer removed = expected.remove(key);
+                    assertEquals(removed == null ? 0 : removed, map.remove(key));
+                    break;
+                case 2:
+                    assertEquals((int) expected.merge(key, 1, Integer::sum), map.addTo(key, 1));
+                    break;
+                default:
+                    assertEquals((int) expected.getOrDefault(key, 0), map.get(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Map<Money, Integer> actual = new HashMap<>();
+        map.forEach((units, value) -> actual.put(Money.ofUnits(units), value));
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,113 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyMath;
+import krsktilos.math.Quantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyMathTest {
+    private static final int SIZE = MoneyMath.PARALLEL_THRESHOLD * 10 + 17;
+
+    private final Money[] values = new Money[SIZE];
+    private final Quantity[] weights = new Quantity[SIZE];
+
+    public MoneyMathTest() {
+        Random random = new Random(13);
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = new Money(BigDecimal.valueOf(random.nextInt(2000000000) - 1000000000, 2));
+            weights[i] = new Quantity(BigDecimal.valueOf(random.nextInt(100000), 3));
+        }
+    }
+
+    @Test
+    public void sumTest() {
+        BigDecimal expected = BigDecimal.ZERO;
+        for (Money value : values) {
+            expected = expected.add(value.getValue());
+        }
+        List<Money> list = Arrays.asList(values);
+
+        assertEquals(new Money(expected), MoneyMath.sum(values));
+        assertEquals(new Money(expected), MoneyMath.sum(list));
+        assertEquals(new Money(expected), MoneyMath.sum(list.stream()));
+        assertEquals(new Money(expected), MoneyMath.sum(list.parallelStream()));
+        assertEquals(Money.ZERO, MoneyMath.sum());
+        assertEquals(new Money(3.5), MoneyMath.sum(new Money(1), new Money(2.5)));
+    }
+
+    @Test
+    public void averageTest() {
+        BigDecimal expected = BigDecimal.ZERO;
+        for (Money value : values) {
+            expected = expected.add(value.getValue());
+        }
+        expected = expected.divide(BigDecimal.valueOf(SIZE), 2, RoundingMode.HALF_UP);
+        List<Money> list = Arrays.asList(values);
+
+        assertEquals(new Money(expected), MoneyMath.average(values));
+        assertEquals(new Money(expected), MoneyMath.average(list));
+        assertEquals(new Money(expected), MoneyMath.average(list.parallelStream()));
+        assertEquals(new Money(0.67), MoneyMath.average(new Money(1), new Money(1), new Money(0.01)));
+    }
+
+    @Test
+    public void minMaxTest() {
+        Money min = Collections.min(Arrays.asList(values), (a, b) -> a.getValue().compareTo(b.getValue()));
+        Money max = Collections.max(Arrays.asList(values), (a, b) -> a.getValue().compareTo(b.getValue()));
+        List<Money> list = Arrays.asList(values);
+
+        assertEquals(min, MoneyMath.min(values));
+        assertEquals(min, MoneyMath.min(list));
+        assertEquals(min, MoneyMath.min(list.parallelStream()));
+        assertEquals(max, MoneyMath.max(values));
+        assertEquals(max, MoneyMath.max(list));
+        assertEquals(max, MoneyMath.max(list.parallelStream()));
+    }
+
+    @Test
+    public void weightedSumTest() {
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0; i < SIZE; i++) {
+            expected = expected.add(values[i].getValue().multiply(weights[i].getValue()));
+        }
+        List<Integer> indexes = Arrays.asList(IntStream.range(0, SIZE).boxed().toArray(Integer[]::new));
+
+        assertEquals(new Money(expected), MoneyMath.weightedSum(values, weights));
+        assertEquals(new Money(expected), MoneyMath.weightedSum(indexes, i -> values[i], i -> weights[i]));
+        assertEquals(new Money(expected),
+                MoneyMath.weightedSum(indexes.parallelStream(), i -> values[i], i -> weights[i]));
+
+        Money[] prices = {new Money(0.01), new Money(0.01)};
+        Quantity[] quantities = {new Quantity(0.25), new Quantity(0.25)};
+        assertEquals(new Money(0.01), MoneyMath.weightedSum(prices, quantities));
+    }
+
+    @Test
+    public void overflowTest() {
+        Money big = Money.ofUnits(Long.MAX_VALUE);
+        Money[] bigValues = new Money[SIZE];
+        Arrays.fill(bigValues, big);
+        BigDecimal expected = big.getValue().multiply(BigDecimal.valueOf(SIZE));
+        assertEquals(new Money(expected), MoneyMath.sum(bigValues));
+        assertEquals(big, MoneyMath.average(bigValues));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void emptyTest() {
+        MoneyMath.min(Collections.<Money>emptyList());
+    }
+}
@@ -0,0 +1,151 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneySkipListMap;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneySkipListMapTest {
+
+    @Test
+    public void navigationTest() {
+        MoneySkipListMap<String> map = new MoneySkipListMap<>();
+        assertNull(map.firstKey());
+        assertNull(map.lastKey());
+        assertNull(map.floorKey(new Money(1)));
+        map.put(new Money(10), "a");
+        map.put(new Money(20), "b");
+        map.put(new Money(30), "c");
+        assertEquals(new Money(10), map.firstKey());
+        assertEquals(new Money(30), map.lastKey());
+        assertEquals(new Money(20), map.floorKey(new Money(20)));
+        assertEquals(new Money(20), map.floorKey(new Money(29.99)));
+        assertEquals(new Money(10), map.lowerKey(new Money(20)));
+        assertEquals(new Money(20), map.ceilingKey(new Money(20)));
+        assertEquals(new Money(30), map.higherKey(new Money(20)));
+        assertNull(map.higherKey(new Money(30)));
+        assertEquals(2000, map.lowerUnits(2500));
+        assertEquals(3000, map.ceilingUnits(2001));
+        assertEquals(Long.MIN_VALUE, map.floorUnits(999));
+        assertNull(map.lowerKey(new Money(10)));
+        assertEquals(new Money(30), map.floorKey(new Money("1e30")));
+        assertEquals(new Money(10), map.ceilingKey(new Money("-1e30")));
+        assertNull(map.ceilingKey(new Money("1e30")));
+
+        List<String> values = new ArrayList<>();
+        map.forEachInRange(new Money(10), false, new Money(30), true, (units, value) -> values.add(value));
+        assertEquals(java.util.Arrays.asList("b", "c"), values);
+        assertEquals("{10.00=a, 20.00=b, 30.00=c}", map.toString());
+
+        assertEquals("b", map.remove(new Money(20)));
+        assertEquals(new Money(10), map.floorKey(new Money(25)));
+        assertEquals(2, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.firstKey());
+    }
+
+    @Test
+    public void randomTest() {
+        Random random = new Random(6);
+        MoneySkipListMap<Integer> map = new MoneySkipListMap<>();
+        TreeMap<Money, Integer> expected = new TreeMap<>((a, b) -> a.getValue().compareTo(b.getValue()));
+        for (int i = 0; i < 50000; i++) {
+            Money key = Money.ofUnits(random.nextInt(4000) - 2000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 2:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+                default:
+                    assertEquals(expected.floorKey(key), map.floorKey(key));
+                    assertEquals(expected.lowerKey(key), map.lowerKey(key));
+                    assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+                    assertEquals(expected.higherKey(key), map.higherKey(key));
+                    Money floor = expected.floorKey(key);
+                    assertEquals(floor == null ? Long.MIN_VALUE : floor.getValue().unscaledValue().longValue(),
+                            map.floorUnits(key.getValue().unscaledValue().longValue()));
+                    Money higher = expected.higherKey(key);
+                    assertEquals(higher == null ? Long.MIN_VALUE : higher.getValue().unscaledValue().longValue(),
+                            map.higherUnits(key.getValue().unscaledValue().longValue()));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected.firstKey(), map.firstKey());
+        assertEquals(expected.lastKey(), map.lastKey());
+        List<Integer> values = new ArrayList<>();
+        map.forEachInRange(new Money(-5), true, new Money(5), false, (units, value) -> values.add(value));
+        assertEquals(new ArrayList<>(expected.subMap(new Money(-5), true, new Money(5), false).values()), values);
+        Map<Money, Integer> actual = new TreeMap<>(expected.comparator());
+        map.forEach((units, value) -> actual.put(Money.ofUnits(units), value));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void concurrentReadersTest() throws InterruptedException {
+        MoneySkipListMap<Long> map = new MoneySkipListMap<>();
+        for (long units = 0; units < 10000; units += 2) {
+            map.putUnits(units, units);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread reader = new Thread(() -> {
+                Random random = new Random();
+                try {
+                    while (running.get()) {
+                        Money key = Money.ofUnits(random.nextInt(10000));
+                        Money floor = map.floorKey(key);
+                        Money ceiling = map.ceilingKey(key);
+                        assertTrue(floor == null || floor.le(key));
+                        assertTrue(ceiling == null || ceiling.ge(key));
+                        Long value = map.get(key);
+                        assertTrue(value == null || value == key.getValue().unscaledValue().longValue());
+                        long[] previous = {Long.MIN_VALUE};
+                        map.forEachInRange(key, true, key.add(new Money(1)), true, (units, v) -> {
+                            assertTrue(units > previous[0]);
+                            previous[0] = units;
+                        });
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        Random random = new Random(8);
+        for (int i = 0; i < 200000; i++) {
+            long units = random.nextInt(10000);
+            if (random.nextBoolean()) {
+                map.putUnits(units, units);
+            } else {
+                map.removeUnits(units);
+            }
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+}
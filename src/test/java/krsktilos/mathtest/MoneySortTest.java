@@ -0,0 +1,97 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneySort;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneySortTest {
+
+    private static Money[] random(Random random, int size, long bound) {
+        Money[] values = new Money[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = new Money(BigDecimal.valueOf(random.nextLong() % bound, 2));
+        }
+        return values;
+    }
+
+    @Test
+    public void compareToTest() {
+        assertTrue(new Money(1).compareTo(new Money(2)) < 0);
+        assertEquals(0, new Money("1.5").compareTo(new Money("1.50")));
+        assertTrue(new Money("1e30").compareTo(Money.MAX) > 0);
+        assertTrue(new Money("-1e30").compareTo(new Money("1e30")) < 0);
+    }
+
+    @Test
+    public void sortTest() {
+        Random random = new Random(1);
+        for (long bound : new long[]{10, 1000000, Long.MAX_VALUE}) {
+            Money[] values = random(random, 10000, bound);
+            Money[] expected = values.clone();
+            Arrays.sort(expected, Comparator.comparing(Money::getValue));
+            Money[] sorted = values.clone();
+            MoneySort.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                assertSame(expected[i], sorted[i]);
+            }
+            Money[] parallel = values.clone();
+            MoneySort.parallelSort(parallel);
+            assertArrayEquals(expected, parallel);
+        }
+        Money[] inflated = {new Money("1e30"), Money.ZERO, new Money("-1e30"), Money.MAX};
+        MoneySort.sort(inflated);
+        assertArrayEquals(new Money[]{new Money("-1e30"), Money.ZERO, Money.MAX, new Money("1e30")}, inflated);
+        MoneySort.sort(new Money[0]);
+    }
+
+    @Test
+    public void sortListTest() {
+        List<Money> list = new ArrayList<>(Arrays.asList(new Money(3), new Money(1), new Money(2)));
+        MoneySort.sort(list);
+        assertEquals(Arrays.asList(new Money(1), new Money(2), new Money(3)), list);
+    }
+
+    @Test
+    public void selectionTest() {
+        Random random = new Random(2);
+        for (long bound : new long[]{100, 100000000, Long.MAX_VALUE}) {
+            Money[] values = random(random, 5001, bound);
+            Money[] sorted = values.clone();
+            Arrays.sort(sorted);
+            Money[] top = MoneySort.top(values, 10);
+            Money[] bottom = MoneySort.bottom(values, 10);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(sorted[sorted.length - 1 - i], top[i]);
+                assertEquals(sorted[i], bottom[i]);
+            }
+            assertEquals(sorted[2500], MoneySort.median(values));
+            assertEquals(sorted[4950], MoneySort.percentile(values, 99));
+            assertEquals(sorted[0], MoneySort.percentile(values, 0));
+            assertEquals(sorted[5000], MoneySort.percentile(values, 100));
+        }
+        assertEquals(0, MoneySort.top(new Money[]{Money.ZERO}, 0).length);
+        assertEquals(new Money(5), MoneySort.percentile(new Money[]{new Money(5)}, 95));
+        try {
+            MoneySort.top(new Money[]{Money.ZERO}, 2);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            MoneySort.median(new Money[0]);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
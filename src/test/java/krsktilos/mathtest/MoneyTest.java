@@ -1,14 +1,26 @@
 package krsktilos.mathtest;
 
+import krsktilos.math.CacheStatistics;
 import krsktilos.math.Money;
+import krsktilos.math.MoneyMath;
+import krsktilos.math.MoneyVector;
 import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -50,6 +62,11 @@ public class MoneyTest {
         System.out.println(money);
         assertEquals("100056.00", money.toString());
         assertEquals(new Money(100056L), money);
+
+        money = Money.ofUnits(105);
+        System.out.println(money);
+        assertEquals("1.05", money.toString());
+        assertEquals(new Money(1.05), money);
     }
 
     @Test
@@ -58,6 +75,13 @@ public class MoneyTest {
         assertEquals(new Money(15.55), money);
         assertEquals(new Money(15.554), money);
         assertEquals(new Money(15.549), money);
+
+        assertEquals(new Money(15.554).hashCode(), money.hashCode());
+        assertEquals(new Money(new BigDecimal("15.5500000")).hashCode(), new Money(15.55).hashCode());
+        Money big = new Money("92233720368547758.07").add(new Money(1));
+        assertEquals(big, new Money(big.getValue()));
+        assertEquals(big.hashCode(), new Money(big.getValue()).hashCode());
+        assertNotEquals(big, money);
     }
 
     @Test
@@ -106,6 +130,141 @@ public class MoneyTest {
         assertEquals(new Money(7000.30), result);
     }
 
+    @Test
+    public void allocateTest() {
+        assertArrayEquals(new Money[]{new Money(0.34), new Money(0.33), new Money(0.33)}, new Money(1).allocate(3));
+        assertArrayEquals(new Money[]{new Money(-0.34), new Money(-0.33), new Money(-0.33)}, new Money(-1).allocate(3));
+        assertArrayEquals(new Money[]{new Money(0.01), Money.ZERO}, new Money(0.01).allocate(2));
+        assertArrayEquals(new Money[]{new Money(0.34), Money.ZERO, new Money(0.66)},
+                new Money(1).allocate(new Quantity(1), Quantity.ZERO, new Quantity(2)));
+        assertEquals(MoneyVector.ofUnits(25, 75),
+                new Money(1).allocate(MoneyVector.of(new Money(10), new Money(30))));
+        assertEquals(MoneyVector.ofUnits(50, 50), new Money(1).allocate(QuantityVector.ofUnits(1, 1)));
+
+        Random random = new Random(12);
+        for (int i = 0; i < 1000; i++) {
+            Money money = Money.ofUnits(random.nextLong() % 1000000000000L);
+            Quantity[] ratios = new Quantity[1 + random.nextInt(20)];
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < ratios.length; j++) {
+                ratios[j] = Quantity.ofUnits(random.nextInt(3) == 0 ? 0 : random.nextInt(1000000000));
+                total = total.add(ratios[j].getValue());
+            }
+            if (total.signum() == 0) {
+                continue;
+            }
+            Money[] parts = money.allocate(ratios);
+            Money sum = Money.ZERO;
+            for (int j = 0; j < parts.length; j++) {
+                sum = sum.add(parts[j]);
+                BigDecimal exact = money.getValue().multiply(ratios[j].getValue())
+                        .divide(total, 10, RoundingMode.HALF_UP);
+                assertTrue(parts[j].getValue().subtract(exact).abs().compareTo(new BigDecimal("0.01")) < 0);
+            }
+            assertEquals(money, sum);
+            Money[] equal = money.allocate(ratios.length);
+            assertEquals(money, MoneyMath.sum(equal));
+            assertTrue(equal[0].subtract(equal[ratios.length - 1]).getValue().abs().compareTo(new BigDecimal("0.01")) <= 0);
+        }
+        try {
+            new Money(1).allocate(0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            new Money(1).allocate(Quantity.ZERO);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            new Money(1).allocate(new Quantity(-1), new Quantity(2));
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void arithmeticAgreementTest() {
+        Random random = new Random(1);
+        BigDecimal[] edges = {BigDecimal.valueOf(Long.MAX_VALUE, 2), BigDecimal.valueOf(Long.MIN_VALUE + 1, 2),
+                new BigDecimal("1e30"), new BigDecimal("-0.005"), BigDecimal.ZERO};
+        for (int i = 0; i < 20000; i++) {
+            BigDecimal a = i < edges.length ? edges[i] : BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 2);
+            BigDecimal b = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 2);
+            BigDecimal c = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 3);
+            Money x = new Money(a);
+            Money y = new Money(b);
+            Quantity z = new Quantity(c);
+            assertEquals(new Money(x.getValue().add(y.getValue())), x.add(y));
+            assertEquals(new Money(x.getValue().add(z.getValue())), x.add(z));
+            assertEquals(new Money(x.getValue().subtract(y.getValue())), x.subtract(y));
+            assertEquals(new Money(x.getValue().subtract(z.getValue())), x.subtract(z));
+            assertEquals(new Money(x.getValue().multiply(y.getValue())), x.multiply(y));
+            assertEquals(new Money(x.getValue().multiply(z.getValue())), x.multiply(z));
+            if (y.isNotZero()) {
+                assertEquals(new Money(x.getValue().divide(y.getValue(), 2, RoundingMode.HALF_UP)), x.divide(y));
+            }
+            if (z.isNotZero()) {
+                assertEquals(new Money(x.getValue().divide(z.getValue(), 2, RoundingMode.HALF_UP)), x.divide(z));
+            }
+            assertEquals(x.getValue().compareTo(y.getValue()) > 0, x.gt(y));
+            assertEquals(x.getValue().compareTo(y.getValue()) == 0, x.eq(y));
+            assertEquals(new Money(x.getValue().intValue()), x.getInt());
+        }
+    }
+
+    @Test
+    public void checkedTest() {
+        Money.Checked checked = Money.checked(Money.ZERO, Money.MAX, Money.Overflow.THROW);
+        assertEquals(new Money("1000000.00"), checked.add(new Money(999999.99), new Money(0.01)));
+        assertEquals(new Money(5250.23), checked.multiply(new Money(10500.45), new Quantity(0.5)));
+        assertEquals(new Money(7000.30), checked.divide(new Money(10500.45), new Quantity(1.5)));
+        assertEquals(new Money(1), checked.sum(new Money(0.5), new Money(-1), new Money(1.5)));
+        try {
+            checked.add(Money.MAX, new Money(0.01));
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        try {
+            checked.subtract(Money.ZERO, new Money(0.01));
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        try {
+            checked.divide(Money.MAX, Quantity.ZERO);
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        assertEquals(Money.ZERO, checked.subtract(new Money("1e30"), new Money("1e30")));
+
+        Money.Checked saturating = Money.checked(Money.MAX.multiply(new Money(-1)), Money.MAX, Money.Overflow.SATURATE);
+        assertEquals(Money.MAX, saturating.multiply(Money.MAX, new Quantity(2)));
+        assertEquals(Money.MAX.multiply(new Money(-1)), saturating.multiply(Money.MAX, new Money(-2)));
+        assertEquals(Money.MAX, saturating.check(new Money("1e30")));
+        assertEquals(100000000L, saturating.addUnits(Long.MAX_VALUE, 1));
+        assertEquals(-100000000L, saturating.subtractUnits(Long.MIN_VALUE + 1, 1));
+        assertEquals(100000000L, saturating.multiplyUnits(Long.MAX_VALUE / 2, 3000));
+        assertEquals(150, saturating.multiplyUnits(100, 1500));
+
+        Money.Checked overflow = Money.checked(Money.Overflow.THROW);
+        assertEquals(Long.MAX_VALUE, overflow.addUnits(Long.MAX_VALUE - 1, 1));
+        try {
+            overflow.addUnits(Long.MAX_VALUE, 1);
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        try {
+            overflow.add(Money.ofUnits(Long.MAX_VALUE), new Money(0.01));
+            fail();
+        } catch (ArithmeticException ignored) {
+        }
+        try {
+            Money.checked(Money.MAX, Money.ZERO, Money.Overflow.THROW);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
     @Test
     public void logicalOperationsTest() {
         Money money = new Money(501.55);
@@ -168,6 +327,137 @@ public class MoneyTest {
         assertEquals(new Money(0), money.getInt());
     }
 
+    @Test
+    public void cacheTest() {
+        CacheStatistics before = Money.cacheStatistics();
+        assertSame(Money.of(5), Money.of(5));
+        assertSame(Money.ofUnits(1), Money.of("0.01"));
+        assertSame(Money.of(2.5), Money.of(new BigDecimal("2.5")));
+        assertEquals(new Money(5), Money.of(5));
+        assertEquals(new Money("1000000.01"), Money.of("1000000.01"));
+        assertEquals(new Money(Long.MAX_VALUE), Money.of(Long.MAX_VALUE));
+
+        CacheStatistics after = Money.cacheStatistics();
+        System.out.println(after);
+        assertTrue(after.getHits() >= before.getHits() + 3);
+        assertTrue(after.getMisses() > before.getMisses());
+        assertTrue(after.getHitRate() > 0);
+    }
+
+    @Test
+    public void parseTest() {
+        String[] texts = {"0", "-0.0049", "-0.005", "+.5", "1.", "12345.6789", "-999.9995",
+                "1E+3", "2.5e-1", "92233720368547758.07", "-92233720368547758079.99", "00012.30"};
+        for (String text : texts) {
+            assertEquals(text, new Money(text).toString(), Money.parse(text).toString());
+        }
+
+        Random random = new Random(23);
+        for (int i = 0; i < 10000; i++) {
+            String text = BigDecimal.valueOf(random.nextLong() % 10000000000000L, random.nextInt(6)).toPlainString();
+            Money expected = new Money(text);
+            assertEquals(expected, Money.parse(text));
+            assertEquals(expected.getValue().unscaledValue().longValue(), Money.parseUnits(text, 0, text.length()));
+
+            String line = "x;" + text + ";y";
+            assertEquals(expected, Money.parse(line, 2, line.length() - 2));
+            byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(expected, Money.parse(bytes, 2, text.length()));
+            assertEquals(expected.getValue().unscaledValue().longValue(), Money.parseUnits(bytes, 2, text.length()));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseInvalidTest() {
+        Money.parse("12.3.4");
+    }
+
+    @Test
+    public void formatTest() {
+        Random random = new Random(29);
+        StringBuilder builder = new StringBuilder();
+        char[] chars = new char[64];
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (int i = 0; i < 10000; i++) {
+            Money money = Money.ofUnits(i < 100 ? i - 50 : random.nextLong());
+            String expected = money.toString();
+
+            builder.setLength(0);
+            assertEquals(expected, money.formatTo(builder.append('>')).substring(1));
+
+            int length = money.formatTo(chars, 3);
+            assertEquals(expected, new String(chars, 3, length));
+
+            buffer.clear();
+            money.formatTo(buffer);
+            assertEquals(expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+        }
+        Money big = Money.ofUnits(Long.MAX_VALUE).add(Money.ofUnits(Long.MAX_VALUE));
+        assertEquals(big.toString(), big.formatTo(new StringBuilder()).toString());
+    }
+
+    @Test
+    public void codecTest() throws Exception {
+        Money[] values = {Money.ZERO, Money.ofUnits(1), Money.ofUnits(-64), Money.ofUnits(123456),
+                Money.ofUnits(Long.MAX_VALUE), Money.ofUnits(Long.MIN_VALUE + 1),
+                Money.ofUnits(Long.MAX_VALUE).add(Money.ofUnits(Long.MAX_VALUE)).subtract(Money.ofUnits(Long.MAX_VALUE).multiply(new Money(-5)))};
+
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteOutputStream);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        for (Money value : values) {
+            value.writeTo(outputStream);
+            value.writeTo(buffer);
+        }
+        outputStream.flush();
+        assertArrayEquals(byteOutputStream.toByteArray(), Arrays.copyOf(buffer.array(), buffer.position()));
+
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+        buffer.flip();
+        for (Money value : values) {
+            assertEquals(value, Money.readFrom(inputStream));
+            assertEquals(value, Money.readFrom(buffer));
+        }
+        assertEquals(-1, inputStream.read());
+        assertFalse(buffer.hasRemaining());
+
+        buffer.clear();
+        Money.ofUnits(63).writeTo(buffer);
+        assertEquals(2, buffer.position());
+        Money.ofUnits(64).writeTo(buffer);
+        assertEquals(5, buffer.position());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void codecTypeTest() throws Exception {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        new Quantity(1).writeTo(new DataOutputStream(byteOutputStream));
+        Money.readFrom(new DataInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray())));
+    }
+
+    @Test
+    public void codecLengthTest() throws Exception {
+        byte[] corrupt = {0x11, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        try {
+            Money.readFrom(new DataInputStream(new ByteArrayInputStream(corrupt)));
+            fail();
+        } catch (StreamCorruptedException e) {
+            // ok
+        }
+        try {
+            Money.readFrom(ByteBuffer.wrap(corrupt));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+        try {
+            new Money(BigDecimal.ONE.scaleByPowerOfTen(200000)).writeTo(ByteBuffer.allocate(1 << 17));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
     @Test
     public void serializationTest() throws Exception {
         Money money = new Money(666.99);
@@ -178,6 +468,8 @@ public class MoneyTest {
         ObjectOutputStream outputStream = new ObjectOutputStream(byteOutputStream);
         outputStream.writeObject(money);
         outputStream.flush();
+        System.out.println(byteOutputStream.size());
+        assertTrue(byteOutputStream.size() < 64);
 
         ObjectInputStream inputStream = new ObjectInputStream(
                 new ByteArrayInputStream(byteOutputStream.toByteArray())
@@ -0,0 +1,104 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class MoneyVectorTest {
+
+    @Test
+    public void conversionTest() {
+        MoneyVector vector = MoneyVector.of(new Money(10.5), new Money("0.015"), new Money(-3));
+        assertEquals(3, vector.size());
+        assertEquals(new Money(10.5), vector.get(0));
+        assertEquals(2, vector.getUnits(1));
+        assertEquals(Arrays.asList(new Money(10.5), new Money(0.02), new Money(-3)), vector.toList());
+        assertEquals(vector, MoneyVector.of(vector.toList()));
+        assertEquals(vector, MoneyVector.ofUnits(1050, 2, -300));
+
+        vector.set(2, new Money(7));
+        assertEquals(700, vector.getUnits(2));
+        vector.setUnits(2, 1);
+        assertEquals(new Money(0.01), vector.get(2));
+        assertEquals("[10.50, 0.02, 0.01]", vector.toString());
+    }
+
+    @Test
+    public void arithmeticTest() {
+        Random random = new Random(7);
+        int size = 1000;
+        Money[] money = new Money[size];
+        Money[] other = new Money[size];
+        Quantity[] quantity = new Quantity[size];
+        for (int i = 0; i < size; i++) {
+            money[i] = new Money(BigDecimal.valueOf(random.nextInt(100000000) - 50000000, 2));
+            other[i] = new Money(BigDecimal.valueOf(random.nextInt(1000000) + 1, 2));
+            quantity[i] = new Quantity(BigDecimal.valueOf(random.nextInt(1000000) + 1, 3));
+        }
+        MoneyVector vector = MoneyVector.of(money);
+        MoneyVector otherVector = MoneyVector.of(other);
+        QuantityVector quantityVector = QuantityVector.of(quantity);
+
+        MoneyVector sum = vector.add(otherVector);
+        MoneyVector difference = vector.subtract(otherVector);
+        MoneyVector product = vector.multiply(otherVector);
+        MoneyVector quantityProduct = vector.multiply(quantityVector);
+        MoneyVector ratio = vector.divide(otherVector);
+        MoneyVector quantityRatio = vector.divide(quantityVector);
+        for (int i = 0; i < size; i++) {
+            assertEquals(money[i].add(other[i]), sum.get(i));
+            assertEquals(money[i].subtract(other[i]), difference.get(i));
+            assertEquals(money[i].multiply(other[i]), product.get(i));
+            assertEquals(money[i].multiply(quantity[i]), quantityProduct.get(i));
+            assertEquals(money[i].divide(other[i]), ratio.get(i));
+            assertEquals(money[i].divide(quantity[i]), quantityRatio.get(i));
+        }
+
+        assertEquals(money[3].add(other[5]), vector.add(other[5]).get(3));
+        assertEquals(money[3].subtract(other[5]), vector.subtract(other[5]).get(3));
+        assertEquals(money[3].multiply(other[5]), vector.multiply(other[5]).get(3));
+        assertEquals(money[3].multiply(quantity[5]), vector.multiply(quantity[5]).get(3));
+        assertEquals(money[3].divide(other[5]), vector.divide(other[5]).get(3));
+        assertEquals(money[3].divide(quantity[5]), vector.divide(quantity[5]).get(3));
+    }
+
+    @Test
+    public void reductionTest() {
+        MoneyVector vector = MoneyVector.of(new Money(10.5), new Money(-3.01), new Money(100));
+        assertEquals(new Money(107.49), vector.sum());
+        assertEquals(new Money(-3.01), vector.min());
+        assertEquals(new Money(100), vector.max());
+        assertEquals(Money.ZERO, new MoneyVector(0).sum());
+
+        MoneyVector big = MoneyVector.ofUnits(Long.MAX_VALUE, Long.MAX_VALUE, -1);
+        assertEquals(new Money(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)))
+                .subtract(new Money(0.01)), big.sum());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void emptyMinTest() {
+        new MoneyVector(0).min();
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void overflowTest() {
+        MoneyVector.ofUnits(Long.MAX_VALUE).add(MoneyVector.ofUnits(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizeMismatchTest() {
+        new MoneyVector(2).add(new MoneyVector(3));
+    }
+}
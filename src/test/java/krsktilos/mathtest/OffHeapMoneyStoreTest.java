@@ -0,0 +1,157 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.OffHeapMoneyStore;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class OffHeapMoneyStoreTest {
+
+    @Test
+    public void appendGetSetTest() {
+        try (OffHeapMoneyStore store = new OffHeapMoneyStore(0, 8)) {
+            Random random = new Random(1);
+            long[] expected = new long[100];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = random.nextInt(10000000) - 5000000;
+                assertEquals(i, store.append(Money.ofUnits(expected[i])));
+            }
+            assertEquals(100, store.size());
+            assertEquals(13 * 8 * Long.BYTES, store.memoryBytes());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], store.getUnits(i));
+                assertEquals(Money.ofUnits(expected[i]), store.get(i));
+            }
+            store.set(7, new Money("1.23"));
+            store.setUnits(8, 456);
+            assertEquals(new Money("1.23"), store.get(7));
+            assertEquals(new Money("4.56"), store.get(8));
+            try {
+                store.get(100);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // ok
+            }
+            try {
+                store.append(new Money("1e30"));
+                fail();
+            } catch (ArithmeticException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void bulkTest() {
+        try (OffHeapMoneyStore store = new OffHeapMoneyStore(10, 16)) {
+            long[] values = new long[50];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = i * 100 + 1;
+            }
+            store.appendUnits(values, 5, 45);
+            store.appendAll(MoneyVector.of(new Money(1), new Money(2)));
+            assertEquals(42, store.size());
+            assertEquals(Money.ofUnits(501), store.get(0));
+            assertEquals(new Money(2), store.get(41));
+
+            long[] copy = new long[40];
+            store.getUnits(0, copy, 0, 40);
+            for (int i = 0; i < 40; i++) {
+                assertEquals(values[i + 5], copy[i]);
+            }
+            MoneyVector vector = store.toVector(10, 30);
+            assertEquals(20, vector.size());
+            assertEquals(store.get(10), vector.get(0));
+
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int i = 0; i < store.size(); i++) {
+                expected = expected.add(store.get(i).getValue());
+            }
+            assertEquals(new Money(expected), store.sum());
+            assertEquals(store.get(0).add(store.get(1)), store.sum(0, 2));
+            assertEquals(new Money(expected.divide(BigDecimal.valueOf(42), 2, BigDecimal.ROUND_HALF_UP)), store.average());
+            assertEquals(new Money(1), store.min());
+            assertEquals(Money.ofUnits(4401), store.max());
+        }
+    }
+
+    @Test
+    public void overflowSumTest() {
+        try (OffHeapMoneyStore store = new OffHeapMoneyStore()) {
+            store.appendUnits(Long.MAX_VALUE);
+            store.appendUnits(Long.MAX_VALUE);
+            store.appendUnits(-Long.MAX_VALUE);
+            assertEquals(Money.ofUnits(Long.MAX_VALUE), store.sum());
+            store.appendUnits(Long.MAX_VALUE);
+            assertEquals(new Money(BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2)).movePointLeft(2)),
+                    store.sum());
+        }
+    }
+
+    @Test
+    public void viewTest() {
+        try (OffHeapMoneyStore store = new OffHeapMoneyStore()) {
+            List<Money> view = store.asList();
+            assertTrue(view.isEmpty());
+            store.append(new Money(1));
+            store.append(new Money(2));
+            assertEquals(2, view.size());
+            assertEquals(new Money(1), view.set(0, new Money(5)));
+            assertEquals(new Money(5), store.get(0));
+            assertEquals(new Money(7), view.stream().reduce(Money.ZERO, Money::add));
+            try {
+                view.add(Money.ZERO);
+                fail();
+            } catch (UnsupportedOperationException e) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void lifecycleTest() {
+        OffHeapMoneyStore store = new OffHeapMoneyStore(100);
+        store.append(new Money(1));
+        store.clear();
+        assertEquals(0, store.size());
+        try {
+            store.min();
+            fail();
+        } catch (NoSuchElementException e) {
+            // ok
+        }
+        try {
+            store.average();
+            fail();
+        } catch (NoSuchElementException e) {
+            // ok
+        }
+        assertEquals(Money.ZERO, store.sum());
+        assertFalse(store.isClosed());
+        store.close();
+        store.close();
+        assertTrue(store.isClosed());
+        try {
+            store.append(new Money(1));
+            fail();
+        } catch (IllegalStateException e) {
+            // ok
+        }
+        try {
+            new OffHeapMoneyStore(0, 3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+}
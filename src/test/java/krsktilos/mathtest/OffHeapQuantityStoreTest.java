@@ -0,0 +1,54 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.OffHeapQuantityStore;
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class OffHeapQuantityStoreTest {
+
+    @Test
+    public void storeTest() {
+        try (OffHeapQuantityStore store = new OffHeapQuantityStore(0, 4)) {
+            store.append(new Quantity("1.5"));
+            store.appendUnits(250);
+            store.appendAll(QuantityVector.of(new Quantity(3), new Quantity("0.001")));
+            store.appendUnits(new long[]{10, 20}, 0, 2);
+            assertEquals(6, store.size());
+            assertEquals(new Quantity("0.25"), store.get(1));
+            store.set(1, new Quantity(2));
+            assertEquals(2000, store.getUnits(1));
+
+            assertEquals(new Quantity("6.531"), store.sum());
+            assertEquals(new Quantity("1.089"), store.average());
+            assertEquals(new Quantity("0.001"), store.min());
+            assertEquals(new Quantity(3), store.max());
+            assertEquals(new Quantity(5), store.sum(1, 3));
+            assertEquals(QuantityVector.of(new Quantity(3), new Quantity("0.001")), store.toVector(2, 4));
+
+            List<Quantity> view = store.asList();
+            assertEquals(new Quantity("1.5"), view.get(0));
+            view.set(0, Quantity.ONE);
+            assertEquals(Quantity.ONE, store.get(0));
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        try (OffHeapQuantityStore store = new OffHeapQuantityStore()) {
+            store.appendUnits(Long.MAX_VALUE);
+            store.appendUnits(Long.MAX_VALUE);
+            BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2)).movePointLeft(3);
+            assertEquals(new Quantity(expected), store.sum());
+            assertEquals(Quantity.ofUnits(Long.MAX_VALUE), store.average());
+        }
+    }
+}
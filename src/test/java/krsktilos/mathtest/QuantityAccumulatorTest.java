@@ -0,0 +1,44 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityAccumulator;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class QuantityAccumulatorTest {
+
+    @Test
+    public void accumulateTest() {
+        Random random = new Random(5);
+        QuantityAccumulator accumulator = new QuantityAccumulator();
+        Quantity total = Quantity.ZERO;
+        for (int i = 0; i < 10000; i++) {
+            Quantity quantity = new Quantity(BigDecimal.valueOf(random.nextInt(10000000) - 1000000, 3));
+            Quantity factor = new Quantity(BigDecimal.valueOf(random.nextInt(100000), 3));
+            if (i % 3 == 0) {
+                accumulator.subtract(quantity);
+                total = total.subtract(quantity);
+            } else {
+                accumulator.add(quantity).addProduct(quantity, factor);
+                total = total.add(quantity).add(quantity.multiply(factor));
+            }
+        }
+        assertEquals(total, accumulator.toQuantity());
+    }
+
+    @Test
+    public void resetTest() {
+        QuantityAccumulator accumulator = new QuantityAccumulator();
+        accumulator.add(new Quantity(1.5)).add(new QuantityAccumulator().add(Quantity.ONE));
+        assertEquals(new Quantity(2.5), accumulator.toQuantity());
+        assertTrue(accumulator.reset().isZero());
+        assertEquals(Quantity.ZERO, accumulator.toQuantity());
+    }
+}
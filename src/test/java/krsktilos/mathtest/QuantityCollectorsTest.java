@@ -0,0 +1,48 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityCollectors;
+import krsktilos.math.QuantitySummaryStatistics;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class QuantityCollectorsTest {
+
+    @Test
+    public void summingTest() {
+        Random random = new Random(19);
+        List<Quantity> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(new Quantity(BigDecimal.valueOf(random.nextInt(2000000) - 1000000, 3)));
+        }
+        Quantity expected = values.stream().reduce(Quantity.ZERO, Quantity::add);
+
+        assertEquals(expected, values.parallelStream().collect(QuantityCollectors.summing()));
+        assertEquals(expected, values.parallelStream().collect(QuantityCollectors.summing(q -> q)));
+    }
+
+    @Test
+    public void summarizingTest() {
+        QuantitySummaryStatistics statistics = Stream.of(new Quantity(1.5), new Quantity(-0.25), Quantity.ONE)
+                .parallel()
+                .collect(QuantityCollectors.summarizing());
+        assertEquals(3, statistics.getCount());
+        assertEquals(new Quantity(2.25), statistics.getSum());
+        assertEquals(new Quantity(-0.25), statistics.getMin());
+        assertEquals(new Quantity(1.5), statistics.getMax());
+        assertEquals(new Quantity(0.75), statistics.getAverage());
+
+        assertEquals(new Quantity(0.75), Stream.of(new Quantity(1.5), Quantity.ZERO)
+                .collect(QuantityCollectors.averaging()));
+    }
+}
@@ -0,0 +1,41 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantitySort;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class QuantitySortTest {
+
+    @Test
+    public void sortTest() {
+        assertTrue(new Quantity("0.001").compareTo(Quantity.ZERO) > 0);
+        Random random = new Random(1);
+        Quantity[] values = new Quantity[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new Quantity(BigDecimal.valueOf(random.nextInt(100000) - 50000, 3));
+        }
+        Quantity[] expected = values.clone();
+        Arrays.sort(expected);
+        Quantity[] sorted = values.clone();
+        QuantitySort.sort(sorted);
+        assertArrayEquals(expected, sorted);
+        List<Quantity> list = Arrays.asList(values.clone());
+        Collections.reverse(list);
+        QuantitySort.sort(list);
+        assertEquals(Arrays.asList(expected), list);
+        assertEquals(expected[9999], QuantitySort.top(values, 1)[0]);
+        assertEquals(expected[0], QuantitySort.bottom(values, 1)[0]);
+        assertEquals(expected[4999], QuantitySort.median(values));
+    }
+}
@@ -1,14 +1,23 @@
 package krsktilos.mathtest;
 
+import krsktilos.math.CacheStatistics;
 import krsktilos.math.Money;
 import krsktilos.math.Quantity;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -50,6 +59,11 @@ public class QuantityTest {
         System.out.println(quantity);
         assertEquals("100056.000", quantity.toString());
         assertEquals(new Quantity(100056L), quantity);
+
+        quantity = Quantity.ofUnits(1005);
+        System.out.println(quantity);
+        assertEquals("1.005", quantity.toString());
+        assertEquals(new Quantity(1.005), quantity);
     }
 
     @Test
@@ -58,6 +72,13 @@ public class QuantityTest {
         assertEquals(new Quantity(15.5555), quantity);
         assertEquals(new Quantity(15.556), quantity);
         assertEquals(new Quantity(15.5559), quantity);
+
+        assertEquals(new Quantity(15.556).hashCode(), quantity.hashCode());
+        assertEquals(new Quantity(new BigDecimal("15.5500000")).hashCode(), new Quantity(15.55).hashCode());
+        Quantity big = new Quantity("9223372036854775.807").add(new Quantity(1));
+        assertEquals(big, new Quantity(big.getValue()));
+        assertEquals(big.hashCode(), new Quantity(big.getValue()).hashCode());
+        assertNotEquals(big, quantity);
     }
 
     @Test
@@ -106,6 +127,36 @@ public class QuantityTest {
         assertEquals(new Quantity(7.037), result);
     }
 
+    @Test
+    public void arithmeticAgreementTest() {
+        Random random = new Random(1);
+        BigDecimal[] edges = {BigDecimal.valueOf(Long.MAX_VALUE, 3), BigDecimal.valueOf(Long.MIN_VALUE + 1, 3),
+                new BigDecimal("1e30"), new BigDecimal("-0.005"), BigDecimal.ZERO};
+        for (int i = 0; i < 20000; i++) {
+            BigDecimal a = i < edges.length ? edges[i] : BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 3);
+            BigDecimal b = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 3);
+            BigDecimal c = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 2);
+            Quantity x = new Quantity(a);
+            Quantity y = new Quantity(b);
+            Money z = new Money(c);
+            assertEquals(new Quantity(x.getValue().add(y.getValue())), x.add(y));
+            assertEquals(new Quantity(x.getValue().add(z.getValue())), x.add(z));
+            assertEquals(new Quantity(x.getValue().subtract(y.getValue())), x.subtract(y));
+            assertEquals(new Quantity(x.getValue().subtract(z.getValue())), x.subtract(z));
+            assertEquals(new Quantity(x.getValue().multiply(y.getValue())), x.multiply(y));
+            assertEquals(new Quantity(x.getValue().multiply(z.getValue())), x.multiply(z));
+            if (y.isNotZero()) {
+                assertEquals(new Quantity(x.getValue().divide(y.getValue(), 3, RoundingMode.HALF_UP)), x.divide(y));
+            }
+            if (z.isNotZero()) {
+                assertEquals(new Quantity(x.getValue().divide(z.getValue(), 3, RoundingMode.HALF_UP)), x.divide(z));
+            }
+            assertEquals(x.getValue().compareTo(y.getValue()) > 0, x.gt(y));
+            assertEquals(x.getValue().compareTo(y.getValue()) == 0, x.eq(y));
+            assertEquals(new Quantity(x.getValue().intValue()), x.getInt());
+        }
+    }
+
     @Test
     public void logicalOperationsTest() {
         Quantity quantity = new Quantity(1.500);
@@ -156,6 +207,114 @@ public class QuantityTest {
         assertEquals(new Quantity(0), quantity.getInt());
     }
 
+    @Test
+    public void cacheTest() {
+        CacheStatistics before = Quantity.cacheStatistics();
+        assertSame(Quantity.of(5), Quantity.of(5));
+        assertSame(Quantity.ofUnits(1), Quantity.of("0.001"));
+        assertSame(Quantity.of(2.5), Quantity.of(new BigDecimal("2.5")));
+        assertEquals(new Quantity(5), Quantity.of(5));
+        assertEquals(new Quantity("1000000.001"), Quantity.of("1000000.001"));
+        assertEquals(new Quantity(Long.MAX_VALUE), Quantity.of(Long.MAX_VALUE));
+
+        CacheStatistics after = Quantity.cacheStatistics();
+        System.out.println(after);
+        assertTrue(after.getHits() >= before.getHits() + 3);
+        assertTrue(after.getMisses() > before.getMisses());
+        assertTrue(after.getHitRate() > 0);
+    }
+
+    @Test
+    public void parseTest() {
+        String[] texts = {"0", "-0.0049", "-0.005", "+.5", "1.", "12345.6789", "-999.9995",
+                "1E+3", "2.5e-1", "92233720368547758.07", "-92233720368547758079.99", "00012.30"};
+        for (String text : texts) {
+            assertEquals(text, new Quantity(text).toString(), Quantity.parse(text).toString());
+        }
+
+        Random random = new Random(23);
+        for (int i = 0; i < 10000; i++) {
+            String text = BigDecimal.valueOf(random.nextLong() % 10000000000000L, random.nextInt(6)).toPlainString();
+            Quantity expected = new Quantity(text);
+            assertEquals(expected, Quantity.parse(text));
+            assertEquals(expected.getValue().unscaledValue().longValue(), Quantity.parseUnits(text, 0, text.length()));
+
+            String line = "x;" + text + ";y";
+            assertEquals(expected, Quantity.parse(line, 2, line.length() - 2));
+            byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(expected, Quantity.parse(bytes, 2, text.length()));
+            assertEquals(expected.getValue().unscaledValue().longValue(), Quantity.parseUnits(bytes, 2, text.length()));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseInvalidTest() {
+        Quantity.parse("12.3.4");
+    }
+
+    @Test
+    public void formatTest() {
+        Random random = new Random(29);
+        StringBuilder builder = new StringBuilder();
+        char[] chars = new char[64];
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (int i = 0; i < 10000; i++) {
+            Quantity quantity = Quantity.ofUnits(i < 100 ? i - 50 : random.nextLong());
+            String expected = quantity.toString();
+
+            builder.setLength(0);
+            assertEquals(expected, quantity.formatTo(builder.append('>')).substring(1));
+
+            int length = quantity.formatTo(chars, 3);
+            assertEquals(expected, new String(chars, 3, length));
+
+            buffer.clear();
+            quantity.formatTo(buffer);
+            assertEquals(expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+        }
+        Quantity big = Quantity.ofUnits(Long.MAX_VALUE).add(Quantity.ofUnits(Long.MAX_VALUE));
+        assertEquals(big.toString(), big.formatTo(new StringBuilder()).toString());
+    }
+
+    @Test
+    public void codecTest() throws Exception {
+        Quantity[] values = {Quantity.ZERO, Quantity.ofUnits(1), Quantity.ofUnits(-64), Quantity.ofUnits(123456),
+                Quantity.ofUnits(Long.MAX_VALUE), Quantity.ofUnits(Long.MIN_VALUE + 1),
+                Quantity.ofUnits(Long.MAX_VALUE).add(Quantity.ofUnits(Long.MAX_VALUE)).subtract(Quantity.ofUnits(Long.MAX_VALUE).multiply(new Quantity(-5)))};
+
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        DataOutputStream outputStream = new DataOutputStream(byteOutputStream);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        for (Quantity value : values) {
+            value.writeTo(outputStream);
+            value.writeTo(buffer);
+        }
+        outputStream.flush();
+        assertArrayEquals(byteOutputStream.toByteArray(), Arrays.copyOf(buffer.array(), buffer.position()));
+
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+        buffer.flip();
+        for (Quantity value : values) {
+            assertEquals(value, Quantity.readFrom(inputStream));
+            assertEquals(value, Quantity.readFrom(buffer));
+        }
+        assertEquals(-1, inputStream.read());
+        assertFalse(buffer.hasRemaining());
+
+        buffer.clear();
+        Quantity.ofUnits(63).writeTo(buffer);
+        assertEquals(2, buffer.position());
+        Quantity.ofUnits(64).writeTo(buffer);
+        assertEquals(5, buffer.position());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void codecTypeTest() throws Exception {
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        new Money(1).writeTo(new DataOutputStream(byteOutputStream));
+        Quantity.readFrom(new DataInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray())));
+    }
+
     @Test
     public void serializationTest() throws Exception {
         Quantity quantity = new Quantity(0.997);
@@ -166,6 +325,8 @@ public class QuantityTest {
         ObjectOutputStream outputStream = new ObjectOutputStream(byteOutputStream);
         outputStream.writeObject(quantity);
         outputStream.flush();
+        System.out.println(byteOutputStream.size());
+        assertTrue(byteOutputStream.size() < 64);
 
         ObjectInputStream inputStream = new ObjectInputStream(
                 new ByteArrayInputStream(byteOutputStream.toByteArray())
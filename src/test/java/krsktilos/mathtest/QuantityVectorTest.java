@@ -0,0 +1,68 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class QuantityVectorTest {
+
+    @Test
+    public void conversionTest() {
+        QuantityVector vector = QuantityVector.of(new Quantity(1.5), new Quantity("0.0015"));
+        assertEquals(2, vector.size());
+        assertEquals(1500, vector.getUnits(0));
+        assertEquals(new Quantity(0.002), vector.get(1));
+        assertEquals(vector, QuantityVector.of(vector.toList()));
+        assertEquals("[1.500, 0.002]", vector.toString());
+    }
+
+    @Test
+    public void arithmeticTest() {
+        Random random = new Random(11);
+        int size = 1000;
+        Quantity[] quantity = new Quantity[size];
+        Quantity[] other = new Quantity[size];
+        Money[] money = new Money[size];
+        for (int i = 0; i < size; i++) {
+            quantity[i] = new Quantity(BigDecimal.valueOf(random.nextInt(100000000) - 50000000, 3));
+            other[i] = new Quantity(BigDecimal.valueOf(random.nextInt(1000000) + 1, 3));
+            money[i] = new Money(BigDecimal.valueOf(random.nextInt(1000000) + 1, 2));
+        }
+        QuantityVector vector = QuantityVector.of(quantity);
+        QuantityVector otherVector = QuantityVector.of(other);
+        MoneyVector moneyVector = MoneyVector.of(money);
+
+        QuantityVector sum = vector.add(otherVector);
+        QuantityVector difference = vector.subtract(otherVector);
+        QuantityVector product = vector.multiply(otherVector);
+        QuantityVector moneyProduct = vector.multiply(moneyVector);
+        QuantityVector ratio = vector.divide(otherVector);
+        QuantityVector moneyRatio = vector.divide(moneyVector);
+        for (int i = 0; i < size; i++) {
+            assertEquals(quantity[i].add(other[i]), sum.get(i));
+            assertEquals(quantity[i].subtract(other[i]), difference.get(i));
+            assertEquals(quantity[i].multiply(other[i]), product.get(i));
+            assertEquals(quantity[i].multiply(money[i]), moneyProduct.get(i));
+            assertEquals(quantity[i].divide(other[i]), ratio.get(i));
+            assertEquals(quantity[i].divide(money[i]), moneyRatio.get(i));
+        }
+    }
+
+    @Test
+    public void reductionTest() {
+        QuantityVector vector = QuantityVector.of(new Quantity(0.5), new Quantity(-1.25), new Quantity(3));
+        assertEquals(new Quantity(2.25), vector.sum());
+        assertEquals(new Quantity(-1.25), vector.min());
+        assertEquals(new Quantity(3), vector.max());
+    }
+}
@@ -0,0 +1,138 @@
+package krsktilos.mathtest;
+
+import krsktilos.math.Money;
+import krsktilos.math.MoneyVector;
+import krsktilos.math.Quantity;
+import krsktilos.math.QuantityVector;
+import krsktilos.math.RationalQuantity;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author krsktilos
+ */
+public class RationalQuantityTest {
+
+    private static BigDecimal exact(RationalQuantity value) {
+        return new BigDecimal(value.getNumerator()).divide(new BigDecimal(value.getDenominator()), 40, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    public void normalisationTest() {
+        assertEquals("2/3", RationalQuantity.of(4, 6).toString());
+        assertEquals("-2/3", RationalQuantity.of(4, -6).toString());
+        assertEquals("5", RationalQuantity.of(-10, -2).toString());
+        assertEquals(RationalQuantity.ZERO, RationalQuantity.of(0, -7));
+        assertEquals(RationalQuantity.of(1, 4), RationalQuantity.of(new Quantity("0.25")));
+        assertEquals(RationalQuantity.of(101, 100), RationalQuantity.of(new Money("1.01")));
+        assertEquals(RationalQuantity.of(1000), RationalQuantity.of(new BigDecimal("1E3")));
+        assertEquals(RationalQuantity.of(3, 8).hashCode(), RationalQuantity.of(6, 16).hashCode());
+        try {
+            RationalQuantity.of(1, 0);
+            fail();
+        } catch (ArithmeticException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void conversionChainTest() {
+        RationalQuantity perPack = RationalQuantity.of(1, 12);
+        RationalQuantity gramsPerKg = RationalQuantity.of(1000);
+        RationalQuantity factor = RationalQuantity.ONE.divide(gramsPerKg).multiply(perPack).divide(RationalQuantity.of(3)).multiply(36000);
+        assertEquals(RationalQuantity.ONE, factor);
+        assertEquals(new Quantity("7.5"), factor.applyTo(new Quantity("7.5")));
+
+        Quantity rounded = new Quantity(1).divide(new Quantity(3)).multiply(new Quantity(3));
+        assertEquals(new Quantity("0.999"), rounded);
+        RationalQuantity third = RationalQuantity.of(1, 3);
+        assertEquals(Quantity.ONE, third.multiply(3).toQuantity());
+        assertEquals(new Quantity("0.333"), third.toQuantity());
+        assertEquals(new Money("0.33"), third.toMoney());
+        assertEquals(new Money("3.33"), third.applyTo(new Money(10)));
+        assertEquals(new Money("-0.67"), third.negate().multiply(2).toMoney());
+        assertEquals(new BigDecimal("0.3334"), third.toBigDecimal(4, RoundingMode.UP));
+    }
+
+    @Test
+    public void arithmeticTest() {
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            RationalQuantity a = RationalQuantity.of(random.nextInt(2000001) - 1000000, random.nextInt(100000) + 1);
+            RationalQuantity b = RationalQuantity.of(random.nextInt(2000001) - 1000000, random.nextInt(100000) + 1);
+            BigDecimal ea = exact(a);
+            BigDecimal eb = exact(b);
+            assertEquals(0, exact(a.add(b)).subtract(ea.add(eb)).setScale(30, RoundingMode.HALF_UP).signum());
+            assertEquals(0, exact(a.subtract(b)).subtract(ea.subtract(eb)).setScale(30, RoundingMode.HALF_UP).signum());
+            assertEquals(0, exact(a.multiply(b)).subtract(ea.multiply(eb)).setScale(30, RoundingMode.HALF_UP).signum());
+            assertEquals(Integer.signum(ea.compareTo(eb)), Integer.signum(a.compareTo(b)));
+            if (!b.isZero()) {
+                assertEquals(a, a.divide(b).multiply(b));
+                Quantity quantity = new Quantity(BigDecimal.valueOf(random.nextInt(), 3));
+                BigDecimal expected = quantity.getValue().multiply(new BigDecimal(b.getNumerator()))
+                        .divide(new BigDecimal(b.getDenominator()), 3, RoundingMode.HALF_UP);
+                assertEquals(new Quantity(expected), b.applyTo(quantity));
+            }
+        }
+    }
+
+    @Test
+    public void overflowTest() {
+        RationalQuantity big = RationalQuantity.of(Long.MAX_VALUE, 3);
+        RationalQuantity square = big.multiply(big);
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE).pow(2), square.getNumerator());
+        assertEquals(BigInteger.valueOf(9), square.getDenominator());
+        assertEquals(big, square.divide(big));
+        assertEquals(RationalQuantity.of(Long.MAX_VALUE - 1, 3), big.add(big).subtract(big).subtract(RationalQuantity.of(1, 3)));
+        assertTrue(square.compareTo(big) > 0);
+        RationalQuantity product = RationalQuantity.of(4000000000000000000L).add(RationalQuantity.of(1, 3));
+        assertEquals(RationalQuantity.of(new BigInteger("12000000000000000001"), BigInteger.valueOf(3)), product);
+        assertEquals(RationalQuantity.of(4000000000000000000L),
+                RationalQuantity.of(1, 3).subtract(RationalQuantity.of(-4000000000000000000L)).subtract(RationalQuantity.of(1, 3)));
+        assertEquals(RationalQuantity.of(Long.MIN_VALUE, 1).negate().getNumerator(), BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+        RationalQuantity tiny = RationalQuantity.of(1, Long.MAX_VALUE).divide(RationalQuantity.of(Long.MAX_VALUE));
+        assertEquals(Quantity.ZERO, tiny.toQuantity());
+        assertEquals(new Money(BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(Long.MAX_VALUE))
+                .divide(BigDecimal.valueOf(9), 2, RoundingMode.HALF_UP)), square.toMoney());
+        assertEquals(new Money("1e18"), RationalQuantity.of(1000000000).applyTo(new Money(1000000000)));
+    }
+
+    @Test
+    public void bulkTest() {
+        RationalQuantity kgToLb = RationalQuantity.of(100000000, 45359237);
+        Random random = new Random(2);
+        Quantity[] quantities = new Quantity[1000];
+        long[] units = new long[quantities.length];
+        for (int i = 0; i < quantities.length; i++) {
+            units[i] = random.nextInt(10000000) - 5000000;
+            quantities[i] = Quantity.ofUnits(units[i]);
+        }
+        Quantity[] converted = kgToLb.applyTo(quantities);
+        QuantityVector vector = kgToLb.applyTo(QuantityVector.of(quantities));
+        kgToLb.applyToUnits(units, 0, units.length);
+        for (int i = 0; i < quantities.length; i++) {
+            assertEquals(kgToLb.applyTo(quantities[i]), converted[i]);
+            assertEquals(converted[i], vector.get(i));
+            assertEquals(converted[i], Quantity.ofUnits(units[i]));
+        }
+        assertEquals(new Money("2.20"), kgToLb.applyTo(MoneyVector.of(Money.ofUnits(100))).get(0));
+        assertEquals(new Money("2.20"), kgToLb.applyTo(new Money[]{new Money(1)})[0]);
+
+        long[] large = {Long.MAX_VALUE / 2};
+        RationalQuantity.of(3, 2).applyToUnits(large, 0, 0);
+        RationalQuantity.of(2, 3).applyToUnits(large, 0, 1);
+        assertEquals(Long.MAX_VALUE / 3, large[0]);
+        try {
+            RationalQuantity.of(3).applyToUnits(new long[]{Long.MAX_VALUE / 2}, 0, 1);
+            fail();
+        } catch (ArithmeticException e) {
+            // ok
+        }
+    }
+}